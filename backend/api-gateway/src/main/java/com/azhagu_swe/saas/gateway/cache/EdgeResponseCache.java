@@ -0,0 +1,123 @@
+package com.azhagu_swe.saas.gateway.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Sinks;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory store behind {@code ResponseCacheGatewayFilterFactory}. Holds fully
+ * buffered upstream responses and tracks which keys currently have an upstream
+ * call in flight, so concurrent misses can wait for that call instead of issuing
+ * their own.
+ * <p>
+ * Keys start with the route id, which lets a write on a route purge just that
+ * route's entries. Every purge bumps a generation counter. A response that was
+ * fetched before a purge is not stored afterwards, so it cannot bring stale data back.
+ */
+@Component
+@Slf4j
+public class EdgeResponseCache {
+
+    public record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, long expiresAtNanos) {
+
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+
+    private final Map<String, CachedResponse> entries = new ConcurrentHashMap<>();
+    private final Map<String, Sinks.One<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final int maxEntries;
+
+    public EdgeResponseCache(@Value("${app.response-cache.max-entries:10000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @param variant The request headers that select a representation (Accept,
+     *                Accept-Encoding), so JSON, CBOR or gzip bodies are kept apart.
+     */
+    public static String key(String routeId, String pathAndQuery, String variant, String scope) {
+        return routeId + ' ' + pathAndQuery + ' ' + variant + ' ' + scope;
+    }
+
+    /**
+     * Returns the live entry for the key, or {@code null} if there is none or it expired.
+     */
+    public CachedResponse get(String key) {
+        CachedResponse cached = entries.get(key);
+        if (cached != null && cached.isExpired(System.nanoTime())) {
+            entries.remove(key, cached);
+            return null;
+        }
+        return cached;
+    }
+
+    /**
+     * Registers the caller as the one fetching this key. Returns {@code null} if it
+     * is now the leader, or the sink of the call already in flight.
+     */
+    public Sinks.One<CachedResponse> joinInFlight(String key, Sinks.One<CachedResponse> leader) {
+        return inFlight.putIfAbsent(key, leader);
+    }
+
+    public void leaveInFlight(String key, Sinks.One<CachedResponse> leader) {
+        inFlight.remove(key, leader);
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Stores the response unless the cache was purged after {@code fetchedAtGeneration}.
+     */
+    public boolean put(String key, CachedResponse response, long fetchedAtGeneration) {
+        if (entries.size() >= maxEntries) {
+            long now = System.nanoTime();
+            entries.values().removeIf(entry -> entry.isExpired(now));
+            if (entries.size() >= maxEntries) {
+                return false;
+            }
+        }
+        entries.put(key, response);
+        if (generation.get() != fetchedAtGeneration) {
+            entries.remove(key, response);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Drops every entry of one route.
+     */
+    public int invalidateRoute(String routeId) {
+        generation.incrementAndGet();
+        String prefix = routeId + ' ';
+        int before = entries.size();
+        entries.keySet().removeIf(key -> key.startsWith(prefix));
+        int removed = Math.max(before - entries.size(), 0);
+        log.debug("Purged {} cached responses of route {}", removed, routeId);
+        return removed;
+    }
+
+    public int invalidateAll() {
+        generation.incrementAndGet();
+        int removed = entries.size();
+        entries.clear();
+        log.info("Purged all {} cached responses", removed);
+        return removed;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,35 @@
+package com.azhagu_swe.saas.gateway.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code /actuator/responsecache}: GET reports the entry count, DELETE purges all
+ * entries or, with {@code ?route=<id>}, only those of one route.
+ */
+@Component
+@Endpoint(id = "responsecache")
+public class ResponseCacheEndpoint {
+
+    private final EdgeResponseCache cache;
+
+    public ResponseCacheEndpoint(EdgeResponseCache cache) {
+        this.cache = cache;
+    }
+
+    @ReadOperation
+    public Map<String, Object> info() {
+        return Map.of("entries", cache.size(), "generation", cache.generation());
+    }
+
+    @DeleteOperation
+    public Map<String, Object> purge(@Nullable String route) {
+        int removed = route != null ? cache.invalidateRoute(route) : cache.invalidateAll();
+        return Map.of("removed", removed);
+    }
+}
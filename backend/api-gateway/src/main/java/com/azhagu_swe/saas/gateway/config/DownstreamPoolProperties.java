@@ -0,0 +1,63 @@
+package com.azhagu_swe.saas.gateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Connection pool settings for gateway-to-service traffic, under {@code app.downstream}.
+ * Values under {@code services.<service-id>} override {@code defaults} for that service.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.downstream")
+public class DownstreamPoolProperties {
+
+    public enum Protocol {
+        HTTP11,
+        /** HTTP/2 over cleartext with prior knowledge; the service must accept it. */
+        H2C
+    }
+
+    private Pool defaults = new Pool();
+    private Map<String, Pool> services = new LinkedHashMap<>();
+
+    public Pool resolve(String serviceId) {
+        Pool override = services.get(serviceId);
+        return override == null ? defaults : override.withFallback(defaults);
+    }
+
+    @Getter
+    @Setter
+    public static class Pool {
+        private Protocol protocol;
+        private Integer maxConnections;
+        /** H2C only: streams per connection before another is opened; unset uses the server's limit. */
+        private Integer maxConcurrentStreams;
+        private Integer pendingAcquireMaxCount;
+        private Duration pendingAcquireTimeout;
+        private Duration maxIdleTime;
+        private Duration maxLifeTime;
+        private Duration evictInterval;
+
+        Pool withFallback(Pool fallback) {
+            Pool merged = new Pool();
+            merged.protocol = protocol != null ? protocol : fallback.protocol;
+            merged.maxConnections = maxConnections != null ? maxConnections : fallback.maxConnections;
+            merged.maxConcurrentStreams = maxConcurrentStreams != null
+                    ? maxConcurrentStreams : fallback.maxConcurrentStreams;
+            merged.pendingAcquireMaxCount = pendingAcquireMaxCount != null
+                    ? pendingAcquireMaxCount : fallback.pendingAcquireMaxCount;
+            merged.pendingAcquireTimeout = pendingAcquireTimeout != null
+                    ? pendingAcquireTimeout : fallback.pendingAcquireTimeout;
+            merged.maxIdleTime = maxIdleTime != null ? maxIdleTime : fallback.maxIdleTime;
+            merged.maxLifeTime = maxLifeTime != null ? maxLifeTime : fallback.maxLifeTime;
+            merged.evictInterval = evictInterval != null ? evictInterval : fallback.evictInterval;
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.azhagu_swe.saas.gateway.config;
+
+import com.azhagu_swe.saas.gateway.routing.DownstreamRoutingFilter;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Per-service connection pools for proxied traffic; see {@code DownstreamRoutingFilter}.
+ */
+@Configuration
+@EnableConfigurationProperties(DownstreamPoolProperties.class)
+public class DownstreamTransportConfig {
+
+    static final String ROUTING_FILTER_BEAN = "routingFilter";
+
+    /**
+     * Swaps the gateway's {@code routingFilter} bean for {@link DownstreamRoutingFilter}.
+     * The auto-configured bean has no {@code @ConditionalOnMissingBean}, and turning it
+     * off with {@code spring.cloud.gateway.global-filter.netty-routing.enabled=false}
+     * would also drop {@code NettyWriteResponseFilter}, which shares that condition.
+     * When netty routing is disabled there is nothing to replace.
+     */
+    @Bean
+    static BeanDefinitionRegistryPostProcessor downstreamRoutingFilterRegistrar() {
+        return new BeanDefinitionRegistryPostProcessor() {
+            @Override
+            public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) {
+                if (registry.containsBeanDefinition(ROUTING_FILTER_BEAN)) {
+                    registry.removeBeanDefinition(ROUTING_FILTER_BEAN);
+                    registry.registerBeanDefinition(ROUTING_FILTER_BEAN,
+                            new RootBeanDefinition(DownstreamRoutingFilter.class));
+                }
+            }
+
+            @Override
+            public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+            }
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package com.azhagu_swe.saas.gateway.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+
+/**
+ * Native-image hints for jjwt 0.11.x. The jjwt API module loads its implementation
+ * classes by name and discovers the JSON (de)serializer through
+ * {@link java.util.ServiceLoader}, none of which GraalVM can see statically.
+ */
+public class JjwtRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final List<String> REFLECTIVE_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParser",
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.DefaultJwsHeader",
+            "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+            "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+            "io.jsonwebtoken.impl.compression.DefaultCompressionCodecResolver",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (String type : REFLECTIVE_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+    }
+}
@@ -4,10 +4,12 @@ import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 
 @Configuration
+@ImportRuntimeHints(JjwtRuntimeHints.class)
 public class JwtConfig {
 
     @Value("${saas.app.jwtSecret}")
@@ -0,0 +1,14 @@
+package com.azhagu_swe.saas.gateway.config;
+
+import com.azhagu_swe.saas.gateway.loadbalancer.LatencyAwareLoadBalancerConfiguration;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Replaces the default round-robin balancer for every {@code lb://} route with the
+ * latency-aware one.
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+}
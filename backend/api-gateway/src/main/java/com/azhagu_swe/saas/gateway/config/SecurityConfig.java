@@ -1,16 +1,54 @@
 package com.azhagu_swe.saas.gateway.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.MapReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers;
 import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import reactor.core.publisher.Mono;
 
 @Configuration
 @EnableWebFluxSecurity
 public class SecurityConfig {
 
+    /**
+     * Actuator endpoints other than health and info (e.g. the response cache purge)
+     * need HTTP Basic credentials of the operator account. Without
+     * {@code app.actuator.password} no credentials are accepted at all.
+     * The password takes an encoder prefix, e.g. {@code {bcrypt}$2a$10$...}.
+     */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public SecurityWebFilterChain actuatorSecurityFilterChain(ServerHttpSecurity http,
+            @Value("${app.actuator.username:actuator}") String username,
+            @Value("${app.actuator.password:}") String password) {
+        ReactiveUserDetailsService operators = password.isBlank()
+                ? name -> Mono.empty()
+                : new MapReactiveUserDetailsService(User.withUsername(username)
+                        .password(password)
+                        .roles("ACTUATOR")
+                        .build());
+        http
+            .securityMatcher(ServerWebExchangeMatchers.pathMatchers("/actuator/**"))
+            .csrf(ServerHttpSecurity.CsrfSpec::disable)
+            .authorizeExchange(exchange -> exchange
+                    .pathMatchers("/actuator/health/**", "/actuator/info").permitAll()
+                    .anyExchange().hasRole("ACTUATOR"))
+            .httpBasic(basic -> basic.authenticationManager(
+                    new UserDetailsRepositoryReactiveAuthenticationManager(operators)));
+
+        return http.build();
+    }
+
     @Bean
     public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity http, CorsConfigurationSource corsConfigurationSource) {
         http
@@ -22,4 +60,4 @@ public class SecurityConfig {
 
         return http.build();
     }
-}
\ No newline at end of file
+}
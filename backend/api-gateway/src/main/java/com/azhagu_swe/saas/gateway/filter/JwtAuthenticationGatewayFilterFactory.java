@@ -1,8 +1,14 @@
 package com.azhagu_swe.saas.gateway.filter;
 
+import com.azhagu_swe.saas.gateway.util.InternalIdentitySigner;
 import com.azhagu_swe.saas.gateway.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
@@ -18,16 +24,45 @@ import java.util.function.Predicate;
 @Slf4j
 public class JwtAuthenticationGatewayFilterFactory extends AbstractGatewayFilterFactory<JwtAuthenticationGatewayFilterFactory.Config> {
 
+    /**
+     * Exchange attribute holding the authorities of a validated token. Unlike the
+     * X-User-Roles header it can never be supplied by the client.
+     */
+    public static final String AUTHORITIES_ATTR = JwtAuthenticationGatewayFilterFactory.class.getName() + ".authorities";
+
+    /**
+     * Exchange attribute holding the tenant of a validated token.
+     */
+    public static final String TENANT_ATTR = JwtAuthenticationGatewayFilterFactory.class.getName() + ".tenant";
+
+    /**
+     * Ahead of {@link ResponseCacheGatewayFilterFactory#ORDER}, so a request is
+     * authenticated, and its authorities known, before the cache keys or answers it.
+     */
+    public static final int ORDER = ResponseCacheGatewayFilterFactory.ORDER - 1;
+
+    private static final String INTROSPECT_PATH = "/v1/api/auth/introspect";
+
+    // Tenant header for downstream services; on authenticated requests the token's claim replaces the client's value
+    private static final String TENANT_HEADER = "X-Tenant-ID";
+
+    private static final String JWT_OBSERVATION_NAME = "gateway.jwt.authentication";
+
     private final JwtUtil jwtUtil;
+    private final InternalIdentitySigner identitySigner;
+    private final ObservationRegistry observationRegistry;
 
-    public JwtAuthenticationGatewayFilterFactory(JwtUtil jwtUtil) {
+    public JwtAuthenticationGatewayFilterFactory(JwtUtil jwtUtil, InternalIdentitySigner identitySigner,
+                                                 ObservationRegistry observationRegistry) {
         super(Config.class);
         this.jwtUtil = jwtUtil;
+        this.identitySigner = identitySigner;
+        this.observationRegistry = observationRegistry;
     }
 
     @Override
     public GatewayFilter apply(Config config) {
-        return (exchange, chain) -> {
+        return new OrderedGatewayFilter((exchange, chain) -> {
             ServerHttpRequest request = exchange.getRequest();
             log.debug("Applying JWT Authentication filter to request: {}", request.getURI());
 
@@ -37,8 +72,9 @@ public class JwtAuthenticationGatewayFilterFactory extends AbstractGatewayFilter
                 "/v3/api-docs"
             );
 
-            Predicate<ServerHttpRequest> isSecured = r -> publicApiEndpoints.stream()
-                    .noneMatch(uri -> r.getURI().getPath().startsWith(uri));
+            // Introspection sits under /auth but is for services holding PERMISSION_SYSTEM_TOKEN_INTROSPECT
+            Predicate<ServerHttpRequest> isSecured = r -> r.getURI().getPath().startsWith(INTROSPECT_PATH)
+                    || publicApiEndpoints.stream().noneMatch(uri -> r.getURI().getPath().startsWith(uri));
 
             if (isSecured.test(request)) {
                 if (!isAuthHeaderPresent(request)) {
@@ -50,33 +86,59 @@ public class JwtAuthenticationGatewayFilterFactory extends AbstractGatewayFilter
                     return onError(exchange, "Authorization header format must be 'Bearer <token>'", HttpStatus.UNAUTHORIZED);
                 }
 
-                try {
-                    // 1. Validate the token
-                    jwtUtil.validateToken(token);
-
-                    // 2. Extract claims for header enrichment
-                    String userId = jwtUtil.getUserIdFromToken(token);
-                    List<String> roles = jwtUtil.getRolesFromToken(token);
-                    log.debug("Authenticated User ID: {}, Roles: {}", userId, roles);
-
-                    // 3. Add user info to request headers for downstream services
-                    ServerHttpRequest modifiedRequest = exchange.getRequest().mutate()
-                            .header("X-User-Id", userId)
-                            .header("X-User-Roles", String.join(",", roles))
-                            .build();
-
-                    // 4. Forward the modified request
+                // The JWT work gets its own span under the server request span, so a slow
+                // sign-in can be told apart from time spent in routing or downstream.
+                return Mono.deferContextual(contextView -> {
+                    Observation parent = contextView.getOrDefault(ObservationThreadLocalAccessor.KEY, null);
+                    Observation jwtObservation = Observation.createNotStarted(JWT_OBSERVATION_NAME, observationRegistry)
+                            .contextualName("jwt authentication")
+                            .parentObservation(parent);
+                    ServerHttpRequest modifiedRequest;
+                    try {
+                        modifiedRequest = jwtObservation.observe(() -> authenticate(exchange, token));
+                    } catch (Exception e) {
+                        log.error("JWT Authentication Error: {}", e.getMessage());
+                        return onError(exchange, "Unauthorized", HttpStatus.UNAUTHORIZED);
+                    }
+
+                    // 3. Forward the modified request
                     return chain.filter(exchange.mutate().request(modifiedRequest).build());
-
-                } catch (Exception e) {
-                    log.error("JWT Authentication Error: {}", e.getMessage());
-                    return onError(exchange, "Unauthorized", HttpStatus.UNAUTHORIZED);
-                }
+                });
             }
             
-            // If the endpoint is public, pass through without checks
+            // If the endpoint is public, pass through without checks, but never let a
+            // client-supplied identity header reach downstream services.
+            if (request.getHeaders().containsKey(InternalIdentitySigner.HEADER_NAME)) {
+                ServerHttpRequest strippedRequest = request.mutate()
+                        .headers(headers -> headers.remove(InternalIdentitySigner.HEADER_NAME))
+                        .build();
+                return chain.filter(exchange.mutate().request(strippedRequest).build());
+            }
             return chain.filter(exchange);
-        };
+        }, ORDER);
+    }
+
+    private ServerHttpRequest authenticate(ServerWebExchange exchange, String token) {
+        // 1. Validate the token and extract claims for header enrichment in one parse
+        Claims claims = jwtUtil.getAllClaimsFromToken(token);
+        String userId = jwtUtil.getUserIdFromClaims(claims);
+        List<String> roles = jwtUtil.getRolesFromClaims(claims);
+        String tenantId = jwtUtil.getTenantIdFromClaims(claims);
+        log.debug("Authenticated User ID: {}, Tenant: {}, Roles: {}", userId, tenantId, roles);
+        exchange.getAttributes().put(AUTHORITIES_ATTR, roles);
+        exchange.getAttributes().put(TENANT_ATTR, tenantId);
+
+        // 2. Add user info to request headers for downstream services. The signed
+        // identity header lets trusted services skip re-parsing the JWT.
+        ServerHttpRequest.Builder requestBuilder = exchange.getRequest().mutate()
+                .headers(headers -> headers.remove(InternalIdentitySigner.HEADER_NAME))
+                .headers(headers -> headers.set(TENANT_HEADER, tenantId))
+                .header("X-User-Id", userId)
+                .header("X-User-Roles", String.join(",", roles));
+        identitySigner.sign(userId, claims.getSubject(), tenantId, roles, claims.getIssuedAt(),
+                        claims.getExpiration())
+                .ifPresent(identity -> requestBuilder.header(InternalIdentitySigner.HEADER_NAME, identity));
+        return requestBuilder.build();
     }
 
     private boolean isAuthHeaderPresent(ServerHttpRequest request) {
@@ -0,0 +1,288 @@
+package com.azhagu_swe.saas.gateway.filter;
+
+import com.azhagu_swe.saas.gateway.cache.EdgeResponseCache;
+import com.azhagu_swe.saas.gateway.cache.EdgeResponseCache.CachedResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Caches successful GET responses of a route at the edge, e.g.
+ * <pre>
+ * filters:
+ *   - JwtAuthentication
+ *   - ResponseCache=60s
+ * </pre>
+ * Entries are keyed on route, path, query, the {@code Accept} and
+ * {@code Accept-Encoding} headers and the caller's tenant and authorities, so users
+ * of different tenants or with different permissions never share a response, and
+ * a CBOR or compressed body is never replayed to a client that asked for plain JSON.
+ * The filter must come after {@code JwtAuthentication}, which validates the token
+ * and supplies the authorities; both are ordered (see {@link #ORDER}), so this holds
+ * whatever their position in the route definition.
+ * <p>
+ * A cached response carrying an ETag answers a matching {@code If-None-Match}
+ * with {@code 304}. The request that fills the cache goes upstream without its
+ * validators, so a client's conditional request cannot turn the fill into a 304.
+ * <p>
+ * Concurrent misses for one key are coalesced: the first request goes upstream and
+ * the others wait for its response. A successful non-GET request on the route purges
+ * the route's entries; {@code /actuator/responsecache} purges on demand.
+ */
+@Component
+@Slf4j
+public class ResponseCacheGatewayFilterFactory extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    public static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    /**
+     * Just outside {@link NettyWriteResponseFilter}, which writes the proxied body to
+     * whatever response it is handed: an unordered route filter would run inside it and
+     * never see the body. {@code JwtAuthentication} is ordered before this.
+     */
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+
+    // Only representation headers are replayed; CORS and hop-by-hop headers belong to each exchange
+    private static final List<String> REPLAYED_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.CONTENT_LANGUAGE,
+            HttpHeaders.CONTENT_ENCODING,
+            HttpHeaders.ETAG,
+            HttpHeaders.LAST_MODIFIED);
+
+    private final EdgeResponseCache cache;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+
+    public ResponseCacheGatewayFilterFactory(EdgeResponseCache cache, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.cache = cache;
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+        this.coalesced = counter(meterRegistry, "coalesced");
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("ttl", "purgeOnWrite");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+            String routeId = route != null ? route.getId() : "";
+
+            if (request.getMethod() != HttpMethod.GET) {
+                if (!config.isPurgeOnWrite() || request.getMethod() == HttpMethod.HEAD
+                        || request.getMethod() == HttpMethod.OPTIONS) {
+                    return chain.filter(exchange);
+                }
+                return chain.filter(exchange).doOnSuccess(done -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if (status != null && status.is2xxSuccessful()) {
+                        cache.invalidateRoute(routeId);
+                    }
+                });
+            }
+
+            String key = EdgeResponseCache.key(routeId, pathAndQuery(request), variant(request), scope(exchange));
+            CachedResponse cached = cache.get(key);
+            if (cached != null) {
+                hits.increment();
+                return writeCached(exchange, cached, "HIT");
+            }
+
+            Sinks.One<CachedResponse> leader = Sinks.one();
+            Sinks.One<CachedResponse> inFlight = cache.joinInFlight(key, leader);
+            if (inFlight != null) {
+                coalesced.increment();
+                // Wait for the leader; if its response was not cacheable, go upstream ourselves
+                return inFlight.asMono()
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .flatMap(result -> result
+                                .map(response -> writeCached(exchange, response, "COALESCED"))
+                                .orElseGet(() -> chain.filter(exchange)));
+            }
+
+            misses.increment();
+            return fetch(exchange, chain, key, config.getTtl(), leader);
+        }, ORDER);
+    }
+
+    private Mono<Void> fetch(ServerWebExchange exchange, GatewayFilterChain chain, String key, Duration ttl,
+                             Sinks.One<CachedResponse> leader) {
+        long generation = cache.generation();
+        AtomicReference<CachedResponse> captured = new AtomicReference<>();
+        ServerHttpResponse original = exchange.getResponse();
+        original.getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+
+        List<String> ifNoneMatch = ifNoneMatch(exchange.getRequest());
+
+        ServerHttpResponseDecorator capturing = new ServerHttpResponseDecorator(original) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                HttpStatusCode status = getStatusCode();
+                if (status == null || status.value() != HttpStatus.OK.value() || isNoStore(getHeaders())
+                        || getHeaders().getVary().contains("*")) {
+                    return super.writeWith(body);
+                }
+                return DataBufferUtils.join(body)
+                        .defaultIfEmpty(bufferFactory().wrap(new byte[0]))
+                        .flatMap(joined -> {
+                            byte[] bytes = new byte[joined.readableByteCount()];
+                            joined.read(bytes);
+                            DataBufferUtils.release(joined);
+                            CachedResponse response = new CachedResponse(status, replayedHeaders(getHeaders()), bytes,
+                                    System.nanoTime() + ttl.toNanos());
+                            captured.set(response);
+                            cache.put(key, response, generation);
+                            if (isNotModified(ifNoneMatch, response)) {
+                                setStatusCode(HttpStatus.NOT_MODIFIED);
+                                getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+                                return super.setComplete();
+                            }
+                            return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                        });
+            }
+        };
+
+        // The fill must fetch the full body; the client's validators are checked against it above
+        ServerHttpRequest unconditional = exchange.getRequest().mutate()
+                .headers(headers -> {
+                    headers.remove(HttpHeaders.IF_NONE_MATCH);
+                    headers.remove(HttpHeaders.IF_MODIFIED_SINCE);
+                })
+                .build();
+        return chain.filter(exchange.mutate().request(unconditional).response(capturing).build())
+                .doFinally(signal -> {
+                    cache.leaveInFlight(key, leader);
+                    CachedResponse response = captured.get();
+                    if (response != null) {
+                        leader.tryEmitValue(response);
+                    } else {
+                        leader.tryEmitEmpty();
+                    }
+                });
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached, String cacheStatus) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().putAll(cached.headers());
+        response.getHeaders().set(CACHE_STATUS_HEADER, cacheStatus);
+        if (isNotModified(ifNoneMatch(exchange.getRequest()), cached)) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        response.setStatusCode(cached.status());
+        response.getHeaders().setContentLength(cached.body().length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cached.body())));
+    }
+
+    private static List<String> ifNoneMatch(ServerHttpRequest request) {
+        try {
+            return request.getHeaders().getIfNoneMatch();
+        } catch (IllegalArgumentException e) {
+            return List.of(); // Malformed validators are ignored, as if the header were absent
+        }
+    }
+
+    // Weak comparison, as RFC 9110 prescribes for If-None-Match
+    private static boolean isNotModified(List<String> ifNoneMatch, CachedResponse cached) {
+        String etag = cached.headers().getETag();
+        if (etag == null || ifNoneMatch.isEmpty()) {
+            return false;
+        }
+        String opaque = stripWeak(etag);
+        return ifNoneMatch.stream().anyMatch(candidate -> "*".equals(candidate) || stripWeak(candidate).equals(opaque));
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private static String pathAndQuery(ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        String path = request.getURI().getRawPath();
+        return query != null ? path + '?' + query : path;
+    }
+
+    private static String variant(ServerHttpRequest request) {
+        HttpHeaders headers = request.getHeaders();
+        return String.join(",", headers.getOrEmpty(HttpHeaders.ACCEPT)).replace(" ", "") + '|'
+                + String.join(",", headers.getOrEmpty(HttpHeaders.ACCEPT_ENCODING)).replace(" ", "");
+    }
+
+    private static String scope(ServerWebExchange exchange) {
+        Collection<String> authorities = exchange.getAttribute(JwtAuthenticationGatewayFilterFactory.AUTHORITIES_ATTR);
+        if (authorities == null) {
+            return "anonymous";
+        }
+        String tenantId = exchange.getAttribute(JwtAuthenticationGatewayFilterFactory.TENANT_ATTR);
+        return tenantId + "|" + authorities.stream().sorted().distinct().collect(Collectors.joining(","));
+    }
+
+    private static boolean isNoStore(HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        return cacheControl != null && cacheControl.contains("no-store");
+    }
+
+    private static HttpHeaders replayedHeaders(HttpHeaders source) {
+        HttpHeaders headers = new HttpHeaders();
+        for (String name : REPLAYED_HEADERS) {
+            List<String> values = source.get(name);
+            if (values != null) {
+                headers.put(name, List.copyOf(values));
+            }
+        }
+        return HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("gateway.response.cache")
+                .description("Edge response cache lookups")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @Getter
+    @Setter
+    public static class Config {
+        private Duration ttl = Duration.ofSeconds(60);
+        private boolean purgeOnWrite = true;
+    }
+}
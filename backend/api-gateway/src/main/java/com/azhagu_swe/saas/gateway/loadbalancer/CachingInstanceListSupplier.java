@@ -0,0 +1,39 @@
+package com.azhagu_swe.saas.gateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.loadbalancer.core.DelegatingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Serves the discovery result from memory for {@code ttl} instead of querying the
+ * discovery client on every request. Errors and empty results are not cached.
+ * <p>
+ * This does not depend on {@code spring.cloud.loadbalancer.cache.enabled}, so the
+ * list stays cached even when the shared config turns the global cache off.
+ */
+public class CachingInstanceListSupplier extends DelegatingServiceInstanceListSupplier {
+
+    private final Mono<List<ServiceInstance>> cached;
+
+    public CachingInstanceListSupplier(ServiceInstanceListSupplier delegate, Duration ttl) {
+        super(delegate);
+        this.cached = delegate.get().next()
+                .cache(instances -> ttl, error -> Duration.ZERO, () -> Duration.ZERO);
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get() {
+        return cached.flux();
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get(Request request) {
+        return get();
+    }
+}
@@ -0,0 +1,146 @@
+package com.azhagu_swe.saas.gateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps a peak-EWMA latency estimate and an outstanding request count for every
+ * instance of one service, fed by the load balancer lifecycle callbacks of the
+ * gateway's {@code lb://} routes.
+ * <p>
+ * A slower response than the current estimate replaces it outright, faster ones
+ * are blended in with a weight that decays with the time since the last sample.
+ * An instance stalled in a GC pause is therefore penalised immediately and only
+ * regains traffic gradually. Failed exchanges and 5xx responses count as at least
+ * {@code failurePenaltyNanos}.
+ */
+public class InstanceLatencyTracker
+        implements LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+    private final Map<String, InstanceStats> stats = new ConcurrentHashMap<>();
+    private final double decayNanos;
+    private final long failurePenaltyNanos;
+
+    public InstanceLatencyTracker(long decayTimeMs, long failurePenaltyMs) {
+        this.decayNanos = decayTimeMs * 1_000_000.0;
+        this.failurePenaltyNanos = failurePenaltyMs * 1_000_000L;
+    }
+
+    /**
+     * Load score of an instance: the latency estimate multiplied by the requests in
+     * flight plus one. Lower is better.
+     */
+    public double cost(ServiceInstance instance) {
+        return statsFor(instance).cost(System.nanoTime());
+    }
+
+    /**
+     * Drops state for instances that are no longer registered.
+     */
+    public void retain(Collection<ServiceInstance> instances) {
+        Set<String> live = instances.stream().map(InstanceLatencyTracker::key).collect(Collectors.toSet());
+        stats.keySet().retainAll(live);
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return RequestDataContext.class.isAssignableFrom(requestContextClass)
+                && ResponseData.class.isAssignableFrom(responseClass)
+                && ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<RequestDataContext> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+        if (request.getContext() != null) {
+            request.getContext().setRequestStartTime(System.nanoTime());
+        }
+        statsFor(lbResponse.getServer()).begin();
+    }
+
+    @Override
+    public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completionContext) {
+        if (completionContext.status() == CompletionContext.Status.DISCARD
+                || completionContext.getLoadBalancerResponse() == null
+                || !completionContext.getLoadBalancerResponse().hasServer()) {
+            return;
+        }
+        long now = System.nanoTime();
+        long latency = 0;
+        Request<RequestDataContext> request = completionContext.getLoadBalancerRequest();
+        RequestDataContext context = request != null ? request.getContext() : null;
+        if (context != null && context.getRequestStartTime() > 0) {
+            latency = now - context.getRequestStartTime();
+        }
+        if (completionContext.status() == CompletionContext.Status.FAILED || isServerError(completionContext)) {
+            latency = Math.max(latency, failurePenaltyNanos);
+        }
+        statsFor(completionContext.getLoadBalancerResponse().getServer()).end(latency, now);
+    }
+
+    private boolean isServerError(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> context) {
+        ResponseData response = context.getClientResponse();
+        return response != null && response.getHttpStatus() != null && response.getHttpStatus().is5xxServerError();
+    }
+
+    private InstanceStats statsFor(ServiceInstance instance) {
+        return stats.computeIfAbsent(key(instance), k -> new InstanceStats());
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+
+    private final class InstanceStats {
+
+        private long outstanding;
+        private double ewmaNanos;
+        private long stampNanos = System.nanoTime();
+
+        synchronized void begin() {
+            outstanding++;
+        }
+
+        synchronized void end(long latencyNanos, long now) {
+            if (outstanding > 0) {
+                outstanding--;
+            }
+            observe(latencyNanos, now);
+        }
+
+        synchronized double cost(long now) {
+            // Decays the estimate while the instance is idle so it gets probed again
+            observe(0, now);
+            if (ewmaNanos == 0 && outstanding > 0) {
+                // In flight but never measured: assume it is slow rather than free
+                return failurePenaltyNanos + outstanding;
+            }
+            return ewmaNanos * (outstanding + 1);
+        }
+
+        private void observe(double sampleNanos, long now) {
+            double elapsed = Math.max(now - stampNanos, 0);
+            stampNanos = now;
+            if (sampleNanos > ewmaNanos) {
+                ewmaNanos = sampleNanos;
+            } else {
+                double weight = Math.exp(-elapsed / decayNanos);
+                ewmaNanos = ewmaNanos * weight + sampleNanos * (1 - weight);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.azhagu_swe.saas.gateway.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * Per-service load balancer configuration, instantiated once in the child context of
+ * every {@code lb://} service. Deliberately not a {@code @Configuration} so component
+ * scanning does not register these beans in the main context.
+ */
+public class LatencyAwareLoadBalancerConfiguration {
+
+    @Bean
+    public ServiceInstanceListSupplier serviceInstanceListSupplier(
+            ConfigurableApplicationContext context,
+            @Value("${app.loadbalancer.instance-cache-ttl-ms:5000}") long cacheTtlMs) {
+        return ServiceInstanceListSupplier.builder()
+                .withDiscoveryClient()
+                .with((ctx, delegate) -> new CachingInstanceListSupplier(delegate, Duration.ofMillis(cacheTtlMs)))
+                .build(context);
+    }
+
+    @Bean
+    public InstanceLatencyTracker instanceLatencyTracker(
+            @Value("${app.loadbalancer.decay-time-ms:10000}") long decayTimeMs,
+            @Value("${app.loadbalancer.failure-penalty-ms:2000}") long failurePenaltyMs) {
+        return new InstanceLatencyTracker(decayTimeMs, failurePenaltyMs);
+    }
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> peakEwmaLoadBalancer(
+            Environment environment,
+            ObjectProvider<ServiceInstanceListSupplier> supplierProvider,
+            InstanceLatencyTracker tracker) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new PeakEwmaLoadBalancer(serviceId, supplierProvider, tracker);
+    }
+}
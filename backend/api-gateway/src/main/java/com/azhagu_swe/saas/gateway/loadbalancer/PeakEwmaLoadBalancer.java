@@ -0,0 +1,78 @@
+package com.azhagu_swe.saas.gateway.loadbalancer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Power-of-two-choices over peak-EWMA cost: picks two distinct instances at random
+ * and sends the request to the one with the lower {@link InstanceLatencyTracker#cost}.
+ * <p>
+ * Unlike round-robin, a replica that is paused or still warming up stops receiving
+ * its fixed share of requests as soon as its latency or queue grows, while the random
+ * pair keeps load spread and avoids every gateway herding onto the same instance.
+ */
+@Slf4j
+public class PeakEwmaLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final String serviceId;
+    private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+    private final InstanceLatencyTracker tracker;
+    private volatile List<ServiceInstance> lastInstances;
+
+    public PeakEwmaLoadBalancer(String serviceId,
+                                ObjectProvider<ServiceInstanceListSupplier> supplierProvider,
+                                InstanceLatencyTracker tracker) {
+        this.serviceId = serviceId;
+        this.supplierProvider = supplierProvider;
+        this.tracker = tracker;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(instances -> {
+            Response<ServiceInstance> response = choose(instances);
+            if (supplier instanceof SelectedInstanceCallback callback && response.hasServer()) {
+                callback.selectedServiceInstance(response.getServer());
+            }
+            return response;
+        });
+    }
+
+    private Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            log.warn("No servers available for service: {}", serviceId);
+            return new EmptyResponse();
+        }
+        if (instances != lastInstances) {
+            // The cached list is replaced only when it is refreshed from discovery
+            lastInstances = instances;
+            tracker.retain(instances);
+        }
+        if (instances.size() == 1) {
+            return new DefaultResponse(instances.get(0));
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(instances.size());
+        int second = random.nextInt(instances.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = instances.get(first);
+        ServiceInstance b = instances.get(second);
+        return new DefaultResponse(tracker.cost(b) < tracker.cost(a) ? b : a);
+    }
+}
@@ -0,0 +1,134 @@
+package com.azhagu_swe.saas.gateway.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Applies an {@link AdaptiveConcurrencyLimit} to every {@code lb://} route and sheds
+ * requests over the limit with 503 and {@code Retry-After}.
+ * <p>
+ * Runs after the route filters, so JWT rejections and response-cache hits never
+ * take a slot, and before load balancing, so a shed request costs no connection.
+ */
+@Component
+@Slf4j
+public class AdaptiveConcurrencyFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 50;
+
+    // Set on requests the gateway itself answered with 503, so they are not taken as a service signal
+    private static final String SHED_ATTR = AdaptiveConcurrencyFilter.class.getName() + ".shed";
+
+    private final Map<String, AdaptiveConcurrencyLimit> limits = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double backoffRatio;
+    private final int windowSize;
+
+    public AdaptiveConcurrencyFilter(MeterRegistry meterRegistry,
+                                     @Value("${app.concurrency-limit.enabled:true}") boolean enabled,
+                                     @Value("${app.concurrency-limit.initial-limit:20}") int initialLimit,
+                                     @Value("${app.concurrency-limit.min-limit:5}") int minLimit,
+                                     @Value("${app.concurrency-limit.max-limit:500}") int maxLimit,
+                                     @Value("${app.concurrency-limit.tolerance:1.5}") double tolerance,
+                                     @Value("${app.concurrency-limit.smoothing:0.2}") double smoothing,
+                                     @Value("${app.concurrency-limit.backoff-ratio:0.9}") double backoffRatio,
+                                     @Value("${app.concurrency-limit.window-size:10}") int windowSize) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.backoffRatio = backoffRatio;
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (!enabled || route == null || !"lb".equals(route.getUri().getScheme())) {
+            return chain.filter(exchange);
+        }
+
+        AdaptiveConcurrencyLimit limit = limits.computeIfAbsent(route.getId(), this::register);
+        int inflightAtStart = limit.tryAcquire();
+        if (inflightAtStart < 0) {
+            rejections.get(route.getId()).increment();
+            log.debug("Shedding request to route {}: {} in flight, limit {}", route.getId(),
+                    limit.inflight(), limit.limit());
+            return shed(exchange);
+        }
+
+        long start = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> {
+            if (signal == SignalType.CANCEL || exchange.getAttributes().containsKey(SHED_ATTR)) {
+                // The client went away or a breaker/bulkhead rejected the call; the RTT says nothing about the service
+                limit.releaseWithoutSample();
+                return;
+            }
+            HttpStatusCode status = exchange.getResponse().getStatusCode();
+            boolean dropped = signal == SignalType.ON_ERROR
+                    || (status != null && status.is5xxServerError());
+            limit.release(System.nanoTime() - start, inflightAtStart, dropped);
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private AdaptiveConcurrencyLimit register(String routeId) {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit,
+                tolerance, smoothing, backoffRatio, windowSize);
+        Gauge.builder("gateway.concurrency.limit", limit, AdaptiveConcurrencyLimit::limit)
+                .description("Current adaptive concurrency limit")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.inflight", limit, AdaptiveConcurrencyLimit::inflight)
+                .description("Requests in flight under the adaptive limit")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        rejections.put(routeId, Counter.builder("gateway.concurrency.rejected")
+                .description("Requests shed because the route was at its concurrency limit")
+                .tag("route", routeId)
+                .register(meterRegistry));
+        return limit;
+    }
+
+    static Mono<Void> shed(ServerWebExchange exchange) {
+        exchange.getAttributes().put(SHED_ATTR, Boolean.TRUE);
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set("Retry-After", "1");
+        return response.setComplete();
+    }
+}
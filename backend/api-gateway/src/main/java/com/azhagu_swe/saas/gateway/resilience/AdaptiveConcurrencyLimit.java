@@ -0,0 +1,136 @@
+package com.azhagu_swe.saas.gateway.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gradient-style adaptive concurrency limit for one route.
+ * <p>
+ * Tracks a long-term RTT baseline and the average RTT of the latest sample window.
+ * While the recent RTT stays within {@code tolerance} of the baseline the limit grows
+ * by a small queue allowance; once queueing inflates the RTT the gradient
+ * {@code baseline / recent} drops below one and the limit shrinks with it. Requests
+ * beyond the limit are rejected up front instead of waiting in a downstream queue.
+ * <p>
+ * Failed or 5xx samples shrink the limit by {@code backoffRatio} regardless of RTT,
+ * since a service that errors fast would otherwise look healthy.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private static final double LONG_RTT_ALPHA = 2.0 / (600 + 1);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double backoffRatio;
+    private final int windowSize;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private volatile double estimatedLimit;
+
+    // Guarded by this
+    private double longRttNanos;
+    private long windowRttSumNanos;
+    private int windowSamples;
+    private int windowMaxInflight;
+    private boolean windowDropped;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance,
+                                    double smoothing, double backoffRatio, int windowSize) {
+        this.estimatedLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.backoffRatio = backoffRatio;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Claims a slot if fewer than {@link #limit()} requests are in flight.
+     *
+     * @return the number of requests in flight including this one, or -1 if rejected.
+     */
+    public int tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= limit()) {
+                return -1;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * Releases a slot and feeds the sample into the limit.
+     *
+     * @param rttNanos         Time from acquire to completion.
+     * @param inflightAtStart  The value returned by {@link #tryAcquire()}.
+     * @param dropped          Whether the request failed or got a 5xx.
+     */
+    public void release(long rttNanos, int inflightAtStart, boolean dropped) {
+        inflight.decrementAndGet();
+        onSample(rttNanos, inflightAtStart, dropped);
+    }
+
+    /**
+     * Releases a slot without a sample, e.g. when the client cancelled.
+     */
+    public void releaseWithoutSample() {
+        inflight.decrementAndGet();
+    }
+
+    public int limit() {
+        return (int) estimatedLimit;
+    }
+
+    public int inflight() {
+        return inflight.get();
+    }
+
+    private synchronized void onSample(long rttNanos, int inflightAtStart, boolean dropped) {
+        windowRttSumNanos += rttNanos;
+        windowSamples++;
+        windowMaxInflight = Math.max(windowMaxInflight, inflightAtStart);
+        windowDropped |= dropped;
+        if (windowSamples < windowSize) {
+            return;
+        }
+
+        double shortRtt = (double) windowRttSumNanos / windowSamples;
+        int maxInflight = windowMaxInflight;
+        boolean anyDropped = windowDropped;
+        windowRttSumNanos = 0;
+        windowSamples = 0;
+        windowMaxInflight = 0;
+        windowDropped = false;
+
+        if (longRttNanos == 0) {
+            longRttNanos = shortRtt;
+            return;
+        }
+        longRttNanos = longRttNanos * (1 - LONG_RTT_ALPHA) + shortRtt * LONG_RTT_ALPHA;
+        // After a long overload the baseline itself is inflated; let it recover quickly
+        if (longRttNanos / shortRtt > 2) {
+            longRttNanos *= 0.95;
+        }
+
+        double current = estimatedLimit;
+        double newLimit;
+        if (anyDropped) {
+            newLimit = current * backoffRatio;
+        } else {
+            if (maxInflight < current / 2) {
+                // Not using the limit we have; no evidence that a bigger one is safe
+                return;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / shortRtt));
+            double queueAllowance = Math.sqrt(current);
+            newLimit = current * gradient + queueAllowance;
+            newLimit = current * (1 - smoothing) + newLimit * smoothing;
+        }
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+}
@@ -0,0 +1,93 @@
+package com.azhagu_swe.saas.gateway.resilience;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Wraps every {@code lb://} route in a Resilience4j circuit breaker and bulkhead named
+ * after the route id. Both use the {@code default} configs under {@code resilience4j.*}
+ * unless an instance with the route id is configured.
+ * <p>
+ * The bulkhead caps concurrent calls per route as a hard backstop behind the adaptive
+ * limit, so one saturated service cannot take every gateway connection. The circuit
+ * breaker counts 5xx responses and slow calls; when it opens, requests fail with 503
+ * at once instead of queueing on a service that is already down.
+ */
+@Component
+@Slf4j
+public class RouteResilienceFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = AdaptiveConcurrencyFilter.ORDER + 10;
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+
+    public RouteResilienceFilter(CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry) {
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.bulkheadRegistry = bulkheadRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (route == null || !"lb".equals(route.getUri().getScheme())) {
+            return chain.filter(exchange);
+        }
+
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(route.getId());
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(route.getId());
+
+        return chain.filter(exchange)
+                // The proxied call completes normally for a 5xx; surface it so the breaker counts it
+                .then(Mono.defer(() -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    return status != null && status.is5xxServerError()
+                            ? Mono.<Void>error(new DownstreamServerError(status))
+                            : Mono.<Void>empty();
+                }))
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .onErrorResume(DownstreamServerError.class, e -> Mono.empty())
+                .onErrorResume(CallNotPermittedException.class, e -> {
+                    log.debug("Circuit breaker for route {} is open", route.getId());
+                    return AdaptiveConcurrencyFilter.shed(exchange);
+                })
+                .onErrorResume(BulkheadFullException.class, e -> {
+                    log.debug("Bulkhead for route {} is full", route.getId());
+                    return AdaptiveConcurrencyFilter.shed(exchange);
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    /**
+     * Marks a 5xx that has already been written to the client; only the circuit
+     * breaker sees it.
+     */
+    static final class DownstreamServerError extends RuntimeException {
+
+        DownstreamServerError(HttpStatusCode status) {
+            super("Downstream responded " + status.value(), null, false, false);
+        }
+    }
+}
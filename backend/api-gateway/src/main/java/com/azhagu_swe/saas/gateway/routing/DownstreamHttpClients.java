@@ -0,0 +1,161 @@
+package com.azhagu_swe.saas.gateway.routing;
+
+import com.azhagu_swe.saas.gateway.config.DownstreamPoolProperties;
+import com.azhagu_swe.saas.gateway.config.DownstreamPoolProperties.Pool;
+import com.azhagu_swe.saas.gateway.config.DownstreamPoolProperties.Protocol;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.stereotype.Component;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.Http2AllocationStrategy;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One Reactor Netty {@link HttpClient} per downstream service, each with its own
+ * named connection pool, so a slow service can only exhaust its own connections.
+ * <p>
+ * Each client is built by the gateway's own {@link HttpClientFactory} with only the
+ * connection provider swapped, so every {@code spring.cloud.gateway.httpclient.*}
+ * setting (connect timeout, SSL, proxy, wiretap, max header size, customizers) applies
+ * to it as to the shared client. The response timeout is applied per request by the
+ * routing filter.
+ * <p>
+ * Pools publish the Reactor Netty {@code reactor.netty.connection.provider.*} meters
+ * under the name {@code downstream-<service-id>}. Connects and disconnects are counted
+ * in {@code gateway.downstream.connections{service,event}} to show connection churn.
+ */
+@Component
+@Slf4j
+public class DownstreamHttpClients implements DisposableBean {
+
+    private final DownstreamPoolProperties poolProperties;
+    private final HttpClientProperties gatewayProperties;
+    private final ServerProperties serverProperties;
+    private final HttpClientSslConfigurer sslConfigurer;
+    private final List<HttpClientCustomizer> customizers;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ConnectionProvider> providers = new ConcurrentHashMap<>();
+    private final Map<String, HttpClient> clients = new ConcurrentHashMap<>();
+
+    public DownstreamHttpClients(DownstreamPoolProperties poolProperties, HttpClientProperties gatewayProperties,
+                                 ServerProperties serverProperties, HttpClientSslConfigurer sslConfigurer,
+                                 ObjectProvider<HttpClientCustomizer> customizers, MeterRegistry meterRegistry) {
+        this.poolProperties = poolProperties;
+        this.gatewayProperties = gatewayProperties;
+        this.serverProperties = serverProperties;
+        this.sslConfigurer = sslConfigurer;
+        this.customizers = customizers.orderedStream().toList();
+        this.meterRegistry = meterRegistry;
+    }
+
+    public HttpClient clientFor(String serviceId) {
+        return clients.computeIfAbsent(serviceId, this::create);
+    }
+
+    private HttpClient create(String serviceId) {
+        Pool pool = poolProperties.resolve(serviceId);
+        ConnectionProvider.Builder builder = ConnectionProvider.builder("downstream-" + serviceId)
+                .metrics(true);
+        if (pool.getProtocol() == Protocol.H2C) {
+            // Without an HTTP/2 strategy the pool opens a connection per concurrent request,
+            // as for HTTP/1.1; with it, streams fill one connection before the next is opened
+            Http2AllocationStrategy.Builder strategy = Http2AllocationStrategy.builder().minConnections(1);
+            if (pool.getMaxConnections() != null) {
+                strategy.maxConnections(pool.getMaxConnections());
+            }
+            if (pool.getMaxConcurrentStreams() != null) {
+                strategy.maxConcurrentStreams(pool.getMaxConcurrentStreams());
+            }
+            builder.allocationStrategy(strategy.build());
+        } else if (pool.getMaxConnections() != null) {
+            builder.maxConnections(pool.getMaxConnections());
+        }
+        if (pool.getPendingAcquireMaxCount() != null) {
+            builder.pendingAcquireMaxCount(pool.getPendingAcquireMaxCount());
+        }
+        if (pool.getPendingAcquireTimeout() != null) {
+            builder.pendingAcquireTimeout(pool.getPendingAcquireTimeout());
+        }
+        if (pool.getMaxIdleTime() != null) {
+            builder.maxIdleTime(pool.getMaxIdleTime());
+        }
+        if (pool.getMaxLifeTime() != null) {
+            builder.maxLifeTime(pool.getMaxLifeTime());
+        }
+        if (pool.getEvictInterval() != null) {
+            builder.evictInBackground(pool.getEvictInterval());
+        }
+        ConnectionProvider provider = builder.build();
+        providers.put(serviceId, provider);
+
+        Counter opened = connectionCounter(serviceId, "opened");
+        Counter closed = connectionCounter(serviceId, "closed");
+        HttpProtocol protocol = pool.getProtocol() == Protocol.H2C ? HttpProtocol.H2C : HttpProtocol.HTTP11;
+
+        HttpClient client = new PooledHttpClientFactory(gatewayProperties, serverProperties, sslConfigurer,
+                        customizers, provider).build()
+                .protocol(protocol)
+                // Proxied paths are unbounded; tag client metrics with the service instead
+                .metrics(true, uri -> serviceId)
+                // Once per physical connection: doOnConnected/doOnDisconnected would also
+                // fire on every acquire from and release to the pool
+                .doOnChannelInit((observer, channel, remoteAddress) -> {
+                    opened.increment();
+                    channel.closeFuture().addListener(future -> closed.increment());
+                });
+        log.info("Created {} connection pool for service {} (max connections {}, pending acquire max {})",
+                protocol, serviceId, pool.getMaxConnections(), pool.getPendingAcquireMaxCount());
+        return client;
+    }
+
+    private Counter connectionCounter(String serviceId, String event) {
+        return Counter.builder("gateway.downstream.connections")
+                .description("Connections opened and closed towards a downstream service")
+                .tag("service", serviceId)
+                .tag("event", event)
+                .register(meterRegistry);
+    }
+
+    /**
+     * The gateway's client factory with the service's pool in place of the shared one.
+     */
+    private static final class PooledHttpClientFactory extends HttpClientFactory {
+
+        private final ConnectionProvider provider;
+
+        PooledHttpClientFactory(HttpClientProperties properties, ServerProperties serverProperties,
+                                HttpClientSslConfigurer sslConfigurer, List<HttpClientCustomizer> customizers,
+                                ConnectionProvider provider) {
+            super(properties, serverProperties, sslConfigurer, customizers);
+            this.provider = provider;
+        }
+
+        HttpClient build() {
+            return createInstance();
+        }
+
+        @Override
+        protected ConnectionProvider buildConnectionProvider(HttpClientProperties properties) {
+            return provider;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        providers.values().forEach(provider -> provider.disposeLater().block(Duration.ofSeconds(5)));
+    }
+}
@@ -0,0 +1,61 @@
+package com.azhagu_swe.saas.gateway.routing;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.netty.http.client.HttpClient;
+
+import java.net.URI;
+import java.util.List;
+
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.CONNECT_TIMEOUT_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+
+/**
+ * Takes the place of the built-in {@link NettyRoutingFilter} as the {@code routingFilter}
+ * bean (see {@code DownstreamTransportConfig}) so plain-HTTP calls to a downstream
+ * service go through that service's own pool from {@link DownstreamHttpClients}.
+ * <p>
+ * The service is the {@code lb://} service id of the route, or the route's
+ * {@code downstream-service} metadata for routes with a fixed URI. Other routes and
+ * HTTPS targets keep the gateway's shared client.
+ */
+public class DownstreamRoutingFilter extends NettyRoutingFilter {
+
+    public static final String DOWNSTREAM_SERVICE_METADATA = "downstream-service";
+
+    private final DownstreamHttpClients downstreamClients;
+
+    public DownstreamRoutingFilter(HttpClient httpClient, ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+                                   HttpClientProperties properties, DownstreamHttpClients downstreamClients) {
+        super(httpClient, headersFiltersProvider, properties);
+        this.downstreamClients = downstreamClients;
+    }
+
+    @Override
+    protected HttpClient getHttpClient(Route route, ServerWebExchange exchange) {
+        String serviceId = serviceId(route);
+        URI requestUrl = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        if (serviceId == null || requestUrl == null || !"http".equalsIgnoreCase(requestUrl.getScheme())) {
+            return super.getHttpClient(route, exchange);
+        }
+        HttpClient client = downstreamClients.clientFor(serviceId);
+        Object connectTimeout = route.getMetadata().get(CONNECT_TIMEOUT_ATTR);
+        if (connectTimeout != null) {
+            client = client.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Integer.parseInt(connectTimeout.toString()));
+        }
+        return client;
+    }
+
+    private static String serviceId(Route route) {
+        Object configured = route.getMetadata().get(DOWNSTREAM_SERVICE_METADATA);
+        if (configured != null) {
+            return configured.toString();
+        }
+        return "lb".equals(route.getUri().getScheme()) ? route.getUri().getHost() : null;
+    }
+}
@@ -0,0 +1,126 @@
+package com.azhagu_swe.saas.gateway.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Builds the compact, HMAC-signed identity header the gateway forwards to
+ * trusted downstream services once it has validated a JWT.
+ * <p>
+ * Wire format: {@code base64url(payload) + "." + base64url(HMAC-SHA256(payload))},
+ * where the payload is
+ * {@code [version:1][userId:16][expiresAt:8][words:2][authority bitset:8*words][subjectLength:2][subject]
+ * [tenantLength:1][tenant][issuedAt:8]}. Version 1 had no tenant fields and version 2
+ * no issuedAt, the JWT's issue time that downstream services check against their
+ * revocation cutoffs.
+ * Authorities are encoded as bits whose positions come from the shared, ordered
+ * {@code saas.identity.authorities} catalogue. Downstream services must be
+ * configured with the same catalogue and secret.
+ */
+@Component
+@Slf4j
+public class InternalIdentitySigner {
+
+    public static final String HEADER_NAME = "X-Internal-Identity";
+    private static final byte VERSION = 3;
+
+    private final Mac macPrototype;
+    private final Map<String, Integer> authorityBits = new HashMap<>();
+    private final long ttlSeconds;
+
+    public InternalIdentitySigner(
+            @Value("${saas.identity.secret:}") String secret,
+            @Value("${saas.identity.authorities:}") List<String> authorities,
+            @Value("${saas.identity.ttlSeconds:30}") long ttlSeconds) throws GeneralSecurityException {
+        if (secret.isBlank()) {
+            this.macPrototype = null;
+            log.info("saas.identity.secret is not set; internal identity headers are disabled.");
+        } else {
+            this.macPrototype = Mac.getInstance("HmacSHA256");
+            this.macPrototype.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        }
+        for (int i = 0; i < authorities.size(); i++) {
+            authorityBits.put(authorities.get(i).trim(), i);
+        }
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    /**
+     * Signs an identity for the given validated token claims.
+     *
+     * @return the header value, or empty if signing is disabled or the token
+     *         carries an authority missing from the catalogue (the downstream
+     *         service then falls back to validating the JWT itself).
+     */
+    public Optional<String> sign(String userId, String subject, String tenantId, List<String> authorities,
+            Date tokenIssuedAt, Date tokenExpiry) {
+        if (macPrototype == null || userId == null || subject == null) {
+            return Optional.empty();
+        }
+        byte[] tenantBytes = tenantId.getBytes(StandardCharsets.US_ASCII);
+        if (tenantBytes.length > 255) {
+            return Optional.empty();
+        }
+        int maxBit = authorityBits.size();
+        long[] words = new long[(maxBit + 63) / 64];
+        if (authorities != null) {
+            for (String authority : authorities) {
+                Integer bit = authorityBits.get(authority);
+                if (bit == null) {
+                    log.debug("Authority '{}' is not in saas.identity.authorities; skipping identity header.", authority);
+                    return Optional.empty();
+                }
+                words[bit >>> 6] |= 1L << bit;
+            }
+        }
+
+        long expiresAt = System.currentTimeMillis() / 1000 + ttlSeconds;
+        if (tokenExpiry != null) {
+            expiresAt = Math.min(expiresAt, tokenExpiry.getTime() / 1000); // Never outlive the JWT
+        }
+
+        UUID id = UUID.fromString(userId);
+        byte[] subjectBytes = subject.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer payload = ByteBuffer.allocate(1 + 16 + 8 + 2 + words.length * 8 + 2 + subjectBytes.length
+                + 1 + tenantBytes.length + 8);
+        payload.put(VERSION)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .putLong(expiresAt)
+                .putShort((short) words.length);
+        for (long word : words) {
+            payload.putLong(word);
+        }
+        payload.putShort((short) subjectBytes.length).put(subjectBytes);
+        payload.put((byte) tenantBytes.length).put(tenantBytes);
+        // 0 for a token without iat; downstream services then treat any revocation as applying to it
+        payload.putLong(tokenIssuedAt != null ? tokenIssuedAt.getTime() / 1000 : 0);
+
+        byte[] payloadBytes = payload.array();
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return Optional.of(encoder.encodeToString(payloadBytes) + "." + encoder.encodeToString(mac(payloadBytes)));
+    }
+
+    private byte[] mac(byte[] payload) {
+        try {
+            // Mac is not thread-safe; cloning the initialised prototype avoids re-keying per call.
+            return ((Mac) macPrototype.clone()).doFinal(payload);
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("HmacSHA256 provider does not support cloning", e);
+        }
+    }
+}
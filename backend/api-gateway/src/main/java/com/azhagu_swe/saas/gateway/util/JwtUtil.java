@@ -12,6 +12,9 @@ import java.util.List;
 @Slf4j
 public class JwtUtil {
 
+    public static final String TENANT_ID_CLAIM = "tenantId";
+    public static final String DEFAULT_TENANT = "default";
+
     private final JwtParser jwtParser;
 
     /**
@@ -43,6 +46,31 @@ public class JwtUtil {
         return jwtParser.parseClaimsJws(token).getBody();
     }
 
+    /**
+     * Extracts the User ID from already parsed claims.
+     */
+    public String getUserIdFromClaims(Claims claims) {
+        return claims.get("userId", String.class);
+    }
+
+    /**
+     * Extracts the tenant from already parsed claims. Tokens issued before the
+     * claim existed belong to the default tenant.
+     */
+    public String getTenantIdFromClaims(Claims claims) {
+        String tenantId = claims.get(TENANT_ID_CLAIM, String.class);
+        return tenantId != null ? tenantId : DEFAULT_TENANT;
+    }
+
+    /**
+     * Extracts the roles from already parsed claims.
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> getRolesFromClaims(Claims claims) {
+        List<String> roles = claims.get("roles", List.class);
+        return roles != null ? roles : List.of();
+    }
+
     /**
      * Extracts the User ID from the 'userId' claim in the token.
      */
@@ -0,0 +1,255 @@
+package com.azhagu_swe.saas.gateway.filter;
+
+import com.azhagu_swe.saas.gateway.cache.EdgeResponseCache;
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Puts {@code ResponseCache} on a route to a slow stub upstream and checks hits,
+ * request coalescing, per-authority and per-media-type keys, {@code If-None-Match},
+ * purge on write and the protected purge endpoint.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "management.tracing.enabled=false",
+        "saas.app.jwtSecret=" + ResponseCacheGatewayFilterTests.SECRET,
+        "app.cors.allowedOrigins=http://localhost:3000",
+        "app.cors.allowedMethods=GET,POST",
+        "app.cors.allowedHeaders=*",
+        "app.actuator.password={noop}" + ResponseCacheGatewayFilterTests.ACTUATOR_PASSWORD
+})
+class ResponseCacheGatewayFilterTests {
+
+    static final String SECRET = "test-secret-test-secret-test-secret-test-secret-test-secret-test-secret";
+    static final String ACTUATOR_PASSWORD = "operator-secret";
+    private static final String CBOR = "application/cbor";
+    private static final String ETAG = "\"roles-v1\"";
+
+    private static final AtomicInteger upstreamGets = new AtomicInteger();
+    private static final HttpServer upstream = startUpstream();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private EdgeResponseCache cache;
+
+    private WebClient client;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.gateway.routes[0].id", () -> "catalogue-route");
+        registry.add("spring.cloud.gateway.routes[0].uri",
+                () -> "http://localhost:" + upstream.getAddress().getPort());
+        registry.add("spring.cloud.gateway.routes[0].predicates[0]", () -> "Path=/v1/api/roles/**");
+        registry.add("spring.cloud.gateway.routes[0].filters[0]", () -> "JwtAuthentication");
+        registry.add("spring.cloud.gateway.routes[0].filters[1]", () -> "ResponseCache=30s");
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.stop(0);
+    }
+
+    @BeforeEach
+    void reset() {
+        cache.invalidateAll();
+        upstreamGets.set(0);
+        client = WebClient.create("http://localhost:" + port);
+    }
+
+    @Test
+    void coalescesConcurrentMissesAndServesHitsFromMemory() {
+        String token = token("ROLE_SUPERADMIN");
+
+        List<ResponseEntity<String>> responses = Flux.range(0, 8)
+                .flatMap(i -> get("/v1/api/roles?page=0", token), 8)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertThat(upstreamGets.get()).isEqualTo(1);
+        assertThat(responses).hasSize(8).allSatisfy(response -> {
+            assertThat(response.getStatusCode().value()).isEqualTo(200);
+            assertThat(response.getBody()).isEqualTo("{\"roles\":[]}");
+        });
+
+        ResponseEntity<String> hit = get("/v1/api/roles?page=0", token).block(Duration.ofSeconds(5));
+        assertThat(hit.getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER)).isEqualTo("HIT");
+        assertThat(hit.getHeaders().getContentType()).hasToString("application/json");
+        assertThat(upstreamGets.get()).isEqualTo(1);
+
+        // A different query is a different key
+        get("/v1/api/roles?page=1", token).block(Duration.ofSeconds(5));
+        assertThat(upstreamGets.get()).isEqualTo(2);
+    }
+
+    @Test
+    void keysOnAuthoritiesAndPurgesOnWrite() {
+        String admin = token("ROLE_SUPERADMIN");
+        String other = token("ROLE_STANDARDUSER");
+
+        get("/v1/api/roles", admin).block(Duration.ofSeconds(5));
+        get("/v1/api/roles", other).block(Duration.ofSeconds(5));
+        assertThat(upstreamGets.get()).isEqualTo(2);
+
+        client.post().uri("/v1/api/roles")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + admin)
+                .retrieve().toBodilessEntity()
+                .block(Duration.ofSeconds(5));
+        assertThat(cache.size()).isZero();
+
+        get("/v1/api/roles", admin).block(Duration.ofSeconds(5));
+        assertThat(upstreamGets.get()).isEqualTo(3);
+    }
+
+    @Test
+    void keysOnAcceptSoFormatsAreNotMixed() {
+        String token = token("ROLE_SUPERADMIN");
+
+        get("/v1/api/roles", token, headers -> headers.setAccept(List.of(MediaType.APPLICATION_JSON)))
+                .block(Duration.ofSeconds(5));
+        ResponseEntity<String> cbor = get("/v1/api/roles", token,
+                headers -> headers.setAccept(List.of(MediaType.parseMediaType(CBOR)))).block(Duration.ofSeconds(5));
+        assertThat(upstreamGets.get()).isEqualTo(2);
+        assertThat(cbor.getHeaders().getContentType()).hasToString(CBOR);
+
+        ResponseEntity<String> jsonHit = get("/v1/api/roles", token,
+                headers -> headers.setAccept(List.of(MediaType.APPLICATION_JSON))).block(Duration.ofSeconds(5));
+        assertThat(jsonHit.getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER)).isEqualTo("HIT");
+        assertThat(jsonHit.getHeaders().getContentType()).hasToString("application/json");
+        assertThat(upstreamGets.get()).isEqualTo(2);
+    }
+
+    @Test
+    void answersMatchingIfNoneMatchWithNotModified() {
+        String token = token("ROLE_SUPERADMIN");
+
+        // A conditional miss still fills the cache with the full body
+        ResponseEntity<String> miss = get("/v1/api/roles", token, headers -> headers.setIfNoneMatch(ETAG))
+                .block(Duration.ofSeconds(5));
+        assertThat(miss.getStatusCode().value()).isEqualTo(304);
+        assertThat(cache.size()).isEqualTo(1);
+
+        ResponseEntity<String> hit = get("/v1/api/roles", token, headers -> headers.setIfNoneMatch("W/" + ETAG))
+                .block(Duration.ofSeconds(5));
+        assertThat(hit.getStatusCode().value()).isEqualTo(304);
+        assertThat(hit.getHeaders().getETag()).isEqualTo(ETAG);
+        assertThat(hit.getBody()).isNull();
+
+        ResponseEntity<String> stale = get("/v1/api/roles", token, headers -> headers.setIfNoneMatch("\"older\""))
+                .block(Duration.ofSeconds(5));
+        assertThat(stale.getStatusCode().value()).isEqualTo(200);
+        assertThat(stale.getBody()).isEqualTo("{\"roles\":[]}");
+        assertThat(upstreamGets.get()).isEqualTo(1);
+    }
+
+    @Test
+    void purgeEndpointNeedsOperatorCredentials() {
+        get("/v1/api/roles", token("ROLE_SUPERADMIN")).block(Duration.ofSeconds(5));
+        assertThat(cache.size()).isEqualTo(1);
+
+        assertThat(purge(null)).isEqualTo(401);
+        assertThat(purge("wrong")).isEqualTo(401);
+        assertThat(cache.size()).isEqualTo(1);
+
+        assertThat(purge(ACTUATOR_PASSWORD)).isEqualTo(200);
+        assertThat(cache.size()).isZero();
+
+        assertThat(client.get().uri("/actuator/info").exchangeToMono(response -> Mono.just(response.statusCode().value()))
+                .block(Duration.ofSeconds(5))).isEqualTo(200);
+    }
+
+    private int purge(String password) {
+        return client.delete().uri("/actuator/responsecache")
+                .headers(headers -> {
+                    if (password != null) {
+                        headers.setBasicAuth("actuator", password);
+                    }
+                })
+                .exchangeToMono(response -> Mono.just(response.statusCode().value()))
+                .block(Duration.ofSeconds(5));
+    }
+
+    private Mono<ResponseEntity<String>> get(String uri, String token) {
+        return get(uri, token, headers -> {
+        });
+    }
+
+    private Mono<ResponseEntity<String>> get(String uri, String token, Consumer<HttpHeaders> extraHeaders) {
+        return client.get().uri(uri)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .headers(extraHeaders)
+                .retrieve()
+                .toEntity(String.class);
+    }
+
+    private static String token(String authority) {
+        return Jwts.builder()
+                .setSubject("user")
+                .claim("userId", "1")
+                .claim("roles", List.of(authority))
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+
+    private static HttpServer startUpstream() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.createContext("/", exchange -> {
+                String accept = exchange.getRequestHeaders().getFirst("Accept");
+                boolean cbor = accept != null && accept.contains(CBOR);
+                byte[] body = (cbor ? "cbor" : "{\"roles\":[]}").getBytes(StandardCharsets.UTF_8);
+                if ("GET".equals(exchange.getRequestMethod())) {
+                    upstreamGets.incrementAndGet();
+                    try {
+                        // Long enough for every concurrent request to arrive during the miss
+                        Thread.sleep(300);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                exchange.getResponseHeaders().add("Content-Type", cbor ? CBOR : "application/json");
+                exchange.getResponseHeaders().add("ETag", ETAG);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start stub upstream", e);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.azhagu_swe.saas.gateway.filter;
+
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes a request through the gateway to a stub downstream service and checks
+ * that the W3C trace context is continued and that spans are exported over
+ * OTLP/HTTP to a stand-in collector.
+ * <p>
+ * Spring Boot turns tracing off in tests unless {@link AutoConfigureObservability}
+ * is present, which would leave OpenTelemetry with a no-op propagator.
+ */
+@AutoConfigureObservability(metrics = false)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "saas.app.jwtSecret=" + TracePropagationTests.SECRET,
+        "app.cors.allowedOrigins=http://localhost:3000",
+        "app.cors.allowedMethods=GET,POST",
+        "app.cors.allowedHeaders=*",
+        "management.tracing.sampling.probability=1.0",
+        "management.tracing.propagation.type=w3c"
+})
+class TracePropagationTests {
+
+    static final String SECRET = "test-secret-test-secret-test-secret-test-secret-test-secret-test-secret";
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String INCOMING_PARENT_ID = "00f067aa0ba902b7";
+
+    private static final BlockingQueue<byte[]> exportedBatches = new LinkedBlockingQueue<>();
+    private static final Queue<SpanData> recordedSpans = new ConcurrentLinkedQueue<>();
+    private static final AtomicReference<String> downstreamTraceparent = new AtomicReference<>();
+    private static final HttpServer collector = startServer("/v1/traces", exchange -> {
+        exportedBatches.add(exchange.getRequestBody().readAllBytes());
+        exchange.getResponseHeaders().add("Content-Type", "application/x-protobuf");
+        exchange.sendResponseHeaders(200, -1);
+        exchange.close();
+    });
+    private static final HttpServer downstream = startServer("/", exchange -> {
+        downstreamTraceparent.set(exchange.getRequestHeaders().getFirst("traceparent"));
+        byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    });
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @TestConfiguration
+    static class RecordingExporterConfig {
+
+        // Exported next to OTLP, so span parentage can be checked without decoding protobuf
+        @Bean
+        SpanExporter recordingSpanExporter() {
+            return new SpanExporter() {
+                @Override
+                public CompletableResultCode export(Collection<SpanData> spans) {
+                    recordedSpans.addAll(spans);
+                    return CompletableResultCode.ofSuccess();
+                }
+
+                @Override
+                public CompletableResultCode flush() {
+                    return CompletableResultCode.ofSuccess();
+                }
+
+                @Override
+                public CompletableResultCode shutdown() {
+                    return CompletableResultCode.ofSuccess();
+                }
+            };
+        }
+    }
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("management.otlp.tracing.endpoint",
+                () -> "http://localhost:" + collector.getAddress().getPort() + "/v1/traces");
+        registry.add("spring.cloud.gateway.routes[0].id", () -> "auth-service-route");
+        registry.add("spring.cloud.gateway.routes[0].uri",
+                () -> "http://localhost:" + downstream.getAddress().getPort());
+        registry.add("spring.cloud.gateway.routes[0].predicates[0]", () -> "Path=/v1/api/**");
+        registry.add("spring.cloud.gateway.routes[0].filters[0]", () -> "JwtAuthentication");
+    }
+
+    @AfterAll
+    static void stopServers() {
+        collector.stop(0);
+        downstream.stop(0);
+    }
+
+    @Test
+    void continuesIncomingTraceAndExportsSpansOverOtlp() throws InterruptedException {
+        webTestClient.get().uri("/v1/api/auth/check-username?username=alice")
+                .header("traceparent", "00-" + TRACE_ID + "-" + INCOMING_PARENT_ID + "-01")
+                .exchange()
+                .expectStatus().isOk();
+
+        assertForwardedAsGatewayChild();
+        assertThat(awaitExport(HexFormat.of().parseHex(TRACE_ID)))
+                .as("OTLP export containing trace %s", TRACE_ID).isTrue();
+    }
+
+    @Test
+    void jwtAuthenticationSpanJoinsTheIncomingTrace() throws InterruptedException {
+        webTestClient.get().uri("/v1/api/users/me")
+                .header("traceparent", "00-" + TRACE_ID + "-" + INCOMING_PARENT_ID + "-01")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token())
+                .exchange()
+                .expectStatus().isOk();
+
+        assertForwardedAsGatewayChild();
+        SpanData jwtSpan = awaitSpan("jwt authentication");
+        assertThat(jwtSpan.getTraceId()).isEqualTo(TRACE_ID);
+        assertThat(jwtSpan.getParentSpanId()).isNotEqualTo(INCOMING_PARENT_ID);
+        assertThat(recordedSpans).anySatisfy(span -> {
+            assertThat(span.getSpanId()).isEqualTo(jwtSpan.getParentSpanId());
+            assertThat(span.getTraceId()).isEqualTo(TRACE_ID);
+        });
+    }
+
+    // The downstream call is a child of the gateway's spans in the same trace
+    private static void assertForwardedAsGatewayChild() {
+        String forwarded = downstreamTraceparent.getAndSet(null);
+        assertThat(forwarded).isNotNull();
+        String[] parts = forwarded.split("-");
+        assertThat(parts).hasSize(4);
+        assertThat(parts[1]).isEqualTo(TRACE_ID);
+        assertThat(parts[2]).isNotEqualTo(INCOMING_PARENT_ID);
+        assertThat(parts[3]).isEqualTo("01");
+    }
+
+    // Spans are batched, so wait for the exporter to flush to the collector stand-in
+    private static boolean awaitExport(byte[] needle) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (System.nanoTime() < deadline) {
+            byte[] batch = exportedBatches.poll(1, TimeUnit.SECONDS);
+            if (batch != null && indexOf(batch, needle) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static SpanData awaitSpan(String name) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (System.nanoTime() < deadline) {
+            for (SpanData span : recordedSpans) {
+                if (name.equals(span.getName())) {
+                    return span;
+                }
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("No span named " + name + " was exported");
+    }
+
+    private static String token() {
+        return Jwts.builder()
+                .setSubject("alice")
+                .claim("userId", "1")
+                .claim("roles", List.of("ROLE_STANDARDUSER"))
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+
+    private static int indexOf(byte[] haystack, byte[] needle) {
+        outer:
+        for (int i = 0; i <= haystack.length - needle.length; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (haystack[i + j] != needle[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static HttpServer startServer(String path, HttpHandler handler) {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext(path, handler);
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start stub server", e);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.azhagu_swe.saas.gateway.loadbalancer;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes an {@code lb://} service with two stub replicas, one of which answers
+ * slowly, and checks that the gateway steers traffic to the fast one instead of
+ * splitting it evenly as round-robin would.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "management.tracing.enabled=false",
+        "saas.app.jwtSecret=test-secret-test-secret-test-secret-test-secret-test-secret-test-secret",
+        "app.cors.allowedOrigins=http://localhost:3000",
+        "app.cors.allowedMethods=GET,POST",
+        "app.cors.allowedHeaders=*",
+        // Shorter than the default so cold-start samples from the warm-up fade quickly
+        "app.loadbalancer.decay-time-ms=1000"
+})
+class PeakEwmaLoadBalancerTests {
+
+    private static final int WARM_UP_REQUESTS = 20;
+    private static final int REQUESTS = 100;
+
+    private static final AtomicInteger fastHits = new AtomicInteger();
+    private static final AtomicInteger slowHits = new AtomicInteger();
+    private static final HttpServer fast = startReplica(fastHits, 2);
+    private static final HttpServer slow = startReplica(slowHits, 150);
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances.stub-service[0].uri",
+                () -> "http://localhost:" + fast.getAddress().getPort());
+        registry.add("spring.cloud.discovery.client.simple.instances.stub-service[1].uri",
+                () -> "http://localhost:" + slow.getAddress().getPort());
+        registry.add("spring.cloud.gateway.routes[0].id", () -> "stub-route");
+        registry.add("spring.cloud.gateway.routes[0].uri", () -> "lb://stub-service");
+        registry.add("spring.cloud.gateway.routes[0].predicates[0]", () -> "Path=/stub/**");
+    }
+
+    @AfterAll
+    static void stopServers() {
+        fast.stop(0);
+        slow.stop(0);
+    }
+
+    @Test
+    void steersTrafficAwayFromTheSlowReplica() {
+        // Both replicas get measured while connections and the JIT warm up
+        send(WARM_UP_REQUESTS);
+        assertThat(slowHits.get()).isPositive();
+        fastHits.set(0);
+        slowHits.set(0);
+
+        send(REQUESTS);
+
+        assertThat(fastHits.get() + slowHits.get()).isEqualTo(REQUESTS);
+        // Round-robin would send half; the slow replica should only see the odd probe
+        assertThat(slowHits.get()).isLessThan(REQUESTS / 10);
+    }
+
+    private void send(int requests) {
+        for (int i = 0; i < requests; i++) {
+            webTestClient.get().uri("/stub/ping")
+                    .exchange()
+                    .expectStatus().isOk();
+        }
+    }
+
+    private static HttpServer startReplica(AtomicInteger hits, long delayMs) {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/", exchange -> {
+                hits.incrementAndGet();
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] body = "pong".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start stub replica", e);
+        }
+    }
+}
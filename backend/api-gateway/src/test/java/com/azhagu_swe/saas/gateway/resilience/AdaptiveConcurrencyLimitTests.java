@@ -0,0 +1,81 @@
+package com.azhagu_swe.saas.gateway.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitTests {
+
+    private static final long BASE_RTT = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 5, 500, 1.5, 0.2, 0.9, 10);
+
+    @Test
+    void rejectsRequestsBeyondTheLimit() {
+        for (int i = 0; i < 20; i++) {
+            assertThat(limit.tryAcquire()).isEqualTo(i + 1);
+        }
+        assertThat(limit.tryAcquire()).isEqualTo(-1);
+
+        limit.releaseWithoutSample();
+        assertThat(limit.tryAcquire()).isEqualTo(20);
+    }
+
+    @Test
+    void growsWhileLatencyStaysAtTheBaseline() {
+        runWindows(50, BASE_RTT, false);
+
+        assertThat(limit.limit()).isGreaterThan(20);
+    }
+
+    @Test
+    void shrinksWhenQueueingInflatesLatency() {
+        runWindows(20, BASE_RTT, false);
+        int beforeOverload = limit.limit();
+
+        runWindows(20, BASE_RTT * 4, false);
+
+        assertThat(limit.limit()).isLessThan(beforeOverload);
+    }
+
+    @Test
+    void backsOffOnFailuresEvenWhenTheyAreFast() {
+        runWindows(20, BASE_RTT, false);
+        int beforeFailures = limit.limit();
+
+        runWindows(10, BASE_RTT / 10, true);
+
+        assertThat(limit.limit()).isLessThan(beforeFailures).isGreaterThanOrEqualTo(5);
+    }
+
+    @Test
+    void doesNotGrowWhenTheLimitIsNotUsed() {
+        for (int i = 0; i < 500; i++) {
+            int inflight = limit.tryAcquire();
+            limit.release(BASE_RTT, inflight, false);
+        }
+
+        assertThat(limit.limit()).isEqualTo(20);
+    }
+
+    // Each window saturates the current limit, then completes every request with the given RTT
+    private void runWindows(int windows, long rttNanos, boolean dropped) {
+        for (int w = 0; w < windows; w++) {
+            int slots = Math.max(limit.limit(), 10);
+            int[] inflight = new int[slots];
+            int acquired = 0;
+            for (int i = 0; i < slots; i++) {
+                int value = limit.tryAcquire();
+                if (value < 0) {
+                    break;
+                }
+                inflight[acquired++] = value;
+            }
+            for (int i = 0; i < acquired; i++) {
+                limit.release(rttNanos, inflight[i], dropped);
+            }
+        }
+    }
+}
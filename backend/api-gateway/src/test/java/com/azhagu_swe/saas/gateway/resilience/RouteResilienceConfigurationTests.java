@@ -0,0 +1,91 @@
+package com.azhagu_swe.saas.gateway.resilience;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Loads the gateway with the Resilience4j configuration of {@code application.yml}
+ * and checks that the per-route circuit breakers and bulkheads pick up the shared
+ * defaults, honour a per-route override and publish their metrics.
+ */
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "management.tracing.enabled=false",
+        "saas.app.jwtSecret=test-secret-test-secret-test-secret-test-secret-test-secret-test-secret",
+        "app.cors.allowedOrigins=http://localhost:3000",
+        "app.cors.allowedMethods=GET,POST",
+        "app.cors.allowedHeaders=*",
+        "resilience4j.circuitbreaker.instances.slow-route.base-config=default",
+        "resilience4j.circuitbreaker.instances.slow-route.slow-call-duration-threshold=10s",
+        "resilience4j.bulkhead.instances.slow-route.base-config=default",
+        "resilience4j.bulkhead.instances.slow-route.max-concurrent-calls=10"
+})
+class RouteResilienceConfigurationTests {
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private BulkheadRegistry bulkheadRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void routesWithoutAnInstanceUseTheDefaultConfigs() {
+        CircuitBreakerConfig circuitBreaker = circuitBreakerRegistry.circuitBreaker("any-route")
+                .getCircuitBreakerConfig();
+        assertThat(circuitBreaker.getSlidingWindowSize()).isEqualTo(50);
+        assertThat(circuitBreaker.getMinimumNumberOfCalls()).isEqualTo(20);
+        assertThat(circuitBreaker.getFailureRateThreshold()).isEqualTo(50);
+        assertThat(circuitBreaker.getSlowCallDurationThreshold()).isEqualTo(Duration.ofSeconds(3));
+        assertThat(circuitBreaker.isAutomaticTransitionFromOpenToHalfOpenEnabled()).isTrue();
+        assertThat(circuitBreaker.getIgnoreExceptionPredicate().test(BulkheadFullException.createBulkheadFullException(
+                bulkheadRegistry.bulkhead("any-route")))).isTrue();
+
+        BulkheadConfig bulkhead = bulkheadRegistry.bulkhead("any-route").getBulkheadConfig();
+        assertThat(bulkhead.getMaxConcurrentCalls()).isEqualTo(200);
+        assertThat(bulkhead.getMaxWaitDuration()).isZero();
+    }
+
+    @Test
+    void routeInstanceOverridesOnlyWhatItSets() {
+        CircuitBreakerConfig circuitBreaker = circuitBreakerRegistry.circuitBreaker("slow-route")
+                .getCircuitBreakerConfig();
+        assertThat(circuitBreaker.getSlowCallDurationThreshold()).isEqualTo(Duration.ofSeconds(10));
+        assertThat(circuitBreaker.getSlidingWindowSize()).isEqualTo(50);
+
+        assertThat(bulkheadRegistry.bulkhead("slow-route").getBulkheadConfig().getMaxConcurrentCalls())
+                .isEqualTo(10);
+    }
+
+    @Test
+    void circuitBreakerOpensOnFailuresAndReportsItsState() {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker("failing-route");
+        for (int i = 0; i < 20; i++) {
+            circuitBreaker.onError(0, TimeUnit.NANOSECONDS,
+                    new RouteResilienceFilter.DownstreamServerError(HttpStatus.BAD_GATEWAY));
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(meterRegistry.find("resilience4j.circuitbreaker.state")
+                .tag("name", "failing-route").tag("state", "open").gauge())
+                .isNotNull()
+                .satisfies(gauge -> assertThat(gauge.value()).isEqualTo(1.0));
+    }
+}
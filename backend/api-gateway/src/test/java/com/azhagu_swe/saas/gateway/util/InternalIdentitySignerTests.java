@@ -0,0 +1,93 @@
+package com.azhagu_swe.saas.gateway.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pins the wire format of the identity header. {@link #SHARED_VECTOR} is also
+ * decoded by the auth-service's {@code InternalIdentityVerifierTest}; if one side
+ * changes the format, both tests have to change together.
+ */
+class InternalIdentitySignerTests {
+
+    static final String SECRET = "test-identity-secret";
+    static final List<String> CATALOGUE = List.of("ROLE_USER", "ROLE_ADMIN", "PERMISSION_USER_READ");
+    static final String USER_ID = "3f2504e0-4f89-41d3-9a0c-0305e82c3301";
+    // 2100-01-01T00:00:00Z, so the vector stays valid and deterministic
+    static final Date TOKEN_EXPIRY = new Date(4102444800000L);
+    // 2025-01-01T00:00:00Z
+    static final Date TOKEN_ISSUED_AT = new Date(1735689600000L);
+
+    static final String SHARED_VECTOR = "Az8lBOBPiUHTmgwDBegsMwEAAAAA9IZXAAABAAAAAAAAAAUAEWFsaWNlQGV4YW1wbGUuY29tBGFjbWUAAAAAZ3SFgA"
+            + ".A3HNgamQYp7hTE3FgGIz037dn3vvfs9mcgYVo_XmyVE";
+
+    @Test
+    void signsTheSharedTestVector() throws Exception {
+        // A TTL this long leaves the token's own expiry as the only cap
+        InternalIdentitySigner signer = new InternalIdentitySigner(SECRET, CATALOGUE, Long.MAX_VALUE / 2);
+
+        assertThat(signer.sign(USER_ID, "alice@example.com", "acme", List.of("ROLE_USER", "PERMISSION_USER_READ"),
+                TOKEN_ISSUED_AT, TOKEN_EXPIRY)).contains(SHARED_VECTOR);
+    }
+
+    @Test
+    void tokenWithoutIssueTimeIsSignedAsIssuedAtZero() throws Exception {
+        InternalIdentitySigner signer = new InternalIdentitySigner(SECRET, CATALOGUE, 30);
+
+        String header = signer.sign(USER_ID, "alice@example.com", "acme", List.of(), null, TOKEN_EXPIRY)
+                .orElseThrow();
+        assertThat(issuedAt(header)).isZero();
+    }
+
+    @Test
+    void expiryIsCappedByTtlAndByTheToken() throws Exception {
+        InternalIdentitySigner signer = new InternalIdentitySigner(SECRET, CATALOGUE, 30);
+        long now = System.currentTimeMillis() / 1000;
+
+        long ttlCapped = expiresAt(signer.sign(USER_ID, "alice@example.com", "acme", List.of(), TOKEN_ISSUED_AT,
+                TOKEN_EXPIRY).orElseThrow());
+        assertThat(ttlCapped).isBetween(now + 29, now + 31);
+
+        Date tokenExpiry = new Date((now + 5) * 1000);
+        long tokenCapped = expiresAt(signer.sign(USER_ID, "alice@example.com", "acme", List.of(), TOKEN_ISSUED_AT,
+                tokenExpiry).orElseThrow());
+        assertThat(tokenCapped).isEqualTo(now + 5);
+    }
+
+    @Test
+    void authorityMissingFromCatalogueSkipsTheHeader() throws Exception {
+        InternalIdentitySigner signer = new InternalIdentitySigner(SECRET, CATALOGUE, 30);
+
+        assertThat(signer.sign(USER_ID, "alice@example.com", "acme", List.of("ROLE_UNKNOWN"), TOKEN_ISSUED_AT,
+                TOKEN_EXPIRY)).isEmpty();
+    }
+
+    @Test
+    void blankSecretDisablesSigning() throws Exception {
+        InternalIdentitySigner signer = new InternalIdentitySigner("", CATALOGUE, 30);
+
+        assertThat(signer.sign(USER_ID, "alice@example.com", "acme", List.of("ROLE_USER"), TOKEN_ISSUED_AT,
+                TOKEN_EXPIRY)).isEmpty();
+    }
+
+    // [version:1][userId:16][expiresAt:8]...
+    private static long expiresAt(String header) {
+        return ByteBuffer.wrap(payload(header), 17, 8).getLong();
+    }
+
+    // ...[issuedAt:8]
+    private static long issuedAt(String header) {
+        byte[] payload = payload(header);
+        return ByteBuffer.wrap(payload, payload.length - 8, 8).getLong();
+    }
+
+    private static byte[] payload(String header) {
+        return Base64.getUrlDecoder().decode(header.substring(0, header.indexOf('.')));
+    }
+}
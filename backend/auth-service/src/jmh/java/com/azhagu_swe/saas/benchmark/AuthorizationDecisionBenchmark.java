@@ -0,0 +1,139 @@
+package com.azhagu_swe.saas.benchmark;
+
+import com.azhagu_swe.saas.dto.request.AuthorizationDecisionRequest.Check;
+import com.azhagu_swe.saas.metrics.AuthMetrics;
+import com.azhagu_swe.saas.model.repository.RoleRepository;
+import com.azhagu_swe.saas.model.repository.RoleRepository.RoleGrant;
+import com.azhagu_swe.saas.model.repository.UserRoleAssignmentRepository;
+import com.azhagu_swe.saas.model.repository.UserRoleAssignmentRepository.Assignment;
+import com.azhagu_swe.saas.security.tenant.TenantContext;
+import com.azhagu_swe.saas.service.CatalogueSnapshotService;
+import com.azhagu_swe.saas.service.impl.AuthorizationDecisionServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Time to decide one batch of (user, authority) checks in
+ * {@link AuthorizationDecisionServiceImpl}, with the catalogue-version and
+ * assignment queries stubbed out, so what is left is the in-memory part: grouping
+ * the batch by user, one bitset OR per role, then a lookup and a bit test per check.
+ * Divide the score by {@code checks} for the cost per pair.
+ * <p>
+ * The catalogue has 40 roles granting 25 of 200 permissions each, and each of the
+ * batch's {@code users} holds 3 roles. Half of the checks name an authority the
+ * user does not hold.
+ * <pre>
+ * mvn -P benchmarks test-compile exec:exec -Djmh.args="AuthorizationDecision"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class AuthorizationDecisionBenchmark {
+
+    private static final int ROLES = 40;
+    private static final int PERMISSIONS = 200;
+    private static final int PERMISSIONS_PER_ROLE = 25;
+    private static final int ROLES_PER_USER = 3;
+
+    @Param({ "100", "1000", "10000" })
+    private int checks;
+
+    @Param({ "1", "50" })
+    private int users;
+
+    private AuthorizationDecisionServiceImpl service;
+    private List<Check> batch;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<RoleGrant> grants = new ArrayList<>();
+        for (long role = 0; role < ROLES; role++) {
+            for (int i = 0; i < PERMISSIONS_PER_ROLE; i++) {
+                grants.add(grant(role, "Role" + role, "PERMISSION_" + random.nextInt(PERMISSIONS)));
+            }
+        }
+        List<UUID> userIds = new ArrayList<>();
+        List<Assignment> assignments = new ArrayList<>();
+        for (int u = 0; u < users; u++) {
+            UUID userId = UUID.randomUUID();
+            userIds.add(userId);
+            for (int r = 0; r < ROLES_PER_USER; r++) {
+                assignments.add(new Assignment(userId, (long) random.nextInt(ROLES)));
+            }
+        }
+        batch = new ArrayList<>(checks);
+        for (int i = 0; i < checks; i++) {
+            String authority = i % 4 == 0
+                    ? "ROLE_ROLE" + random.nextInt(ROLES)
+                    : "PERMISSION_" + random.nextInt(PERMISSIONS);
+            batch.add(new Check(userIds.get(i % users), authority));
+        }
+
+        CatalogueSnapshotService catalogue = mock(CatalogueSnapshotService.class);
+        when(catalogue.currentVersion()).thenReturn(1L);
+        RoleRepository roleRepository = mock(RoleRepository.class);
+        when(roleRepository.findAllGrants()).thenReturn(grants);
+        UserRoleAssignmentRepository assignmentRepository = mock(UserRoleAssignmentRepository.class);
+        when(assignmentRepository.findAssignments(any(), anyCollection())).thenReturn(assignments);
+
+        service = new AuthorizationDecisionServiceImpl(catalogue, roleRepository, assignmentRepository,
+                new AuthMetrics(new SimpleMeterRegistry()));
+        TenantContext.setTenantId("default");
+    }
+
+    @TearDown
+    public void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Benchmark
+    public boolean[] decide() {
+        return service.decide(batch);
+    }
+
+    private static RoleGrant grant(Long roleId, String roleName, String permissionName) {
+        return new RoleGrant() {
+            @Override
+            public Long getRoleId() {
+                return roleId;
+            }
+
+            @Override
+            public String getRoleName() {
+                return roleName;
+            }
+
+            @Override
+            public String getPermissionName() {
+                return permissionName;
+            }
+        };
+    }
+}
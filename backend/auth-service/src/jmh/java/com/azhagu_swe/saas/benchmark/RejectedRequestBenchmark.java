@@ -0,0 +1,107 @@
+package com.azhagu_swe.saas.benchmark;
+
+import com.azhagu_swe.saas.dto.response.ErrorResponse;
+import com.azhagu_swe.saas.exception.ErrorBodyTemplate;
+import com.azhagu_swe.saas.exception.InvalidCredentialsException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one rejected request, from throwing the exception to having the response
+ * body bytes, before and after the stackless exceptions and error body templates.
+ * <p>
+ * {@code depth} is how many frames sit between the servlet container and the throw.
+ * A sign-in through the security filter chain, the controller and the transactional
+ * service proxy is roughly 100-150 frames deep. Run with the GC profiler to see
+ * allocation per rejection:
+ * <pre>
+ * mvn -P benchmarks test-compile exec:exec -Djmh.args="RejectedRequest -prof gc"
+ * </pre>
+ * Compare {@code gc.alloc.rate.norm} (bytes per operation) and the average time
+ * between each {@code *Before} / {@code *After} pair.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RejectedRequestBenchmark {
+
+    private static final String PATH = "/v1/api/auth/signin";
+    private static final String MESSAGE = "Invalid email or password provided.";
+    private static final InvalidCredentialsException PREBUILT = InvalidCredentialsException.expected(MESSAGE);
+    private static final ErrorBodyTemplate CREDENTIALS_TEMPLATE = ErrorBodyTemplate.of(HttpStatus.UNAUTHORIZED, MESSAGE);
+    private static final ErrorBodyTemplate RATE_LIMITED_TEMPLATE = ErrorBodyTemplate.withEpochMillis(
+            HttpStatus.TOO_MANY_REQUESTS, "Rate limit exceeded. Try again in 30 seconds");
+
+    @Param({ "20", "120" })
+    private int depth;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Benchmark
+    public byte[] invalidCredentialsBefore() throws IOException {
+        try {
+            throwAt(depth, false);
+            return null;
+        } catch (InvalidCredentialsException e) {
+            return objectMapper.writeValueAsBytes(new ErrorResponse(e.getStatus().value(),
+                    e.getStatus().getReasonPhrase(), e.getMessage(), PATH));
+        }
+    }
+
+    @Benchmark
+    public byte[] invalidCredentialsAfter() {
+        try {
+            throwAt(depth, true);
+            return null;
+        } catch (InvalidCredentialsException e) {
+            return CREDENTIALS_TEMPLATE.render(PATH);
+        }
+    }
+
+    @Benchmark
+    public byte[] rateLimitedBefore() throws IOException {
+        Map<String, Object> errorBody = new HashMap<>();
+        errorBody.put("timestamp", System.currentTimeMillis());
+        errorBody.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        errorBody.put("error", "Too Many Requests");
+        errorBody.put("message", "Rate limit exceeded. Try again in " + 30L + " seconds");
+        errorBody.put("path", PATH);
+        return objectMapper.writeValueAsBytes(errorBody);
+    }
+
+    @Benchmark
+    public byte[] rateLimitedAfter() {
+        return RATE_LIMITED_TEMPLATE.render(PATH);
+    }
+
+    // Recursion stands in for the filter chain and proxies above the throw site
+    private static void throwAt(int remaining, boolean prebuilt) {
+        if (remaining > 0) {
+            throwAt(remaining - 1, prebuilt);
+            return;
+        }
+        throw prebuilt ? PREBUILT : new InvalidCredentialsException(MESSAGE);
+    }
+}
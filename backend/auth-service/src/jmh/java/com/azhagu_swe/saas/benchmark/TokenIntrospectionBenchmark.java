@@ -0,0 +1,95 @@
+package com.azhagu_swe.saas.benchmark;
+
+import com.azhagu_swe.saas.dto.response.TokenIntrospectionResponse;
+import com.azhagu_swe.saas.metrics.AuthMetrics;
+import com.azhagu_swe.saas.service.impl.InMemoryTokenRevocationService;
+import com.azhagu_swe.saas.service.impl.TokenIntrospectionServiceImpl;
+import com.azhagu_swe.saas.util.JwtUtils;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one introspection call in {@link TokenIntrospectionServiceImpl}, against
+ * the in-memory revocation store.
+ * <ul>
+ *   <li>{@code CACHED}: every token has been introspected before, as for a session's
+ *       second and later requests.</li>
+ *   <li>{@code UNCACHED}: a cache of size zero, so every token's signature is checked
+ *       and its claims parsed on every call, as before the cache.</li>
+ * </ul>
+ * <pre>
+ * mvn -P benchmarks test-compile exec:exec -Djmh.args="TokenIntrospection"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TokenIntrospectionBenchmark {
+
+    public enum Cache {
+        CACHED, UNCACHED
+    }
+
+    @Param
+    private Cache cache;
+
+    @Param({ "1", "20" })
+    private int tokens;
+
+    private TokenIntrospectionServiceImpl service;
+    private List<String> batch;
+
+    @Setup
+    public void setUp() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS512);
+        AuthMetrics metrics = new AuthMetrics(new SimpleMeterRegistry());
+        service = new TokenIntrospectionServiceImpl(new JwtUtils(key, metrics),
+                new InMemoryTokenRevocationService(Duration.ofMinutes(15).toMillis()), metrics,
+                cache == Cache.CACHED ? 20_000 : 0);
+
+        batch = new ArrayList<>(tokens);
+        Instant now = Instant.now();
+        for (int i = 0; i < tokens; i++) {
+            batch.add(Jwts.builder()
+                    .setSubject("user" + i + "@example.com")
+                    .claim("userId", UUID.randomUUID().toString())
+                    .claim(JwtUtils.TENANT_ID_CLAIM, "default")
+                    .claim("roles", List.of("ROLE_STANDARDUSER", "PERMISSION_USER_READ", "PERMISSION_PROFILE_READ"))
+                    .setIssuedAt(Date.from(now.minusSeconds(5)))
+                    .setExpiration(Date.from(now.plus(Duration.ofHours(1))))
+                    .signWith(key, SignatureAlgorithm.HS512)
+                    .compact());
+        }
+        service.introspect(batch);
+    }
+
+    @Benchmark
+    public List<TokenIntrospectionResponse> introspect() {
+        return service.introspect(batch);
+    }
+}
@@ -0,0 +1,5 @@
+package com.azhagu_swe.saas.audit;
+
+public enum AuditAction {
+    CREATE, UPDATE, DELETE
+}
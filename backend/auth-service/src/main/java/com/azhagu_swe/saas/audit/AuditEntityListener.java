@@ -0,0 +1,161 @@
+package com.azhagu_swe.saas.audit;
+
+import com.azhagu_swe.saas.model.entity.Permission;
+import com.azhagu_swe.saas.model.entity.Role;
+import com.azhagu_swe.saas.model.entity.User;
+import com.azhagu_swe.saas.security.tenant.TenantContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.collection.spi.PersistentCollection;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.event.spi.PreCollectionUpdateEvent;
+import org.hibernate.event.spi.PreCollectionUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Turns Hibernate's insert, update and delete events on {@link User}, {@link Role}
+ * and {@link Permission} into audit events. Role and permission membership changes
+ * arrive as collection updates and are recorded as the names added and removed.
+ * <p>
+ * Only field names are recorded for updates, never values, so password hashes and
+ * personal data stay out of the trail.
+ */
+@Component
+public class AuditEntityListener implements PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener, PreCollectionUpdateEventListener {
+
+    // Maintained by AbstractAuditableEntity on every write
+    private static final Set<String> IGNORED_PROPERTIES = Set.of("createdAt", "updatedAt", "createdBy", "updatedBy");
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final AuditTrail auditTrail;
+
+    public AuditEntityListener(EntityManagerFactory entityManagerFactory, AuditTrail auditTrail) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.auditTrail = auditTrail;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        registry.appendListeners(EventType.PRE_COLLECTION_UPDATE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        record(event.getEntity(), event.getId(), AuditAction.CREATE, null);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        int[] dirtyProperties = event.getDirtyProperties();
+        if (dirtyProperties == null) {
+            return;
+        }
+        String[] names = event.getPersister().getPropertyNames();
+        Set<String> changed = new TreeSet<>();
+        for (int index : dirtyProperties) {
+            // Collections are recorded by onPreUpdateCollection, with the names involved
+            if (!IGNORED_PROPERTIES.contains(names[index])
+                    && !event.getPersister().getPropertyTypes()[index].isCollectionType()) {
+                changed.add(names[index]);
+            }
+        }
+        if (!changed.isEmpty()) {
+            record(event.getEntity(), event.getId(), AuditAction.UPDATE, "changed: " + String.join(", ", changed));
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        record(event.getEntity(), event.getId(), AuditAction.DELETE, null);
+    }
+
+    @Override
+    public void onPreUpdateCollection(PreCollectionUpdateEvent event) {
+        Object owner = event.getAffectedOwnerOrNull();
+        PersistentCollection<?> collection = event.getCollection();
+        String label;
+        if (owner instanceof User && collection.getRole().endsWith(".roles")) {
+            label = "roles";
+        } else if (owner instanceof Role && collection.getRole().endsWith(".permissions")) {
+            label = "permissions";
+        } else {
+            return;
+        }
+        Set<String> before = names(snapshotElements(collection.getStoredSnapshot()));
+        Set<String> after = names((Collection<?>) collection);
+        String details = membershipChange(label, before, after);
+        if (details != null) {
+            record(owner, event.getAffectedOwnerIdOrNull(), AuditAction.UPDATE, details);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        // AuditTrail already defers events to the commit
+        return false;
+    }
+
+    /**
+     * @return e.g. {@code roles: +ROLE_ADMIN, -ROLE_USER}, or {@code null} when nothing changed.
+     */
+    static String membershipChange(String label, Set<String> before, Set<String> after) {
+        List<String> changes = new ArrayList<>();
+        after.stream().filter(name -> !before.contains(name)).forEach(name -> changes.add("+" + name));
+        before.stream().filter(name -> !after.contains(name)).forEach(name -> changes.add("-" + name));
+        return changes.isEmpty() ? null : label + ": " + String.join(", ", changes);
+    }
+
+    private void record(Object entity, Object id, AuditAction action, String details) {
+        if (entity instanceof User user) {
+            auditTrail.record(auditTrail.event(AuditEntityType.USER, id, action, user.getTenantId(), details));
+        } else if (entity instanceof Role) {
+            auditTrail.record(auditTrail.event(AuditEntityType.ROLE, id, action, TenantContext.getTenantId(),
+                    details));
+        } else if (entity instanceof Permission) {
+            auditTrail.record(auditTrail.event(AuditEntityType.PERMISSION, id, action, TenantContext.getTenantId(),
+                    details));
+        }
+    }
+
+    private static Collection<?> snapshotElements(Object snapshot) {
+        // PersistentSet snapshots are element-to-element maps
+        if (snapshot instanceof Map<?, ?> map) {
+            return map.keySet();
+        }
+        return snapshot instanceof Collection<?> elements ? elements : List.of();
+    }
+
+    private static Set<String> names(Collection<?> elements) {
+        Set<String> names = new TreeSet<>();
+        for (Object element : elements) {
+            if (element instanceof Role role) {
+                names.add(role.getName());
+            } else if (element instanceof Permission permission) {
+                names.add(permission.getName());
+            }
+        }
+        return names;
+    }
+}
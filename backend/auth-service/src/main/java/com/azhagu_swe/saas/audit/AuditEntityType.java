@@ -0,0 +1,8 @@
+package com.azhagu_swe.saas.audit;
+
+/**
+ * The entities whose changes are written to the audit trail.
+ */
+public enum AuditEntityType {
+    USER, ROLE, PERMISSION
+}
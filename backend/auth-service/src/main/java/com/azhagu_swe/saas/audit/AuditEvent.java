@@ -0,0 +1,16 @@
+package com.azhagu_swe.saas.audit;
+
+import java.time.Instant;
+
+/**
+ * One change to an audited entity, as captured inside the transaction that made it.
+ *
+ * @param entityId The entity's ID in text form (a UUID for users, a number otherwise).
+ * @param actor    Who made the change, as reported by the {@code AuditorAware} bean.
+ * @param details  What changed: the names of changed fields (never their values), e.g.
+ *                 {@code changed: email, password}, or the role and permission names
+ *                 added and removed, e.g. {@code roles: +ADMIN, -USER}.
+ */
+public record AuditEvent(Instant occurredAt, String tenantId, AuditEntityType entityType, String entityId,
+        AuditAction action, String actor, String details) {
+}
@@ -0,0 +1,75 @@
+package com.azhagu_swe.saas.audit;
+
+import com.azhagu_swe.saas.datasource.DatabaseWorkload;
+import com.azhagu_swe.saas.datasource.Workload;
+import com.azhagu_swe.saas.model.repository.AuditEventRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+/**
+ * Keeps monthly {@code audit_events} partitions in place ahead of time, and drops
+ * those older than the retention period.
+ * <p>
+ * Runs once at startup, before requests are served, and then daily. Events for a
+ * month without a partition still land in the default partition, but a month's
+ * partition can no longer be created once the default one holds rows for it, so
+ * {@code partitions-ahead} should stay at 1 or more.
+ */
+@Component
+public class AuditPartitionMaintainer {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditPartitionMaintainer.class);
+
+    private final AuditEventRepository auditEventRepository;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final Clock clock;
+
+    @Autowired
+    public AuditPartitionMaintainer(AuditEventRepository auditEventRepository,
+            @Value("${app.audit.partitions-ahead:2}") int monthsAhead,
+            @Value("${app.audit.retention-months:0}") int retentionMonths) {
+        this(auditEventRepository, monthsAhead, retentionMonths, Clock.system(ZoneOffset.UTC));
+    }
+
+    AuditPartitionMaintainer(AuditEventRepository auditEventRepository, int monthsAhead, int retentionMonths,
+            Clock clock) {
+        this.auditEventRepository = auditEventRepository;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    @Scheduled(cron = "${app.audit.partition-cron:0 0 2 * * *}")
+    @DatabaseWorkload(Workload.BACKGROUND)
+    public void maintainPartitions() {
+        YearMonth current = YearMonth.now(clock);
+        try {
+            for (int i = 0; i <= monthsAhead; i++) {
+                auditEventRepository.createMonthlyPartition(current.plusMonths(i));
+            }
+            if (retentionMonths > 0) {
+                YearMonth oldestKept = current.minusMonths(retentionMonths - 1L);
+                for (YearMonth month : auditEventRepository.findMonthlyPartitions()) {
+                    if (month.isBefore(oldestKept)) {
+                        auditEventRepository.dropMonthlyPartition(month);
+                        logger.info("Dropped audit partition for {}", month);
+                    }
+                }
+            }
+        } catch (DataAccessException ex) {
+            logger.error("Audit partition maintenance failed: {}", ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.azhagu_swe.saas.audit;
+
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Entry point for recording audit events.
+ * <p>
+ * Events recorded inside a transaction are held until it commits and dropped if it
+ * rolls back, so the trail only ever shows changes that happened. They are then
+ * handed to {@link AuditWriter}, which writes them in batches off the request
+ * thread; the transaction itself never waits for an audit insert.
+ */
+@Component
+public class AuditTrail {
+
+    private static final String SYSTEM_ACTOR = "SYSTEM";
+
+    private final AuditWriter auditWriter;
+    private final AuditorAware<String> auditorAware;
+
+    public AuditTrail(AuditWriter auditWriter, AuditorAware<String> auditorAware) {
+        this.auditWriter = auditWriter;
+        this.auditorAware = auditorAware;
+    }
+
+    public AuditEvent event(AuditEntityType entityType, Object entityId, AuditAction action, String tenantId,
+            String details) {
+        return new AuditEvent(Instant.now(), tenantId, entityType, String.valueOf(entityId), action,
+                auditorAware.getCurrentAuditor().orElse(SYSTEM_ACTOR), details);
+    }
+
+    public void record(AuditEvent event) {
+        record(List.of(event));
+    }
+
+    public void record(List<AuditEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            auditWriter.enqueue(events);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                auditWriter.enqueue(events);
+            }
+        });
+    }
+}
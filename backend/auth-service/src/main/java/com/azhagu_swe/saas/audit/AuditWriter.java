@@ -0,0 +1,96 @@
+package com.azhagu_swe.saas.audit;
+
+import com.azhagu_swe.saas.datasource.DatabaseWorkload;
+import com.azhagu_swe.saas.datasource.Workload;
+import com.azhagu_swe.saas.metrics.AuthMetrics;
+import com.azhagu_swe.saas.model.repository.AuditEventRepository;
+import io.micrometer.core.instrument.Gauge;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Buffers committed audit events in memory and writes them to {@code audit_events}
+ * in batches from the scheduler thread, on the background connection pool. One
+ * flush writes at most {@code max-batches-per-flush} batches and leaves the rest
+ * for the next one, so a backlog cannot hold the scheduler thread for long.
+ * <p>
+ * The buffer is bounded. When the database cannot keep up, new events are dropped
+ * and counted ({@code auth.audit.events{result=dropped}}) rather than slowing
+ * down the transactions that produce them. Events still buffered when the process
+ * dies are lost; a clean shutdown writes them out first.
+ */
+@Component
+public class AuditWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditWriter.class);
+
+    private final AuditEventRepository auditEventRepository;
+    private final AuthMetrics authMetrics;
+    private final BlockingQueue<AuditEvent> queue;
+    private final int batchSize;
+    private final int maxBatchesPerFlush;
+
+    public AuditWriter(AuditEventRepository auditEventRepository, AuthMetrics authMetrics,
+            @Value("${app.audit.queue-capacity:100000}") int queueCapacity,
+            @Value("${app.audit.batch-size:500}") int batchSize,
+            @Value("${app.audit.max-batches-per-flush:20}") int maxBatchesPerFlush) {
+        this.auditEventRepository = auditEventRepository;
+        this.authMetrics = authMetrics;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.maxBatchesPerFlush = maxBatchesPerFlush;
+        Gauge.builder("auth.audit.queue.size", queue, Collection::size)
+                .description("Committed audit events waiting to be written")
+                .register(authMetrics.getRegistry());
+    }
+
+    void enqueue(List<AuditEvent> events) {
+        int dropped = 0;
+        for (AuditEvent event : events) {
+            if (!queue.offer(event)) {
+                dropped++;
+            }
+        }
+        if (dropped > 0) {
+            logger.warn("Audit queue full; dropped {} event(s)", dropped);
+            authMetrics.auditEvents("dropped", dropped);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.audit.flush-interval-ms:500}")
+    @DatabaseWorkload(Workload.BACKGROUND)
+    public void flush() {
+        flush(maxBatchesPerFlush);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush(Integer.MAX_VALUE);
+    }
+
+    private void flush(int maxBatches) {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        for (int batches = 0; batches < maxBatches && queue.drainTo(batch, batchSize) > 0; batches++) {
+            try {
+                auditEventRepository.insertAll(batch);
+                authMetrics.auditEvents("written", batch.size());
+            } catch (DataAccessException ex) {
+                // Not retried, so one bad batch cannot hold up the ones queued behind it
+                logger.error("Failed to write {} audit event(s): {}", batch.size(), ex.getMessage());
+                authMetrics.auditEvents("failed", batch.size());
+            }
+            batch.clear();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.azhagu_swe.saas.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+
+/**
+ * Native-image hints for Bucket4j. The local bucket implementations and the
+ * configuration types are created and copied reflectively (serialization handles,
+ * the Spring Boot starter's property binding), so they are kept for native builds.
+ */
+public class Bucket4jRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final List<String> REFLECTIVE_TYPES = List.of(
+            "io.github.bucket4j.Bandwidth",
+            "io.github.bucket4j.BucketConfiguration",
+            "io.github.bucket4j.Refill",
+            "io.github.bucket4j.local.LockFreeBucket",
+            "io.github.bucket4j.local.SynchronizedBucket",
+            "io.github.bucket4j.local.ThreadUnsafeBucket",
+            "io.github.bucket4j.local.LocalBucketBuilder");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (String type : REFLECTIVE_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_METHODS,
+                    MemberCategory.DECLARED_FIELDS);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.azhagu_swe.saas.config;
+
+import com.azhagu_swe.saas.datasource.DatabaseWorkload;
+import com.azhagu_swe.saas.datasource.DatabaseWorkloadInterceptor;
+import com.azhagu_swe.saas.datasource.Workload;
+import com.azhagu_swe.saas.datasource.WorkloadFilter;
+import com.azhagu_swe.saas.datasource.WorkloadRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces Boot's single Hikari pool with one primary pool per {@link Workload},
+ * plus one pool per read replica when {@code app.datasource.replicas.enabled} is
+ * set, all behind {@link WorkloadRoutingDataSource}. Set
+ * {@code app.datasource.routing.enabled: false} to go back to the single pool.
+ * <p>
+ * Every pool starts from {@code spring.datasource.*}. Workload pools then apply
+ * {@code app.datasource.workloads.<auth|admin|background>.*}, which accepts any
+ * Hikari property (e.g. {@code maximum-pool-size}, {@code connection-timeout});
+ * replicas differ only in URL, pool size and being read-only.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.routing.enabled", havingValue = "true", matchIfMissing = true)
+public class DataSourceRoutingConfig {
+
+    private static final String WORKLOADS_PREFIX = "app.datasource.workloads.";
+
+    @Bean(destroyMethod = "close")
+    public WorkloadRoutingDataSource workloadRoutingDataSource(DataSourceProperties properties, Environment environment,
+            @Value("${app.datasource.replicas.enabled:false}") boolean replicasEnabled,
+            @Value("${app.datasource.replicas.urls:}") List<String> replicaUrls,
+            @Value("${app.datasource.replicas.maximum-pool-size:10}") int replicaPoolSize,
+            @Value("${app.datasource.replicas.max-lag:2s}") Duration maxLag,
+            @Value("${app.datasource.replicas.read-your-writes-window:2s}") Duration readYourWritesWindow,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        Binder binder = Binder.get(environment);
+
+        Map<Workload, DataSource> primaries = new EnumMap<>(Workload.class);
+        for (Workload workload : Workload.values()) {
+            HikariDataSource pool = createPool(properties, binder, properties.determineUrl(), workload.poolName(),
+                    registry);
+            binder.bind(WORKLOADS_PREFIX + workload.poolName(), Bindable.ofInstance(pool));
+            pool.setPoolName(workload.poolName());
+            primaries.put(workload, pool);
+        }
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        if (replicasEnabled) {
+            for (String url : replicaUrls) {
+                if (url.isBlank()) {
+                    continue;
+                }
+                HikariDataSource replica = createPool(properties, binder, url.trim(),
+                        "replica-" + replicas.size(), registry);
+                replica.setMaximumPoolSize(replicaPoolSize);
+                replica.setReadOnly(true);
+                replicas.put(replica.getPoolName(), replica);
+            }
+        }
+        return new WorkloadRoutingDataSource(primaries, replicas, maxLag, readYourWritesWindow, registry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(WorkloadRoutingDataSource workloadRoutingDataSource) {
+        // Hold back the physical connection until the first statement, when the
+        // transaction's read-only flag and the method's workload are both in place
+        return new LazyConnectionDataSourceProxy(workloadRoutingDataSource);
+    }
+
+    @Bean
+    public FilterRegistrationBean<WorkloadFilter> workloadFilter(Environment environment) {
+        Binder binder = Binder.get(environment);
+        Map<Workload, List<String>> pathPatterns = new EnumMap<>(Workload.class);
+        for (Workload workload : Workload.values()) {
+            binder.bind(WORKLOADS_PREFIX + workload.poolName() + ".paths", Bindable.listOf(String.class))
+                    .ifBound(paths -> pathPatterns.put(workload, paths));
+        }
+        FilterRegistrationBean<WorkloadFilter> registration = new FilterRegistrationBean<>(
+                new WorkloadFilter(pathPatterns));
+        // Ahead of Spring Security, whose JWT filter loads the user from the database
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor databaseWorkloadAdvisor() {
+        ComposablePointcut pointcut = new ComposablePointcut(
+                new AnnotationMatchingPointcut(DatabaseWorkload.class, true))
+                .union(new AnnotationMatchingPointcut(null, DatabaseWorkload.class, true));
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, new DatabaseWorkloadInterceptor());
+        // Outside @Transactional, so the workload is set before the transaction begins
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    private static HikariDataSource createPool(DataSourceProperties properties, Binder binder, String url,
+            String poolName, MeterRegistry registry) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(poolName);
+        if (registry != null) {
+            // These pools are not beans, so Boot's Hikari metrics binder does not see them
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        }
+        return pool;
+    }
+}
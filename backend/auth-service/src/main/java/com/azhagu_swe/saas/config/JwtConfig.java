@@ -5,10 +5,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 
 @Configuration
+@ImportRuntimeHints(JjwtRuntimeHints.class)
 @Slf4j
 public class JwtConfig {
 
@@ -1,19 +1,31 @@
 package com.azhagu_swe.saas.config;
 
 import com.azhagu_swe.saas.filter.RateLimitingFilter;
+import com.azhagu_swe.saas.filter.TenantQuotaFilter;
+import com.azhagu_swe.saas.metrics.AuthMetrics;
+import com.azhagu_swe.saas.metrics.TimedPasswordEncoder;
+import com.azhagu_swe.saas.security.authentication.FastFailDaoAuthenticationProvider;
+import com.azhagu_swe.saas.security.authentication.LockoutAwareUserDetailsService;
 import com.azhagu_swe.saas.security.jwt.AuthEntryPointJwt; // Import new handler
 import com.azhagu_swe.saas.security.jwt.CustomAccessDeniedHandler; // Import new handler
+import com.azhagu_swe.saas.security.jwt.GatewayIdentityAuthenticationFilter;
 import com.azhagu_swe.saas.security.jwt.JwtAuthenticationFilter;
+import com.azhagu_swe.saas.security.tenant.TenantResolutionFilter;
+import com.azhagu_swe.saas.service.LoginAttemptService;
+import io.micrometer.tracing.Tracer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 // import org.springframework.beans.factory.annotation.Autowired; // No longer needed for jwtAuthenticationFilter
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
@@ -26,8 +38,11 @@ import org.springframework.web.cors.CorsConfigurationSource;
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+    private final GatewayIdentityAuthenticationFilter gatewayIdentityAuthenticationFilter;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final RateLimitingFilter rateLimitingFilter;
+    private final TenantResolutionFilter tenantResolutionFilter;
+    private final TenantQuotaFilter tenantQuotaFilter;
     private final CorsConfigurationSource corsConfigurationSource;
     private final AuthEntryPointJwt unauthorizedHandler; 
     private final CustomAccessDeniedHandler accessDeniedHandler; 
@@ -43,6 +58,8 @@ public class SecurityConfig {
             )
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Called by services, not users; the controller checks the caller's permission
+                .requestMatchers("/v1/api/auth/introspect").authenticated()
                 .requestMatchers(
                         "/v1/api/auth/**",         
                         "/swagger-ui/**",       
@@ -55,8 +72,13 @@ public class SecurityConfig {
             );
 
        
+        // Filters added before the same anchor run in the order they are added
+        http.addFilterBefore(tenantResolutionFilter, UsernamePasswordAuthenticationFilter.class);
         http.addFilterBefore(rateLimitingFilter, UsernamePasswordAuthenticationFilter.class);
+        http.addFilterBefore(gatewayIdentityAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        // Needs the authenticated tenant, so it comes after both authentication filters
+        http.addFilterBefore(tenantQuotaFilter, UsernamePasswordAuthenticationFilter.class);
       
         return http.build();
     }
@@ -67,8 +89,24 @@ public class SecurityConfig {
         return authenticationConfiguration.getAuthenticationManager();
     }
 
+    /**
+     * Replaces the provider Spring Security would build from the UserDetailsService
+     * bean, so failed sign-ins do not fill a stack trace each and locked-out accounts
+     * fail the pre-authentication checks.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public DaoAuthenticationProvider authenticationProvider(UserDetailsService userDetailsService,
+            LoginAttemptService loginAttemptService, PasswordEncoder passwordEncoder) {
+        DaoAuthenticationProvider provider = new FastFailDaoAuthenticationProvider();
+        provider.setUserDetailsService(new LockoutAwareUserDetailsService(userDetailsService, loginAttemptService));
+        provider.setPasswordEncoder(passwordEncoder);
+        return provider;
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder(AuthMetrics authMetrics, ObjectProvider<Tracer> tracer) {
+        // Timed and traced so the BCrypt cost shows up as its own share of sign-in latency
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), authMetrics,
+                tracer.getIfAvailable(() -> Tracer.NOOP));
     }
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.azhagu_swe.saas.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Adds CBOR ({@code application/cbor}) and Smile ({@code application/x-jackson-smile})
+ * to content negotiation for service-to-service callers, and registers the Blackbird
+ * module so Jackson uses generated accessors instead of reflection.
+ * <p>
+ * The binary converters are appended after the JSON one, so a request that accepts
+ * any type (browsers, curl) still gets JSON. Only callers that name a binary type in
+ * {@code Accept} get it.
+ */
+@Configuration
+public class SerializationConfig implements WebMvcConfigurer {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    // Boot's builder is prototype-scoped and carries spring.jackson.* and every Module bean,
+    // including the one below, so it is looked up lazily rather than injected
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> mapperBuilders;
+
+    public SerializationConfig(ObjectProvider<Jackson2ObjectMapperBuilder> mapperBuilders) {
+        this.mapperBuilders = mapperBuilders;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.serialization.blackbird.enabled", havingValue = "true", matchIfMissing = true)
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new MappingJackson2CborHttpMessageConverter(cborMapper(mapperBuilders.getObject())));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(smileMapper(mapperBuilders.getObject())));
+    }
+
+    /**
+     * Builds a CBOR mapper from Boot's builder. Code that serializes by hand (the
+     * catalogue snapshots) uses these so its bytes match what the converters write.
+     */
+    public static ObjectMapper cborMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder.factory(new CBORFactory()).build();
+    }
+
+    public static ObjectMapper smileMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder.factory(new SmileFactory()).build();
+    }
+}
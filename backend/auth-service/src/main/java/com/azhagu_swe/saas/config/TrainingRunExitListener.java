@@ -0,0 +1,33 @@
+package com.azhagu_swe.saas.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exits the JVM as soon as the context has refreshed when started with
+ * {@code -Dspring.context.exit=onRefresh}. This is what a CDS training run needs:
+ * every startup class is loaded, then the JVM exits and
+ * {@code -XX:ArchiveClassesAtExit} writes the archive.
+ * <p>
+ * Spring Framework 6.1 supports this property natively. This service is still on
+ * Boot 3.1 / Framework 6.0, so the behaviour is provided here.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.context.exit", havingValue = "onRefresh")
+public class TrainingRunExitListener implements ApplicationListener<ContextRefreshedEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrainingRunExitListener.class);
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        logger.info("spring.context.exit=onRefresh set; exiting after context refresh (training run).");
+        // halt, not exit, as Framework 6.1 does: this runs inside refresh(), so the shutdown
+        // hook's context close would wait on the refresh monitor forever. The CDS archive is
+        // still written on halt.
+        Runtime.getRuntime().halt(0);
+    }
+}
@@ -2,6 +2,9 @@ package com.azhagu_swe.saas.constants;
 
 public class AppConstants {
     public static final String DEFAULT_ROLE = "ROLE_USER";
+    public static final String SUPERADMIN_ROLE = "ROLE_SUPERADMIN";
     public static final String BEARER_PREFIX = "Bearer ";
     public static final String TOKEN_TYPE = "Bearer";
+    // Tenant of every request that does not name one, and of all users created before tenants existed
+    public static final String DEFAULT_TENANT = "default";
 }
@@ -0,0 +1,51 @@
+package com.azhagu_swe.saas.controller.v1;
+
+import com.azhagu_swe.saas.dto.response.APIResponse;
+import com.azhagu_swe.saas.dto.response.AuditHistoryResponse;
+import com.azhagu_swe.saas.service.AuditService;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.util.UUID;
+
+@Tag(name = "Audit", description = "History of changes to users and roles")
+@RestController
+@RequestMapping("v1/api/audit")
+@RequiredArgsConstructor
+public class AuditController {
+
+    private final AuditService auditService;
+
+    @GetMapping("/users/{id}")
+    @PreAuthorize("hasAuthority('PERMISSION_SYSTEM_AUDIT_READ') or hasRole('SUPERADMIN')")
+    @Operation(summary = "Get User History",
+               description = "Retrieves a user's changes, newest first. Pass nextCursor back as cursor for the next page.")
+    @ApiResponse(responseCode = "200", description = "History retrieved successfully", content = @Content(schema = @Schema(implementation = APIResponse.class)))
+    @ApiResponse(responseCode = "400", description = "Invalid cursor", content = @Content(schema = @Schema(implementation = APIResponse.class)))
+    public ResponseEntity<APIResponse<AuditHistoryResponse>> getUserHistory(@PathVariable UUID id,
+            @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int limit) {
+        AuditHistoryResponse response = auditService.getUserHistory(id, cursor, limit);
+        return ResponseEntity.ok(APIResponse.success("History retrieved successfully", response));
+    }
+
+    @GetMapping("/roles/{id}")
+    @PreAuthorize("hasAuthority('PERMISSION_SYSTEM_AUDIT_READ') or hasRole('SUPERADMIN')")
+    @Operation(summary = "Get Role History",
+               description = "Retrieves a role's changes, newest first. Pass nextCursor back as cursor for the next page.")
+    @ApiResponse(responseCode = "200", description = "History retrieved successfully", content = @Content(schema = @Schema(implementation = APIResponse.class)))
+    @ApiResponse(responseCode = "400", description = "Invalid cursor", content = @Content(schema = @Schema(implementation = APIResponse.class)))
+    public ResponseEntity<APIResponse<AuditHistoryResponse>> getRoleHistory(@PathVariable Long id,
+            @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int limit) {
+        AuditHistoryResponse response = auditService.getRoleHistory(id, cursor, limit);
+        return ResponseEntity.ok(APIResponse.success("History retrieved successfully", response));
+    }
+}
@@ -10,16 +10,21 @@ import jakarta.validation.constraints.Size;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 import com.azhagu_swe.saas.dto.request.*;
 import com.azhagu_swe.saas.dto.response.UsernameAvailabilityResponse;
 import com.azhagu_swe.saas.service.AuthService;
+import com.azhagu_swe.saas.service.TokenIntrospectionService;
 import com.azhagu_swe.saas.dto.response.APIResponse;
 import com.azhagu_swe.saas.dto.response.EmailAvailabilityResponse;
 import com.azhagu_swe.saas.dto.response.ErrorResponse;
 import com.azhagu_swe.saas.dto.response.SignInResponse;
 import com.azhagu_swe.saas.dto.response.MessageResponse;
+import com.azhagu_swe.saas.dto.response.TokenIntrospectionResponse;
 import com.azhagu_swe.saas.dto.response.TokenRefreshResponse;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -36,6 +41,9 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private TokenIntrospectionService tokenIntrospectionService;
+
     @PostMapping("/signin")
     @Operation(summary = "User Sign-In", description = "Authenticates a user and returns JWT tokens.")
     @ApiResponse(responseCode = "200", description = "Successful authentication", content = @Content(schema = @Schema(implementation = APIResponse.class)))
@@ -74,6 +82,19 @@ public class AuthController {
         return ResponseEntity.ok(APIResponse.success("Token refreshed successfully", response));
     }
 
+    @PostMapping("/introspect")
+    @PreAuthorize("hasAuthority('PERMISSION_SYSTEM_TOKEN_INTROSPECT') or hasRole('SUPERADMIN')")
+    @Operation(summary = "Introspect Tokens", description = "Validates a batch of access tokens for downstream services, which call it with a JWT or gateway identity holding PERMISSION_SYSTEM_TOKEN_INTROSPECT. Each result reports whether the token is active and, if so, its subject, userId, tenant, authorities and expiry, in request order.")
+    @ApiResponse(responseCode = "200", description = "Tokens introspected", content = @Content(schema = @Schema(implementation = APIResponse.class)))
+    @ApiResponse(responseCode = "400", description = "Bad Request (e.g., no tokens or more than 100)", content = @Content(schema = @Schema(implementation = APIResponse.class)))
+    @ApiResponse(responseCode = "401", description = "Unauthorized (no valid caller credentials)", content = @Content(schema = @Schema(implementation = APIResponse.class)))
+    @ApiResponse(responseCode = "403", description = "Forbidden (caller lacks PERMISSION_SYSTEM_TOKEN_INTROSPECT)", content = @Content(schema = @Schema(implementation = APIResponse.class)))
+    public ResponseEntity<APIResponse<List<TokenIntrospectionResponse>>> introspect(
+            @Valid @RequestBody TokenIntrospectionRequest request) {
+        List<TokenIntrospectionResponse> response = tokenIntrospectionService.introspect(request.getTokens());
+        return ResponseEntity.ok(APIResponse.success("Tokens introspected", response));
+    }
+
     @PostMapping("/forgot-password")
     @Operation(summary = "Forgot Password", description = "Initiates the password reset process.")
     @ApiResponse(responseCode = "200", description = "Password reset instructions sent", content = @Content(schema = @Schema(implementation = MessageResponse.class)))
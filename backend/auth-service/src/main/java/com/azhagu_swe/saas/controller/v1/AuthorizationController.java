@@ -0,0 +1,42 @@
+package com.azhagu_swe.saas.controller.v1;
+
+import com.azhagu_swe.saas.dto.request.AuthorizationDecisionRequest;
+import com.azhagu_swe.saas.dto.response.APIResponse;
+import com.azhagu_swe.saas.dto.response.AuthorizationDecisionResponse;
+import com.azhagu_swe.saas.service.AuthorizationDecisionService;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@Tag(name = "Authorization", description = "Authorization decisions for other services")
+@RestController
+@RequestMapping("v1/api/authz")
+@RequiredArgsConstructor
+public class AuthorizationController {
+
+    private final AuthorizationDecisionService authorizationDecisionService;
+
+    @PostMapping("/decisions")
+    @PreAuthorize("hasAuthority('PERMISSION_SYSTEM_AUTHZ_DECIDE') or hasRole('SUPERADMIN')")
+    @Operation(summary = "Decide Authorization Checks",
+               description = "Decides up to 10000 (userId, authority) checks in one call, as hasAuthority would for each user. "
+                       + "Answers are in request order; pass bitset=true for a Base64 bitset instead of a boolean array.")
+    @ApiResponse(responseCode = "200", description = "Checks decided", content = @Content(schema = @Schema(implementation = APIResponse.class)))
+    @ApiResponse(responseCode = "400", description = "Bad Request (e.g., no checks or more than 10000)", content = @Content(schema = @Schema(implementation = APIResponse.class)))
+    public ResponseEntity<APIResponse<AuthorizationDecisionResponse>> decide(
+            @Valid @RequestBody AuthorizationDecisionRequest request,
+            @RequestParam(defaultValue = "false") boolean bitset) {
+        boolean[] decisions = authorizationDecisionService.decide(request.getChecks());
+        return ResponseEntity.ok(APIResponse.success("Checks decided",
+                AuthorizationDecisionResponse.of(decisions, bitset)));
+    }
+}
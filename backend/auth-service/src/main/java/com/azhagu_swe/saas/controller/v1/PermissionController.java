@@ -4,11 +4,13 @@ import com.azhagu_swe.saas.dto.request.PermissionRequest;
 import com.azhagu_swe.saas.dto.response.APIResponse;
 import com.azhagu_swe.saas.dto.response.MessageResponse;
 import com.azhagu_swe.saas.dto.response.PermissionResponse;
+import com.azhagu_swe.saas.service.CatalogueSnapshotService;
 import com.azhagu_swe.saas.service.PermissionService;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -19,7 +21,6 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import org.springdoc.core.annotations.ParameterObject;
-import org.springframework.data.domain.Page; 
 import org.springframework.data.domain.Pageable;
 
 @Tag(name = "Permissions", description = "Operations pertaining to permissions")
@@ -29,13 +30,18 @@ import org.springframework.data.domain.Pageable;
 public class PermissionController {
 
     private final PermissionService permissionService;
+    private final CatalogueSnapshotService catalogueSnapshotService;
 
     @GetMapping("/all")
     @Operation(summary = "Get All Permissions", description = "Retrieves a list of all permissions.")
     @ApiResponse(responseCode = "200", description = "Successful retrieval", content = @Content(schema = @Schema(implementation = PermissionResponse.class)))
-    public ResponseEntity<APIResponse<Page<PermissionResponse>>> getAllPermissions(@ParameterObject Pageable pageable) {
-        Page<PermissionResponse> responses = permissionService.getAllPermissions(pageable);
-        return ResponseEntity.ok(APIResponse.success("Permissions retrieved successfully", responses));
+    @ApiResponse(responseCode = "304", description = "Catalogue unchanged since the ETag in If-None-Match")
+    public ResponseEntity<byte[]> getAllPermissions(@ParameterObject Pageable pageable,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return catalogueSnapshotService.snapshot("permissions:all:" + pageable, accept,
+                () -> APIResponse.success("Permissions retrieved successfully", permissionService.getAllPermissions(pageable)))
+                .toResponseEntity(ifNoneMatch);
     }
 
     @GetMapping("/{id}")
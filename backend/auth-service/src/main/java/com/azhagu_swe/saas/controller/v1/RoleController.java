@@ -3,16 +3,15 @@ package com.azhagu_swe.saas.controller.v1;
 import com.azhagu_swe.saas.dto.request.RoleRequest;
 import com.azhagu_swe.saas.dto.response.APIResponse;
 import com.azhagu_swe.saas.dto.response.RoleResponse;
+import com.azhagu_swe.saas.service.CatalogueSnapshotService;
 import com.azhagu_swe.saas.service.RoleService;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
-import java.util.List;
-
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -32,14 +31,19 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 public class RoleController {
 
     private final RoleService roleService;
+    private final CatalogueSnapshotService catalogueSnapshotService;
 
     @GetMapping("/list")
     @PreAuthorize("hasAnyAuthority('AccountAdmin', 'ROLE_SUPERADMIN')")
     @Operation(summary = "Get All Roles", description = "Retrieves a paginated list of all roles.")
     @ApiResponse(responseCode = "200", description = "Roles retrieved successfully", content = @Content(schema = @Schema(implementation = APIResponse.class)))
-    public ResponseEntity<APIResponse<Page<RoleResponse>>> getAllRoles(@PageableDefault(size = 10) Pageable pageable) {
-        Page<RoleResponse> rolesPage = roleService.getAllRoles(pageable);
-        return ResponseEntity.ok(APIResponse.success("Roles retrieved successfully", rolesPage));
+    @ApiResponse(responseCode = "304", description = "Catalogue unchanged since the ETag in If-None-Match")
+    public ResponseEntity<byte[]> getAllRoles(@PageableDefault(size = 10) Pageable pageable,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return catalogueSnapshotService.snapshot("roles:list:" + pageable, accept,
+                () -> APIResponse.success("Roles retrieved successfully", roleService.getAllRoles(pageable)))
+                .toResponseEntity(ifNoneMatch);
     }
 
     @GetMapping("/{id}")
@@ -98,8 +102,12 @@ public class RoleController {
     @PreAuthorize("hasAuthority('PERMISSION_ACCOUNT_USER_ASSIGN_ROLE') or hasRole('SUPERADMIN')")
     @Operation(summary = "Get All Roles (List)", description = "Retrieves a complete, non-paginated list of all roles, typically for populating UI dropdowns.")
     @ApiResponse(responseCode = "200", description = "Roles list retrieved successfully", content = @Content(array = @ArraySchema(schema = @Schema(implementation = RoleResponse.class))))
-    public ResponseEntity<APIResponse<List<RoleResponse>>> getAllRolesAsList() {
-        List<RoleResponse> rolesList = roleService.getAllRolesAsList();
-        return ResponseEntity.ok(APIResponse.success("Roles list retrieved successfully", rolesList));
+    @ApiResponse(responseCode = "304", description = "Catalogue unchanged since the ETag in If-None-Match")
+    public ResponseEntity<byte[]> getAllRolesAsList(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return catalogueSnapshotService.snapshot("roles:all", accept,
+                () -> APIResponse.success("Roles list retrieved successfully", roleService.getAllRolesAsList()))
+                .toResponseEntity(ifNoneMatch);
     }
 }
@@ -10,9 +10,11 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import com.azhagu_swe.saas.dto.request.BulkRoleAssignmentRequest;
 import com.azhagu_swe.saas.dto.request.CreateUserRequest;
 import com.azhagu_swe.saas.dto.request.UpdateUserRequest;
 import com.azhagu_swe.saas.dto.response.APIResponse;
+import com.azhagu_swe.saas.dto.response.BulkRoleAssignmentResponse;
 import com.azhagu_swe.saas.dto.response.MessageResponse;
 import com.azhagu_swe.saas.dto.response.UserResponse;
 import com.azhagu_swe.saas.service.UserService;
@@ -70,6 +72,20 @@ public class UserController {
         return ResponseEntity.ok(APIResponse.success("User updated successfully", response));
     }
 
+    @PostMapping("/roles/bulk")
+    @PreAuthorize("hasRole('SUPERADMIN')")
+    @Operation(summary = "Grant or Revoke Roles in Bulk",
+               description = "Grants and/or revokes roles for up to 10000 users in one request. "
+                       + "Roles a user already has (or lacks) are skipped, so the request is safe to retry.")
+    @ApiResponse(responseCode = "200", description = "Roles updated; see the per-user results",
+                 content = @Content(schema = @Schema(implementation = BulkRoleAssignmentResponse.class)))
+    @ApiResponse(responseCode = "404", description = "One or more roles do not exist; nothing was changed")
+    public ResponseEntity<APIResponse<BulkRoleAssignmentResponse>> assignRoles(
+            @Valid @RequestBody BulkRoleAssignmentRequest request) {
+        BulkRoleAssignmentResponse response = userService.assignRoles(request);
+        return ResponseEntity.ok(APIResponse.success("Roles updated successfully", response));
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete User", description = "Deletes a user by their ID.")
     @ApiResponse(responseCode = "200", description = "User deleted successfully", content = @Content(schema = @Schema(implementation = MessageResponse.class)))
@@ -0,0 +1,90 @@
+package com.azhagu_swe.saas.datasource;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Per-thread hints for {@link WorkloadRoutingDataSource}.
+ * <p>
+ * The {@link Workload} picks which primary pool a connection comes from. It is set
+ * from the request path by {@link WorkloadFilter}, overridden per method with
+ * {@link DatabaseWorkload}, and is {@link Workload#BACKGROUND} otherwise.
+ * <p>
+ * Read-write transactions always run on the primary. Read-only transactions go to a
+ * replica unless the calling thread is pinned, either explicitly with
+ * {@link #onPrimary(Supplier)} or because it committed a write within the
+ * read-your-writes window. The second case covers the common "save, then load what
+ * was saved" sequence across two transactions in one request.
+ */
+public final class DataSourceRouting {
+
+    private static final ThreadLocal<Workload> WORKLOAD = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+    private static final ThreadLocal<Long> LAST_WRITE_NANOS = new ThreadLocal<>();
+
+    private DataSourceRouting() {
+    }
+
+    public static Workload currentWorkload() {
+        Workload workload = WORKLOAD.get();
+        return workload != null ? workload : Workload.BACKGROUND;
+    }
+
+    /**
+     * Runs {@code work} with connections from {@code workload}'s pool. A connection
+     * already held by an enclosing transaction is kept.
+     */
+    public static <T> T withWorkload(Workload workload, Supplier<T> work) {
+        Workload previous = enterWorkload(workload);
+        try {
+            return work.get();
+        } finally {
+            exitWorkload(previous);
+        }
+    }
+
+    /**
+     * @return the workload to hand back to {@link #exitWorkload(Workload)}.
+     */
+    static Workload enterWorkload(Workload workload) {
+        Workload previous = WORKLOAD.get();
+        WORKLOAD.set(workload);
+        return previous;
+    }
+
+    static void exitWorkload(Workload previous) {
+        if (previous != null) {
+            WORKLOAD.set(previous);
+        } else {
+            WORKLOAD.remove();
+        }
+    }
+
+    /**
+     * Runs {@code work} with every transaction it starts, read-only or not, on the
+     * primary. For reads that must see a write made elsewhere moments ago.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        if (PINNED.get() != null) {
+            return work.get();
+        }
+        PINNED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            PINNED.remove();
+        }
+    }
+
+    static void recordWrite() {
+        LAST_WRITE_NANOS.set(System.nanoTime());
+    }
+
+    static boolean isPinnedToPrimary(Duration readYourWritesWindow) {
+        if (PINNED.get() != null) {
+            return true;
+        }
+        Long lastWrite = LAST_WRITE_NANOS.get();
+        return lastWrite != null && System.nanoTime() - lastWrite < readYourWritesWindow.toNanos();
+    }
+}
@@ -0,0 +1,20 @@
+package com.azhagu_swe.saas.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the annotated method, or every public method of the annotated bean, against
+ * the given workload's pool instead of the one chosen from the request path. The
+ * method must be called through its Spring proxy, as with {@code @Transactional}.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface DatabaseWorkload {
+
+    Workload value();
+}
@@ -0,0 +1,40 @@
+package com.azhagu_swe.saas.datasource;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.lang.NonNull;
+
+import java.lang.reflect.Method;
+
+/**
+ * Applies {@link DatabaseWorkload} around the annotated methods; see
+ * {@code DataSourceRoutingConfig} for the advisor that installs it.
+ */
+public class DatabaseWorkloadInterceptor implements MethodInterceptor {
+
+    @Override
+    public Object invoke(@NonNull MethodInvocation invocation) throws Throwable {
+        Object target = invocation.getThis();
+        Class<?> targetClass = target != null
+                ? AopUtils.getTargetClass(target)
+                : invocation.getMethod().getDeclaringClass();
+        Method method = AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
+
+        DatabaseWorkload annotation = AnnotatedElementUtils.findMergedAnnotation(method, DatabaseWorkload.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(targetClass, DatabaseWorkload.class);
+        }
+        if (annotation == null) {
+            return invocation.proceed();
+        }
+
+        Workload previous = DataSourceRouting.enterWorkload(annotation.value());
+        try {
+            return invocation.proceed();
+        } finally {
+            DataSourceRouting.exitWorkload(previous);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.azhagu_swe.saas.datasource;
+
+/**
+ * Classes of database work, each with its own primary connection pool so that one
+ * class running out of connections cannot make the others wait.
+ */
+public enum Workload {
+
+    /** Sign-in, sign-up, token refresh and the other {@code /v1/api/auth/**} calls. */
+    AUTH("auth"),
+
+    /** User, role and permission management, including listings and bulk operations. */
+    ADMIN("admin"),
+
+    /** Scheduled jobs, startup work and anything else outside an HTTP request. */
+    BACKGROUND("background");
+
+    private final String poolName;
+
+    Workload(String poolName) {
+        this.poolName = poolName;
+    }
+
+    /** Name of the workload's pool, used in its settings and {@code hikaricp.*} metrics. */
+    public String poolName() {
+        return poolName;
+    }
+}
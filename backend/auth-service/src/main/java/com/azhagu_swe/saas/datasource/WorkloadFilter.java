@@ -0,0 +1,57 @@
+package com.azhagu_swe.saas.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Picks the request's {@link Workload} from its path: the first workload with a
+ * matching pattern wins, and anything unmatched counts as {@link Workload#ADMIN}.
+ * Registered ahead of the security filters, which already load the user.
+ */
+public class WorkloadFilter extends OncePerRequestFilter {
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<Workload, List<String>> pathPatterns;
+
+    public WorkloadFilter(Map<Workload, List<String>> pathPatterns) {
+        this.pathPatterns = new LinkedHashMap<>(pathPatterns);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Workload previous = DataSourceRouting.enterWorkload(resolve(request));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            DataSourceRouting.exitWorkload(previous);
+        }
+    }
+
+    Workload resolve(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Map.Entry<Workload, List<String>> entry : pathPatterns.entrySet()) {
+            for (String pattern : entry.getValue()) {
+                if (pathMatcher.match(pattern, path)) {
+                    return entry.getKey();
+                }
+            }
+        }
+        return Workload.ADMIN;
+    }
+}
@@ -0,0 +1,259 @@
+package com.azhagu_swe.saas.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out connections from the current {@link Workload}'s primary pool, or from a
+ * read replica for read-only transactions.
+ * <p>
+ * Each workload has its own primary pool with its own size and connection timeout,
+ * so admin listings and bulk operations that use up the admin pool cannot delay
+ * sign-ins. Replica pools are shared by all workloads.
+ * <p>
+ * Replicas are polled for their replay lag every
+ * {@code app.datasource.replicas.check-interval-ms}. A replica that is unreachable
+ * or further behind than {@code max-lag} gets no reads until it catches up; with no
+ * usable replica, reads fall back to the primary. A replica that fails to hand out
+ * a connection is taken out of rotation straight away and the read goes to the
+ * primary.
+ * <p>
+ * The routing decision needs the transaction's read-only flag, which JPA only sets
+ * after it has asked for a connection, so this must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkloadRoutingDataSource.class);
+
+    // 0 on a caught-up replica (or a primary stand-in), -1 when the lag cannot be told
+    private static final String LAG_MILLIS_SQL = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, -1)
+                   END""";
+
+    private final Map<Workload, DataSource> primaries = new EnumMap<>(Workload.class);
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Duration maxLag;
+    private final Duration readYourWritesWindow;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    @Nullable
+    private final Counter replicaReads;
+    @Nullable
+    private final Counter primaryReads;
+
+    /**
+     * @param primaries            Primary pool of every workload.
+     * @param replicas             Replica pools by name, possibly none; the names show
+     *                             up in logs and metrics.
+     * @param readYourWritesWindow How long a thread that committed a write keeps
+     *                             reading from the primary. Should cover {@code maxLag}.
+     */
+    public WorkloadRoutingDataSource(Map<Workload, ? extends DataSource> primaries,
+            Map<String, ? extends DataSource> replicas, Duration maxLag, Duration readYourWritesWindow,
+            @Nullable MeterRegistry registry) {
+        this.maxLag = maxLag;
+        this.readYourWritesWindow = readYourWritesWindow;
+
+        Map<Object, Object> targets = new HashMap<>();
+        for (Workload workload : Workload.values()) {
+            DataSource primary = primaries.get(workload);
+            if (primary == null) {
+                throw new IllegalArgumentException("No primary pool for workload " + workload);
+            }
+            this.primaries.put(workload, primary);
+            targets.put(workload, primary);
+        }
+        replicas.forEach((name, dataSource) -> {
+            this.replicas.add(new Replica(name, dataSource));
+            targets.put(name, dataSource);
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(this.primaries.get(Workload.BACKGROUND));
+
+        if (registry != null) {
+            for (Replica replica : this.replicas) {
+                Gauge.builder("auth.datasource.replica.lag", replica, r -> r.lagMillis)
+                        .description("Replay lag of each read replica in milliseconds; NaN when unreachable")
+                        .baseUnit("milliseconds")
+                        .tag("replica", replica.name)
+                        .register(registry);
+            }
+            this.replicaReads = Counter.builder("auth.datasource.reads")
+                    .description("Read-only transactions by the database that served them")
+                    .tag("target", "replica")
+                    .register(registry);
+            this.primaryReads = Counter.builder("auth.datasource.reads")
+                    .description("Read-only transactions by the database that served them")
+                    .tag("target", "primary")
+                    .register(registry);
+        } else {
+            this.replicaReads = null;
+            this.primaryReads = null;
+        }
+    }
+
+    /**
+     * @return the {@link Workload} whose primary pool to use, or the name of a replica.
+     */
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                DataSourceRouting.recordWrite();
+            }
+            return DataSourceRouting.currentWorkload();
+        }
+        Replica replica = DataSourceRouting.isPinnedToPrimary(readYourWritesWindow) ? null : nextAvailableReplica();
+        return replica != null ? replica.name : DataSourceRouting.currentWorkload();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object key = determineCurrentLookupKey();
+        if (key instanceof Workload workload) {
+            if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                increment(primaryReads);
+            }
+            return primaries.get(workload).getConnection();
+        }
+        Replica replica = replica(key);
+        try {
+            Connection connection = replica.dataSource.getConnection();
+            increment(replicaReads);
+            return connection;
+        } catch (SQLException ex) {
+            markUnavailable(replica, ex);
+            increment(primaryReads);
+            return primaries.get(DataSourceRouting.currentWorkload()).getConnection();
+        }
+    }
+
+    /**
+     * Refreshes each replica's lag and whether it takes reads.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.check-interval-ms:1000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(5);
+                try (ResultSet resultSet = statement.executeQuery(LAG_MILLIS_SQL)) {
+                    resultSet.next();
+                    double lagMillis = resultSet.getDouble(1);
+                    recordLag(replica.name, lagMillis < 0 ? null : Duration.ofMillis((long) lagMillis));
+                }
+            } catch (SQLException ex) {
+                markUnavailable(replica, ex);
+            }
+        }
+    }
+
+    /**
+     * @param lag {@code null} when the replica is reachable but its lag is unknown.
+     */
+    void recordLag(String replicaName, @Nullable Duration lag) {
+        Replica replica = replica(replicaName);
+        replica.lagMillis = lag != null ? lag.toMillis() : Double.NaN;
+        boolean available = lag != null && lag.compareTo(maxLag) <= 0;
+        if (available != replica.available) {
+            if (available) {
+                logger.info("Replica {} is back in rotation (lag {} ms)", replica.name, lag.toMillis());
+            } else {
+                logger.warn("Replica {} taken out of rotation: lag {} exceeds {}", replica.name,
+                        lag != null ? lag.toMillis() + " ms" : "unknown", maxLag);
+            }
+        }
+        replica.available = available;
+    }
+
+    @Override
+    public void close() {
+        // Tests may share one pool between workloads
+        new HashSet<>(primaries.values()).forEach(WorkloadRoutingDataSource::closeQuietly);
+        replicas.forEach(replica -> closeQuietly(replica.dataSource));
+    }
+
+    @Nullable
+    private Replica nextAvailableReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.available) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private Replica replica(Object name) {
+        for (Replica replica : replicas) {
+            if (replica.name.equals(name)) {
+                return replica;
+            }
+        }
+        throw new IllegalArgumentException("Unknown replica: " + name);
+    }
+
+    private static void markUnavailable(Replica replica, SQLException ex) {
+        if (replica.available) {
+            logger.warn("Replica {} taken out of rotation: {}", replica.name, ex.getMessage());
+        }
+        replica.available = false;
+        replica.lagMillis = Double.NaN;
+    }
+
+    private static void increment(@Nullable Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    private static void closeQuietly(DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception ex) {
+                logger.warn("Failed to close data source: {}", ex.getMessage());
+            }
+        }
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        // Out of rotation until the first lag check succeeds
+        private volatile boolean available;
+        private volatile double lagMillis = Double.NaN;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
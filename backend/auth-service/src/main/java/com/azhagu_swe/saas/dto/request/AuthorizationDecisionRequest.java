@@ -0,0 +1,36 @@
+package com.azhagu_swe.saas.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * (user, authority) pairs to decide. The response answers them in the same order.
+ */
+@Data
+public class AuthorizationDecisionRequest {
+
+    @NotEmpty(message = "At least one check is required")
+    @Size(max = 10_000, message = "At most 10000 checks can be decided in one request")
+    private List<@Valid @NotNull Check> checks;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Check {
+
+        @NotNull(message = "User ID is required")
+        private UUID userId;
+
+        @NotBlank(message = "Authority is required")
+        private String authority; // e.g. ROLE_ACCOUNTADMIN or PERMISSION_USER_READ
+    }
+}
@@ -0,0 +1,50 @@
+package com.azhagu_swe.saas.dto.request;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Grants and/or revokes a set of roles for many users at once. Roles the user
+ * already has (or lacks) are skipped, so the request can safely be retried.
+ */
+@Data
+public class BulkRoleAssignmentRequest {
+
+    @NotEmpty(message = "At least one user ID is required")
+    @Size(max = 10_000, message = "At most 10000 users can be updated in one request")
+    private Set<UUID> userIds;
+
+    private Set<String> grant;
+
+    private Set<String> revoke;
+
+    @AssertTrue(message = "At least one role to grant or revoke is required")
+    private boolean isAnyRoleGiven() {
+        return (grant != null && !grant.isEmpty()) || (revoke != null && !revoke.isEmpty());
+    }
+
+    @AssertTrue(message = "A role cannot be granted and revoked in the same request")
+    private boolean isGrantDisjointFromRevoke() {
+        if (grant == null || revoke == null) {
+            return true;
+        }
+        Set<String> overlap = new HashSet<>(grant);
+        overlap.retainAll(revoke);
+        return overlap.isEmpty();
+    }
+
+    public Set<String> grantOrEmpty() {
+        return grant != null ? grant : Collections.emptySet();
+    }
+
+    public Set<String> revokeOrEmpty() {
+        return revoke != null ? revoke : Collections.emptySet();
+    }
+}
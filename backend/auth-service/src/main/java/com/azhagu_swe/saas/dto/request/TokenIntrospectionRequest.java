@@ -0,0 +1,19 @@
+package com.azhagu_swe.saas.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Access tokens to introspect. The response lists them in the same order.
+ */
+@Data
+public class TokenIntrospectionRequest {
+
+    @NotEmpty(message = "At least one token is required")
+    @Size(max = 100, message = "At most 100 tokens can be introspected in one request")
+    private List<@NotBlank(message = "Tokens must not be blank") String> tokens;
+}
@@ -2,8 +2,10 @@ package com.azhagu_swe.saas.dto.response;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 @JsonInclude(Include.NON_NULL) // Only include non-null fields in the JSON output
+@JsonSerialize(using = APIResponseSerializer.class) // Writes the envelope without bean introspection
 public class APIResponse<T> {
 
     private String status; // "success" or "error"
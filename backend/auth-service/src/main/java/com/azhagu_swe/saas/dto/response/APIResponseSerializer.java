@@ -0,0 +1,73 @@
+package com.azhagu_swe.saas.dto.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.impl.PropertySerializerMap;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes the {@link APIResponse} envelope directly instead of through a bean serializer.
+ * <p>
+ * Every controller response goes through this envelope, and its shape never changes:
+ * four string-or-payload fields, nulls omitted. Field names are pre-encoded once, and
+ * the serializer for {@code data} is resolved once per payload class and then reused,
+ * so a call costs the payload serialization and little else.
+ * <p>
+ * Jackson creates one instance per {@code ObjectMapper}, so the JSON, CBOR and Smile
+ * mappers each keep their own payload serializers.
+ */
+public class APIResponseSerializer extends StdSerializer<APIResponse<?>> {
+
+    private static final SerializableString STATUS = new SerializedString("status");
+    private static final SerializableString MESSAGE = new SerializedString("message");
+    private static final SerializableString DATA = new SerializedString("data");
+    private static final SerializableString ERROR_CODE = new SerializedString("errorCode");
+
+    // Same copy-on-write map BeanPropertyWriter uses for dynamically typed properties;
+    // a lost update under a race only means one extra lookup
+    private transient PropertySerializerMap dataSerializers = PropertySerializerMap.emptyForProperties();
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public APIResponseSerializer() {
+        super((Class) APIResponse.class);
+    }
+
+    @Override
+    public void serialize(APIResponse<?> value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(value);
+        writeString(gen, STATUS, value.getStatus());
+        writeString(gen, MESSAGE, value.getMessage());
+        Object data = value.getData();
+        if (data != null) {
+            gen.writeFieldName(DATA);
+            dataSerializer(data.getClass(), provider).serialize(data, gen, provider);
+        }
+        writeString(gen, ERROR_CODE, value.getErrorCode());
+        gen.writeEndObject();
+    }
+
+    private JsonSerializer<Object> dataSerializer(Class<?> type, SerializerProvider provider)
+            throws JsonMappingException {
+        PropertySerializerMap map = dataSerializers;
+        JsonSerializer<Object> serializer = map.serializerFor(type);
+        if (serializer == null) {
+            PropertySerializerMap.SerializerAndMapResult result = map.findAndAddSecondarySerializer(type, provider, null);
+            dataSerializers = result.map;
+            serializer = result.serializer;
+        }
+        return serializer;
+    }
+
+    private static void writeString(JsonGenerator gen, SerializableString name, String value) throws IOException {
+        if (value != null) {
+            gen.writeFieldName(name);
+            gen.writeString(value);
+        }
+    }
+}
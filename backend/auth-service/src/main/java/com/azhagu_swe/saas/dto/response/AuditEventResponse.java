@@ -0,0 +1,21 @@
+package com.azhagu_swe.saas.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AuditEventResponse {
+
+    private Instant occurredAt;
+    private String tenantId;
+    private String entityType; // USER, ROLE or PERMISSION
+    private String entityId;
+    private String action;     // CREATE, UPDATE or DELETE
+    private String actor;
+    private String details;    // Changed field names, or roles/permissions added (+) and removed (-)
+}
@@ -0,0 +1,16 @@
+package com.azhagu_swe.saas.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AuditHistoryResponse {
+
+    private List<AuditEventResponse> events; // Newest first
+    private String nextCursor;               // null on the last page
+}
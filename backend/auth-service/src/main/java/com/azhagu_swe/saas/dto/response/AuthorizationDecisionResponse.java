@@ -0,0 +1,37 @@
+package com.azhagu_swe.saas.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Base64;
+
+/**
+ * Decisions in request order, either as a boolean array or, for large batches, as
+ * a Base64 bitset in which check {@code i} is bit {@code i % 8} (least significant
+ * first) of byte {@code i / 8}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AuthorizationDecisionResponse {
+
+    private int count;
+    private boolean[] allowed;
+    private String bitset;
+
+    public static AuthorizationDecisionResponse of(boolean[] decisions, boolean asBitset) {
+        if (!asBitset) {
+            return new AuthorizationDecisionResponse(decisions.length, decisions, null);
+        }
+        byte[] bytes = new byte[(decisions.length + 7) / 8];
+        for (int i = 0; i < decisions.length; i++) {
+            if (decisions[i]) {
+                bytes[i >>> 3] |= (byte) (1 << (i & 7));
+            }
+        }
+        return new AuthorizationDecisionResponse(decisions.length, null, Base64.getEncoder().encodeToString(bytes));
+    }
+}
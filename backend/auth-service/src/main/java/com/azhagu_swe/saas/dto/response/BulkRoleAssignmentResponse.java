@@ -0,0 +1,34 @@
+package com.azhagu_swe.saas.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkRoleAssignmentResponse {
+
+    private int updated;   // Users that gained or lost at least one role
+    private int unchanged; // Users that already matched the request
+    private int notFound;  // Requested IDs with no user
+    private List<UserResult> results;
+
+    public enum Status {
+        UPDATED, UNCHANGED, NOT_FOUND
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class UserResult {
+        private UUID userId;
+        private Status status;
+        private Set<String> granted; // Roles actually added
+        private Set<String> revoked; // Roles actually removed
+    }
+}
@@ -0,0 +1,31 @@
+package com.azhagu_swe.saas.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Result for one introspected token. An inactive token, whether malformed,
+ * expired or revoked, reports nothing but {@code active: false}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TokenIntrospectionResponse {
+
+    private boolean active;
+    private String subject;           // The user's email
+    private String userId;
+    private String tenantId;
+    private List<String> authorities; // Roles and permissions as of when the token was issued
+    private Instant expiresAt;
+
+    public static TokenIntrospectionResponse inactive() {
+        return new TokenIntrospectionResponse(false, null, null, null, null, null);
+    }
+}
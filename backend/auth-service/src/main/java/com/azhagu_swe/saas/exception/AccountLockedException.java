@@ -0,0 +1,21 @@
+package com.azhagu_swe.saas.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Sign-in refused because the account is locked out after repeated failures.
+ * Answered with 429, like the rate limiter, since the caller only has to wait.
+ */
+public class AccountLockedException extends ApiException {
+
+    private AccountLockedException(String message, boolean expected) {
+        super(message, HttpStatus.TOO_MANY_REQUESTS, null, expected);
+    }
+
+    /**
+     * Stackless instance; see {@link ApiException#isExpected()}.
+     */
+    public static AccountLockedException expected(String message) {
+        return new AccountLockedException(message, true);
+    }
+}
@@ -5,29 +5,47 @@ import org.springframework.http.HttpStatus;
 public abstract class ApiException extends RuntimeException {
     private final HttpStatus status;
     private final String errorCode; // Optional: for specific error codes
+    private final boolean expected;
 
     public ApiException(String message, HttpStatus status) {
         super(message);
         this.status = status;
         this.errorCode = null;
+        this.expected = false;
     }
 
     public ApiException(String message, HttpStatus status, String errorCode) {
         super(message);
         this.status = status;
         this.errorCode = errorCode;
+        this.expected = false;
     }
 
     public ApiException(String message, HttpStatus status, Throwable cause) {
         super(message, cause);
         this.status = status;
         this.errorCode = null;
+        this.expected = false;
     }
 
     public ApiException(String message, HttpStatus status, String errorCode, Throwable cause) {
         super(message, cause);
         this.status = status;
         this.errorCode = errorCode;
+        this.expected = false;
+    }
+
+    /**
+     * For expected control-flow failures such as a wrong password or a stale refresh
+     * token. No stack trace is captured and suppression is disabled, so an instance is
+     * immutable and can be built once and rethrown. The message must be fixed text:
+     * {@link GlobalExceptionHandler} caches the serialized error body per message.
+     */
+    protected ApiException(String message, HttpStatus status, String errorCode, boolean expected) {
+        super(message, null, !expected, !expected);
+        this.status = status;
+        this.errorCode = errorCode;
+        this.expected = expected;
     }
 
     public HttpStatus getStatus() {
@@ -37,4 +55,8 @@ public abstract class ApiException extends RuntimeException {
     public String getErrorCode() {
         return errorCode;
     }
+
+    public boolean isExpected() {
+        return expected;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.azhagu_swe.saas.exception;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * A JSON error body serialized once, with only the timestamp and request path
+ * filled in per response. The output has the same fields and order as
+ * {@link com.azhagu_swe.saas.dto.response.ErrorResponse}, so clients cannot tell
+ * the two apart.
+ * <p>
+ * Used for failures that arrive in bulk (bad credentials, stale tokens, rate
+ * limiting), where building and serializing a fresh body for every rejection
+ * would cost more than the rejection itself.
+ */
+public final class ErrorBodyTemplate {
+
+    private static final byte[] TIMESTAMP_FIELD = "{\"timestamp\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] END = "\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final boolean epochMillis;
+    private final byte[] middle;
+
+    private ErrorBodyTemplate(HttpStatus status, String message, boolean epochMillis) {
+        this.epochMillis = epochMillis;
+        this.middle = (",\"status\":" + status.value()
+                + ",\"error\":\"" + quote(status.getReasonPhrase())
+                + "\",\"message\":\"" + quote(message)
+                + "\",\"path\":\"").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Timestamp as an ISO-8601 string, as {@code GlobalExceptionHandler} writes it.
+     */
+    public static ErrorBodyTemplate of(HttpStatus status, String message) {
+        return new ErrorBodyTemplate(status, message, false);
+    }
+
+    /**
+     * Timestamp as epoch milliseconds, as the servlet filters write it.
+     */
+    public static ErrorBodyTemplate withEpochMillis(HttpStatus status, String message) {
+        return new ErrorBodyTemplate(status, message, true);
+    }
+
+    public byte[] render(String path) {
+        byte[] timestamp = (epochMillis
+                ? Long.toString(System.currentTimeMillis())
+                : '"' + Instant.now().toString() + '"').getBytes(StandardCharsets.US_ASCII);
+        byte[] quotedPath = JsonStringEncoder.getInstance().quoteAsUTF8(path);
+
+        byte[] body = new byte[TIMESTAMP_FIELD.length + timestamp.length + middle.length + quotedPath.length
+                + END.length];
+        int offset = append(body, 0, TIMESTAMP_FIELD);
+        offset = append(body, offset, timestamp);
+        offset = append(body, offset, middle);
+        offset = append(body, offset, quotedPath);
+        append(body, offset, END);
+        return body;
+    }
+
+    private static int append(byte[] target, int offset, byte[] source) {
+        System.arraycopy(source, 0, target, offset, source.length);
+        return offset + source.length;
+    }
+
+    private static String quote(String value) {
+        return new String(JsonStringEncoder.getInstance().quoteAsString(value));
+    }
+}
@@ -10,6 +10,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.security.access.AccessDeniedException;
@@ -24,6 +25,8 @@ import org.springframework.web.servlet.NoHandlerFoundException;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @RestControllerAdvice
@@ -31,9 +34,19 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler { //
 
         private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+        // Bounds the body cache in case a caller passes variable text to an expected exception
+        private static final int MAX_EXPECTED_ERROR_BODIES = 256;
+
+        // Pre-serialized bodies for expected failures (see ApiException#isExpected)
+        private final Map<ExpectedErrorKey, ErrorBodyTemplate> expectedErrorBodies = new ConcurrentHashMap<>();
+
         // --- Custom API Exception Handling ---
         @ExceptionHandler(ApiException.class)
-        public ResponseEntity<ErrorResponse> handleApiException(ApiException ex, HttpServletRequest request) {
+        public ResponseEntity<?> handleApiException(ApiException ex, HttpServletRequest request) {
+                if (ex.isExpected()) {
+                        logger.warn("API Exception: {} - Path: {}", ex.getMessage(), request.getRequestURI());
+                        return expectedErrorResponse(ex.getStatus(), ex.getMessage(), request);
+                }
                 logger.warn("API Exception: {} - Path: {}", ex.getMessage(), request.getRequestURI(), ex);
                 ErrorResponse errorResponse = new ErrorResponse(
                                 ex.getStatus().value(),
@@ -72,9 +85,12 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler { //
         }
 
         @ExceptionHandler(InvalidTokenException.class) // Example: for invalid JWT or RefreshToken
-        public ResponseEntity<ErrorResponse> handleInvalidTokenException(
+        public ResponseEntity<?> handleInvalidTokenException(
                         InvalidTokenException ex, HttpServletRequest request) {
                 logger.warn("Invalid Token: {} - Path: {}", ex.getMessage(), request.getRequestURI());
+                if (ex.isExpected()) {
+                        return expectedErrorResponse(HttpStatus.UNAUTHORIZED, ex.getMessage(), request);
+                }
                 ErrorResponse errorResponse = new ErrorResponse(
                                 HttpStatus.UNAUTHORIZED.value(), // Or BAD_REQUEST depending on context
                                 HttpStatus.UNAUTHORIZED.getReasonPhrase(),
@@ -244,4 +260,22 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler { //
                 // it
                 return new ResponseEntity<>(errorResponse, ex.getStatus());
         }
+
+        private ResponseEntity<byte[]> expectedErrorResponse(HttpStatus status, String message,
+                        HttpServletRequest request) {
+                ExpectedErrorKey key = new ExpectedErrorKey(status, message);
+                ErrorBodyTemplate template = expectedErrorBodies.get(key);
+                if (template == null) {
+                        template = ErrorBodyTemplate.of(status, message);
+                        if (expectedErrorBodies.size() < MAX_EXPECTED_ERROR_BODIES) {
+                                expectedErrorBodies.putIfAbsent(key, template);
+                        }
+                }
+                return ResponseEntity.status(status)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .body(template.render(request.getRequestURI()));
+        }
+
+        private record ExpectedErrorKey(HttpStatus status, String message) {
+        }
 }
\ No newline at end of file
@@ -7,4 +7,15 @@ public class InvalidCredentialsException extends ApiException {
     public InvalidCredentialsException(String message) {
         super(message, HttpStatus.UNAUTHORIZED);
     }
+
+    private InvalidCredentialsException(String message, boolean expected) {
+        super(message, HttpStatus.UNAUTHORIZED, null, expected);
+    }
+
+    /**
+     * Stackless instance for a routine sign-in failure; see {@link ApiException#isExpected()}.
+     */
+    public static InvalidCredentialsException expected(String message) {
+        return new InvalidCredentialsException(message, true);
+    }
 }
@@ -14,4 +14,15 @@ public class InvalidTokenException extends ApiException {
     public InvalidTokenException(String message, HttpStatus status) {
         super(message, status);
     }
+
+    private InvalidTokenException(String message, boolean expected) {
+        super(message, HttpStatus.UNAUTHORIZED, null, expected);
+    }
+
+    /**
+     * Stackless instance for a routine token rejection; see {@link ApiException#isExpected()}.
+     */
+    public static InvalidTokenException expected(String message) {
+        return new InvalidTokenException(message, true);
+    }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.azhagu_swe.saas.filter;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.azhagu_swe.saas.config.Bucket4jRuntimeHints;
+import com.azhagu_swe.saas.exception.ErrorBodyTemplate;
+import com.azhagu_swe.saas.metrics.AuthMetrics;
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
 import io.github.bucket4j.ConsumptionProbe;
@@ -10,28 +12,46 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.time.Duration;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
 
 @Component
+@ImportRuntimeHints(Bucket4jRuntimeHints.class)
 public class RateLimitingFilter extends OncePerRequestFilter {
 
+    // Buckets refill every minute, so the wait is 0-60 seconds; one body per possible wait
+    private static final ErrorBodyTemplate[] RATE_LIMITED_BODIES = IntStream.rangeClosed(0, 60)
+            .mapToObj(RateLimitingFilter::rateLimitedTemplate)
+            .toArray(ErrorBodyTemplate[]::new);
+
+    private static final String INTROSPECT_PATH = "/v1/api/auth/introspect";
+    private static final String DECISIONS_PATH = "/v1/api/authz/decisions";
+
     private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
     private final int authRequestsPerMinute;
     private final int apiRequestsPerMinute;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int introspectRequestsPerMinute;
+    private final int authzRequestsPerMinute;
+    private final AuthMetrics authMetrics;
 
     public RateLimitingFilter(
             @Value("${app.rate-limit.auth:10}") int authRequestsPerMinute,
-            @Value("${app.rate-limit.api:100}") int apiRequestsPerMinute) {
+            @Value("${app.rate-limit.api:100}") int apiRequestsPerMinute,
+            @Value("${app.rate-limit.introspect:6000}") int introspectRequestsPerMinute,
+            @Value("${app.rate-limit.authz:6000}") int authzRequestsPerMinute,
+            AuthMetrics authMetrics) {
         this.authRequestsPerMinute = authRequestsPerMinute;
         this.apiRequestsPerMinute = apiRequestsPerMinute;
+        this.introspectRequestsPerMinute = introspectRequestsPerMinute;
+        this.authzRequestsPerMinute = authzRequestsPerMinute;
+        this.authMetrics = authMetrics;
     }
 
     @Override
@@ -44,29 +64,52 @@ public class RateLimitingFilter extends OncePerRequestFilter {
         Bucket bucket = buckets.computeIfAbsent(endpointKey, this::createBucket);
 
         ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+        // Tag by bucket class only; the client IP part of the key would explode cardinality
+        authMetrics.rateLimitDecision(endpointKey.substring(0, endpointKey.indexOf('_')), probe.isConsumed());
         if (probe.isConsumed()) {
             response.setHeader("X-Rate-Limit-Remaining", String.valueOf(probe.getRemainingTokens()));
             filterChain.doFilter(request, response);
         } else {
             // Calculate the wait time in seconds
-            long retryAfterSeconds = probe.getNanosToWaitForRefill() / 1_000_000_000;
-            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-            response.setContentType("application/json");
-            response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
-
-            Map<String, Object> errorBody = new HashMap<>();
-            errorBody.put("timestamp", System.currentTimeMillis());
-            errorBody.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
-            errorBody.put("error", "Too Many Requests");
-            errorBody.put("message", "Rate limit exceeded. Try again in " + retryAfterSeconds + " seconds");
-            errorBody.put("path", request.getRequestURI());
-
-            objectMapper.writeValue(response.getOutputStream(), errorBody);
+            writeRateLimited(request, response, probe.getNanosToWaitForRefill() / 1_000_000_000);
+        }
+    }
+
+    /**
+     * Writes the 429 response, shared with {@link TenantQuotaFilter} so clients see one format.
+     */
+    static void writeRateLimited(HttpServletRequest request, HttpServletResponse response, long retryAfterSeconds)
+            throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setContentType("application/json");
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+
+        byte[] body = rateLimitedBody(retryAfterSeconds).render(request.getRequestURI());
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static ErrorBodyTemplate rateLimitedBody(long retryAfterSeconds) {
+        if (retryAfterSeconds >= 0 && retryAfterSeconds < RATE_LIMITED_BODIES.length) {
+            return RATE_LIMITED_BODIES[(int) retryAfterSeconds];
         }
+        return rateLimitedTemplate(retryAfterSeconds);
+    }
+
+    private static ErrorBodyTemplate rateLimitedTemplate(long retryAfterSeconds) {
+        return ErrorBodyTemplate.withEpochMillis(HttpStatus.TOO_MANY_REQUESTS,
+                "Rate limit exceeded. Try again in " + retryAfterSeconds + " seconds");
     }
 
     private String getEndpointKey(HttpServletRequest request) {
         String path = request.getRequestURI();
+        // Called by downstream services for every request of their own users, so each gets a budget sized for that
+        if (path.equals(INTROSPECT_PATH)) {
+            return "introspect_" + getClientIP(request);
+        }
+        if (path.equals(DECISIONS_PATH)) {
+            return "authz_" + getClientIP(request);
+        }
         if (path.startsWith("/v1/api/auth")) {
             return "auth_" + getClientIP(request);
         }
@@ -74,7 +117,10 @@ public class RateLimitingFilter extends OncePerRequestFilter {
     }
 
     private Bucket createBucket(String key) {
-        int capacity = key.startsWith("auth_") ? authRequestsPerMinute : apiRequestsPerMinute;
+        int capacity = key.startsWith("auth_") ? authRequestsPerMinute
+                : key.startsWith("introspect_") ? introspectRequestsPerMinute
+                : key.startsWith("authz_") ? authzRequestsPerMinute
+                : apiRequestsPerMinute;
         return Bucket.builder()
                 .addLimit(Bandwidth.classic(capacity, Refill.intervally(capacity, Duration.ofMinutes(1))))
                 .build();
@@ -0,0 +1,102 @@
+package com.azhagu_swe.saas.filter;
+
+import com.azhagu_swe.saas.config.Bucket4jRuntimeHints;
+import com.azhagu_swe.saas.metrics.AuthMetrics;
+import com.azhagu_swe.saas.security.service.impl.UserDetailsImpl;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.Refill;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caps the authenticated requests each tenant can make per minute, across all of
+ * its users, so one tenant's bulk admin traffic cannot take the capacity everyone
+ * else's sign-ins need. Runs after authentication and keys on the tenant from the
+ * verified token; unauthenticated requests only have the per-client limits of
+ * {@link RateLimitingFilter}, since their tenant header is not proven.
+ * <p>
+ * {@code app.tenant-quota.overrides} raises or lowers the limit for individual
+ * tenants, e.g. {@code acme=20000,trial-co=600}.
+ */
+@Component
+@ImportRuntimeHints(Bucket4jRuntimeHints.class)
+public class TenantQuotaFilter extends OncePerRequestFilter {
+
+    // One bucket per tenant; bounded by the number of tenants, not by clients
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final int requestsPerMinute;
+    private final Map<String, Integer> overrides = new HashMap<>();
+    private final AuthMetrics authMetrics;
+
+    public TenantQuotaFilter(
+            @Value("${app.tenant-quota.requests-per-minute:6000}") int requestsPerMinute,
+            @Value("${app.tenant-quota.overrides:}") List<String> overrides,
+            AuthMetrics authMetrics) {
+        this.requestsPerMinute = requestsPerMinute;
+        this.authMetrics = authMetrics;
+        for (String override : overrides) {
+            if (override.isBlank()) {
+                continue;
+            }
+            int separator = override.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid app.tenant-quota.overrides entry: " + override);
+            }
+            this.overrides.put(override.substring(0, separator).trim(),
+                    Integer.parseInt(override.substring(separator + 1).trim()));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserDetailsImpl principal)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        int capacity = overrides.getOrDefault(principal.getTenantId(), requestsPerMinute);
+        if (capacity <= 0) { // Unlimited
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ConsumptionProbe probe = buckets.computeIfAbsent(principal.getTenantId(), tenantId -> createBucket(capacity))
+                .tryConsumeAndReturnRemaining(1);
+        authMetrics.rateLimitDecision("tenant", probe.isConsumed());
+        if (probe.isConsumed()) {
+            filterChain.doFilter(request, response);
+        } else {
+            RateLimitingFilter.writeRateLimited(request, response, probe.getNanosToWaitForRefill() / 1_000_000_000);
+        }
+    }
+
+    private static Bucket createBucket(int capacity) {
+        return Bucket.builder()
+                .addLimit(Bandwidth.classic(capacity, Refill.intervally(capacity, Duration.ofMinutes(1))))
+                .build();
+    }
+}
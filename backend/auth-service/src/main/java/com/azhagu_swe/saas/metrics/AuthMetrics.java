@@ -0,0 +1,197 @@
+package com.azhagu_swe.saas.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Central registry of the custom meters for the authentication flow.
+ * <p>
+ * Meters are registered once up front (or cached on first use for dynamic
+ * tags) so the hot paths only ever record against an existing instance.
+ * All timers publish percentile histograms for Prometheus.
+ */
+@Component
+public class AuthMetrics {
+
+    /** Phases of {@code AuthServiceImpl.authenticateUser}. */
+    public enum SignInPhase {
+        AUTHENTICATE("authenticate"),
+        USER_LOOKUP("user_lookup"),
+        ACCESS_TOKEN("access_token"),
+        REFRESH_TOKEN("refresh_token");
+
+        private final String tag;
+
+        SignInPhase(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    /** Phases of {@code AuthServiceImpl.refreshToken}. */
+    public enum RefreshPhase {
+        ROTATE("rotate"),
+        USER_LOOKUP("user_lookup"),
+        ACCESS_TOKEN("access_token");
+
+        private final String tag;
+
+        RefreshPhase(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final MeterRegistry registry;
+    private final Map<SignInPhase, Timer> signInPhaseTimers = new EnumMap<>(SignInPhase.class);
+    private final Map<RefreshPhase, Timer> refreshPhaseTimers = new EnumMap<>(RefreshPhase.class);
+    private final Map<String, Timer> outcomeTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Timer passwordMatchesTimer;
+    private final Timer passwordEncodeTimer;
+
+    public AuthMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (SignInPhase phase : SignInPhase.values()) {
+            signInPhaseTimers.put(phase, histogramTimer("auth.signin.phase", "Time spent in each sign-in phase")
+                    .tag("phase", phase.tag)
+                    .register(registry));
+        }
+        for (RefreshPhase phase : RefreshPhase.values()) {
+            refreshPhaseTimers.put(phase, histogramTimer("auth.refresh.phase", "Time spent in each token refresh phase")
+                    .tag("phase", phase.tag)
+                    .register(registry));
+        }
+        this.passwordMatchesTimer = histogramTimer("auth.password.hash", "Password hashing time")
+                .tag("operation", "matches")
+                .register(registry);
+        this.passwordEncodeTimer = histogramTimer("auth.password.hash", "Password hashing time")
+                .tag("operation", "encode")
+                .register(registry);
+    }
+
+    public MeterRegistry getRegistry() {
+        return registry;
+    }
+
+    public Timer signInPhase(SignInPhase phase) {
+        return signInPhaseTimers.get(phase);
+    }
+
+    public Timer refreshPhase(RefreshPhase phase) {
+        return refreshPhaseTimers.get(phase);
+    }
+
+    /**
+     * @param outcome e.g. {@code success}, {@code invalid_credentials}, {@code error}.
+     */
+    public Timer signIn(String outcome) {
+        return outcomeTimer("auth.signin", "End-to-end sign-in time", "outcome", outcome);
+    }
+
+    /**
+     * @param outcome e.g. {@code success}, {@code rejected}, {@code error}.
+     */
+    public Timer refresh(String outcome) {
+        return outcomeTimer("auth.refresh", "End-to-end token refresh time", "outcome", outcome);
+    }
+
+    /**
+     * @param result {@code authenticated}, {@code anonymous} or {@code invalid}.
+     */
+    public Timer jwtFilter(String result) {
+        return outcomeTimer("auth.jwt.filter", "Time spent authenticating a request from its JWT", "result", result);
+    }
+
+    public Timer passwordMatches() {
+        return passwordMatchesTimer;
+    }
+
+    public Timer passwordEncode() {
+        return passwordEncodeTimer;
+    }
+
+    /**
+     * Counts a JWT validation failure, tagged with the exception's simple class
+     * name (e.g. {@code ExpiredJwtException}, {@code SignatureException}).
+     */
+    public void jwtFailure(Throwable exception) {
+        String type = exception.getClass().getSimpleName();
+        counters.computeIfAbsent("jwt|" + type, key -> Counter.builder("auth.jwt.failures")
+                .description("JWT validation failures by exception type")
+                .tag("exception", type)
+                .register(registry))
+                .increment();
+    }
+
+    /**
+     * Counts a rate limiter decision.
+     *
+     * @param bucketClass The bucket class, e.g. {@code auth} or {@code api}.
+     * @param allowed     Whether the request was let through.
+     */
+    public void rateLimitDecision(String bucketClass, boolean allowed) {
+        String result = allowed ? "allowed" : "rejected";
+        counters.computeIfAbsent("ratelimit|" + bucketClass + "|" + result, key -> Counter.builder("auth.ratelimit.requests")
+                .description("Rate limiter decisions by bucket class")
+                .tag("bucket", bucketClass)
+                .tag("result", result)
+                .register(registry))
+                .increment();
+    }
+
+    /**
+     * Counts audit events leaving the write queue.
+     *
+     * @param result {@code written}, {@code failed} or {@code dropped}.
+     */
+    public void auditEvents(String result, int count) {
+        counters.computeIfAbsent("audit|" + result, key -> Counter.builder("auth.audit.events")
+                .description("Audit events by what happened to them")
+                .tag("result", result)
+                .register(registry))
+                .increment(count);
+    }
+
+    /**
+     * Counts an introspected token.
+     *
+     * @param result {@code active}, {@code invalid}, {@code expired} or {@code revoked}.
+     */
+    public void introspectedToken(String result) {
+        counters.computeIfAbsent("introspection|" + result, key -> Counter.builder("auth.introspection.tokens")
+                .description("Introspected tokens by result")
+                .tag("result", result)
+                .register(registry))
+                .increment();
+    }
+
+    /**
+     * Counts decided authorization checks.
+     *
+     * @param result {@code allowed} or {@code denied}.
+     */
+    public void authorizationDecisions(String result, int count) {
+        counters.computeIfAbsent("authz|" + result, key -> Counter.builder("auth.authz.decisions")
+                .description("Authorization checks decided by the decision endpoint")
+                .tag("result", result)
+                .register(registry))
+                .increment(count);
+    }
+
+    private Timer outcomeTimer(String name, String description, String tagKey, String tagValue) {
+        return outcomeTimers.computeIfAbsent(name + "|" + tagValue, key -> histogramTimer(name, description)
+                .tag(tagKey, tagValue)
+                .register(registry));
+    }
+
+    private static Timer.Builder histogramTimer(String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentileHistogram();
+    }
+}
@@ -0,0 +1,54 @@
+package com.azhagu_swe.saas.metrics;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.function.Supplier;
+
+/**
+ * Decorates a {@link PasswordEncoder} so hashing shows up as its own timer and
+ * trace span, separate from the rest of {@code AuthenticationManager.authenticate}.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final AuthMetrics authMetrics;
+    private final Tracer tracer;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, AuthMetrics authMetrics, Tracer tracer) {
+        this.delegate = delegate;
+        this.authMetrics = authMetrics;
+        this.tracer = tracer;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return authMetrics.passwordEncode().record(() -> inSpan("password encode",
+                () -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Boolean matches = authMetrics.passwordMatches().record(() -> inSpan("password matches",
+                () -> delegate.matches(rawPassword, encodedPassword)));
+        return Boolean.TRUE.equals(matches);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T inSpan(String name, Supplier<T> work) {
+        Span span = tracer.nextSpan().name(name).start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            return work.get();
+        } catch (RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.azhagu_swe.saas.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * The single row counting mutations of the role and permission catalogue.
+ */
+@Entity
+@Table(name = "catalogue_version")
+@Getter
+@Setter
+@NoArgsConstructor
+public class CatalogueVersion {
+
+    public static final short CATALOGUE_ID = 1;
+
+    @Id
+    private Short id;
+
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    public CatalogueVersion(Short id, long version) {
+        this.id = id;
+        this.version = version;
+    }
+}
@@ -4,12 +4,14 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.PartitionKey;
 
 import java.time.Instant;
 
 @Entity
+// Partitioned by tenant_id (migration V5)
 @Table(name = "password_reset_tokens", indexes = {
-        @Index(name = "idx_pwd_reset_token_token", columnList = "token", unique = true)
+        @Index(name = "idx_pwd_reset_token_token", columnList = "tenant_id, token", unique = true)
 })
 @Getter
 @Setter
@@ -20,7 +22,11 @@ public class PasswordResetToken extends AbstractAuditableEntity { // Or your own
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true, length = 100) // Ensure length is adequate for your token
+    @PartitionKey
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 63)
+    private String tenantId;
+
+    @Column(nullable = false, length = 100) // Ensure length is adequate for your token
     private String token;
 
     @ManyToOne(targetEntity = User.class, fetch = FetchType.EAGER, optional = false)
@@ -34,6 +40,7 @@ public class PasswordResetToken extends AbstractAuditableEntity { // Or your own
     private boolean used = false; // To mark token as used
 
     public PasswordResetToken(User user, String token, Instant expiryDate) {
+        this.tenantId = user.getTenantId();
         this.user = user;
         this.token = token;
         this.expiryDate = expiryDate;
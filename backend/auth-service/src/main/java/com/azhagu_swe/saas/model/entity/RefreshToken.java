@@ -2,13 +2,17 @@ package com.azhagu_swe.saas.model.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.PartitionKey;
 
 import java.time.Instant;
+import java.util.UUID;
 
 @Entity
+// Partitioned by tenant_id (migration V5); lookups by token include the tenant to prune partitions
 @Table(name = "refresh_tokens", indexes = {
-        @Index(name = "idx_refresh_token_token", columnList = "token", unique = true),
-        @Index(name = "idx_refresh_token_user_id", columnList = "user_id")
+        @Index(name = "idx_refresh_token_token", columnList = "tenant_id, token", unique = true),
+        @Index(name = "idx_refresh_token_user_id", columnList = "user_id"),
+        @Index(name = "idx_refresh_token_family_id", columnList = "family_id")
 })
 @Getter
 @Setter
@@ -21,18 +25,42 @@ public class RefreshToken extends AbstractAuditableEntity { // Assuming Abstract
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    /**
+     * Copied from the owning user, and also encoded as the token's prefix so a
+     * refresh can find its partition from the token alone.
+     */
+    @PartitionKey
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 63)
+    private String tenantId;
+
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "user_id", nullable = false)
     // @ToString.Exclude is already handled by the class-level @ToString(exclude =
     // {"user"})
     private User user;
 
-    @Column(nullable = false, unique = true, length = 512)
+    @Column(nullable = false, length = 512)
     private String token;
 
     @Column(name = "expiry_date", nullable = false)
     private Instant expiryDate;
 
+    /**
+     * Identifies the rotation chain this token belongs to. Every token issued by
+     * rotating another one inherits its family, so presenting an already-rotated
+     * token lets us revoke the whole chain at once.
+     */
+    @Column(name = "family_id")
+    private UUID familyId;
+
+    /**
+     * Set when the token is consumed by a rotation. The latest consumed token of a
+     * family is kept so that a replay can be recognised as token reuse; the next
+     * rotation deletes it, and the expiry purge removes whatever is left.
+     */
+    @Column(name = "used_at")
+    private Instant usedAt;
+
     // Constructors
     public RefreshToken(User user, String token, Instant expiryDate) {
         this.user = user;
@@ -48,4 +76,13 @@ public class RefreshToken extends AbstractAuditableEntity { // Assuming Abstract
     public boolean isExpired() {
         return Instant.now().isAfter(this.expiryDate);
     }
+
+    /**
+     * Helper method to check if the token has already been consumed by a rotation.
+     *
+     * @return true if the token has been used, false otherwise.
+     */
+    public boolean isUsed() {
+        return this.usedAt != null;
+    }
 }
\ No newline at end of file
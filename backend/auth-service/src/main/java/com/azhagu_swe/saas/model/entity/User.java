@@ -1,7 +1,9 @@
 package com.azhagu_swe.saas.model.entity;
 
+import com.azhagu_swe.saas.constants.AppConstants;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.PartitionKey;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -9,9 +11,10 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Entity
+// Partitioned by tenant_id (migration V5), so uniqueness is per tenant
 @Table(name = "users", uniqueConstraints = {
-        @UniqueConstraint(columnNames = "email"),
-        @UniqueConstraint(columnNames = "username")
+        @UniqueConstraint(columnNames = { "tenant_id", "email" }),
+        @UniqueConstraint(columnNames = { "tenant_id", "username" })
 })
 @Getter
 @Setter
@@ -25,16 +28,20 @@ public class User extends AbstractAuditableEntity {
     @Column(updatable = false, nullable = false)
     private UUID id;
 
+    @PartitionKey // Added to Hibernate's UPDATE/DELETE by ID so Postgres can prune partitions
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 63)
+    private String tenantId = AppConstants.DEFAULT_TENANT;
+
     @Column(nullable = false, length = 50)
     private String firstName;
 
     @Column(nullable = false, length = 50)
     private String lastName;
 
-    @Column(nullable = false, unique = true, length = 50)
+    @Column(nullable = false, length = 50)
     private String username;
 
-    @Column(nullable = false, unique = true, length = 100)
+    @Column(nullable = false, length = 100)
     private String email;
 
     @Column(nullable = false)
@@ -79,6 +86,7 @@ public class User extends AbstractAuditableEntity {
     public String toString() {
         return "User{" +
                 "id=" + id +
+                ", tenantId='" + tenantId + '\'' +
                 ", firstName='" + firstName + '\'' +
                 ", lastName='" + lastName + '\'' +
                 ", username='" + username + '\'' +
@@ -0,0 +1,149 @@
+package com.azhagu_swe.saas.model.repository;
+
+import com.azhagu_swe.saas.audit.AuditEntityType;
+import com.azhagu_swe.saas.audit.AuditEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Writes to and reads from the append-only {@code audit_events} table, which is
+ * range-partitioned by month on {@code occurred_at} (see {@code V6__audit_events.sql}).
+ * <p>
+ * History is read newest first with keyset pagination: each page continues
+ * strictly after the {@code (occurred_at, id)} of the previous page's last row, so
+ * every page is one range scan of {@code idx_audit_events_entity}, however deep.
+ */
+@Repository
+public class AuditEventRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO audit_events "
+            + "(occurred_at, tenant_id, entity_type, entity_id, action, actor, details) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String HISTORY_SQL = "SELECT id, occurred_at, tenant_id, entity_type, entity_id, "
+            + "action, actor, details "
+            + "FROM audit_events WHERE entity_type = ? AND entity_id = ? ";
+
+    // The regclass cast resolves audit_events on the search path, so other schemas' partitions are not listed
+    private static final String PARTITIONS_SQL = "SELECT c.relname FROM pg_inherits i "
+            + "JOIN pg_class c ON c.oid = i.inhrelid "
+            + "WHERE i.inhparent = 'audit_events'::regclass";
+
+    private static final Pattern MONTHLY_PARTITION = Pattern.compile("audit_events_y(\\d{4})m(\\d{2})");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AuditEventRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insertAll(List<AuditEvent> events) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+            ps.setObject(1, OffsetDateTime.ofInstant(event.occurredAt(), ZoneOffset.UTC));
+            ps.setString(2, event.tenantId());
+            ps.setString(3, event.entityType().name());
+            ps.setString(4, event.entityId());
+            ps.setString(5, event.action().name());
+            ps.setString(6, event.actor());
+            ps.setString(7, event.details());
+        });
+    }
+
+    /**
+     * @param tenantId Only events of this tenant, or all tenants when {@code null}.
+     * @param after    The last row of the previous page, or {@code null} for the first page.
+     * @return up to {@code limit} events, newest first.
+     */
+    public List<AuditRecord> findHistory(AuditEntityType entityType, String entityId, @Nullable String tenantId,
+            @Nullable Cursor after, int limit) {
+        StringBuilder sql = new StringBuilder(HISTORY_SQL);
+        List<Object> args = new ArrayList<>(6);
+        args.add(entityType.name());
+        args.add(entityId);
+        if (tenantId != null) {
+            sql.append("AND tenant_id = ? ");
+            args.add(tenantId);
+        }
+        if (after != null) {
+            // A row comparison, so Postgres can start the index scan right at the cursor
+            sql.append("AND (occurred_at, id) < (?, ?) ");
+            args.add(OffsetDateTime.ofInstant(after.occurredAt(), ZoneOffset.UTC));
+            args.add(after.id());
+        }
+        sql.append("ORDER BY occurred_at DESC, id DESC LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), AuditEventRepository::mapRecord, args.toArray());
+    }
+
+    /**
+     * Creates the partition for {@code month} unless it exists. Fails if the default
+     * partition already holds rows for that month.
+     */
+    public void createMonthlyPartition(YearMonth month) {
+        // DDL cannot take bind parameters; every part is derived from the YearMonth
+        jdbcTemplate.execute(String.format(
+                "CREATE TABLE IF NOT EXISTS %s PARTITION OF audit_events FOR VALUES FROM ('%s') TO ('%s')",
+                partitionName(month), startOf(month), startOf(month.plusMonths(1))));
+    }
+
+    public List<YearMonth> findMonthlyPartitions() {
+        List<YearMonth> months = new ArrayList<>();
+        for (String name : jdbcTemplate.queryForList(PARTITIONS_SQL, String.class)) {
+            Matcher matcher = MONTHLY_PARTITION.matcher(name);
+            if (matcher.matches()) {
+                months.add(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+            }
+        }
+        return months;
+    }
+
+    /**
+     * Drops a whole month of events. The append-only trigger guards rows, not
+     * partitions, so this is the only way events are ever removed.
+     */
+    public void dropMonthlyPartition(YearMonth month) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + partitionName(month));
+    }
+
+    private static String partitionName(YearMonth month) {
+        return String.format("audit_events_y%04dm%02d", month.getYear(), month.getMonthValue());
+    }
+
+    private static OffsetDateTime startOf(YearMonth month) {
+        return month.atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+    }
+
+    private static AuditRecord mapRecord(ResultSet rs, int rowNum) throws SQLException {
+        return new AuditRecord(
+                rs.getLong("id"),
+                rs.getObject("occurred_at", OffsetDateTime.class).toInstant(),
+                rs.getString("tenant_id"),
+                rs.getString("entity_type"),
+                rs.getString("entity_id"),
+                rs.getString("action"),
+                rs.getString("actor"),
+                rs.getString("details"));
+    }
+
+    public record AuditRecord(long id, Instant occurredAt, String tenantId, String entityType, String entityId,
+            String action, String actor, String details) {
+    }
+
+    /**
+     * Position in an entity's history: the {@code (occurred_at, id)} of the last row seen.
+     */
+    public record Cursor(Instant occurredAt, long id) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.azhagu_swe.saas.model.repository;
+
+import com.azhagu_swe.saas.model.entity.CatalogueVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface CatalogueVersionRepository extends JpaRepository<CatalogueVersion, Short> {
+
+    @Query("SELECT c.version FROM CatalogueVersion c WHERE c.id = :id")
+    Optional<Long> findVersionById(@Param("id") Short id);
+
+    @Modifying
+    @Query("UPDATE CatalogueVersion c SET c.version = c.version + 1 WHERE c.id = :id")
+    int incrementVersion(@Param("id") Short id);
+}
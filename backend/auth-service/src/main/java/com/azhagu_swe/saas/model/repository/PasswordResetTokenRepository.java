@@ -10,7 +10,7 @@ import java.util.List;
 import java.util.Optional;
 
 public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, Long> {
-    Optional<PasswordResetToken> findByToken(String token);
+    Optional<PasswordResetToken> findByTenantIdAndToken(String tenantId, String token);
 
     // The method you're asking about:
     List<PasswordResetToken> findByUserAndUsedIsFalseAndExpiryDateAfter(User user, Instant currentDate);
@@ -4,10 +4,17 @@ import org.springframework.data.jpa.repository.JpaRepository;
 
 import com.azhagu_swe.saas.model.entity.Permission;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface PermissionRepository extends JpaRepository<Permission, Long> {
     Optional<Permission> findByName(String name);
 
     boolean existsByName(String name);
-}
\ No newline at end of file
+
+    /**
+     * Resolves many permission names in one query; names without a match are simply absent.
+     */
+    List<Permission> findAllByNameIn(Collection<String> names);
+}
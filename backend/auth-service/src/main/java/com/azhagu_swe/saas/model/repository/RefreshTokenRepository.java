@@ -1,16 +1,63 @@
 package com.azhagu_swe.saas.model.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.azhagu_swe.saas.model.entity.RefreshToken;
 
+import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
-    Optional<RefreshToken> findByToken(String token);
+    Optional<RefreshToken> findByTenantIdAndToken(String tenantId, String token);
 
-    int deleteByUserId(UUID userId);
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.tenantId = :tenantId AND rt.user.id = :userId")
+    int deleteByTenantIdAndUserId(@Param("tenantId") String tenantId, @Param("userId") UUID userId);
+
+    String CONSUME_TOKEN_SQL = "UPDATE refresh_tokens SET used_at = :now "
+            + "WHERE tenant_id = :tenantId AND token = :token AND used_at IS NULL AND expiry_date > :now "
+            + "RETURNING user_id AS \"userId\", family_id AS \"familyId\"";
+
+    /**
+     * Atomically marks an unused, unexpired token as consumed and returns its owner
+     * and family. Postgres takes a row lock for the UPDATE, so when several requests
+     * race with the same token exactly one of them gets a row back.
+     */
+    @Query(value = CONSUME_TOKEN_SQL, nativeQuery = true)
+    Optional<ConsumedRefreshToken> consumeToken(@Param("tenantId") String tenantId, @Param("token") String token,
+            @Param("now") Instant now);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.tenantId = :tenantId AND rt.familyId = :familyId")
+    int deleteByTenantIdAndFamilyId(@Param("tenantId") String tenantId, @Param("familyId") UUID familyId);
+
+    /**
+     * Deletes the tokens of a family that earlier rotations consumed, except
+     * {@code keep}. Run on every rotation so a long-lived session holds at most one
+     * consumed row besides its live token, instead of one per refresh until expiry.
+     */
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.tenantId = :tenantId AND rt.familyId = :familyId "
+            + "AND rt.usedAt IS NOT NULL AND rt.token <> :keep")
+    int deleteConsumedByTenantIdAndFamilyIdExcept(@Param("tenantId") String tenantId,
+            @Param("familyId") UUID familyId, @Param("keep") String keep);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.expiryDate < :now")
+    int deleteByExpiryDateBefore(@Param("now") Instant now);
+
+    /**
+     * Projection of the row returned by {@link #consumeToken(String, String, Instant)}.
+     */
+    interface ConsumedRefreshToken {
+        UUID getUserId();
+
+        UUID getFamilyId();
+    }
 }
@@ -1,12 +1,57 @@
 package com.azhagu_swe.saas.model.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.azhagu_swe.saas.model.entity.Role;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface RoleRepository extends JpaRepository<Role, Long> {
     Optional<Role> findByName(String name);
-    
+
+    /**
+     * Resolves many role names in one query, with their permissions fetched in the
+     * same statement; names without a match are simply absent.
+     */
+    @EntityGraph(attributePaths = "permissions")
+    List<Role> findAllByNameIn(Collection<String> names);
+
+    /**
+     * Resolves role names to IDs in one query, without loading the roles' permissions.
+     */
+    @Query("SELECT r.id AS id, r.name AS name FROM Role r WHERE r.name IN :names")
+    List<RoleRef> findRefsByNameIn(@Param("names") Collection<String> names);
+
+    /**
+     * Every role with the names of its permissions, one row per pair. A role
+     * without permissions appears once, with a null permission name.
+     */
+    @Query("SELECT r.id AS roleId, r.name AS roleName, p.name AS permissionName "
+            + "FROM Role r LEFT JOIN r.permissions p")
+    List<RoleGrant> findAllGrants();
+
+    /**
+     * Projection carrying only a role's key and name.
+     */
+    interface RoleRef {
+        Long getId();
+
+        String getName();
+    }
+
+    /**
+     * Projection of one role-permission pair.
+     */
+    interface RoleGrant {
+        Long getRoleId();
+
+        String getRoleName();
+
+        String getPermissionName();
+    }
 }
@@ -1,29 +1,63 @@
 package com.azhagu_swe.saas.model.repository;
 
-import io.lettuce.core.dynamic.annotation.Param;
-
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.azhagu_swe.saas.model.entity.Role;
 import com.azhagu_swe.saas.model.entity.User;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import jakarta.persistence.QueryHint;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
-    Optional<User> findByUsername(String username);
+    // Lookups by username and email always name the tenant: both are unique only
+    // within a tenant, and the tenant lets Postgres prune to a single partition.
+    Optional<User> findByTenantIdAndUsername(String tenantId, String username);
 
-    Boolean existsByUsername(String username);
+    boolean existsByTenantIdAndUsername(String tenantId, String username);
 
-    Boolean existsByEmail(String email);
+    boolean existsByTenantIdAndEmail(String tenantId, String email);
 
-    // Add this new method
-    Optional<User> findByEmail(String email);
+    Optional<User> findByTenantIdAndEmail(String tenantId, String email);
 
-    @Query("SELECT u FROM User u JOIN FETCH u.roles WHERE u.username = :username")
-    Optional<User> findByUsernameWithRoles(@Param("username") String username);
+    Optional<User> findByIdAndTenantId(UUID id, String tenantId);
+
+    boolean existsByIdAndTenantId(UUID id, String tenantId);
+
+    Page<User> findAllByTenantId(String tenantId, Pageable pageable);
 
     boolean existsByRolesContains(Role role);
 
+    /**
+     * Streams the tenant, username and email of every user without loading entities.
+     * Must be consumed inside a transaction so the driver can use a server-side
+     * cursor instead of buffering the whole table.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u.tenantId AS tenantId, u.username AS username, u.email AS email FROM User u")
+    Stream<UserIdentifiers> streamAllIdentifiers();
+
+    /**
+     * Projection carrying only the unique, user-facing identifiers of a user.
+     */
+    interface UserIdentifiers {
+        String getTenantId();
+
+        String getUsername();
+
+        String getEmail();
+    }
+
 }
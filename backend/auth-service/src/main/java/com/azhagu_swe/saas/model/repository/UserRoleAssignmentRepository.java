@@ -0,0 +1,112 @@
+package com.azhagu_swe.saas.model.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Set-based reads and writes of the {@code user_roles} join table for bulk role
+ * changes and authorization decisions.
+ * <p>
+ * Each method is one statement regardless of how many users are involved, with the
+ * IDs bound as Postgres arrays. This bypasses Hibernate, so User entities already
+ * loaded in the same persistence context do not see the change.
+ */
+@Repository
+public class UserRoleAssignmentRepository {
+
+    private static final String EXISTING_USERS_SQL = "SELECT id FROM users WHERE tenant_id = ? AND id = ANY(?)";
+
+    // Through users, so only the given tenant's users match and the users partition is pruned
+    private static final String ASSIGNMENTS_SQL = "SELECT ur.user_id, ur.role_id FROM user_roles ur "
+            + "JOIN users u ON u.id = ur.user_id "
+            + "WHERE u.tenant_id = ? AND ur.user_id = ANY(?)";
+
+    // Rows that already exist are skipped by the (user_id, role_id) key; RETURNING lists only new ones
+    private static final String GRANT_SQL = "INSERT INTO user_roles (tenant_id, user_id, role_id) "
+            + "SELECT u.tenant_id, u.id, r.id FROM users u CROSS JOIN unnest(?) AS r(id) WHERE u.id = ANY(?) "
+            + "ON CONFLICT DO NOTHING "
+            + "RETURNING user_id, role_id";
+
+    private static final String REVOKE_SQL = "DELETE FROM user_roles "
+            + "WHERE user_id = ANY(?) AND role_id = ANY(?) "
+            + "RETURNING user_id, role_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserRoleAssignmentRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return the IDs that belong to existing users of the given tenant.
+     */
+    public Set<UUID> findExistingUserIds(String tenantId, Collection<UUID> userIds) {
+        return new HashSet<>(jdbcTemplate.query(EXISTING_USERS_SQL, ps -> {
+            ps.setString(1, tenantId);
+            ps.setArray(2, uuidArray(ps, userIds));
+        }, (rs, rowNum) -> rs.getObject(1, UUID.class)));
+    }
+
+    /**
+     * @return the role assignments of those of the given users that belong to the tenant.
+     */
+    public List<Assignment> findAssignments(String tenantId, Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(ASSIGNMENTS_SQL, ps -> {
+            ps.setString(1, tenantId);
+            ps.setArray(2, uuidArray(ps, userIds));
+        }, (rs, rowNum) -> new Assignment(rs.getObject(1, UUID.class), rs.getLong(2)));
+    }
+
+    /**
+     * Adds every role to every existing user that does not have it yet.
+     *
+     * @return the (user, role) pairs that were actually inserted.
+     */
+    public List<Assignment> grant(Collection<UUID> userIds, Collection<Long> roleIds) {
+        if (userIds.isEmpty() || roleIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(GRANT_SQL, ps -> {
+            ps.setArray(1, bigintArray(ps, roleIds));
+            ps.setArray(2, uuidArray(ps, userIds));
+        }, (rs, rowNum) -> new Assignment(rs.getObject(1, UUID.class), rs.getLong(2)));
+    }
+
+    /**
+     * Removes every role from every user that has it.
+     *
+     * @return the (user, role) pairs that were actually deleted.
+     */
+    public List<Assignment> revoke(Collection<UUID> userIds, Collection<Long> roleIds) {
+        if (userIds.isEmpty() || roleIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(REVOKE_SQL, ps -> {
+            ps.setArray(1, uuidArray(ps, userIds));
+            ps.setArray(2, bigintArray(ps, roleIds));
+        }, (rs, rowNum) -> new Assignment(rs.getObject(1, UUID.class), rs.getLong(2)));
+    }
+
+    private static Array uuidArray(PreparedStatement ps, Collection<UUID> values) throws SQLException {
+        return ps.getConnection().createArrayOf("uuid", values.toArray());
+    }
+
+    private static Array bigintArray(PreparedStatement ps, Collection<Long> values) throws SQLException {
+        return ps.getConnection().createArrayOf("bigint", values.toArray());
+    }
+
+    public record Assignment(UUID userId, Long roleId) {
+    }
+}
@@ -0,0 +1,85 @@
+package com.azhagu_swe.saas.security.authentication;
+
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+/**
+ * {@link DaoAuthenticationProvider} that rejects bad credentials with stackless
+ * exceptions. During a credential-stuffing wave the stock provider fills a full stack
+ * trace for every unknown email or wrong password, which costs more CPU than the
+ * lookup itself.
+ * <p>
+ * Unknown users still go through the timing-attack mitigation in
+ * {@link DaoAuthenticationProvider}, and both cases still produce the same exception,
+ * so responses do not reveal whether an email is registered. That only holds if the
+ * {@code UserDetailsService} throws a stackless {@link UsernameNotFoundException}
+ * too, as {@code UserDetailsServiceImpl} does.
+ */
+public class FastFailDaoAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private boolean hideUnknownUsers = true;
+
+    public FastFailDaoAuthenticationProvider() {
+        // The base class would hide an unknown user behind a new BadCredentialsException,
+        // stack trace and all, so it passes UsernameNotFoundException up to authenticate()
+        super.setHideUserNotFoundExceptions(false);
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        try {
+            return super.authenticate(authentication);
+        } catch (UsernameNotFoundException e) {
+            if (!hideUnknownUsers) {
+                throw e;
+            }
+            throw badCredentials();
+        }
+    }
+
+    @Override
+    public boolean isHideUserNotFoundExceptions() {
+        return hideUnknownUsers;
+    }
+
+    @Override
+    public void setHideUserNotFoundExceptions(boolean hideUserNotFoundExceptions) {
+        this.hideUnknownUsers = hideUserNotFoundExceptions;
+    }
+
+    @Override
+    protected void additionalAuthenticationChecks(UserDetails userDetails,
+            UsernamePasswordAuthenticationToken authentication) throws AuthenticationException {
+        Object credentials = authentication.getCredentials();
+        if (credentials == null
+                || !getPasswordEncoder().matches(credentials.toString(), userDetails.getPassword())) {
+            throw badCredentials();
+        }
+    }
+
+    private BadCredentialsException badCredentials() {
+        return new StacklessBadCredentialsException(messages.getMessage(
+                "AbstractUserDetailsAuthenticationProvider.badCredentials", "Bad credentials"));
+    }
+
+    /**
+     * A new instance per failure, since Spring Security treats its exceptions as
+     * mutable; only the stack trace is skipped.
+     */
+    static final class StacklessBadCredentialsException extends BadCredentialsException {
+
+        StacklessBadCredentialsException(String message) {
+            super(message);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
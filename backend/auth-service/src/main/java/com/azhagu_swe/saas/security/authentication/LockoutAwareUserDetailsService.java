@@ -0,0 +1,40 @@
+package com.azhagu_swe.saas.security.authentication;
+
+import com.azhagu_swe.saas.security.service.impl.UserDetailsImpl;
+import com.azhagu_swe.saas.security.tenant.TenantContext;
+import com.azhagu_swe.saas.service.LoginAttemptService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+/**
+ * {@link UserDetailsService} for the sign-in provider only. It marks a user as locked
+ * while {@link LoginAttemptService} has the submitted email locked out, so Spring
+ * Security's pre-authentication checks reject the account before the password is
+ * compared. {@code AuthServiceImpl} already refuses locked addresses before calling
+ * the provider; this covers lockouts that start while a sign-in is in flight and any
+ * other caller of the {@code AuthenticationManager}.
+ * <p>
+ * Token-authenticated requests load users through the undecorated service and never
+ * consult the lockout.
+ */
+public class LockoutAwareUserDetailsService implements UserDetailsService {
+
+    private final UserDetailsService delegate;
+    private final LoginAttemptService loginAttemptService;
+
+    public LockoutAwareUserDetailsService(UserDetailsService delegate, LoginAttemptService loginAttemptService) {
+        this.delegate = delegate;
+        this.loginAttemptService = loginAttemptService;
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        UserDetails user = delegate.loadUserByUsername(email);
+        if (user instanceof UserDetailsImpl details
+                && loginAttemptService.isLocked(TenantContext.getTenantId(), email)) {
+            return details.lockedOut();
+        }
+        return user;
+    }
+}
@@ -0,0 +1,72 @@
+package com.azhagu_swe.saas.security.jwt;
+
+import com.azhagu_swe.saas.security.service.impl.UserDetailsImpl;
+import com.azhagu_swe.saas.security.tenant.TenantContext;
+import com.azhagu_swe.saas.service.TokenRevocationService;
+import com.azhagu_swe.saas.util.InternalIdentityVerifier;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Authenticates requests from the API Gateway using its signed identity header.
+ * <p>
+ * The gateway has already validated the JWT, so when the header verifies we
+ * trust it and build the principal directly, skipping JWT parsing and the user
+ * lookup in {@link JwtAuthenticationFilter}. The gateway cannot see revocations,
+ * so the token's issue time is still checked against the user's revocation
+ * cutoff here. Requests without a valid header, or whose token is revoked, fall
+ * through to that filter unchanged; it rejects a revoked JWT itself.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GatewayIdentityAuthenticationFilter extends OncePerRequestFilter {
+
+    private final InternalIdentityVerifier identityVerifier;
+    private final TokenRevocationService tokenRevocationService;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !identityVerifier.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String header = request.getHeader(InternalIdentityVerifier.HEADER_NAME);
+        if (header != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            identityVerifier.verify(header).ifPresent(identity -> {
+                if (tokenRevocationService.isRevoked(identity.userId().toString(), identity.issuedAt())) {
+                    log.debug("Gateway identity header for user {} carries a revoked token.", identity.subject());
+                    return;
+                }
+                TenantContext.setTenantId(identity.tenantId());
+                UserDetailsImpl userDetails = UserDetailsImpl.fromIdentity(
+                        identity.userId(), identity.subject(), identity.tenantId(), identity.authorities());
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                        userDetails, null, userDetails.getAuthorities());
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+                log.debug("Authenticated user {} from gateway identity header.", identity.subject());
+            });
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
@@ -1,8 +1,13 @@
 package com.azhagu_swe.saas.security.jwt;
 
+import com.azhagu_swe.saas.metrics.AuthMetrics;
 import com.azhagu_swe.saas.security.service.impl.UserDetailsServiceImpl;
+import com.azhagu_swe.saas.security.tenant.TenantContext;
+import com.azhagu_swe.saas.service.TokenRevocationService;
 import com.azhagu_swe.saas.util.JwtUtils;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -31,6 +36,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
     private final UserDetailsServiceImpl userDetailsService;
+    private final AuthMetrics authMetrics;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     protected void doFilterInternal(
@@ -41,17 +48,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         // Only process if there is no existing authentication in the context
         if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            Timer.Sample sample = Timer.start(authMetrics.getRegistry());
+            String result = "anonymous";
             try {
                 String jwt = parseJwt(request);
-                if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                    // If token is valid, create and set the authentication object
-                    setAuthenticationInContext(jwt, request);
+                if (jwt != null) {
+                    result = "invalid";
+                    // Validates the token and reads its claims in one parse; throws if invalid
+                    Claims claims = jwtUtils.parseClaims(jwt);
+                    if (isRevoked(claims)) {
+                        result = "revoked";
+                        log.debug("Revoked JWT for request URI [{}]", request.getRequestURI());
+                    } else {
+                        setAuthenticationInContext(claims, request);
+                        result = "authenticated";
+                    }
                 }
             } catch (JwtException e) {
                 // This will catch any JJWT specific exception (expired, malformed, etc.)
+                authMetrics.jwtFailure(e);
                 log.warn("JWT processing error for request URI [{}]: {}", request.getRequestURI(), e.getMessage());
                 // We allow the request to proceed, but without authentication.
                 // The endpoint's security rules will then deny access if it's a protected resource.
+            } finally {
+                sample.stop(authMetrics.jwtFilter(result));
             }
         }
 
@@ -69,11 +89,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         return null;
     }
 
+    /**
+     * Applies the same revocation cutoff as token introspection, so a token that
+     * downstream services reject is not accepted here either.
+     */
+    private boolean isRevoked(Claims claims) {
+        String userId = claims.get("userId", String.class);
+        return userId != null && claims.getIssuedAt() != null
+                && tokenRevocationService.isRevoked(userId, claims.getIssuedAt().getTime() / 1000);
+    }
+
     /**
      * Creates the Authentication object and sets it in the SecurityContext.
      */
-    private void setAuthenticationInContext(String jwt, HttpServletRequest request) {
-        String username = jwtUtils.getUsernameFromJwtToken(jwt); // This is the user's email
+    private void setAuthenticationInContext(Claims claims, HttpServletRequest request) {
+        String username = claims.getSubject(); // This is the user's email
+
+        // The signed claim decides the tenant, not the request header, and scopes the lookup below
+        TenantContext.setTenantId(JwtUtils.getTenantId(claims));
 
         // Load user details from the database. This ensures the user account is still active.
         UserDetails userDetails = userDetailsService.loadUserByUsername(username);
@@ -24,18 +24,23 @@ public class UserDetailsImpl implements UserDetails {
     private UUID id;
     private String applicationUsername; // Actual username from User entity
     private String email;               // Used for login (as UserDetails.getUsername())
+    private String tenantId;            // Issued as the JWT's tenantId claim
 
     @JsonIgnore
     private String password;
 
     private Collection<? extends GrantedAuthority> authorities;
 
+    // False while LoginAttemptService has the account locked out after failed sign-ins
+    private boolean accountNonLocked = true;
+
     // Private constructor, use the static build method
-    private UserDetailsImpl(UUID id, String applicationUsername, String email, String password,
+    private UserDetailsImpl(UUID id, String applicationUsername, String email, String tenantId, String password,
                            Collection<? extends GrantedAuthority> authorities) {
         this.id = id;
         this.applicationUsername = applicationUsername;
         this.email = email;
+        this.tenantId = tenantId;
         this.password = password;
         this.authorities = authorities;
     }
@@ -115,10 +120,40 @@ public class UserDetailsImpl implements UserDetails {
                 user.getId(),                   // The user's unique ID (UUID)
                 user.getUsername(),             // The application-specific username (e.g., "john_doe")
                 user.getEmail(),                // The user's email (this will be used by Spring Security as the "username" for login)
+                user.getTenantId(),             // The tenant the user belongs to
                 user.getPassword(),             // The user's hashed password
                 authoritiesList);               // The complete list of all "powers" (roles + permissions) the user has.
     }
 
+    /**
+     * Builds a principal from an identity the API Gateway has already verified,
+     * without loading the User entity. The application username and password are
+     * not available on this path.
+     *
+     * @param id          The user's ID.
+     * @param email       The user's login email.
+     * @param tenantId    The user's tenant.
+     * @param authorities The user's roles and permissions.
+     * @return UserDetailsImpl instance.
+     */
+    public static UserDetailsImpl fromIdentity(UUID id, String email, String tenantId,
+            Collection<? extends GrantedAuthority> authorities) {
+        return new UserDetailsImpl(id, null, email, tenantId, null, authorities);
+    }
+
+    /**
+     * Returns a copy that Spring Security's pre-authentication checks reject as locked,
+     * before the password is compared. Set at sign-in from {@code LoginAttemptService};
+     * principals built for token-authenticated requests are never locked.
+     *
+     * @return a locked copy of these user details.
+     */
+    public UserDetailsImpl lockedOut() {
+        UserDetailsImpl copy = new UserDetailsImpl(id, applicationUsername, email, tenantId, password, authorities);
+        copy.accountNonLocked = false;
+        return copy;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
@@ -149,7 +184,7 @@ public class UserDetailsImpl implements UserDetails {
 
     @Override
     public boolean isAccountNonLocked() {
-        return true; // TODO: Implement actual logic based on User entity if needed
+        return accountNonLocked;
     }
 
     @Override
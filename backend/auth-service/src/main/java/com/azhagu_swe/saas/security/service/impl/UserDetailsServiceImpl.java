@@ -7,6 +7,7 @@ import org.springframework.stereotype.Service;
 
 import com.azhagu_swe.saas.model.entity.User;
 import com.azhagu_swe.saas.model.repository.UserRepository;
+import com.azhagu_swe.saas.security.tenant.TenantContext;
 
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,7 +22,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
     /**
      * Loads the user by their username (which, in our configuration, will be their
-     * email).
+     * email) within the current {@link TenantContext} tenant.
      * This method is called by Spring Security during the authentication process.
      *
      * @param email The email address of the user trying to log in.
@@ -33,9 +34,23 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     @Transactional                   
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         // Find the user by email from the repository
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User Not Found with email: " + email));
+        User user = userRepository.findByTenantIdAndEmail(TenantContext.getTenantId(), email)
+                .orElseThrow(() -> new UnknownUserException("User Not Found with email: " + email));
 
         return UserDetailsImpl.build(user);
     }
+
+    // Unknown emails are routine during credential stuffing and the trace is never logged,
+    // so it is not captured
+    private static final class UnknownUserException extends UsernameNotFoundException {
+
+        UnknownUserException(String message) {
+            super(message);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
 }
\ No newline at end of file
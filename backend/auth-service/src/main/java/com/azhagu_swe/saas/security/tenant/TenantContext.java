@@ -0,0 +1,44 @@
+package com.azhagu_swe.saas.security.tenant;
+
+import com.azhagu_swe.saas.constants.AppConstants;
+
+import java.util.regex.Pattern;
+
+/**
+ * The tenant the current request acts for.
+ * <p>
+ * {@link TenantResolutionFilter} sets it from the {@value #HEADER_NAME} header for
+ * unauthenticated calls (sign-in, sign-up, refresh). The authentication filters
+ * then overwrite it with the tenant from the verified JWT or gateway identity, so
+ * an authenticated caller cannot act for another tenant by changing the header.
+ * Code running outside a request sees {@link AppConstants#DEFAULT_TENANT}.
+ */
+public final class TenantContext {
+
+    public static final String HEADER_NAME = "X-Tenant-ID";
+
+    // Lower-case slug; also safe as a list partition value and a cache key prefix
+    private static final Pattern VALID_TENANT_ID = Pattern.compile("[a-z0-9][a-z0-9-]{0,62}");
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static String getTenantId() {
+        String tenantId = CURRENT.get();
+        return tenantId != null ? tenantId : AppConstants.DEFAULT_TENANT;
+    }
+
+    public static void setTenantId(String tenantId) {
+        CURRENT.set(tenantId);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public static boolean isValid(String tenantId) {
+        return tenantId != null && VALID_TENANT_ID.matcher(tenantId).matches();
+    }
+}
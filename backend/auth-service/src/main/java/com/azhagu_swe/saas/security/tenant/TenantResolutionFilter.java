@@ -0,0 +1,51 @@
+package com.azhagu_swe.saas.security.tenant;
+
+import com.azhagu_swe.saas.exception.ErrorBodyTemplate;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Puts the tenant named by the {@value TenantContext#HEADER_NAME} header into
+ * {@link TenantContext} for the rest of the request, and clears it afterwards.
+ * Requests without the header act for the default tenant.
+ */
+@Component
+public class TenantResolutionFilter extends OncePerRequestFilter {
+
+    private static final ErrorBodyTemplate INVALID_TENANT = ErrorBodyTemplate.withEpochMillis(
+            HttpStatus.BAD_REQUEST, "Invalid " + TenantContext.HEADER_NAME + " header.");
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String tenantId = request.getHeader(TenantContext.HEADER_NAME);
+        if (tenantId != null && !TenantContext.isValid(tenantId)) {
+            byte[] body = INVALID_TENANT.render(request.getRequestURI());
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+            return;
+        }
+
+        TenantContext.setTenantId(tenantId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.azhagu_swe.saas.security.tenant;
+
+import com.azhagu_swe.saas.constants.AppConstants;
+
+/**
+ * Opaque tokens (refresh, password reset) prefixed with their tenant, as
+ * {@code <tenantId>.<secret>}. The token alone then says which partition holds
+ * its row, without a header or an extra lookup. The prefix is not trusted: the
+ * row is still looked up by the full token within that tenant.
+ * <p>
+ * Tokens issued before tenants existed have no prefix and belong to
+ * {@link AppConstants#DEFAULT_TENANT}.
+ */
+public final class TenantTokens {
+
+    private static final char SEPARATOR = '.';
+
+    private TenantTokens() {
+    }
+
+    /**
+     * @param secret The random part; must not contain {@code '.'}.
+     */
+    public static String issue(String tenantId, String secret) {
+        return tenantId + SEPARATOR + secret;
+    }
+
+    public static String tenantOf(String token) {
+        int separator = token == null ? -1 : token.indexOf(SEPARATOR);
+        if (separator > 0) {
+            String tenantId = token.substring(0, separator);
+            if (TenantContext.isValid(tenantId)) {
+                return tenantId;
+            }
+        }
+        return AppConstants.DEFAULT_TENANT;
+    }
+}
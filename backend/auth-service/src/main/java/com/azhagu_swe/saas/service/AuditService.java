@@ -0,0 +1,37 @@
+package com.azhagu_swe.saas.service;
+
+import com.azhagu_swe.saas.dto.response.AuditHistoryResponse;
+import com.azhagu_swe.saas.exception.BadRequestException;
+
+import java.util.UUID;
+
+/**
+ * Service interface for reading the audit trail.
+ * History is returned newest first, one page at a time; pass the previous page's
+ * {@code nextCursor} to get the next one.
+ */
+public interface AuditService {
+
+    /**
+     * Retrieves the history of a user of the caller's tenant.
+     *
+     * @param userId The user ID.
+     * @param cursor The previous page's {@code nextCursor}, or {@code null} for the first page.
+     * @param limit  Maximum number of events on the page.
+     * @return The page of events.
+     * @throws BadRequestException if the cursor is malformed.
+     */
+    AuditHistoryResponse getUserHistory(UUID userId, String cursor, int limit);
+
+    /**
+     * Retrieves the history of a role. Roles are shared by all tenants, but only a
+     * super admin sees the events recorded in other tenants than their own.
+     *
+     * @param roleId The role ID.
+     * @param cursor The previous page's {@code nextCursor}, or {@code null} for the first page.
+     * @param limit  Maximum number of events on the page.
+     * @return The page of events.
+     * @throws BadRequestException if the cursor is malformed.
+     */
+    AuditHistoryResponse getRoleHistory(Long roleId, String cursor, int limit);
+}
@@ -0,0 +1,21 @@
+package com.azhagu_swe.saas.service;
+
+import com.azhagu_swe.saas.dto.request.AuthorizationDecisionRequest.Check;
+
+import java.util.List;
+
+/**
+ * Service interface for deciding many authorization checks at once, so other
+ * services need not reimplement role and permission resolution.
+ */
+public interface AuthorizationDecisionService {
+
+    /**
+     * Decides whether each user holds each authority, as {@code hasAuthority(...)}
+     * would for that user. Users that do not exist in the caller's tenant hold none.
+     *
+     * @param checks The (user, authority) pairs.
+     * @return one decision per check, in the same order.
+     */
+    boolean[] decide(List<Check> checks);
+}
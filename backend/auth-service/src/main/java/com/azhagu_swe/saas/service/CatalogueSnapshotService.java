@@ -0,0 +1,92 @@
+package com.azhagu_swe.saas.service;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Supplier;
+
+/**
+ * Serialized snapshots of the role and permission catalogue responses, tied to a
+ * catalogue version that every role or permission mutation increments.
+ * <p>
+ * Reads cost one primary-key lookup of the version while the catalogue is
+ * unchanged; the listing queries and serialization only run again after a
+ * mutation. Snapshots are kept per negotiated media type (JSON, CBOR or Smile),
+ * each with its own ETag. Clients that send the snapshot's ETag back get a 304.
+ */
+public interface CatalogueSnapshotService {
+
+    /**
+     * @return The current catalogue version.
+     */
+    long currentVersion();
+
+    /**
+     * Increments the catalogue version. Must be called inside the transaction that
+     * mutates a role or permission, so the new version becomes visible together
+     * with the change.
+     */
+    void bumpVersion();
+
+    /**
+     * Returns the serialized response for {@code key} at the current catalogue
+     * version, in the media type the {@code Accept} header asks for, building it
+     * with {@code response} if there is no such snapshot yet. JSON wins for
+     * wildcards and a missing header, as it does in content negotiation.
+     *
+     * @param key      Identifies the endpoint and its paging parameters.
+     * @param accept   The request's Accept header, may be null.
+     * @param response Builds the response body; only called on a miss.
+     * @return The snapshot, or {@link CatalogueSnapshot#NOT_ACCEPTABLE} if
+     *         {@code accept} rules out JSON, CBOR and Smile. Never null.
+     */
+    CatalogueSnapshot snapshot(String key, String accept, Supplier<?> response);
+
+    record CatalogueSnapshot(byte[] body, MediaType contentType, String etag, long version) {
+
+        public static final CatalogueSnapshot NOT_ACCEPTABLE = new CatalogueSnapshot(null, null, null, -1);
+
+        /**
+         * Builds the HTTP response: 406 for {@link #NOT_ACCEPTABLE}, 304 without a
+         * body if {@code ifNoneMatch} lists this snapshot's ETag, the serialized
+         * body otherwise.
+         */
+        public ResponseEntity<byte[]> toResponseEntity(String ifNoneMatch) {
+            if (contentType == null) {
+                return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
+            }
+            if (matches(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .cacheControl(CacheControl.noCache())
+                        .varyBy(HttpHeaders.ACCEPT)
+                        .build();
+            }
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .contentType(contentType)
+                    .body(body);
+        }
+
+        private boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
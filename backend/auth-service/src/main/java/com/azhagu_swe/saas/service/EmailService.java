@@ -23,7 +23,7 @@ public class EmailService {
         this.mailSender = mailSender;
     }
 
-    @Async // Make email sending asynchronous (ensure @EnableAsync is on a @Configuration class)
+    @Async // Only asynchronous in virtual thread mode, where VirtualThreadConfig enables @Async
     public void sendPasswordResetEmail(String toEmail, String username, String token) throws MailException {
         try {
             SimpleMailMessage message = new SimpleMailMessage();
@@ -51,7 +51,7 @@ public class EmailService {
             logger.info("Password reset email sent successfully to {}", toEmail);
         } catch (MailException e) {
             logger.error("Failed to send password reset email to {}: {}", toEmail, e.getMessage());
-            throw e; // Re-throw to be caught by the AuthService or a global handler if necessary for specific alerts
+            throw e; // Caught by AuthServiceImpl when synchronous; logged by the async handler otherwise
         }
     }
 
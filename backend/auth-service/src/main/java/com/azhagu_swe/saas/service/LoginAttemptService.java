@@ -0,0 +1,45 @@
+package com.azhagu_swe.saas.service;
+
+import java.time.Duration;
+
+/**
+ * Tracks failed sign-ins per account and locks the account out for an exponentially
+ * growing period once a threshold is passed.
+ * <p>
+ * Keyed on the tenant and the submitted email, whether or not it is registered,
+ * so a locked address is rejected before any user lookup or password hashing, and
+ * the lockout itself reveals nothing about which emails exist. Only sign-in is
+ * checked, never requests authenticated by a token:
+ * sessions and refresh tokens issued earlier keep working, so an attacker cannot
+ * log a user out by locking their account.
+ */
+public interface LoginAttemptService {
+
+    /**
+     * @param tenantId The tenant signed in to.
+     * @param email    The email submitted at sign-in.
+     * @return how long the account stays locked, or {@link Duration#ZERO} if it is
+     *         not locked.
+     */
+    Duration lockedFor(String tenantId, String email);
+
+    default boolean isLocked(String tenantId, String email) {
+        return !lockedFor(tenantId, email).isZero();
+    }
+
+    /**
+     * Counts a failed password check and locks the account if the threshold is passed.
+     *
+     * @param tenantId The tenant signed in to.
+     * @param email    The email submitted at sign-in.
+     */
+    void recordFailure(String tenantId, String email);
+
+    /**
+     * Clears the failure count after a successful sign-in.
+     *
+     * @param tenantId The tenant signed in to.
+     * @param email    The email submitted at sign-in.
+     */
+    void recordSuccess(String tenantId, String email);
+}
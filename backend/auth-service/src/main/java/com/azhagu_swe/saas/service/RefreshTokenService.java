@@ -31,33 +31,46 @@ public interface RefreshTokenService {
     RefreshToken createRefreshToken(UUID userId);
 
     /**
-     * Verifies if the given refresh token is valid (not expired and not already
-     * used/revoked).
-     * If the token is expired, it should be deleted.
+     * Rotates a refresh token: the presented token is consumed with a single
+     * conditional update and a new token in the same family is issued in its
+     * place.
+     * If the presented token was already consumed outside the reuse grace window,
+     * it is treated as stolen and every token in its family is revoked.
+     * Consumed tokens of the family other than the presented one are deleted, so
+     * replay detection covers the most recently rotated token; older ones are
+     * simply unknown.
      *
-     * @param token The RefreshToken entity to verify.
-     * @return The same RefreshToken entity if valid.
-     * @throws InvalidTokenException if the token is expired, already used, or
-     *                               otherwise invalid.
+     * @param token The refresh token string presented by the client.
+     * @return The newly issued RefreshToken entity. Its user is an unloaded
+     *         reference carrying only the user ID.
+     * @throws InvalidTokenException if the token is unknown, expired or already
+     *                               used.
      */
-    RefreshToken verifyTokenAndHandleExpiration(RefreshToken token);
+    RefreshToken rotateRefreshToken(String token);
 
     /**
-     * Deletes a specific refresh token entity.
-     * Useful when a token is used for rotation and needs to be removed.
+     * Revokes every refresh token belonging to the given rotation family.
      *
-     * @param token The RefreshToken entity to delete.
+     * @param tenantId The tenant the family was issued in.
+     * @param familyId The family ID shared by the rotated tokens.
+     * @return The number of tokens deleted.
      */
-    void deleteSpecificToken(RefreshToken token);
+    int revokeTokenFamily(String tenantId, UUID familyId);
 
     /**
      * Deletes all refresh tokens associated with a specific user ID.
      * Useful for "logout from all devices" functionality or when a user's password
      * changes.
      *
-     * @param userId The ID of the user whose refresh tokens are to be deleted.
+     * @param tenantId The tenant the user belongs to.
+     * @param userId   The ID of the user whose refresh tokens are to be deleted.
      * @return The number of tokens deleted.
      */
-    int deleteAllTokensByUserId(UUID userId);
-    
+    int deleteAllTokensByUserId(String tenantId, UUID userId);
+
+    /**
+     * Deletes all refresh tokens, used or not, whose expiry date has passed.
+     */
+    void deleteExpiredTokens();
+
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.azhagu_swe.saas.service;
+
+import com.azhagu_swe.saas.dto.response.TokenIntrospectionResponse;
+
+import java.util.List;
+
+/**
+ * Service interface for validating access tokens on behalf of other services, so
+ * they need neither the signing key nor their own revocation checks.
+ */
+public interface TokenIntrospectionService {
+
+    /**
+     * Checks each token's signature, expiry and revocation.
+     *
+     * @param tokens The access tokens.
+     * @return one result per token, in the same order.
+     */
+    List<TokenIntrospectionResponse> introspect(List<String> tokens);
+}
@@ -0,0 +1,89 @@
+package com.azhagu_swe.saas.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Revokes every access token a user holds, e.g. after a password or role change.
+ * <p>
+ * Access tokens carry no ID of their own, so revocation is a per-user cutoff: the
+ * time of the user's latest revocation, rounded up to the next whole second. A
+ * token is no longer accepted if it was issued before the cutoff. Token issue
+ * times only have one-second resolution, so a token issued in the same second as
+ * the revocation is rejected even if it was issued just after it; the client
+ * simply refreshes again. Cutoffs are forgotten once every token they could apply
+ * to has expired.
+ */
+public interface TokenRevocationService {
+
+    /**
+     * Revokes all access tokens issued to the user up to and including the current
+     * second.
+     *
+     * @param userId The user ID.
+     */
+    void revokeAll(UUID userId);
+
+    /**
+     * Revokes all access tokens of many users at once.
+     *
+     * @param userIds The user IDs.
+     */
+    default void revokeAll(Collection<UUID> userIds) {
+        userIds.forEach(this::revokeAll);
+    }
+
+    /**
+     * Revokes the users' tokens once the current transaction commits, or at once
+     * outside a transaction. The cutoff is then never older than the change it
+     * enforces: a token refreshed before the commit still carries the old roles or
+     * password, and is revoked with the rest. Nothing is revoked on rollback.
+     *
+     * @param userIds The user IDs.
+     */
+    default void revokeAllAfterCommit(Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            revokeAll(userIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                revokeAll(userIds);
+            }
+        });
+    }
+
+    /**
+     * Looks up the revocation cutoffs of many users in one round trip.
+     *
+     * @param userIds User IDs as carried in the tokens' {@code userId} claim.
+     * @return the cutoff in epoch seconds of each user that has one.
+     */
+    Map<String, Long> findCutoffs(Collection<String> userIds);
+
+    default boolean isRevoked(String userId, long issuedAtEpochSecond) {
+        return isRevoked(findCutoffs(List.of(userId)).get(userId), issuedAtEpochSecond);
+    }
+
+    static boolean isRevoked(Long cutoffEpochSecond, long issuedAtEpochSecond) {
+        return cutoffEpochSecond != null && issuedAtEpochSecond < cutoffEpochSecond;
+    }
+
+    /**
+     * @return the cutoff for a revocation at {@code revokedAt}: the next whole second,
+     *         unless it falls exactly on one.
+     */
+    static long cutoffAt(Instant revokedAt) {
+        return revokedAt.getNano() == 0 ? revokedAt.getEpochSecond() : revokedAt.getEpochSecond() + 1;
+    }
+}
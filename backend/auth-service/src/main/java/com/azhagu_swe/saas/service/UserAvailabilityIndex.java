@@ -0,0 +1,59 @@
+package com.azhagu_swe.saas.service;
+
+/**
+ * In-memory probabilistic index of every registered username and email, per
+ * tenant.
+ * <p>
+ * Used by the public availability checks so that values which are definitely
+ * not taken can be answered without a database round trip. Any positive answer
+ * must still be confirmed against the database.
+ */
+public interface UserAvailabilityIndex {
+
+    /**
+     * @return true once the index has been warmed and negative answers can be
+     *         trusted.
+     */
+    boolean isReady();
+
+    /**
+     * Checks whether a username might be taken within a tenant.
+     *
+     * @param tenantId The tenant to check in.
+     * @param username The username to check.
+     * @return false only if the username is definitely not registered, or true if
+     *         it might be (including while the index is still warming up).
+     */
+    boolean mightContainUsername(String tenantId, String username);
+
+    /**
+     * Checks whether an email might be taken within a tenant.
+     *
+     * @param tenantId The tenant to check in.
+     * @param email    The email to check.
+     * @return false only if the email is definitely not registered, or true if it
+     *         might be (including while the index is still warming up).
+     */
+    boolean mightContainEmail(String tenantId, String email);
+
+    /**
+     * Records a username and email once the current transaction commits. Call this
+     * whenever a user is created or their identifiers change.
+     *
+     * @param tenantId The user's tenant.
+     * @param username The (possibly new) username; ignored if null.
+     * @param email    The (possibly new) email; ignored if null.
+     */
+    void recordUser(String tenantId, String username, String email);
+
+    /**
+     * Notes that a user was deleted. Bloom filters cannot forget entries, so this
+     * only counts stale entries towards the next rebuild.
+     */
+    void recordUserRemoved();
+
+    /**
+     * Rebuilds the index from a streaming scan of the users table.
+     */
+    void rebuild();
+}
@@ -1,8 +1,10 @@
 package com.azhagu_swe.saas.service;
 
+import com.azhagu_swe.saas.dto.request.BulkRoleAssignmentRequest;
 import com.azhagu_swe.saas.dto.request.ChangePasswordRequest;
 import com.azhagu_swe.saas.dto.request.CreateUserRequest;
 import com.azhagu_swe.saas.dto.request.UpdateUserRequest;
+import com.azhagu_swe.saas.dto.response.BulkRoleAssignmentResponse;
 import com.azhagu_swe.saas.dto.response.UserResponse;
 import com.azhagu_swe.saas.exception.DuplicateResourceException;
 import com.azhagu_swe.saas.exception.ResourceNotFoundException;
@@ -68,4 +70,15 @@ public interface UserService {
 
     void changePassword(String userEmail, ChangePasswordRequest request);
 
+    /**
+     * Grants and revokes roles for many users with one set-based statement each,
+     * instead of loading and saving every user.
+     *
+     * @param request The users and the role names to grant and revoke.
+     * @return What changed for each requested user.
+     * @throws ResourceNotFoundException if any role name does not exist; nothing is
+     *                                   changed in that case.
+     */
+    BulkRoleAssignmentResponse assignRoles(@Valid BulkRoleAssignmentRequest request);
+
 }
\ No newline at end of file
@@ -0,0 +1,88 @@
+package com.azhagu_swe.saas.service.impl;
+
+import com.azhagu_swe.saas.audit.AuditEntityType;
+import com.azhagu_swe.saas.constants.AppConstants;
+import com.azhagu_swe.saas.dto.response.AuditEventResponse;
+import com.azhagu_swe.saas.dto.response.AuditHistoryResponse;
+import com.azhagu_swe.saas.exception.BadRequestException;
+import com.azhagu_swe.saas.model.repository.AuditEventRepository;
+import com.azhagu_swe.saas.model.repository.AuditEventRepository.AuditRecord;
+import com.azhagu_swe.saas.model.repository.AuditEventRepository.Cursor;
+import com.azhagu_swe.saas.security.tenant.TenantContext;
+import com.azhagu_swe.saas.service.AuditService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class AuditServiceImpl implements AuditService {
+
+    static final int MAX_LIMIT = 200;
+
+    private final AuditEventRepository auditEventRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public AuditHistoryResponse getUserHistory(UUID userId, String cursor, int limit) {
+        return history(AuditEntityType.USER, userId.toString(), TenantContext.getTenantId(), cursor, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AuditHistoryResponse getRoleHistory(Long roleId, String cursor, int limit) {
+        // Roles are shared, but their events (e.g. bulk grants) tell what happened in a tenant
+        String tenantId = isSuperAdmin() ? null : TenantContext.getTenantId();
+        return history(AuditEntityType.ROLE, roleId.toString(), tenantId, cursor, limit);
+    }
+
+    private static boolean isSuperAdmin() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(authority -> AppConstants.SUPERADMIN_ROLE.equals(authority.getAuthority()));
+    }
+
+    private AuditHistoryResponse history(AuditEntityType entityType, String entityId, String tenantId,
+            String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        // One row more than asked for tells whether there is a next page
+        List<AuditRecord> records = auditEventRepository.findHistory(entityType, entityId, tenantId,
+                decodeCursor(cursor), pageSize + 1);
+        String nextCursor = null;
+        if (records.size() > pageSize) {
+            records = records.subList(0, pageSize);
+            nextCursor = encodeCursor(records.get(pageSize - 1));
+        }
+        List<AuditEventResponse> events = records.stream()
+                .map(r -> new AuditEventResponse(r.occurredAt(), r.tenantId(), r.entityType(), r.entityId(),
+                        r.action(), r.actor(), r.details()))
+                .toList();
+        return new AuditHistoryResponse(events, nextCursor);
+    }
+
+    // Opaque to clients: "<epoch microseconds>-<id>", matching the column precision
+    private static String encodeCursor(AuditRecord record) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, record.occurredAt()) + "-" + record.id();
+    }
+
+    private static Cursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        int separator = cursor.lastIndexOf('-');
+        try {
+            long micros = Long.parseLong(cursor.substring(0, separator));
+            long id = Long.parseLong(cursor.substring(separator + 1));
+            return new Cursor(Instant.EPOCH.plus(micros, ChronoUnit.MICROS), id);
+        } catch (RuntimeException ex) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -4,10 +4,14 @@ import com.azhagu_swe.saas.dto.request.*;
 import com.azhagu_swe.saas.dto.response.MessageResponse;
 import com.azhagu_swe.saas.dto.response.SignInResponse;
 import com.azhagu_swe.saas.dto.response.TokenRefreshResponse;
+import com.azhagu_swe.saas.exception.AccountLockedException;
 import com.azhagu_swe.saas.exception.DuplicateResourceException;
 import com.azhagu_swe.saas.exception.InvalidCredentialsException;
 import com.azhagu_swe.saas.exception.InvalidTokenException;
 import com.azhagu_swe.saas.exception.ServiceProcessingException;
+import com.azhagu_swe.saas.metrics.AuthMetrics;
+import com.azhagu_swe.saas.metrics.AuthMetrics.RefreshPhase;
+import com.azhagu_swe.saas.metrics.AuthMetrics.SignInPhase;
 import com.azhagu_swe.saas.model.entity.PasswordResetToken;
 import com.azhagu_swe.saas.model.entity.RefreshToken;
 import com.azhagu_swe.saas.model.entity.Role;
@@ -15,15 +19,22 @@ import com.azhagu_swe.saas.model.entity.User;
 import com.azhagu_swe.saas.model.repository.RoleRepository;
 import com.azhagu_swe.saas.model.repository.UserRepository;
 import com.azhagu_swe.saas.security.service.impl.UserDetailsImpl;
+import com.azhagu_swe.saas.security.tenant.TenantContext;
 import com.azhagu_swe.saas.service.AuthService;
 import com.azhagu_swe.saas.service.EmailService;
+import com.azhagu_swe.saas.service.LoginAttemptService;
 import com.azhagu_swe.saas.service.PasswordResetTokenService;
 import com.azhagu_swe.saas.service.RefreshTokenService;
+import com.azhagu_swe.saas.service.TokenRevocationService;
+import com.azhagu_swe.saas.service.UserAvailabilityIndex;
 import com.azhagu_swe.saas.util.JwtUtils;
+import io.micrometer.core.instrument.Timer;
 import jakarta.validation.Valid;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -33,6 +44,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.MailException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -47,6 +59,12 @@ public class AuthServiceImpl implements AuthService {
 
     private static final Logger logger = LoggerFactory.getLogger(AuthServiceImpl.class);
 
+    // Thrown on every failed sign-in; built once, without a stack trace
+    private static final InvalidCredentialsException INVALID_CREDENTIALS =
+            InvalidCredentialsException.expected("Invalid email or password provided.");
+    private static final AccountLockedException ACCOUNT_LOCKED =
+            AccountLockedException.expected("Too many failed sign-in attempts. Please try again later.");
+
     @Autowired
     private AuthenticationManager authenticationManager;
     @Autowired
@@ -63,34 +81,46 @@ public class AuthServiceImpl implements AuthService {
     private EmailService emailService;
     @Autowired
     private PasswordResetTokenService passwordResetTokenService; // Use the service
+    @Autowired
+    private UserAvailabilityIndex userAvailabilityIndex;
+    @Autowired
+    private AuthMetrics authMetrics;
+    @Autowired
+    private LoginAttemptService loginAttemptService;
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
 
     @Value("${app.defaultUserRoleName:StandardUser}") // Example: Make default role name configurable
     private String defaultUserRoleName;
 
     @Transactional
     public SignInResponse authenticateUser(@Valid SignInRequest loginRequest) {
-        Authentication authentication;
+        Timer.Sample sample = Timer.start(authMetrics.getRegistry());
+        String outcome = "error";
         try {
-            authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword()));
-        } catch (BadCredentialsException e) {
-            logger.warn("Failed login attempt for email: {}", loginRequest.getEmail());
-            // Throw your custom exception or Spring's (GlobalExceptionHandler will handle
-            // it)
-            throw new InvalidCredentialsException("Invalid email or password provided.");
-        } catch (Exception e) {
-            // Catch other potential AuthenticationExceptions or issues during
-            // authenticate()
-            logger.error("Unexpected error during Spring Security authentication for email {}: {}",
-                    loginRequest.getEmail(), e.getMessage(), e);
-            throw new ServiceProcessingException("An unexpected error occurred during authentication.", e);
+            SignInResponse response = doAuthenticateUser(loginRequest);
+            outcome = "success";
+            return response;
+        } catch (InvalidCredentialsException e) {
+            outcome = "invalid_credentials";
+            throw e;
+        } catch (AccountLockedException e) {
+            outcome = "locked";
+            throw e;
+        } finally {
+            sample.stop(authMetrics.signIn(outcome));
         }
+    }
+
+    private SignInResponse doAuthenticateUser(SignInRequest loginRequest) {
+        Authentication authentication = authenticateCredentials(loginRequest);
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
 
         // Ensure user still exists in DB (should be extremely rare if auth succeeded)
-        User userEntity = userRepository.findByEmail(userDetails.getEmail())
+        User userEntity = authMetrics.signInPhase(SignInPhase.USER_LOOKUP)
+                .record(() -> userRepository.findByTenantIdAndEmail(userDetails.getTenantId(), userDetails.getEmail()))
                 .orElseThrow(() -> {
                     logger.error(
                             "CRITICAL: User '{}' authenticated but not found in database. Possible data inconsistency.",
@@ -100,9 +130,10 @@ public class AuthServiceImpl implements AuthService {
                 });
 
         try {
-            String accessToken = jwtUtils.generateJwtToken(authentication);
-            RefreshToken refreshToken = refreshTokenService.createRefreshToken(userDetails.getId()); // userDetails.getId()
-                                                                                                     // is UUID
+            String accessToken = authMetrics.signInPhase(SignInPhase.ACCESS_TOKEN)
+                    .record(() -> jwtUtils.generateJwtToken(authentication));
+            RefreshToken refreshToken = authMetrics.signInPhase(SignInPhase.REFRESH_TOKEN)
+                    .record(() -> refreshTokenService.createRefreshToken(userDetails.getId())); // UUID
 
             Set<String> roleNames = userEntity.getRoles().stream()
                     .map(Role::getName) // Assuming Role entity has getName()
@@ -132,22 +163,55 @@ public class AuthServiceImpl implements AuthService {
         }
     }
 
+    private Authentication authenticateCredentials(SignInRequest loginRequest) {
+        // Checked before the user lookup and BCrypt, so hammering a locked account costs almost nothing
+        String tenantId = TenantContext.getTenantId();
+        if (loginAttemptService.isLocked(tenantId, loginRequest.getEmail())) {
+            logger.debug("Sign-in rejected, account locked out: {}", loginRequest.getEmail());
+            throw ACCOUNT_LOCKED;
+        }
+        try {
+            // Includes the user lookup and the password hash check, which is also timed on its own
+            Authentication authentication = authMetrics.signInPhase(SignInPhase.AUTHENTICATE).record(
+                    () -> authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(
+                            loginRequest.getEmail(), loginRequest.getPassword())));
+            loginAttemptService.recordSuccess(tenantId, loginRequest.getEmail());
+            return authentication;
+        } catch (BadCredentialsException e) {
+            logger.warn("Failed login attempt for email: {}", loginRequest.getEmail());
+            loginAttemptService.recordFailure(tenantId, loginRequest.getEmail());
+            throw INVALID_CREDENTIALS;
+        } catch (LockedException e) {
+            // Locked out by concurrent failures after the check above
+            logger.debug("Sign-in rejected, account locked out: {}", loginRequest.getEmail());
+            throw ACCOUNT_LOCKED;
+        } catch (Exception e) {
+            // Catch other potential AuthenticationExceptions or issues during
+            // authenticate()
+            logger.error("Unexpected error during Spring Security authentication for email {}: {}",
+                    loginRequest.getEmail(), e.getMessage(), e);
+            throw new ServiceProcessingException("An unexpected error occurred during authentication.", e);
+        }
+    }
+
     @Transactional
     public MessageResponse registerUser(@Valid SignupRequest signUpRequest) {
+        String tenantId = TenantContext.getTenantId();
         // Check if username already exists
-        if (userRepository.existsByUsername(signUpRequest.getUsername())) {
+        if (userRepository.existsByTenantIdAndUsername(tenantId, signUpRequest.getUsername())) {
             logger.warn("Registration attempt with taken username: {}", signUpRequest.getUsername());
             throw new DuplicateResourceException("User", "username", signUpRequest.getUsername());
         }
 
         // Check if email already exists
-        if (userRepository.existsByEmail(signUpRequest.getEmail())) {
+        if (userRepository.existsByTenantIdAndEmail(tenantId, signUpRequest.getEmail())) {
             logger.warn("Registration attempt with taken email: {}", signUpRequest.getEmail());
             throw new DuplicateResourceException("User", "email", signUpRequest.getEmail());
         }
 
         // Create and set up the user entity
         User user = new User();
+        user.setTenantId(tenantId);
         user.setUsername(signUpRequest.getUsername());
         user.setEmail(signUpRequest.getEmail());
         // ** CRITICAL FIX: Use firstName and lastName from SignupRequest **
@@ -171,6 +235,7 @@ public class AuthServiceImpl implements AuthService {
 
         try {
             userRepository.save(user);
+            userAvailabilityIndex.recordUser(tenantId, user.getUsername(), user.getEmail());
             logger.info("User registered successfully: {} with email: {}", user.getUsername(), user.getEmail());
 
             // Optionally, trigger an asynchronous email verification process here
@@ -184,91 +249,71 @@ public class AuthServiceImpl implements AuthService {
         }
     }
 
-    @Transactional
+    @Transactional(noRollbackFor = InvalidTokenException.class) // Keep reuse revocations on rejection
     public TokenRefreshResponse refreshToken(@Valid TokenRefreshRequest request) {
+        Timer.Sample sample = Timer.start(authMetrics.getRegistry());
+        String outcome = "error";
+        try {
+            TokenRefreshResponse response = doRefreshToken(request);
+            outcome = "success";
+            return response;
+        } catch (InvalidTokenException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            sample.stop(authMetrics.refresh(outcome));
+        }
+    }
+
+    private TokenRefreshResponse doRefreshToken(TokenRefreshRequest request) {
         String requestRefreshTokenString = request.getRefreshToken();
 
-        // 1. Find the refresh token entity by its string value
-        RefreshToken oldRefreshTokenEntity = refreshTokenService.findByToken(requestRefreshTokenString)
+        // 1. Rotate the token. The old token is consumed by a single conditional
+        // UPDATE ... RETURNING, so concurrent refreshes with the same token cannot
+        // both succeed, and a replay of an already-rotated token revokes its family.
+        RefreshToken newRefreshTokenEntity = authMetrics.refreshPhase(RefreshPhase.ROTATE)
+                .record(() -> refreshTokenService.rotateRefreshToken(requestRefreshTokenString));
+
+        // 2. Load the associated User (roles and permissions are needed for the JWT)
+        UUID userId = newRefreshTokenEntity.getUser().getId();
+        User user = authMetrics.refreshPhase(RefreshPhase.USER_LOOKUP)
+                .record(() -> userRepository.findByIdAndTenantId(userId, newRefreshTokenEntity.getTenantId()))
                 .orElseThrow(() -> {
-                    logger.warn("Attempt to refresh with non-existent token: {}",
-                            requestRefreshTokenString.substring(0, Math.min(requestRefreshTokenString.length(), 10))
-                                    + "...");
-                    return new InvalidTokenException("Refresh token not found. Please sign in again.");
+                    // This would indicate a data integrity issue. The token should always have a
+                    // user.
+                    logger.error("CRITICAL: Refresh token ID {} found but has no associated user.",
+                            newRefreshTokenEntity.getId());
+                    return new ServiceProcessingException("Invalid refresh token state: no associated user.");
                 });
 
-        // 2. Verify the token's expiration and used status (verifyExpiration should
-        // handle this)
-        // This method should throw InvalidTokenException if expired or already marked
-        // as used.
-        refreshTokenService.verifyTokenAndHandleExpiration(oldRefreshTokenEntity);
-
-        // 3. Get the associated User
-        User user = oldRefreshTokenEntity.getUser();
-        if (user == null) {
-            // This would indicate a data integrity issue. The token should always have a
-            // user.
-            logger.error("CRITICAL: Refresh token ID {} found but has no associated user.",
-                    oldRefreshTokenEntity.getId());
-            throw new ServiceProcessingException("Invalid refresh token state: no associated user.");
-        }
-
-        // 4. (Optional but Recommended) Check User Account Status
-        // Example: if your User entity has an 'isActive' or 'isLocked' field
+        // 3. Check User Account Status
         if (!user.isVerified()) { // Assuming 'isVerified' also implies 'isEnabled' for login purposes
             logger.warn("Refresh token attempt for unverified/disabled user: {}", user.getUsername());
-            // Invalidate the token that was attempted to be used, as the user account is
-            // not active
-            refreshTokenService.deleteSpecificToken(oldRefreshTokenEntity);
+            // Invalidate the whole rotation chain, as the user account is not active
+            refreshTokenService.revokeTokenFamily(newRefreshTokenEntity.getTenantId(),
+                    newRefreshTokenEntity.getFamilyId());
             throw new InvalidTokenException(
                     "User account is not active or verified. Please verify your account or contact support.");
         }
 
-        // --- ✨ Implement Refresh Token Rotation ---
-        // a. Invalidate/delete the old refresh token to prevent reuse.
-        try {
-            refreshTokenService.deleteSpecificToken(oldRefreshTokenEntity);
-            logger.debug("Successfully deleted old refresh token ID: {} for user: {}", oldRefreshTokenEntity.getId(),
-                    user.getUsername());
-        } catch (Exception e) {
-            logger.error("Failed to delete old refresh token ID: {} for user: {}. Manual cleanup may be required.",
-                    oldRefreshTokenEntity.getId(), user.getUsername(), e);
-            // Depending on policy, you might allow proceeding or throw an error.
-            // For security, if old token deletion fails, it's risky to issue a new one
-            // without investigation.
-            throw new ServiceProcessingException("Failed to secure refresh token process. Please try again.", e);
-        }
-
-        // b. Create and save a NEW RefreshToken for this user.
-        RefreshToken newRefreshTokenEntity;
-        try {
-            newRefreshTokenEntity = refreshTokenService.createRefreshToken(user.getId()); // user.getId() returns UUID
-            logger.debug("Successfully created new refresh token ID: {} for user: {}", newRefreshTokenEntity.getId(),
-                    user.getUsername());
-        } catch (Exception e) {
-            logger.error("Failed to create new refresh token for user: {}.", user.getUsername(), e);
-            // If new token creation fails after old one is deleted, user needs to re-login.
-            throw new ServiceProcessingException("Failed to issue new refresh token. Please sign in again.", e);
-        }
-        // --- End Rotation ---
-
-        // 5. Build UserDetails for JWT generation (user object is already up-to-date)
+        // 4. Build UserDetails for JWT generation
         UserDetailsImpl userDetails = UserDetailsImpl.build(user);
 
         Authentication authentication = new UsernamePasswordAuthenticationToken(
                 userDetails, null, userDetails.getAuthorities());
-        // 6. Generate a new Access Token
-        String newAccessToken = jwtUtils.generateJwtToken(authentication);
+        // 5. Generate a new Access Token
+        String newAccessToken = authMetrics.refreshPhase(RefreshPhase.ACCESS_TOKEN)
+                .record(() -> jwtUtils.generateJwtToken(authentication));
 
         logger.info("Access token refreshed successfully for user: {}", user.getUsername());
-        // 7. Return the new access token AND the NEW refresh token string.
+        // 6. Return the new access token AND the NEW refresh token string.
         return new TokenRefreshResponse(newAccessToken, newRefreshTokenEntity.getToken());
     }
 
     @Transactional
     public MessageResponse forgotPassword(@Valid ForgotPasswordRequest request) {
         final String email = request.getEmail();
-        Optional<User> userOptional = userRepository.findByEmail(email);
+        Optional<User> userOptional = userRepository.findByTenantIdAndEmail(TenantContext.getTenantId(), email);
 
         if (userOptional.isPresent()) {
             User user = userOptional.get();
@@ -277,6 +322,8 @@ public class AuthServiceImpl implements AuthService {
                 emailService.sendPasswordResetEmail(user.getEmail(), user.getUsername(), resetToken.getToken());
                 logger.info("Password reset token generated and email dispatch initiated for user: {}", email);
             } catch (MailException e) {
+                // Only reached when @Async is off (the default); in virtual thread mode the
+                // send runs on its own thread and EmailService logs the failure itself.
                 logger.error("MailException occurred while sending password reset email to {}: {}", email,
                         e.getMessage(), e);
                 // Still return the generic success message below.
@@ -331,10 +378,13 @@ public class AuthServiceImpl implements AuthService {
                     "An unexpected error occurred while updating your password. Please try again.", e);
         }
 
+        // Access tokens issued before the reset stop working too
+        tokenRevocationService.revokeAllAfterCommit(List.of(user.getId()));
+
         // Invalidate active sessions (refresh tokens)
         try {
-            int invalidatedCount = refreshTokenService.deleteAllTokensByUserId(user.getId()); // Assuming user.getId()
-                                                                                              // is UUID
+            int invalidatedCount = refreshTokenService.deleteAllTokensByUserId(user.getTenantId(),
+                    user.getId());
             logger.info("Invalidated {} active refresh token(s) for user {} after password reset.", invalidatedCount,
                     user.getUsername());
         } catch (Exception e) {
@@ -352,14 +402,23 @@ public class AuthServiceImpl implements AuthService {
 
     public boolean isUsernameAvailable(String username) {
         logger.debug("Checking username availability for: {}", username);
-        boolean exists = userRepository.existsByUsername(username);
+        // Definite misses in the in-memory index skip the database entirely
+        String tenantId = TenantContext.getTenantId();
+        if (!userAvailabilityIndex.mightContainUsername(tenantId, username)) {
+            return true;
+        }
+        boolean exists = userRepository.existsByTenantIdAndUsername(tenantId, username);
         logger.debug("Username '{}' exists: {}", username, exists);
         return !exists;
     }
 
     public boolean isEmailAvailable(String email) {
         logger.debug("Checking email availability for: {}", email);
-        boolean exists = userRepository.existsByEmail(email);
+        String tenantId = TenantContext.getTenantId();
+        if (!userAvailabilityIndex.mightContainEmail(tenantId, email)) {
+            return true;
+        }
+        boolean exists = userRepository.existsByTenantIdAndEmail(tenantId, email);
         logger.debug("Email '{}' exists: {}", email, exists);
         return !exists;
     }
@@ -384,7 +443,14 @@ public class AuthServiceImpl implements AuthService {
                     // Simpler: just delete the token if found, assuming the client is trusted to
                     // send its own.
 
-                    refreshTokenService.deleteSpecificToken(refreshTokenEntity); // Or mark as revoked
+                    // Ends the whole session, including tokens this one was rotated from
+                    if (refreshTokenEntity.getFamilyId() != null) {
+                        refreshTokenService.revokeTokenFamily(refreshTokenEntity.getTenantId(),
+                                refreshTokenEntity.getFamilyId());
+                    } else {
+                        refreshTokenService.deleteAllTokensByUserId(refreshTokenEntity.getTenantId(),
+                                refreshTokenEntity.getUser().getId());
+                    }
                     logger.info("User logged out. Refresh token invalidated: {}",
                             refreshTokenString.substring(0, Math.min(refreshTokenString.length(), 10)) + "...");
                 },
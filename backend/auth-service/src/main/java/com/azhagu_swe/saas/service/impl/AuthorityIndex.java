@@ -0,0 +1,100 @@
+package com.azhagu_swe.saas.service.impl;
+
+import com.azhagu_swe.saas.model.repository.RoleRepository.RoleGrant;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable role-to-authority index for one catalogue version.
+ * <p>
+ * Every authority any role grants gets a bit: the role's own {@code ROLE_} name and
+ * the names of its permissions, spelled the way {@code UserDetailsImpl} spells
+ * them. Each role is a bitset over those bits, a user's authorities are the OR of
+ * their roles' bitsets, and a check is one hash lookup plus one bit test.
+ */
+final class AuthorityIndex {
+
+    static final AuthorityIndex EMPTY = new AuthorityIndex(-1, Map.of(), Map.of(), 0);
+
+    private final long version;
+    private final Map<String, Integer> bits;
+    private final Map<Long, long[]> roleAuthorities;
+    private final int words;
+
+    private AuthorityIndex(long version, Map<String, Integer> bits, Map<Long, long[]> roleAuthorities, int words) {
+        this.version = version;
+        this.bits = bits;
+        this.roleAuthorities = roleAuthorities;
+        this.words = words;
+    }
+
+    static AuthorityIndex build(long version, List<RoleGrant> grants) {
+        Map<String, Integer> bits = new HashMap<>();
+        Map<Long, List<String>> authoritiesByRole = new HashMap<>();
+        for (RoleGrant grant : grants) {
+            List<String> authorities = authoritiesByRole.get(grant.getRoleId());
+            if (authorities == null) {
+                // First row of this role
+                authorities = new ArrayList<>();
+                if (grant.getRoleName() != null && !grant.getRoleName().trim().isEmpty()) {
+                    authorities.add("ROLE_" + grant.getRoleName().toUpperCase());
+                }
+                authoritiesByRole.put(grant.getRoleId(), authorities);
+            }
+            if (grant.getPermissionName() != null && !grant.getPermissionName().trim().isEmpty()) {
+                authorities.add(grant.getPermissionName());
+            }
+        }
+        authoritiesByRole.values().forEach(authorities -> authorities.forEach(
+                authority -> bits.putIfAbsent(authority, bits.size())));
+
+        int words = (bits.size() + 63) >>> 6;
+        Map<Long, long[]> roleAuthorities = new HashMap<>();
+        authoritiesByRole.forEach((roleId, authorities) -> {
+            long[] set = new long[words];
+            for (String authority : authorities) {
+                int bit = bits.get(authority);
+                set[bit >>> 6] |= 1L << bit;
+            }
+            roleAuthorities.put(roleId, set);
+        });
+        return new AuthorityIndex(version, Map.copyOf(bits), Map.copyOf(roleAuthorities), words);
+    }
+
+    long version() {
+        return version;
+    }
+
+    int authorityCount() {
+        return bits.size();
+    }
+
+    /**
+     * @return the authorities granted by any of the roles; unknown roles grant nothing.
+     */
+    long[] authoritiesOf(Collection<Long> roleIds) {
+        long[] set = new long[words];
+        for (Long roleId : roleIds) {
+            long[] role = roleAuthorities.get(roleId);
+            if (role != null) {
+                for (int i = 0; i < words; i++) {
+                    set[i] |= role[i];
+                }
+            }
+        }
+        return set;
+    }
+
+    /**
+     * @param authorities A set from {@link #authoritiesOf(Collection)}.
+     */
+    boolean allows(long[] authorities, String authority) {
+        Integer bit = bits.get(authority);
+        // The shift only uses the low six bits, i.e. the position within the word
+        return bit != null && (authorities[bit >>> 6] & (1L << bit)) != 0;
+    }
+}
@@ -0,0 +1,139 @@
+package com.azhagu_swe.saas.service.impl;
+
+import com.azhagu_swe.saas.config.SerializationConfig;
+import com.azhagu_swe.saas.exception.ServiceProcessingException;
+import com.azhagu_swe.saas.model.entity.CatalogueVersion;
+import com.azhagu_swe.saas.model.repository.CatalogueVersionRepository;
+import com.azhagu_swe.saas.service.CatalogueSnapshotService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * {@link CatalogueSnapshotService} backed by the {@code catalogue_version} row.
+ * <p>
+ * The version lives in the database rather than in memory so that a mutation
+ * handled by one replica invalidates the snapshots of all of them. A snapshot is
+ * only served while its version equals the current one; a response rendered
+ * concurrently with a mutation is therefore never served after the mutation commits.
+ */
+@Service
+public class CatalogueSnapshotServiceImpl implements CatalogueSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogueSnapshotServiceImpl.class);
+
+    private final CatalogueVersionRepository catalogueVersionRepository;
+    // In content negotiation order: JSON first, so wildcards resolve to it
+    private final Map<MediaType, ObjectMapper> mappers = new LinkedHashMap<>();
+    private final int maxSnapshots;
+    private final Map<String, CatalogueSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    public CatalogueSnapshotServiceImpl(CatalogueVersionRepository catalogueVersionRepository,
+            ObjectMapper objectMapper,
+            ObjectProvider<Jackson2ObjectMapperBuilder> mapperBuilders,
+            @Value("${app.catalogue-snapshots.max-entries:256}") int maxSnapshots) {
+        this.catalogueVersionRepository = catalogueVersionRepository;
+        this.mappers.put(MediaType.APPLICATION_JSON, objectMapper);
+        this.mappers.put(MediaType.APPLICATION_CBOR, SerializationConfig.cborMapper(mapperBuilders.getObject()));
+        this.mappers.put(SerializationConfig.APPLICATION_SMILE,
+                SerializationConfig.smileMapper(mapperBuilders.getObject()));
+        this.maxSnapshots = maxSnapshots;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long currentVersion() {
+        return catalogueVersionRepository.findVersionById(CatalogueVersion.CATALOGUE_ID).orElse(0L);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bumpVersion() {
+        if (catalogueVersionRepository.incrementVersion(CatalogueVersion.CATALOGUE_ID) == 0) {
+            // Schema created without the V3 migration (e.g. ddl-auto); seed the row
+            catalogueVersionRepository.save(new CatalogueVersion(CatalogueVersion.CATALOGUE_ID, 1L));
+        }
+        logger.debug("Catalogue version bumped");
+    }
+
+    @Override
+    // One transaction, so with read replicas the version and the listing come from the
+    // same database, version first: the body is never older than the version it is cached under
+    @Transactional(readOnly = true)
+    public CatalogueSnapshot snapshot(String key, String accept, Supplier<?> response) {
+        MediaType contentType = negotiate(accept);
+        if (contentType == null) {
+            return CatalogueSnapshot.NOT_ACCEPTABLE;
+        }
+        key = key + ' ' + contentType;
+
+        long version = currentVersion();
+        CatalogueSnapshot cached = snapshots.get(key);
+        if (cached != null && cached.version() == version) {
+            return cached;
+        }
+
+        byte[] body;
+        try {
+            body = mappers.get(contentType).writeValueAsBytes(response.get());
+        } catch (JsonProcessingException e) {
+            throw new ServiceProcessingException("Failed to serialize catalogue response", e);
+        }
+        CatalogueSnapshot snapshot = new CatalogueSnapshot(body, contentType,
+                "\"" + version + "-" + Integer.toHexString(Arrays.hashCode(body)) + "\"", version);
+
+        if (snapshots.size() >= maxSnapshots && !snapshots.containsKey(key)) {
+            snapshots.values().removeIf(existing -> existing.version() != version);
+        }
+        if (snapshots.size() < maxSnapshots || snapshots.containsKey(key)) {
+            snapshots.put(key, snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Picks the first producible type for the most preferred acceptable range, or
+     * null if none is acceptable (including an unparseable header, as Spring MVC does).
+     */
+    private MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> requested;
+        try {
+            requested = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        // Stable sort, so equal quality keeps the client's order
+        requested.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType range : requested) {
+            if (range.getQualityValue() == 0) {
+                continue;
+            }
+            for (MediaType producible : mappers.keySet()) {
+                if (range.includes(producible)) {
+                    return producible;
+                }
+            }
+        }
+        return null;
+    }
+}
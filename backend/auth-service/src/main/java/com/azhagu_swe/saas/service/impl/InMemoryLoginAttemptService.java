@@ -0,0 +1,113 @@
+package com.azhagu_swe.saas.service.impl;
+
+import com.azhagu_swe.saas.service.LoginAttemptService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Per-instance failure tracking. With several replicas behind the gateway an
+ * attacker gets {@code free-attempts} per replica before a lockout; use the Redis
+ * backend ({@code app.login-lockout.store=redis}) to share the count.
+ */
+@Service
+@ConditionalOnProperty(name = "app.login-lockout.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryLoginAttemptService implements LoginAttemptService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryLoginAttemptService.class);
+
+    private final Map<String, Attempts> attempts = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final LoginLockoutPolicy policy;
+    private final int maxTrackedAccounts;
+    private final Clock clock;
+
+    @Autowired
+    public InMemoryLoginAttemptService(LoginLockoutPolicy policy,
+            @Value("${app.login-lockout.max-tracked-accounts:100000}") int maxTrackedAccounts) {
+        this(policy, maxTrackedAccounts, Clock.systemUTC());
+    }
+
+    InMemoryLoginAttemptService(LoginLockoutPolicy policy, int maxTrackedAccounts, Clock clock) {
+        this.policy = policy;
+        this.maxTrackedAccounts = maxTrackedAccounts;
+        this.clock = clock;
+    }
+
+    @Override
+    public Duration lockedFor(String tenantId, String email) {
+        if (!policy.isEnabled()) {
+            return Duration.ZERO;
+        }
+        Attempts current = attempts.get(LoginLockoutPolicy.key(tenantId, email));
+        if (current == null) {
+            return Duration.ZERO;
+        }
+        long remaining = current.lockedUntilMillis() - clock.millis();
+        return remaining > 0 ? Duration.ofMillis(remaining) : Duration.ZERO;
+    }
+
+    @Override
+    public void recordFailure(String tenantId, String email) {
+        if (!policy.isEnabled()) {
+            return;
+        }
+        long now = clock.millis();
+        attempts.compute(LoginLockoutPolicy.key(tenantId, email), (key, previous) -> {
+            int failures = previous == null || policy.isStale(previous.lastFailureMillis(), now)
+                    ? 1
+                    : previous.failures() + 1;
+            return new Attempts(failures, now, now + policy.lockout(failures).toMillis());
+        });
+        if (attempts.size() > maxTrackedAccounts) {
+            evictUnlocked(now);
+        }
+    }
+
+    @Override
+    public void recordSuccess(String tenantId, String email) {
+        attempts.remove(LoginLockoutPolicy.key(tenantId, email));
+    }
+
+    @Scheduled(fixedDelayString = "${app.login-lockout.purge-interval-ms:60000}")
+    public void purgeStale() {
+        long now = clock.millis();
+        attempts.values().removeIf(entry -> policy.isStale(entry.lastFailureMillis(), now));
+    }
+
+    /**
+     * Over capacity, e.g. when a spray of random emails hits the service. Dropping
+     * unlocked entries keeps every active lockout, and a sprayed address with a
+     * single failure loses nothing worth keeping.
+     */
+    private void evictUnlocked(long now) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int before = attempts.size();
+            attempts.values().removeIf(entry -> entry.lockedUntilMillis() <= now);
+            logger.warn("Login attempt tracker over capacity ({} accounts); evicted {} unlocked entries",
+                    before, before - attempts.size());
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    int trackedAccounts() {
+        return attempts.size();
+    }
+
+    private record Attempts(int failures, long lastFailureMillis, long lockedUntilMillis) {
+    }
+}
@@ -0,0 +1,66 @@
+package com.azhagu_swe.saas.service.impl;
+
+import com.azhagu_swe.saas.service.TokenRevocationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-instance revocation cutoffs. A revocation only reaches the replica that
+ * handled it, and is lost on restart; use the Redis backend
+ * ({@code app.token-revocation.store=redis}) when running more than one replica.
+ */
+@Service
+@ConditionalOnProperty(name = "app.token-revocation.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryTokenRevocationService implements TokenRevocationService {
+
+    private final Map<String, Long> cutoffs = new ConcurrentHashMap<>();
+    private final long tokenLifetimeSeconds;
+    private final Clock clock;
+
+    @Autowired
+    public InMemoryTokenRevocationService(@Value("${saas.app.jwtExpirationMs}") long jwtExpirationMs) {
+        this(jwtExpirationMs, Clock.systemUTC());
+    }
+
+    InMemoryTokenRevocationService(long jwtExpirationMs, Clock clock) {
+        this.tokenLifetimeSeconds = jwtExpirationMs / 1000 + 1;
+        this.clock = clock;
+    }
+
+    @Override
+    public void revokeAll(UUID userId) {
+        cutoffs.put(userId.toString(), TokenRevocationService.cutoffAt(clock.instant()));
+    }
+
+    @Override
+    public Map<String, Long> findCutoffs(Collection<String> userIds) {
+        if (cutoffs.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Long> found = new HashMap<>();
+        for (String userId : userIds) {
+            Long cutoff = cutoffs.get(userId);
+            if (cutoff != null) {
+                found.put(userId, cutoff);
+            }
+        }
+        return found;
+    }
+
+    @Scheduled(fixedDelayString = "${app.token-revocation.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        // Every token issued before this has expired, revoked or not
+        long oldestLiveIssue = clock.instant().getEpochSecond() - tokenLifetimeSeconds;
+        cutoffs.values().removeIf(cutoff -> cutoff < oldestLiveIssue);
+    }
+}
@@ -0,0 +1,70 @@
+package com.azhagu_swe.saas.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Lockout settings shared by the {@code LoginAttemptService} backends.
+ * <p>
+ * The first {@code free-attempts} failures cost nothing. Each failure after that
+ * locks the account for {@code base-lockout}, doubling per failure up to
+ * {@code max-lockout}. A count with no new failure for {@code reset-after} starts
+ * over.
+ */
+@Component
+class LoginLockoutPolicy {
+
+    private final boolean enabled;
+    private final int freeAttempts;
+    private final Duration baseLockout;
+    private final Duration maxLockout;
+    private final Duration resetAfter;
+
+    LoginLockoutPolicy(@Value("${app.login-lockout.enabled:true}") boolean enabled,
+            @Value("${app.login-lockout.free-attempts:5}") int freeAttempts,
+            @Value("${app.login-lockout.base-lockout:5s}") Duration baseLockout,
+            @Value("${app.login-lockout.max-lockout:15m}") Duration maxLockout,
+            @Value("${app.login-lockout.reset-after:1h}") Duration resetAfter) {
+        this.enabled = enabled;
+        this.freeAttempts = freeAttempts;
+        this.baseLockout = baseLockout;
+        this.maxLockout = maxLockout;
+        this.resetAfter = resetAfter;
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    Duration resetAfter() {
+        return resetAfter;
+    }
+
+    /**
+     * @param failures Consecutive failures including the one just recorded.
+     * @return how long to lock the account for, or {@link Duration#ZERO}.
+     */
+    Duration lockout(long failures) {
+        long excess = failures - freeAttempts;
+        if (excess <= 0) {
+            return Duration.ZERO;
+        }
+        // Past 2^20 any sane base is already over the cap
+        Duration lockout = baseLockout.multipliedBy(1L << Math.min(excess - 1, 20));
+        return lockout.compareTo(maxLockout) > 0 ? maxLockout : lockout;
+    }
+
+    boolean isStale(long lastFailureMillis, long nowMillis) {
+        return nowMillis - lastFailureMillis >= resetAfter.toMillis();
+    }
+
+    /**
+     * Accounts are counted per tenant, since the same email can exist in several.
+     */
+    static String key(String tenantId, String email) {
+        return tenantId + ':' + (email == null ? "" : email.trim().toLowerCase(Locale.ROOT));
+    }
+}
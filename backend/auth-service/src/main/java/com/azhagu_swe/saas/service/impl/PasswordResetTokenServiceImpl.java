@@ -2,6 +2,7 @@ package com.azhagu_swe.saas.service.impl;
 import com.azhagu_swe.saas.model.entity.PasswordResetToken;
 import com.azhagu_swe.saas.model.entity.User;
 import com.azhagu_swe.saas.model.repository.PasswordResetTokenRepository;
+import com.azhagu_swe.saas.security.tenant.TenantTokens;
 import com.azhagu_swe.saas.service.PasswordResetTokenService;
 import com.azhagu_swe.saas.exception.InvalidTokenException; // Your custom exception
 import org.springframework.beans.factory.annotation.Value;
@@ -33,7 +34,8 @@ public class PasswordResetTokenServiceImpl implements PasswordResetTokenService
                 tokenRepository.save(existingToken);
             });
 
-        String tokenString = UUID.randomUUID().toString(); // Generate a secure random token
+        // Generate a secure random token, prefixed with the tenant so the lookup can find its partition
+        String tokenString = TenantTokens.issue(user.getTenantId(), UUID.randomUUID().toString());
         Instant expiryDate = Instant.now().plus(expirationHours, ChronoUnit.HOURS);
         PasswordResetToken passwordResetToken = new PasswordResetToken(user, tokenString, expiryDate);
         return tokenRepository.save(passwordResetToken);
@@ -41,7 +43,7 @@ public class PasswordResetTokenServiceImpl implements PasswordResetTokenService
 
     @Override
     public Optional<PasswordResetToken> findByToken(String token) {
-        return tokenRepository.findByToken(token);
+        return tokenRepository.findByTenantIdAndToken(TenantTokens.tenantOf(token), token);
     }
 
     @Override
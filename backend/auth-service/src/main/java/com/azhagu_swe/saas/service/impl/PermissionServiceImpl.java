@@ -7,6 +7,7 @@ import com.azhagu_swe.saas.exception.ResourceNotFoundException;
 import com.azhagu_swe.saas.mapper.PermissionMapper; // Import the mapper
 import com.azhagu_swe.saas.model.entity.Permission;
 import com.azhagu_swe.saas.model.repository.PermissionRepository;
+import com.azhagu_swe.saas.service.CatalogueSnapshotService;
 import com.azhagu_swe.saas.service.PermissionService;
 import lombok.RequiredArgsConstructor; // For constructor injection
 import org.slf4j.Logger;
@@ -24,6 +25,7 @@ public class PermissionServiceImpl implements PermissionService {
     private static final Logger logger = LoggerFactory.getLogger(PermissionServiceImpl.class);
     private final PermissionRepository permissionRepository;
     private final PermissionMapper permissionMapper; // Inject the mapper
+    private final CatalogueSnapshotService catalogueSnapshotService;
 
      @Override
     @Transactional(readOnly = true) 
@@ -71,6 +73,7 @@ public class PermissionServiceImpl implements PermissionService {
 
         Permission permission = permissionMapper.toEntity(request); // Use the injected mapper instance
         Permission savedPermission = permissionRepository.save(permission);
+        catalogueSnapshotService.bumpVersion();
         logger.info("Permission created successfully with id: {} and name: {}", savedPermission.getId(),
                 savedPermission.getName());
         return permissionMapper.toResponse(savedPermission); // Use the injected mapper instance
@@ -98,6 +101,7 @@ public class PermissionServiceImpl implements PermissionService {
 
         permissionMapper.updateEntity(permission, request); // Use the injected mapper instance
         Permission updatedPermission = permissionRepository.save(permission);
+        catalogueSnapshotService.bumpVersion();
         logger.info("Permission updated successfully with id: {}", updatedPermission.getId());
         return permissionMapper.toResponse(updatedPermission); // Use the injected mapper instance
     }
@@ -112,6 +116,7 @@ public class PermissionServiceImpl implements PermissionService {
                     return new ResourceNotFoundException("Permission", "id", id.toString());
                 });
         permissionRepository.delete(permission);
+        catalogueSnapshotService.bumpVersion();
         logger.info("Permission deleted successfully with id: {}", id);
     }
 }
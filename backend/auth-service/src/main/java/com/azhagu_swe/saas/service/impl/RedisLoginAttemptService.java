@@ -0,0 +1,81 @@
+package com.azhagu_swe.saas.service.impl;
+
+import com.azhagu_swe.saas.service.LoginAttemptService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Failure tracking shared by every replica through Redis. Two keys per account:
+ * a failure counter that expires {@code reset-after} past the last failure, and a
+ * lock marker whose TTL is the remaining lockout.
+ * <p>
+ * If Redis is unreachable, sign-in is not blocked: lookups report the account as
+ * unlocked and failures go uncounted until it is back.
+ */
+@Service
+@ConditionalOnProperty(name = "app.login-lockout.store", havingValue = "redis")
+public class RedisLoginAttemptService implements LoginAttemptService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisLoginAttemptService.class);
+
+    private static final String FAILURES_PREFIX = "auth:login-failures:";
+    private static final String LOCK_PREFIX = "auth:login-lock:";
+
+    private final StringRedisTemplate redis;
+    private final LoginLockoutPolicy policy;
+
+    public RedisLoginAttemptService(StringRedisTemplate redis, LoginLockoutPolicy policy) {
+        this.redis = redis;
+        this.policy = policy;
+    }
+
+    @Override
+    public Duration lockedFor(String tenantId, String email) {
+        if (!policy.isEnabled()) {
+            return Duration.ZERO;
+        }
+        try {
+            Long remaining = redis.getExpire(LOCK_PREFIX + LoginLockoutPolicy.key(tenantId, email), TimeUnit.MILLISECONDS);
+            return remaining != null && remaining > 0 ? Duration.ofMillis(remaining) : Duration.ZERO;
+        } catch (DataAccessException e) {
+            logger.warn("Could not read login lockout from Redis: {}", e.getMessage());
+            return Duration.ZERO;
+        }
+    }
+
+    @Override
+    public void recordFailure(String tenantId, String email) {
+        if (!policy.isEnabled()) {
+            return;
+        }
+        String key = LoginLockoutPolicy.key(tenantId, email);
+        try {
+            Long failures = redis.opsForValue().increment(FAILURES_PREFIX + key);
+            redis.expire(FAILURES_PREFIX + key, policy.resetAfter());
+            Duration lockout = policy.lockout(failures != null ? failures : 1);
+            if (!lockout.isZero()) {
+                redis.opsForValue().set(LOCK_PREFIX + key, "1", lockout);
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Could not record login failure in Redis: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void recordSuccess(String tenantId, String email) {
+        String key = LoginLockoutPolicy.key(tenantId, email);
+        try {
+            redis.delete(List.of(FAILURES_PREFIX + key, LOCK_PREFIX + key));
+        } catch (DataAccessException e) {
+            logger.warn("Could not clear login failures in Redis: {}", e.getMessage());
+        }
+    }
+}
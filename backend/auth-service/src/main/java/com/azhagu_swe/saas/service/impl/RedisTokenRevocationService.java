@@ -0,0 +1,108 @@
+package com.azhagu_swe.saas.service.impl;
+
+import com.azhagu_swe.saas.service.TokenRevocationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Revocation cutoffs shared by every replica through Redis: one key per user
+ * holding the cutoff second, expiring once the longest-lived token it could
+ * apply to has expired.
+ * <p>
+ * If Redis is unreachable, revocations cannot be recorded or read and tokens are
+ * judged on signature and expiry alone until it is back, the same trade-off as
+ * the Redis login lockout.
+ */
+@Service
+@ConditionalOnProperty(name = "app.token-revocation.store", havingValue = "redis")
+public class RedisTokenRevocationService implements TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisTokenRevocationService.class);
+
+    private static final String CUTOFF_PREFIX = "auth:tokens-revoked:";
+
+    private final StringRedisTemplate redis;
+    private final Duration tokenLifetime;
+
+    public RedisTokenRevocationService(StringRedisTemplate redis,
+            @Value("${saas.app.jwtExpirationMs}") long jwtExpirationMs) {
+        this.redis = redis;
+        this.tokenLifetime = Duration.ofMillis(jwtExpirationMs).plusSeconds(1);
+    }
+
+    @Override
+    public void revokeAll(UUID userId) {
+        try {
+            redis.opsForValue().set(CUTOFF_PREFIX + userId,
+                    String.valueOf(TokenRevocationService.cutoffAt(Instant.now())), tokenLifetime);
+        } catch (DataAccessException e) {
+            logger.warn("Could not record token revocation for user {} in Redis: {}", userId, e.getMessage());
+        }
+    }
+
+    @Override
+    public void revokeAll(Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        String cutoff = String.valueOf(TokenRevocationService.cutoffAt(Instant.now()));
+        try {
+            // Pipelined, so a bulk role change costs one round trip rather than one per user
+            redis.executePipelined((RedisCallback<Object>) connection -> {
+                for (UUID userId : userIds) {
+                    connection.stringCommands().set((CUTOFF_PREFIX + userId).getBytes(StandardCharsets.UTF_8),
+                            cutoff.getBytes(StandardCharsets.UTF_8), Expiration.from(tokenLifetime),
+                            RedisStringCommands.SetOption.upsert());
+                }
+                return null;
+            });
+        } catch (DataAccessException e) {
+            logger.warn("Could not record token revocation for {} user(s) in Redis: {}", userIds.size(),
+                    e.getMessage());
+        }
+    }
+
+    @Override
+    public Map<String, Long> findCutoffs(Collection<String> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        List<String> ids = new ArrayList<>(userIds);
+        List<String> keys = ids.stream().map(id -> CUTOFF_PREFIX + id).toList();
+        try {
+            // One MGET for the whole batch
+            List<String> values = redis.opsForValue().multiGet(keys);
+            if (values == null) {
+                return Map.of();
+            }
+            Map<String, Long> found = new HashMap<>();
+            for (int i = 0; i < ids.size(); i++) {
+                if (values.get(i) != null) {
+                    found.put(ids.get(i), Long.parseLong(values.get(i)));
+                }
+            }
+            return found;
+        } catch (DataAccessException e) {
+            logger.warn("Could not read token revocations from Redis: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+}
@@ -1,15 +1,21 @@
 package com.azhagu_swe.saas.service.impl;
 
+import com.azhagu_swe.saas.datasource.DatabaseWorkload;
+import com.azhagu_swe.saas.datasource.Workload;
 import com.azhagu_swe.saas.exception.InvalidTokenException;
 import com.azhagu_swe.saas.exception.ResourceNotFoundException;
 import com.azhagu_swe.saas.model.entity.RefreshToken;
 import com.azhagu_swe.saas.model.entity.User;
 import com.azhagu_swe.saas.model.repository.RefreshTokenRepository;
+import com.azhagu_swe.saas.model.repository.RefreshTokenRepository.ConsumedRefreshToken;
 import com.azhagu_swe.saas.model.repository.UserRepository;
+import com.azhagu_swe.saas.security.tenant.TenantContext;
+import com.azhagu_swe.saas.security.tenant.TenantTokens;
 import com.azhagu_swe.saas.service.RefreshTokenService; // Import the interface
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,9 +30,24 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
 
     private static final Logger logger = LoggerFactory.getLogger(RefreshTokenServiceImpl.class);
 
+    // Rejections a replaying or misbehaving client triggers at volume; built once, without stack traces
+    private static final InvalidTokenException TOKEN_NOT_FOUND =
+            InvalidTokenException.expected("Refresh token not found. Please sign in again.");
+    private static final InvalidTokenException TOKEN_ALREADY_USED =
+            InvalidTokenException.expected("Refresh token has already been used.");
+    private static final InvalidTokenException TOKEN_REUSED =
+            InvalidTokenException.expected("Refresh token reuse detected. Please sign in again.");
+    private static final InvalidTokenException TOKEN_EXPIRED =
+            InvalidTokenException.expected("Refresh token has expired. Please sign in again.");
+
     @Value("${saas.app.refreshExpirationMs:2592000000}") // Default to 30 days (2592000000 ms)
     private Long refreshTokenDurationMs;
 
+    // A consumed token presented again within this window is assumed to be a
+    // concurrent refresh (e.g. two browser tabs) rather than a replay.
+    @Value("${saas.app.refreshReuseGraceMs:10000}")
+    private long refreshReuseGraceMs;
+
     private final RefreshTokenRepository refreshTokenRepository;
     private final UserRepository userRepository;
     private final SecureRandom secureRandom = new SecureRandom(); // Reusable SecureRandom
@@ -38,13 +59,15 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
 
     @Override
     public Optional<RefreshToken> findByToken(String token) {
-        return refreshTokenRepository.findByToken(token);
+        return refreshTokenRepository.findByTenantIdAndToken(TenantTokens.tenantOf(token), token);
     }
 
     @Override
     @Transactional
     public RefreshToken createRefreshToken(UUID userId) {
-        User user = userRepository.findById(userId)
+        // Called right after sign-in, which authenticated the user within the current tenant
+        String tenantId = TenantContext.getTenantId();
+        User user = userRepository.findByIdAndTenantId(userId, tenantId)
                 .orElseThrow(() -> {
                     logger.warn("Attempted to create refresh token for non-existent user ID: {}", userId);
                     return new ResourceNotFoundException("User", "id", userId.toString());
@@ -52,22 +75,15 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
 
         // Strategy: Invalidate/delete all existing refresh tokens for this user first.
         // This ensures only one active refresh token per user.
-        int deletedCount = deleteAllTokensByUserId(userId);
+        int deletedCount = refreshTokenRepository.deleteByTenantIdAndUserId(tenantId, userId);
         if (deletedCount > 0) {
             logger.info("Deleted {} existing refresh token(s) for user ID: {}", deletedCount, userId);
         }
 
-        RefreshToken refreshToken = new RefreshToken();
-        refreshToken.setUser(user);
-        refreshToken.setExpiryDate(Instant.now().plusMillis(refreshTokenDurationMs));
-
-        // Generate a secure random token string
-        byte[] tokenBytes = new byte[32]; // 256-bit random token
-        secureRandom.nextBytes(tokenBytes);
-        String tokenString = Base64.getUrlEncoder().withoutPadding().encodeToString(tokenBytes);
-        refreshToken.setToken(tokenString);
-        // Assuming 'used' flag defaults to false in RefreshToken entity or is set here
-        // if needed.
+        RefreshToken refreshToken = new RefreshToken(user, generateTokenString(tenantId),
+                Instant.now().plusMillis(refreshTokenDurationMs));
+        refreshToken.setTenantId(tenantId);
+        refreshToken.setFamilyId(UUID.randomUUID()); // A fresh sign-in starts a new rotation family
 
         RefreshToken savedToken = refreshTokenRepository.save(refreshToken);
         logger.info("Created new refresh token for user: {}", user.getUsername());
@@ -75,35 +91,98 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
     }
 
     @Override
-    @Transactional // Make it transactional as it might delete the token
-    public RefreshToken verifyTokenAndHandleExpiration(RefreshToken token) {
-        if (token.isExpired()) { // Assuming RefreshToken entity has isExpired() or direct check
-            logger.warn("Refresh token ID {} has expired. Deleting it.", token.getId());
-            refreshTokenRepository.delete(token); // Delete expired token
-            throw new InvalidTokenException("Refresh token has expired. Please sign in again.");
+    @Transactional(noRollbackFor = InvalidTokenException.class) // Family revocation must survive the 401
+    public RefreshToken rotateRefreshToken(String token) {
+        Instant now = Instant.now();
+        // The tenant comes from the token's prefix, so the UPDATE touches a single partition
+        String tenantId = TenantTokens.tenantOf(token);
+        ConsumedRefreshToken consumed = refreshTokenRepository.consumeToken(tenantId, token, now)
+                .orElseThrow(() -> rejectUnconsumableToken(tenantId, token, now));
+
+        // Tokens issued before families were introduced start a new one here.
+        UUID familyId = consumed.getFamilyId() != null ? consumed.getFamilyId() : UUID.randomUUID();
+        if (consumed.getFamilyId() != null) {
+            // The presented token stays behind for replay detection; earlier ones would only pile up
+            refreshTokenRepository.deleteConsumedByTenantIdAndFamilyIdExcept(tenantId, familyId, token);
         }
-        // Add other checks if needed, e.g., if (token.isUsed()) for stricter one-time
-        // use,
-        // though our current createRefreshToken strategy (delete all previous) might
-        // cover this.
-        return token;
+
+        RefreshToken rotatedToken = new RefreshToken(userRepository.getReferenceById(consumed.getUserId()),
+                generateTokenString(tenantId), now.plusMillis(refreshTokenDurationMs));
+        rotatedToken.setTenantId(tenantId);
+        rotatedToken.setFamilyId(familyId);
+
+        RefreshToken savedToken = refreshTokenRepository.save(rotatedToken);
+        logger.debug("Rotated refresh token in family {} for user ID: {}", familyId, consumed.getUserId());
+        return savedToken;
     }
 
     @Override
     @Transactional
-    public void deleteSpecificToken(RefreshToken token) {
-        if (token != null) {
-            refreshTokenRepository.delete(token);
-            logger.info("Deleted specific refresh token ID: {} for user: {}", token.getId(),
-                    token.getUser().getUsername());
+    public int revokeTokenFamily(String tenantId, UUID familyId) {
+        if (familyId == null) {
+            return 0;
         }
+        int deletedCount = refreshTokenRepository.deleteByTenantIdAndFamilyId(tenantId, familyId);
+        logger.info("Revoked {} refresh token(s) in family {}", deletedCount, familyId);
+        return deletedCount;
     }
 
     @Override
     @Transactional
-    public int deleteAllTokensByUserId(UUID userId) {
+    public int deleteAllTokensByUserId(String tenantId, UUID userId) {
         logger.info("Attempting to delete all refresh tokens for user ID: {}", userId);
-        return refreshTokenRepository.deleteByUserId(userId); // Assumes this method exists in RefreshTokenRepository
+        return refreshTokenRepository.deleteByTenantIdAndUserId(tenantId, userId);
+    }
+
+    @Override
+    @Transactional
+    @DatabaseWorkload(Workload.BACKGROUND) // A large purge must not hold connections sign-ins need
+    @Scheduled(cron = "${saas.app.refreshTokenPurgeCron:0 15 * * * *}")
+    public void deleteExpiredTokens() {
+        int deletedCount = refreshTokenRepository.deleteByExpiryDateBefore(Instant.now());
+        if (deletedCount > 0) {
+            logger.info("Purged {} expired refresh token(s)", deletedCount);
+        }
+    }
+
+    /**
+     * Works out why a token could not be consumed and builds the matching
+     * exception. This only runs on the failure path, so the extra lookup does not
+     * cost anything for well-behaved clients.
+     */
+    private InvalidTokenException rejectUnconsumableToken(String tenantId, String token, Instant now) {
+        Optional<RefreshToken> existing = refreshTokenRepository.findByTenantIdAndToken(tenantId, token);
+        if (existing.isEmpty()) {
+            logger.warn("Attempt to refresh with non-existent token: {}",
+                    token.substring(0, Math.min(token.length(), 10)) + "...");
+            return TOKEN_NOT_FOUND;
+        }
+
+        RefreshToken refreshToken = existing.get();
+        if (refreshToken.isUsed()) {
+            if (refreshToken.getUsedAt().plusMillis(refreshReuseGraceMs).isAfter(now)) {
+                logger.debug("Refresh token ID {} was rotated by a concurrent request.", refreshToken.getId());
+                return TOKEN_ALREADY_USED;
+            }
+            logger.warn("Reuse of rotated refresh token ID {} detected. Revoking token family {}.",
+                    refreshToken.getId(), refreshToken.getFamilyId());
+            if (refreshToken.getFamilyId() != null) {
+                refreshTokenRepository.deleteByTenantIdAndFamilyId(tenantId, refreshToken.getFamilyId());
+            } else {
+                refreshTokenRepository.delete(refreshToken);
+            }
+            return TOKEN_REUSED;
+        }
+
+        logger.warn("Refresh token ID {} has expired. Deleting it.", refreshToken.getId());
+        refreshTokenRepository.delete(refreshToken);
+        return TOKEN_EXPIRED;
+    }
+
+    private String generateTokenString(String tenantId) {
+        byte[] tokenBytes = new byte[32]; // 256-bit random token
+        secureRandom.nextBytes(tokenBytes);
+        return TenantTokens.issue(tenantId, Base64.getUrlEncoder().withoutPadding().encodeToString(tokenBytes));
     }
 
 }
\ No newline at end of file
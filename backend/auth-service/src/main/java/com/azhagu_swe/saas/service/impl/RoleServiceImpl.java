@@ -12,12 +12,16 @@ import com.azhagu_swe.saas.model.entity.Role;
 import com.azhagu_swe.saas.model.repository.PermissionRepository;
 import com.azhagu_swe.saas.model.repository.RoleRepository;
 import com.azhagu_swe.saas.model.repository.UserRepository;
+import com.azhagu_swe.saas.service.CatalogueSnapshotService;
 import com.azhagu_swe.saas.service.RoleService;
+import com.azhagu_swe.saas.util.MembershipDiff;
 import lombok.RequiredArgsConstructor;
 
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -37,6 +41,7 @@ public class RoleServiceImpl implements RoleService {
     private final RoleRepository roleRepository;
     private final UserRepository userRepository;
     private final PermissionRepository permissionRepository;
+    private final CatalogueSnapshotService catalogueSnapshotService;
 
     @Override
     public Page<RoleResponse> getAllRoles(Pageable pageable) {
@@ -81,24 +86,15 @@ public class RoleServiceImpl implements RoleService {
         // --- Assign Permissions ---
         Set<String> requestedPermissionNames = request.getPermissions();
         if (requestedPermissionNames != null && !requestedPermissionNames.isEmpty()) {
-            Set<Permission> resolvedPermissions = new HashSet<>();
-            for (String permName : requestedPermissionNames) {
-                Permission foundPermission = permissionRepository.findByName(permName.trim()) // Trim name
-                        .orElseThrow(() -> {
-                            logger.warn("Invalid permission name provided during role creation: {}", permName);
-                            // It's better to throw an exception that maps to 400 Bad Request,
-                            // as the client provided an invalid permission name.
-                            // return new ResourceNotFoundException("Permission", "name", permName);
-                            // Alternatively:
-                            return new BadRequestException("Invalid permission name provided: " +
-                                    permName);
-                        });
-                resolvedPermissions.add(foundPermission);
-            }
-            role.setPermissions(resolvedPermissions); // Set the resolved Permission entities
+            // The client provided invalid permission names, so this maps to 400 Bad Request
+            role.setPermissions(resolvePermissions(requestedPermissionNames, missing -> {
+                logger.warn("Invalid permission name(s) provided during role creation: {}", missing);
+                return new BadRequestException("Invalid permission name(s) provided: " + missing);
+            }));
         }
 
         Role savedRole = roleRepository.save(role);
+        catalogueSnapshotService.bumpVersion();
         logger.info("Role created successfully with id: {} and name: {} with {} permissions.",
                 savedRole.getId(), savedRole.getName(),
                 savedRole.getPermissions() != null ? savedRole.getPermissions().size() : 0);
@@ -138,37 +134,25 @@ public class RoleServiceImpl implements RoleService {
         }
 
         // --- Update Permissions ---
-        // This logic replaces all existing permissions with the new set provided in the
-        // request.
         // If request.getPermissions() is null, permissions are not changed.
         // If request.getPermissions() is an empty set, all permissions will be removed.
+        // Only the difference is applied, so Hibernate writes just the role_permissions
+        // rows that were added or removed instead of rewriting the whole set.
         if (request.getPermissions() != null) {
-            Set<Permission> resolvedPermissions = new HashSet<>();
-            if (!request.getPermissions().isEmpty()) {
-                for (String permName : request.getPermissions()) {
-                    Permission foundPermission = permissionRepository.findByName(permName.trim())
-                            .orElseThrow(() -> {
-                                logger.warn(
-                                        "Invalid permission name ('{}') provided during role update for role id: {}",
-                                        permName, id);
-                                // Consider throwing BadRequestException here as client provided invalid data
-                                return new ResourceNotFoundException("Permission", "name", permName);
-                            });
-                    resolvedPermissions.add(foundPermission);
-                }
-            }
-            // This replaces all existing permissions for the role.
-            // JPA handles the join table updates based on the state of this collection.
-            existingRole.getPermissions().clear(); // Clear existing permissions first
-            if (!resolvedPermissions.isEmpty()) {
-                existingRole.getPermissions().addAll(resolvedPermissions); // Add new ones
-            }
-            logger.info("Permissions updated for role id: {}. New permission count: {}", id,
-                    resolvedPermissions.size());
+            Set<Permission> resolvedPermissions = resolvePermissions(request.getPermissions(), missing -> {
+                logger.warn("Invalid permission name(s) ({}) provided during role update for role id: {}",
+                        missing, id);
+                return new ResourceNotFoundException("Permission(s) not found: " + missing);
+            });
+            MembershipDiff.Result diff = MembershipDiff.apply(existingRole.getPermissions(), resolvedPermissions,
+                    Permission::getId);
+            logger.info("Permissions updated for role id: {}. Added: {}, removed: {}, new permission count: {}", id,
+                    diff.added(), diff.removed(), resolvedPermissions.size());
         }
         // --- End Update Permissions ---
 
         Role updatedRole = roleRepository.save(existingRole);
+        catalogueSnapshotService.bumpVersion();
         logger.info("Role updated successfully with id: {}", updatedRole.getId());
         return RoleMapper.toResponse(updatedRole); // Ensure RoleMapper.toResponse correctly reflects permissions
     }
@@ -211,6 +195,7 @@ public class RoleServiceImpl implements RoleService {
             }
 
             roleRepository.delete(role);
+            catalogueSnapshotService.bumpVersion();
             logger.info("Role deleted successfully with id: {}", id);
         } catch (DataIntegrityViolationException e) {
             logger.error("Data integrity violation while deleting role id: {}. It might still be in use unexpectedly.",
@@ -220,6 +205,27 @@ public class RoleServiceImpl implements RoleService {
         }
     }
 
+    /**
+     * Resolves permission names (trimmed) with a single query.
+     *
+     * @param onMissing Builds the exception to throw, given every unknown name
+     *                  joined with ", ".
+     */
+    private Set<Permission> resolvePermissions(Set<String> requestedNames,
+            Function<String, ? extends RuntimeException> onMissing) {
+        Set<String> names = requestedNames.stream().map(String::trim).collect(Collectors.toSet());
+        if (names.isEmpty()) {
+            return new HashSet<>();
+        }
+        List<Permission> found = permissionRepository.findAllByNameIn(names);
+        if (found.size() < names.size()) {
+            Set<String> missing = new TreeSet<>(names);
+            found.forEach(permission -> missing.remove(permission.getName()));
+            throw onMissing.apply(String.join(", ", missing));
+        }
+        return new HashSet<>(found);
+    }
+
     // Helper method for system role check (example)
     // Consider making these configurable or part of an enum/constants
     private boolean isSystemRole(String roleName) {
@@ -0,0 +1,167 @@
+package com.azhagu_swe.saas.service.impl;
+
+import com.azhagu_swe.saas.dto.response.TokenIntrospectionResponse;
+import com.azhagu_swe.saas.metrics.AuthMetrics;
+import com.azhagu_swe.saas.service.TokenIntrospectionService;
+import com.azhagu_swe.saas.service.TokenRevocationService;
+import com.azhagu_swe.saas.util.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Gauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Introspects tokens against a cache of already verified ones. A downstream
+ * service sees the same token on every request of a session, so after the first
+ * call the signature check and claim parsing are skipped until the token expires.
+ * <p>
+ * Revocation is never cached: the whole batch's users are looked up in one
+ * {@link TokenRevocationService#findCutoffs} call on every request.
+ */
+@Service
+public class TokenIntrospectionServiceImpl implements TokenIntrospectionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenIntrospectionServiceImpl.class);
+
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final JwtUtils jwtUtils;
+    private final TokenRevocationService tokenRevocationService;
+    private final AuthMetrics authMetrics;
+    private final int maxCachedTokens;
+    private final Clock clock = Clock.systemUTC();
+
+    public TokenIntrospectionServiceImpl(JwtUtils jwtUtils, TokenRevocationService tokenRevocationService,
+            AuthMetrics authMetrics, @Value("${app.introspection.max-cached-tokens:20000}") int maxCachedTokens) {
+        this.jwtUtils = jwtUtils;
+        this.tokenRevocationService = tokenRevocationService;
+        this.authMetrics = authMetrics;
+        this.maxCachedTokens = maxCachedTokens;
+        Gauge.builder("auth.introspection.cache.size", verifiedTokens, Map::size)
+                .description("Verified access tokens held for introspection")
+                .register(authMetrics.getRegistry());
+    }
+
+    @Override
+    public List<TokenIntrospectionResponse> introspect(List<String> tokens) {
+        long now = clock.millis();
+        List<VerifiedToken> verified = new ArrayList<>(tokens.size());
+        Set<String> userIds = new HashSet<>();
+        for (String token : tokens) {
+            VerifiedToken result = verify(token, now);
+            verified.add(result);
+            if (result != null) {
+                userIds.add(result.userId());
+            }
+        }
+        Map<String, Long> cutoffs = userIds.isEmpty() ? Map.of() : tokenRevocationService.findCutoffs(userIds);
+
+        List<TokenIntrospectionResponse> responses = new ArrayList<>(tokens.size());
+        for (VerifiedToken token : verified) {
+            if (token == null) {
+                responses.add(TokenIntrospectionResponse.inactive());
+            } else if (TokenRevocationService.isRevoked(cutoffs.get(token.userId()), token.issuedAtEpochSecond())) {
+                authMetrics.introspectedToken("revoked");
+                responses.add(TokenIntrospectionResponse.inactive());
+            } else {
+                authMetrics.introspectedToken("active");
+                responses.add(new TokenIntrospectionResponse(true, token.subject(), token.userId(), token.tenantId(),
+                        token.authorities(), Instant.ofEpochMilli(token.expiresAtMillis())));
+            }
+        }
+        return responses;
+    }
+
+    @Scheduled(fixedDelayString = "${app.introspection.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = clock.millis();
+        verifiedTokens.values().removeIf(token -> token.expiresAtMillis() <= now);
+    }
+
+    /**
+     * @return the token's claims, or {@code null} if it is malformed, badly signed or expired.
+     */
+    private VerifiedToken verify(String token, long now) {
+        VerifiedToken cached = verifiedTokens.get(token);
+        if (cached != null) {
+            if (cached.expiresAtMillis() > now) {
+                return cached;
+            }
+            verifiedTokens.remove(token);
+            authMetrics.introspectedToken("expired");
+            return null;
+        }
+        VerifiedToken verified;
+        try {
+            verified = VerifiedToken.from(jwtUtils.parseClaims(token));
+        } catch (ExpiredJwtException e) {
+            authMetrics.introspectedToken("expired");
+            return null;
+        } catch (JwtException | IllegalArgumentException e) {
+            // IllegalArgumentException: a token jjwt cannot even split into parts
+            authMetrics.jwtFailure(e);
+            authMetrics.introspectedToken("invalid");
+            return null;
+        }
+        // Every token this service issues has these; anything else was not issued here
+        if (verified.userId() == null || verified.issuedAtEpochSecond() < 0 || verified.expiresAtMillis() < 0) {
+            authMetrics.introspectedToken("invalid");
+            return null;
+        }
+        verifiedTokens.put(token, verified);
+        if (verifiedTokens.size() > maxCachedTokens) {
+            evict(now);
+        }
+        return verified;
+    }
+
+    /**
+     * Over capacity: drop expired tokens first, and everything if that is not
+     * enough. Dropped tokens are verified again on their next introspection.
+     */
+    private void evict(long now) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            verifiedTokens.values().removeIf(token -> token.expiresAtMillis() <= now);
+            if (verifiedTokens.size() > maxCachedTokens) {
+                logger.warn("Introspection cache over capacity ({} tokens); clearing it", verifiedTokens.size());
+                verifiedTokens.clear();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private record VerifiedToken(String subject, String userId, String tenantId, List<String> authorities,
+            long issuedAtEpochSecond, long expiresAtMillis) {
+
+        @SuppressWarnings("unchecked")
+        static VerifiedToken from(Claims claims) {
+            List<String> roles = claims.get("roles", List.class);
+            return new VerifiedToken(
+                    claims.getSubject(),
+                    claims.get("userId", String.class),
+                    JwtUtils.getTenantId(claims),
+                    roles != null ? List.copyOf(roles) : List.of(),
+                    claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() / 1000 : -1,
+                    claims.getExpiration() != null ? claims.getExpiration().getTime() : -1);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.azhagu_swe.saas.service.impl;
+
+import com.azhagu_swe.saas.datasource.DatabaseWorkload;
+import com.azhagu_swe.saas.datasource.Workload;
+import com.azhagu_swe.saas.model.repository.UserRepository;
+import com.azhagu_swe.saas.model.repository.UserRepository.UserIdentifiers;
+import com.azhagu_swe.saas.service.UserAvailabilityIndex;
+import com.azhagu_swe.saas.util.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter backed {@link UserAvailabilityIndex}.
+ * <p>
+ * Values are hashed together with their tenant, so one filter serves every tenant
+ * and a name taken in one tenant still reads as free in the others. Usernames and
+ * emails are normalised (trimmed, lower-cased) before hashing.
+ * Normalising only ever adds false positives, which fall through to the exact
+ * database check, so it is safe even though lookups in the database are
+ * case-sensitive.
+ */
+@Service
+public class UserAvailabilityIndexImpl implements UserAvailabilityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserAvailabilityIndexImpl.class);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+
+    // Null until the first warm-up completes; every lookup answers "maybe" until then.
+    private volatile BloomFilter usernames;
+    private volatile BloomFilter emails;
+    // Non-null while a rebuild is scanning, so concurrent writes land in both filters.
+    private volatile BloomFilter pendingUsernames;
+    private volatile BloomFilter pendingEmails;
+
+    private final AtomicLong removedSinceRebuild = new AtomicLong();
+    // A lock rather than synchronized: the scan blocks on JDBC, which would pin a virtual thread.
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public UserAvailabilityIndexImpl(UserRepository userRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.availability-index.expected-users:1000000}") long expectedUsers,
+            @Value("${app.availability-index.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    /**
+     * Deleted users leave stale bits behind, so the index is rebuilt periodically
+     * to keep the false positive rate close to its configured target.
+     */
+    @Scheduled(cron = "${app.availability-index.rebuild-cron:0 30 3 * * *}")
+    public void scheduledRebuild() {
+        if (removedSinceRebuild.get() > 0) {
+            rebuild();
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return usernames != null;
+    }
+
+    @Override
+    public boolean mightContainUsername(String tenantId, String username) {
+        BloomFilter filter = usernames;
+        return filter == null || filter.mightContain(entry(tenantId, username));
+    }
+
+    @Override
+    public boolean mightContainEmail(String tenantId, String email) {
+        BloomFilter filter = emails;
+        return filter == null || filter.mightContain(entry(tenantId, email));
+    }
+
+    @Override
+    public void recordUser(String tenantId, String username, String email) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Adding after commit guarantees that a rebuild either sees the row in its
+            // scan or receives the value through the pending filters.
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(tenantId, username, email);
+                }
+            });
+        } else {
+            add(tenantId, username, email);
+        }
+    }
+
+    @Override
+    public void recordUserRemoved() {
+        removedSinceRebuild.incrementAndGet();
+    }
+
+    @Override
+    @DatabaseWorkload(Workload.BACKGROUND) // Full scan of users, whoever triggers it
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            doRebuild();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void doRebuild() {
+        long startedAt = System.currentTimeMillis();
+        BloomFilter newUsernames = new BloomFilter(expectedUsers, falsePositiveRate);
+        BloomFilter newEmails = new BloomFilter(expectedUsers, falsePositiveRate);
+        removedSinceRebuild.set(0);
+        pendingUsernames = newUsernames;
+        pendingEmails = newEmails;
+        try {
+            Long scanned = readOnlyTransaction.execute(status -> {
+                long count = 0;
+                try (Stream<UserIdentifiers> identifiers = userRepository.streamAllIdentifiers()) {
+                    for (UserIdentifiers identifier : (Iterable<UserIdentifiers>) identifiers::iterator) {
+                        putIfPresent(newUsernames, identifier.getTenantId(), identifier.getUsername());
+                        putIfPresent(newEmails, identifier.getTenantId(), identifier.getEmail());
+                        count++;
+                    }
+                }
+                return count;
+            });
+            usernames = newUsernames;
+            emails = newEmails;
+            logger.info("User availability index built from {} user(s) in {} ms.", scanned,
+                    System.currentTimeMillis() - startedAt);
+        } catch (RuntimeException e) {
+            // Keep serving from the previous filter (or the database) rather than failing startup.
+            logger.error("Failed to build user availability index: {}", e.getMessage(), e);
+        } finally {
+            pendingUsernames = null;
+            pendingEmails = null;
+        }
+    }
+
+    private void add(String tenantId, String username, String email) {
+        putIfPresent(usernames, tenantId, username);
+        putIfPresent(pendingUsernames, tenantId, username);
+        putIfPresent(emails, tenantId, email);
+        putIfPresent(pendingEmails, tenantId, email);
+    }
+
+    private static void putIfPresent(BloomFilter filter, String tenantId, String value) {
+        if (filter != null && value != null) {
+            filter.put(entry(tenantId, value));
+        }
+    }
+
+    // Tenant IDs cannot contain ':', so the prefix cannot collide with another tenant's value
+    private static String entry(String tenantId, String value) {
+        return tenantId + ':' + normalize(value);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
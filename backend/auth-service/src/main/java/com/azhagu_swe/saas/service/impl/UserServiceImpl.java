@@ -1,9 +1,15 @@
 package com.azhagu_swe.saas.service.impl; // Assuming impl subpackage
 
+import com.azhagu_swe.saas.audit.AuditAction;
+import com.azhagu_swe.saas.audit.AuditEntityType;
+import com.azhagu_swe.saas.audit.AuditEvent;
+import com.azhagu_swe.saas.audit.AuditTrail;
 import com.azhagu_swe.saas.constants.AppConstants;
+import com.azhagu_swe.saas.dto.request.BulkRoleAssignmentRequest;
 import com.azhagu_swe.saas.dto.request.ChangePasswordRequest;
 import com.azhagu_swe.saas.dto.request.CreateUserRequest;
 import com.azhagu_swe.saas.dto.request.UpdateUserRequest;
+import com.azhagu_swe.saas.dto.response.BulkRoleAssignmentResponse;
 import com.azhagu_swe.saas.dto.response.UserResponse;
 import com.azhagu_swe.saas.exception.DuplicateResourceException;
 import com.azhagu_swe.saas.exception.ResourceNotFoundException;
@@ -11,8 +17,15 @@ import com.azhagu_swe.saas.mapper.UserMapper; // Assuming static mapper
 import com.azhagu_swe.saas.model.entity.Role;
 import com.azhagu_swe.saas.model.entity.User;
 import com.azhagu_swe.saas.model.repository.RoleRepository;
+import com.azhagu_swe.saas.model.repository.RoleRepository.RoleRef;
 import com.azhagu_swe.saas.model.repository.UserRepository;
+import com.azhagu_swe.saas.model.repository.UserRoleAssignmentRepository;
+import com.azhagu_swe.saas.model.repository.UserRoleAssignmentRepository.Assignment;
+import com.azhagu_swe.saas.security.tenant.TenantContext;
+import com.azhagu_swe.saas.service.TokenRevocationService;
+import com.azhagu_swe.saas.service.UserAvailabilityIndex;
 import com.azhagu_swe.saas.service.UserService; // Import the interface
+import com.azhagu_swe.saas.util.MembershipDiff;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -24,9 +37,15 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -37,23 +56,30 @@ public class UserServiceImpl implements UserService { // Implements the interfac
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserAvailabilityIndex userAvailabilityIndex;
+    private final UserRoleAssignmentRepository userRoleAssignmentRepository;
+    private final AuditTrail auditTrail;
+    private final TokenRevocationService tokenRevocationService;
     // Assuming UserMapper is a class with static methods as per your code.
     // If you make it a Spring bean: private final UserMapper userMapper;
 
     @Override
     @Transactional
     public UserResponse createUser(@Valid CreateUserRequest request) {
+        // Users are created in the caller's own tenant
+        String tenantId = TenantContext.getTenantId();
         // Use more specific custom exceptions
-        if (userRepository.existsByUsername(request.getUsername())) {
+        if (userRepository.existsByTenantIdAndUsername(tenantId, request.getUsername())) {
             logger.warn("Attempt to create user with taken username: {}", request.getUsername());
             throw new DuplicateResourceException("User", "username", request.getUsername());
         }
-        if (userRepository.existsByEmail(request.getEmail())) {
+        if (userRepository.existsByTenantIdAndEmail(tenantId, request.getEmail())) {
             logger.warn("Attempt to create user with taken email: {}", request.getEmail());
             throw new DuplicateResourceException("User", "email", request.getEmail());
         }
 
         User user = UserMapper.toUser(request); // Assuming this maps basic fields like name, email, etc.
+        user.setTenantId(tenantId);
         user.setPassword(passwordEncoder.encode(request.getPassword()));
         user.setVerified(true); // Or false, depending on your flow (e.g., if email verification is needed)
 
@@ -63,6 +89,7 @@ public class UserServiceImpl implements UserService { // Implements the interfac
         user.setRoles(roles);
 
         User savedUser = userRepository.save(user);
+        userAvailabilityIndex.recordUser(tenantId, savedUser.getUsername(), savedUser.getEmail());
         logger.info("User created with id: {}", savedUser.getId());
         return UserMapper.toUserResponse(savedUser);
     }
@@ -72,7 +99,7 @@ public class UserServiceImpl implements UserService { // Implements the interfac
     public Page<UserResponse> getAllUsers(Pageable pageable) {
         logger.info("Fetching all users with pagination: {}", pageable);
         // Fetch a Page of User entities and map it to a Page of UserResponse DTOs
-        return userRepository.findAll(pageable)
+        return userRepository.findAllByTenantId(TenantContext.getTenantId(), pageable)
                 .map(UserMapper::toUserResponse);
     }
 
@@ -80,7 +107,7 @@ public class UserServiceImpl implements UserService { // Implements the interfac
     @Transactional(readOnly = true)
     public UserResponse getUserById(UUID id) {
         logger.info("Fetching user with id: {}", id);
-        User user = userRepository.findById(id)
+        User user = userRepository.findByIdAndTenantId(id, TenantContext.getTenantId())
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id.toString()));
         return UserMapper.toUserResponse(user);
     }
@@ -89,24 +116,34 @@ public class UserServiceImpl implements UserService { // Implements the interfac
     @Transactional
     public UserResponse updateUser(UUID id, @Valid UpdateUserRequest request) {
         logger.info("Updating user with id: {}", id);
-        User user = userRepository.findById(id)
+        User user = userRepository.findByIdAndTenantId(id, TenantContext.getTenantId())
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id.toString()));
 
         // Use a static mapper to update fields, assuming it exists
         UserMapper.updateUserFromRequest(user, request);
 
+        // Tokens carry the password-era session and the roles they were issued with
+        boolean revokeTokens = false;
+
         // Explicitly handle password update if provided
         if (request.getPassword() != null && !request.getPassword().isBlank()) {
             user.setPassword(passwordEncoder.encode(request.getPassword()));
+            revokeTokens = true;
         }
 
         // Explicitly handle role update if provided
         if (request.getRoleNames() != null) {
             Set<Role> roles = resolveRoles(request.getRoleNames()); // Reuse helper method
-            user.setRoles(roles);
+            // Apply only the difference, so unchanged user_roles rows are left alone
+            revokeTokens |= !MembershipDiff.apply(user.getRoles(), roles, Role::getId).isEmpty();
+        }
+        if (revokeTokens) {
+            tokenRevocationService.revokeAllAfterCommit(List.of(id));
         }
 
         User updatedUser = userRepository.save(user);
+        // Username or email may have changed; the old values simply go stale until the next rebuild
+        userAvailabilityIndex.recordUser(updatedUser.getTenantId(), updatedUser.getUsername(), updatedUser.getEmail());
         logger.info("User updated with id: {}", updatedUser.getId());
         return UserMapper.toUserResponse(updatedUser);
     }
@@ -116,13 +153,126 @@ public class UserServiceImpl implements UserService { // Implements the interfac
     public void deleteUser(UUID id) {
         logger.info("Deleting user with id: {}", id);
         // Check for existence before deleting
-        if (!userRepository.existsById(id)) {
+        if (!userRepository.existsByIdAndTenantId(id, TenantContext.getTenantId())) {
             throw new ResourceNotFoundException("User", "id", id.toString());
         }
         userRepository.deleteById(id);
+        tokenRevocationService.revokeAllAfterCommit(List.of(id));
+        userAvailabilityIndex.recordUserRemoved();
         logger.info("User deleted with id: {}", id);
     }
 
+    @Override
+    @Transactional
+    public BulkRoleAssignmentResponse assignRoles(@Valid BulkRoleAssignmentRequest request) {
+        Map<String, Long> roleIds = resolveRoleIds(request.grantOrEmpty(), request.revokeOrEmpty());
+        Map<Long, String> roleNames = roleIds.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getValue, Map.Entry::getKey));
+
+        // Users of other tenants are reported as not found and never touched
+        Set<UUID> existingUserIds = userRoleAssignmentRepository.findExistingUserIds(TenantContext.getTenantId(),
+                request.getUserIds());
+        // Revoke first; the request validation keeps the two sets disjoint, so the order is only cosmetic
+        List<Assignment> revoked = userRoleAssignmentRepository.revoke(existingUserIds,
+                idsOf(request.revokeOrEmpty(), roleIds));
+        List<Assignment> granted = userRoleAssignmentRepository.grant(existingUserIds,
+                idsOf(request.grantOrEmpty(), roleIds));
+
+        Map<UUID, Set<String>> revokedByUser = groupByUser(revoked, roleNames);
+        Map<UUID, Set<String>> grantedByUser = groupByUser(granted, roleNames);
+
+        List<BulkRoleAssignmentResponse.UserResult> results = new ArrayList<>(request.getUserIds().size());
+        int updated = 0;
+        int unchanged = 0;
+        int notFound = 0;
+        for (UUID userId : request.getUserIds()) {
+            Set<String> userGranted = grantedByUser.getOrDefault(userId, Set.of());
+            Set<String> userRevoked = revokedByUser.getOrDefault(userId, Set.of());
+            BulkRoleAssignmentResponse.Status status;
+            if (!existingUserIds.contains(userId)) {
+                status = BulkRoleAssignmentResponse.Status.NOT_FOUND;
+                notFound++;
+            } else if (userGranted.isEmpty() && userRevoked.isEmpty()) {
+                status = BulkRoleAssignmentResponse.Status.UNCHANGED;
+                unchanged++;
+            } else {
+                status = BulkRoleAssignmentResponse.Status.UPDATED;
+                updated++;
+            }
+            results.add(new BulkRoleAssignmentResponse.UserResult(userId, status, userGranted, userRevoked));
+        }
+
+        recordBulkAssignment(grantedByUser, revokedByUser, roleIds);
+        // Existing tokens list the old roles; holders pick up the new ones on refresh
+        Set<UUID> changedUserIds = new HashSet<>(grantedByUser.keySet());
+        changedUserIds.addAll(revokedByUser.keySet());
+        tokenRevocationService.revokeAllAfterCommit(changedUserIds);
+        logger.info("Bulk role assignment: {} granted and {} revoked row(s); {} user(s) updated, {} unchanged, {} not found",
+                granted.size(), revoked.size(), updated, unchanged, notFound);
+        return new BulkRoleAssignmentResponse(updated, unchanged, notFound, results);
+    }
+
+    /**
+     * The bulk path writes user_roles with plain SQL, which Hibernate's audit
+     * listener never sees, so its events are recorded here: one per updated user,
+     * and one per role with the number of users it was granted to and revoked from.
+     */
+    private void recordBulkAssignment(Map<UUID, Set<String>> grantedByUser, Map<UUID, Set<String>> revokedByUser,
+            Map<String, Long> roleIds) {
+        String tenantId = TenantContext.getTenantId();
+        Set<UUID> updatedUserIds = new HashSet<>(grantedByUser.keySet());
+        updatedUserIds.addAll(revokedByUser.keySet());
+        Map<String, int[]> countsByRole = new TreeMap<>();
+        List<AuditEvent> events = new ArrayList<>(updatedUserIds.size());
+        for (UUID userId : updatedUserIds) {
+            List<String> changes = new ArrayList<>();
+            for (String role : new TreeSet<>(grantedByUser.getOrDefault(userId, Set.of()))) {
+                changes.add("+" + role);
+                countsByRole.computeIfAbsent(role, name -> new int[2])[0]++;
+            }
+            for (String role : new TreeSet<>(revokedByUser.getOrDefault(userId, Set.of()))) {
+                changes.add("-" + role);
+                countsByRole.computeIfAbsent(role, name -> new int[2])[1]++;
+            }
+            events.add(auditTrail.event(AuditEntityType.USER, userId, AuditAction.UPDATE, tenantId,
+                    "roles: " + String.join(", ", changes)));
+        }
+        countsByRole.forEach((role, counts) -> events.add(auditTrail.event(AuditEntityType.ROLE, roleIds.get(role),
+                AuditAction.UPDATE, tenantId,
+                "granted to " + counts[0] + " user(s), revoked from " + counts[1] + " user(s)")));
+        auditTrail.record(events);
+    }
+
+    /**
+     * Resolves every role name in one query.
+     *
+     * @throws ResourceNotFoundException naming all unknown roles at once.
+     */
+    private Map<String, Long> resolveRoleIds(Set<String> grant, Set<String> revoke) {
+        Set<String> names = new HashSet<>(grant);
+        names.addAll(revoke);
+        if (names.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Long> roleIds = roleRepository.findRefsByNameIn(names).stream()
+                .collect(Collectors.toMap(RoleRef::getName, RoleRef::getId));
+        Set<String> missing = new TreeSet<>(names);
+        missing.removeAll(roleIds.keySet());
+        if (!missing.isEmpty()) {
+            throw new ResourceNotFoundException("Role(s) not found: " + String.join(", ", missing));
+        }
+        return roleIds;
+    }
+
+    private static List<Long> idsOf(Set<String> names, Map<String, Long> roleIds) {
+        return names.stream().map(roleIds::get).toList();
+    }
+
+    private static Map<UUID, Set<String>> groupByUser(List<Assignment> assignments, Map<Long, String> roleNames) {
+        return assignments.stream().collect(Collectors.groupingBy(Assignment::userId,
+                Collectors.mapping(assignment -> roleNames.get(assignment.roleId()), Collectors.toSet())));
+    }
+
     /**
      * Helper method to resolve role names into a Set of Role entities.
      * @param roleNames A set of role names from a request.
@@ -136,19 +286,22 @@ public class UserServiceImpl implements UserService { // Implements the interfac
                 .orElseThrow(() -> new ResourceNotFoundException("Role", "name", AppConstants.DEFAULT_ROLE));
             roles.add(defaultRole);
         } else {
-            // Find each role by name from the repository
-            roleNames.forEach(roleName -> {
-                Role role = roleRepository.findByName(roleName)
-                    .orElseThrow(() -> new ResourceNotFoundException("Role", "name", roleName));
-                roles.add(role);
-            });
+            // Resolve every name in one query and report all unknown names together
+            List<Role> found = roleRepository.findAllByNameIn(roleNames);
+            if (found.size() < roleNames.size()) {
+                Set<String> missing = new TreeSet<>(roleNames);
+                found.forEach(role -> missing.remove(role.getName()));
+                throw new ResourceNotFoundException("Role(s) not found: " + String.join(", ", missing));
+            }
+            roles.addAll(found);
         }
         return roles;
     }
-       @Override
+    @Override
+    @Transactional
     public void changePassword(String userEmail, ChangePasswordRequest request) {
         // 1. Find the user by their email (which is the principal's name)
-        User user = userRepository.findByEmail(userEmail)
+        User user = userRepository.findByTenantIdAndEmail(TenantContext.getTenantId(), userEmail)
                 .orElseThrow(() -> new RuntimeException("Error: User not found. This should not happen for an authenticated user."));
 
         // 2. Verify the provided current password
@@ -168,5 +321,8 @@ public class UserServiceImpl implements UserService { // Implements the interfac
 
         // 5. Save the user with the new password
         userRepository.save(user);
+
+        // 6. Access tokens issued with the old password stop working
+        tokenRevocationService.revokeAllAfterCommit(List.of(user.getId()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+package com.azhagu_swe.saas.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A minimal, thread-safe Bloom filter over strings.
+ * <p>
+ * {@link #mightContain(String)} never returns false for a value that was
+ * {@link #put(String) put}, so a negative answer is definitive. Positive answers
+ * are only probable and must be confirmed against the source of truth.
+ * Values cannot be removed; callers rebuild the filter to shed stale entries.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashFunctions;
+
+    /**
+     * @param expectedInsertions   The number of values the filter is sized for.
+     * @param falsePositiveRate    The desired false positive probability at that
+     *                             size, e.g. 0.01.
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        double p = Math.min(Math.max(falsePositiveRate, 1e-9), 0.5);
+        long m = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        m = Math.max(64, ((m + 63) / 64) * 64); // Round up to whole words
+        this.bitCount = m;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+        this.bits = new AtomicLongArray((int) (m / 64));
+    }
+
+    public void put(String value) {
+        long hash = hash64(value);
+        long h1 = fmix64(hash);
+        long h2 = fmix64(hash ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < hashFunctions; i++) {
+            long index = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash64(value);
+        long h1 = fmix64(hash);
+        long h2 = fmix64(hash ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < hashFunctions; i++) {
+            long index = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 64-bit FNV-1a over the UTF-8 bytes of the value.
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= (b & 0xff);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // MurmurHash3 finalizer, spreads FNV output across all bits.
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb93fe53ac5c3L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -0,0 +1,150 @@
+package com.azhagu_swe.saas.util;
+
+import com.azhagu_swe.saas.constants.AppConstants;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Verifies the HMAC-signed identity header the API Gateway attaches after it has
+ * validated a JWT, and decodes it without touching the token or the database.
+ * <p>
+ * The wire format and the ordered {@code saas.identity.authorities} catalogue
+ * must match the gateway's {@code InternalIdentitySigner}.
+ */
+@Component
+@Slf4j
+public class InternalIdentityVerifier {
+
+    public static final String HEADER_NAME = "X-Internal-Identity";
+    // Version 2 appends the tenant and version 3 the token's issue time. Version 1 headers
+    // (older gateways) belong to the default tenant; version 1 and 2 headers have no issue time
+    private static final byte VERSION_1 = 1;
+    private static final byte VERSION_2 = 2;
+    private static final byte VERSION_3 = 3;
+
+    private final Mac macPrototype;
+    private final List<GrantedAuthority> authorityCatalogue = new ArrayList<>();
+
+    public InternalIdentityVerifier(
+            @Value("${saas.identity.secret:}") String secret,
+            @Value("${saas.identity.authorities:}") List<String> authorities) throws GeneralSecurityException {
+        if (secret.isBlank()) {
+            this.macPrototype = null;
+        } else {
+            this.macPrototype = Mac.getInstance("HmacSHA256");
+            this.macPrototype.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        }
+        authorities.forEach(authority -> authorityCatalogue.add(new SimpleGrantedAuthority(authority.trim())));
+    }
+
+    public boolean isEnabled() {
+        return macPrototype != null;
+    }
+
+    /**
+     * Verifies and decodes a header value.
+     *
+     * @param headerValue The raw {@value #HEADER_NAME} header.
+     * @return the identity, or empty if the signature is wrong, the identity has
+     *         expired or the value is malformed.
+     */
+    public Optional<InternalIdentity> verify(String headerValue) {
+        if (macPrototype == null || headerValue == null) {
+            return Optional.empty();
+        }
+        int separator = headerValue.indexOf('.');
+        if (separator <= 0) {
+            return Optional.empty();
+        }
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            byte[] payload = decoder.decode(headerValue.substring(0, separator));
+            byte[] signature = decoder.decode(headerValue.substring(separator + 1));
+            if (!MessageDigest.isEqual(mac(payload), signature)) {
+                log.warn("Rejected internal identity header with an invalid signature.");
+                return Optional.empty();
+            }
+
+            ByteBuffer buffer = ByteBuffer.wrap(payload);
+            byte version = buffer.get();
+            if (version != VERSION_1 && version != VERSION_2 && version != VERSION_3) {
+                return Optional.empty();
+            }
+            UUID userId = new UUID(buffer.getLong(), buffer.getLong());
+            long expiresAt = buffer.getLong();
+            if (expiresAt < System.currentTimeMillis() / 1000) {
+                log.debug("Internal identity header for user {} has expired.", userId);
+                return Optional.empty();
+            }
+
+            List<GrantedAuthority> authorities = new ArrayList<>();
+            int words = buffer.getShort();
+            for (int w = 0; w < words; w++) {
+                long word = buffer.getLong();
+                while (word != 0) {
+                    int bit = w * 64 + Long.numberOfTrailingZeros(word);
+                    if (bit >= authorityCatalogue.size()) {
+                        log.warn("Internal identity header references unknown authority bit {}.", bit);
+                        return Optional.empty();
+                    }
+                    authorities.add(authorityCatalogue.get(bit));
+                    word &= word - 1;
+                }
+            }
+
+            byte[] subject = new byte[buffer.getShort()];
+            buffer.get(subject);
+            String tenantId = AppConstants.DEFAULT_TENANT;
+            if (version >= VERSION_2) {
+                byte[] tenant = new byte[Byte.toUnsignedInt(buffer.get())];
+                buffer.get(tenant);
+                tenantId = new String(tenant, StandardCharsets.US_ASCII);
+            }
+            long issuedAt = version >= VERSION_3 ? buffer.getLong() : 0;
+            return Optional.of(new InternalIdentity(userId, new String(subject, StandardCharsets.UTF_8),
+                    tenantId, List.copyOf(authorities), issuedAt));
+        } catch (IllegalArgumentException | BufferUnderflowException e) {
+            log.warn("Rejected malformed internal identity header: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private byte[] mac(byte[] payload) {
+        try {
+            // Mac is not thread-safe; cloning the initialised prototype avoids re-keying per call.
+            return ((Mac) macPrototype.clone()).doFinal(payload);
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("HmacSHA256 provider does not support cloning", e);
+        }
+    }
+
+    /**
+     * The identity carried by a verified header.
+     *
+     * @param userId      The user's ID.
+     * @param subject     The JWT subject (the user's login email).
+     * @param tenantId    The JWT's tenantId claim.
+     * @param authorities The user's roles and permissions.
+     * @param issuedAt    The JWT's issue time in epoch seconds, or 0 if the header
+     *                    predates version 3 and so any revocation applies to it.
+     */
+    public record InternalIdentity(UUID userId, String subject, String tenantId,
+            List<GrantedAuthority> authorities, long issuedAt) {
+    }
+}
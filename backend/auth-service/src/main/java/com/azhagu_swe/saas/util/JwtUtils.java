@@ -1,6 +1,9 @@
 package com.azhagu_swe.saas.util;
 
+import com.azhagu_swe.saas.constants.AppConstants;
+import com.azhagu_swe.saas.metrics.AuthMetrics;
 import com.azhagu_swe.saas.security.service.impl.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
@@ -24,19 +27,24 @@ import java.util.stream.Collectors;
 @Slf4j
 public class JwtUtils {
 
+    public static final String TENANT_ID_CLAIM = "tenantId";
+
     @Value("${saas.app.jwtExpirationMs}")
     private long jwtExpirationMs;
 
     private final SecretKey key;
     private final JwtParser jwtParser;
+    private final AuthMetrics authMetrics;
 
     /**
      * Injects the SecretKey bean managed by Spring.
      * This is the recommended way to handle keys and thread-safe parsers.
      * @param key The singleton SecretKey bean from JwtConfig.
+     * @param authMetrics Counts validation failures by exception type.
      */
-    public JwtUtils(SecretKey key) {
+    public JwtUtils(SecretKey key, AuthMetrics authMetrics) {
         this.key = key;
+        this.authMetrics = authMetrics;
         this.jwtParser = Jwts.parserBuilder().setSigningKey(key).build();
     }
 
@@ -62,6 +70,7 @@ public class JwtUtils {
         return Jwts.builder()
                 .setSubject(userPrincipal.getUsername()) // Subject is the user's email/username
                 .claim("userId", userPrincipal.getId().toString()) // Add userId as a custom claim
+                .claim(TENANT_ID_CLAIM, userPrincipal.getTenantId()) // Lets each request resolve its tenant without a lookup
                 .claim("roles", roles) // Add roles as a list claim
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
@@ -79,11 +88,33 @@ public class JwtUtils {
             jwtParser.parseClaimsJws(authToken);
             return true;
         } catch (JwtException e) {
+            authMetrics.jwtFailure(e);
             log.error("JWT validation error: {}", e.getMessage());
         }
         return false;
     }
 
+    /**
+     * Validates a token and returns its claims in a single parse.
+     * @param token The JWT.
+     * @return The token's claims.
+     * @throws JwtException if the signature is invalid or the token has expired.
+     */
+    public Claims parseClaims(String token) {
+        return jwtParser.parseClaimsJws(token).getBody();
+    }
+
+    /**
+     * Reads the tenant from parsed claims. Tokens issued before the claim existed
+     * belong to the default tenant.
+     * @param claims Claims from {@link #parseClaims(String)}.
+     * @return The tenant ID.
+     */
+    public static String getTenantId(Claims claims) {
+        String tenantId = claims.get(TENANT_ID_CLAIM, String.class);
+        return tenantId != null ? tenantId : AppConstants.DEFAULT_TENANT;
+    }
+
     /**
      * Extracts the username (the token's subject) from a valid JWT.
      * @param token The JWT.
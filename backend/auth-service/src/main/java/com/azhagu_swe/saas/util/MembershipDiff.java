@@ -0,0 +1,56 @@
+package com.azhagu_swe.saas.util;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Brings a managed many-to-many collection in line with a target set by removing
+ * and adding only the elements that differ, matched by key.
+ * <p>
+ * Hibernate then writes one join-table delete per removed element and one insert
+ * per added element. Replacing or clearing the collection instead makes it delete
+ * every row for the owner and insert the whole set again.
+ */
+public final class MembershipDiff {
+
+    private MembershipDiff() {
+    }
+
+    /**
+     * @param current The managed collection, modified in place.
+     * @param target  The desired members.
+     * @param key     Identity of a member, e.g. its ID.
+     * @return how many members were added and removed.
+     */
+    public static <T, K> Result apply(Collection<T> current, Collection<T> target, Function<T, K> key) {
+        Set<K> targetKeys = new HashSet<>();
+        for (T member : target) {
+            targetKeys.add(key.apply(member));
+        }
+        int sizeBefore = current.size();
+        current.removeIf(member -> !targetKeys.contains(key.apply(member)));
+        int removed = sizeBefore - current.size();
+
+        Set<K> currentKeys = new HashSet<>();
+        for (T member : current) {
+            currentKeys.add(key.apply(member));
+        }
+        int added = 0;
+        for (T member : target) {
+            if (currentKeys.add(key.apply(member))) {
+                current.add(member);
+                added++;
+            }
+        }
+        return new Result(added, removed);
+    }
+
+    public record Result(int added, int removed) {
+
+        public boolean isEmpty() {
+            return added == 0 && removed == 0;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.azhagu_swe.saas.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ConcurrentTaskScheduler;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Runs Tomcat request handling, {@code @Async} methods and {@code @Scheduled}
+ * jobs on virtual threads.
+ * <p>
+ * Only compiled by the {@code java21} Maven profile and only active when
+ * {@code app.threads.virtual.enabled=true}, so the default Java 17 build keeps
+ * the platform thread pools.
+ * <p>
+ * {@code @EnableAsync} lives here rather than on the application class: in the
+ * default mode {@code @Async} methods keep running on the caller's thread, so
+ * callers such as {@code AuthServiceImpl.forgotPassword} still see a
+ * {@code MailException}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.threads.virtual.enabled", havingValue = "true")
+@EnableAsync
+@Slf4j
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        log.info("Tomcat request handling will run on virtual threads.");
+        return protocolHandler -> protocolHandler.setExecutor(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-vt-", 0).factory()));
+    }
+
+    /**
+     * Replaces Boot's pooled {@code applicationTaskExecutor}, which backs
+     * {@code @Async} methods such as {@code EmailService.sendPasswordResetEmail}.
+     */
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("async-vt-", 0).factory()));
+    }
+
+    @Bean
+    public TaskScheduler taskScheduler() {
+        return new ConcurrentTaskScheduler(
+                Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("scheduling-vt-", 0).factory()));
+    }
+}
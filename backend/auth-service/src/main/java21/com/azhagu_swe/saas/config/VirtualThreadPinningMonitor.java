@@ -0,0 +1,71 @@
+package com.azhagu_swe.saas.config;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/**
+ * Logs every time a virtual thread stays pinned to its carrier for longer than
+ * the configured threshold, typically because it blocked inside a
+ * {@code synchronized} block or a native frame.
+ * <p>
+ * Frames from our own packages are listed first so the offending section is
+ * easy to find. Listens to the JDK Flight Recorder {@code jdk.VirtualThreadPinned}
+ * event in-process, so no external recording is needed.
+ */
+@Component
+@ConditionalOnProperty(name = "app.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadPinningMonitor implements DisposableBean {
+
+    private static final String APP_PACKAGE = "com.azhagu_swe.saas";
+
+    private final Duration threshold;
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(
+            @Value("${app.threads.virtual.pinning-threshold-ms:20}") long thresholdMs) {
+        this.threshold = Duration.ofMillis(thresholdMs);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent("jdk.VirtualThreadPinned", this::report);
+        recordingStream.startAsync();
+        log.info("Virtual thread pinning monitor started (threshold {} ms).", threshold.toMillis());
+    }
+
+    private void report(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            log.warn("Virtual thread pinned for {} ms (no stack trace).", event.getDuration().toMillis());
+            return;
+        }
+        String appFrames = event.getStackTrace().getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .filter(frame -> frame.startsWith(APP_PACKAGE))
+                .collect(Collectors.joining(" <- "));
+        log.warn("Virtual thread pinned for {} ms. Application frames: {}", event.getDuration().toMillis(),
+                appFrames.isEmpty() ? "(none, pinned in library code)" : appFrames);
+    }
+
+    @Override
+    public void destroy() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+-- Refresh token rotation families and reuse detection.
+-- family_id stays nullable so tokens issued before this migration keep working;
+-- they are assigned a new family the first time they are rotated.
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS family_id UUID;
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS used_at TIMESTAMP(6) WITH TIME ZONE;
+
+CREATE INDEX IF NOT EXISTS idx_refresh_token_family_id ON refresh_tokens (family_id);
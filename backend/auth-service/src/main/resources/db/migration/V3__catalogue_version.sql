@@ -0,0 +1,9 @@
+-- Single-row version counter for the role and permission catalogue.
+-- Every role/permission mutation increments it in the same transaction, so all
+-- auth-service replicas agree on when a cached catalogue response is stale.
+CREATE TABLE IF NOT EXISTS catalogue_version (
+    id      SMALLINT PRIMARY KEY,
+    version BIGINT   NOT NULL
+);
+
+INSERT INTO catalogue_version (id, version) VALUES (1, 0) ON CONFLICT (id) DO NOTHING;
@@ -0,0 +1,17 @@
+-- Bulk role assignment writes user_roles with INSERT ... ON CONFLICT DO NOTHING,
+-- which only skips duplicates if a unique key covers (user_id, role_id). Tables
+-- generated by Hibernate already have it as the primary key; add it where missing.
+DO $$
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1
+        FROM pg_index i
+        JOIN pg_class t ON t.oid = i.indrelid
+        WHERE t.relname = 'user_roles'
+          AND i.indisunique
+          AND i.indnatts = 2
+    ) THEN
+        ALTER TABLE user_roles ADD CONSTRAINT user_roles_pkey PRIMARY KEY (user_id, role_id);
+    END IF;
+END
+$$;
@@ -0,0 +1,35 @@
+-- Restores the user_roles -> users foreign key that V5 had to drop.
+--
+-- users is keyed on (tenant_id, id) since V5, so user_roles gets a tenant_id
+-- column and the key goes through (tenant_id, user_id). Hibernate writes the join
+-- table with (user_id, role_id) only; a trigger copies the tenant from the user.
+-- Deleting a user now deletes its role assignments in the database as well.
+
+ALTER TABLE user_roles ADD COLUMN tenant_id VARCHAR(63);
+
+UPDATE user_roles ur
+SET tenant_id = u.tenant_id
+FROM users u
+WHERE u.id = ur.user_id;
+
+-- Assignments of users deleted while there was no foreign key
+DELETE FROM user_roles WHERE tenant_id IS NULL;
+
+ALTER TABLE user_roles ALTER COLUMN tenant_id SET NOT NULL;
+
+CREATE FUNCTION user_roles_set_tenant() RETURNS TRIGGER AS $$
+BEGIN
+    IF NEW.tenant_id IS NULL THEN
+        -- Uses idx_users_id; an unknown user leaves it null and the insert fails
+        SELECT tenant_id INTO NEW.tenant_id FROM users WHERE id = NEW.user_id;
+    END IF;
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER user_roles_set_tenant
+    BEFORE INSERT ON user_roles
+    FOR EACH ROW EXECUTE FUNCTION user_roles_set_tenant();
+
+ALTER TABLE user_roles ADD CONSTRAINT fk_user_roles_user
+    FOREIGN KEY (tenant_id, user_id) REFERENCES users (tenant_id, id) ON DELETE CASCADE;
@@ -0,0 +1,141 @@
+package com.azhagu_swe.saas.audit;
+
+import com.azhagu_swe.saas.metrics.AuthMetrics;
+import com.azhagu_swe.saas.model.entity.Permission;
+import com.azhagu_swe.saas.model.entity.Role;
+import com.azhagu_swe.saas.model.entity.User;
+import com.azhagu_swe.saas.model.repository.AuditEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.collection.spi.PersistentSet;
+import org.hibernate.event.spi.PreCollectionUpdateEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuditEntityListenerTest {
+
+    private final List<AuditEvent> written = new ArrayList<>();
+    private AuditWriter writer;
+    private AuditEntityListener listener;
+
+    @BeforeEach
+    void setUp() {
+        AuditEventRepository repository = mock(AuditEventRepository.class);
+        // insertAll gets the writer's reusable buffer, so events are copied on the spot
+        doAnswer(invocation -> written.addAll(invocation.<List<AuditEvent>>getArgument(0)))
+                .when(repository).insertAll(anyList());
+        writer = new AuditWriter(repository, new AuthMetrics(new SimpleMeterRegistry()), 100, 2, 2);
+        listener = new AuditEntityListener(null,
+                new AuditTrail(writer, () -> Optional.of("admin@example.com")));
+    }
+
+    @Test
+    void roleChangeOfAUserIsWrittenToTheTrail() {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setTenantId("acme");
+        Role standard = role("ROLE_STANDARDUSER");
+        Role admin = role("ROLE_ADMIN");
+
+        listener.onPreUpdateCollection(collectionUpdate(user, user.getId(), User.class.getName() + ".roles",
+                Set.of(standard), Set.of(standard, admin)));
+        writer.flush();
+
+        assertEquals(1, written.size());
+        AuditEvent event = written.get(0);
+        assertEquals(AuditEntityType.USER, event.entityType());
+        assertEquals(user.getId().toString(), event.entityId());
+        assertEquals(AuditAction.UPDATE, event.action());
+        assertEquals("acme", event.tenantId());
+        assertEquals("admin@example.com", event.actor());
+        assertEquals("roles: +ROLE_ADMIN", event.details());
+    }
+
+    @Test
+    void permissionChangeOfARoleIsWrittenToTheTrail() {
+        Role role = role("ROLE_AUDITOR");
+        role.setId(7L);
+        Permission read = new Permission("PERMISSION_USER_READ");
+        Permission write = new Permission("PERMISSION_USER_WRITE");
+
+        listener.onPreUpdateCollection(collectionUpdate(role, role.getId(), Role.class.getName() + ".permissions",
+                Set.of(read, write), Set.of(read)));
+        writer.flush();
+
+        assertEquals(1, written.size());
+        assertEquals(AuditEntityType.ROLE, written.get(0).entityType());
+        assertEquals("7", written.get(0).entityId());
+        assertEquals("permissions: -PERMISSION_USER_WRITE", written.get(0).details());
+    }
+
+    @Test
+    void unchangedOrUnauditedCollectionsWriteNothing() {
+        User user = new User();
+        Role standard = role("ROLE_STANDARDUSER");
+
+        listener.onPreUpdateCollection(collectionUpdate(user, UUID.randomUUID(), User.class.getName() + ".roles",
+                Set.of(standard), Set.of(standard)));
+        listener.onPreUpdateCollection(collectionUpdate(user, UUID.randomUUID(), User.class.getName() + ".devices",
+                Set.of(), Set.of(standard)));
+        writer.flush();
+
+        assertTrue(written.isEmpty());
+    }
+
+    @Test
+    void membershipChangeListsAddedThenRemovedNames() {
+        assertEquals("roles: +ROLE_ADMIN, +ROLE_AUDITOR, -ROLE_USER", AuditEntityListener.membershipChange("roles",
+                sorted("ROLE_USER", "ROLE_VIEWER"), sorted("ROLE_VIEWER", "ROLE_ADMIN", "ROLE_AUDITOR")));
+        assertEquals("permissions: -PERMISSION_USER_READ", AuditEntityListener.membershipChange("permissions",
+                sorted("PERMISSION_USER_READ"), sorted()));
+    }
+
+    @Test
+    void unchangedMembershipRecordsNothing() {
+        assertNull(AuditEntityListener.membershipChange("roles", sorted("ROLE_USER"), sorted("ROLE_USER")));
+        assertNull(AuditEntityListener.membershipChange("roles", sorted(), sorted()));
+    }
+
+    // A loaded set whose stored snapshot is the membership before the flush, as Hibernate hands it over
+    private static PreCollectionUpdateEvent collectionUpdate(Object owner, Object ownerId, String role,
+            Set<?> before, Set<?> after) {
+        PersistentSet<Object> collection = new PersistentSet<>(null, new HashSet<>(after));
+        HashMap<Object, Object> snapshot = new HashMap<>();
+        before.forEach(element -> snapshot.put(element, element));
+        collection.setSnapshot(ownerId, role, snapshot);
+
+        PreCollectionUpdateEvent event = mock(PreCollectionUpdateEvent.class);
+        when(event.getAffectedOwnerOrNull()).thenReturn(owner);
+        when(event.getAffectedOwnerIdOrNull()).thenReturn(ownerId);
+        doReturn(collection).when(event).getCollection();
+        return event;
+    }
+
+    private static Role role(String name) {
+        Role role = new Role();
+        role.setName(name);
+        return role;
+    }
+
+    // The listener collects names into TreeSets, so details come out in a stable order
+    private static Set<String> sorted(String... names) {
+        return new TreeSet<>(Set.of(names));
+    }
+}
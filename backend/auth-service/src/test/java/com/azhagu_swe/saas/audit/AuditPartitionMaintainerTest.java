@@ -0,0 +1,59 @@
+package com.azhagu_swe.saas.audit;
+
+import com.azhagu_swe.saas.model.repository.AuditEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuditPartitionMaintainerTest {
+
+    private static final Clock MARCH_2025 = Clock.fixed(Instant.parse("2025-03-31T23:59:59Z"), ZoneOffset.UTC);
+
+    private final AuditEventRepository repository = mock(AuditEventRepository.class);
+
+    @Test
+    void createsTheCurrentAndUpcomingMonths() {
+        new AuditPartitionMaintainer(repository, 2, 0, MARCH_2025).maintainPartitions();
+
+        verify(repository).createMonthlyPartition(YearMonth.of(2025, 3));
+        verify(repository).createMonthlyPartition(YearMonth.of(2025, 4));
+        verify(repository).createMonthlyPartition(YearMonth.of(2025, 5));
+        verify(repository, never()).createMonthlyPartition(YearMonth.of(2025, 6));
+        verify(repository, never()).findMonthlyPartitions();
+    }
+
+    @Test
+    void dropsOnlyMonthsPastRetention() {
+        when(repository.findMonthlyPartitions()).thenReturn(List.of(
+                YearMonth.of(2024, 12), YearMonth.of(2025, 1), YearMonth.of(2025, 2), YearMonth.of(2025, 3)));
+
+        // Three months counting the current one: January to March
+        new AuditPartitionMaintainer(repository, 1, 3, MARCH_2025).maintainPartitions();
+
+        verify(repository).dropMonthlyPartition(YearMonth.of(2024, 12));
+        verify(repository, never()).dropMonthlyPartition(YearMonth.of(2025, 1));
+        verify(repository, never()).dropMonthlyPartition(YearMonth.of(2025, 3));
+    }
+
+    @Test
+    void databaseErrorsDoNotEscape() {
+        doThrow(new DataAccessResourceFailureException("down")).when(repository).createMonthlyPartition(any());
+
+        // Runs at startup, so a failure must not stop the application from starting
+        new AuditPartitionMaintainer(repository, 2, 3, MARCH_2025).maintainPartitions();
+
+        verify(repository, never()).dropMonthlyPartition(any());
+    }
+}
@@ -0,0 +1,106 @@
+package com.azhagu_swe.saas.audit;
+
+import com.azhagu_swe.saas.metrics.AuthMetrics;
+import com.azhagu_swe.saas.model.repository.AuditEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class AuditTrailTest {
+
+    private AuditEventRepository repository;
+    private AuditWriter writer;
+    private AuditTrail auditTrail;
+    private final List<Integer> batchSizes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(AuditEventRepository.class);
+        // insertAll gets the writer's reusable buffer, so sizes are captured on the spot
+        doAnswer(invocation -> batchSizes.add(invocation.<List<AuditEvent>>getArgument(0).size()))
+                .when(repository).insertAll(anyList());
+        writer = new AuditWriter(repository, new AuthMetrics(new SimpleMeterRegistry()), 100, 2, 2);
+        auditTrail = new AuditTrail(writer, () -> Optional.of("admin@example.com"));
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void eventsAreWrittenOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        auditTrail.record(event(AuditAction.CREATE));
+
+        writer.flush();
+        verify(repository, never()).insertAll(anyList());
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        writer.flush();
+
+        assertEquals(List.of(1), batchSizes);
+    }
+
+    @Test
+    void eventsOfARolledBackTransactionAreDropped() {
+        TransactionSynchronizationManager.initSynchronization();
+        auditTrail.record(List.of(event(AuditAction.CREATE), event(AuditAction.UPDATE)));
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        writer.flush();
+
+        verify(repository, never()).insertAll(anyList());
+    }
+
+    @Test
+    void eventsOutsideATransactionAreQueuedAtOnce() {
+        AuditEvent event = event(AuditAction.DELETE);
+
+        auditTrail.record(event);
+        writer.flush();
+
+        assertEquals("admin@example.com", event.actor());
+        assertEquals(List.of(1), batchSizes);
+    }
+
+    @Test
+    void oneFlushWritesAtMostTheConfiguredBatchesAndShutdownDrainsTheRest() {
+        for (int i = 0; i < 7; i++) {
+            auditTrail.record(event(AuditAction.UPDATE));
+        }
+
+        writer.flush();
+        assertEquals(List.of(2, 2), batchSizes);
+
+        writer.shutdown();
+        assertEquals(List.of(2, 2, 2, 1), batchSizes);
+        verify(repository, times(4)).insertAll(anyList());
+    }
+
+    private AuditEvent event(AuditAction action) {
+        return auditTrail.event(AuditEntityType.USER, UUID.randomUUID(), action, "acme", null);
+    }
+}
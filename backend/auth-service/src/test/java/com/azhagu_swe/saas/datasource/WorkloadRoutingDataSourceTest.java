@@ -0,0 +1,217 @@
+package com.azhagu_swe.saas.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs against two local Postgres databases standing in for a primary and a
+ * replica; they only need to exist. Skipped when they cannot be reached. Override
+ * the defaults with {@code -Dtest.datasource.primary-url=...},
+ * {@code -Dtest.datasource.replica-url=...}, {@code -Dtest.datasource.username=...}
+ * and {@code -Dtest.datasource.password=...}.
+ */
+class WorkloadRoutingDataSourceTest {
+
+    private static final String REPLICA = "replica-0";
+
+    private static DataSource primary;
+    private static DataSource replica;
+    private static String primaryName;
+    private static String replicaName;
+
+    @BeforeAll
+    static void connect() {
+        primary = dataSource(System.getProperty("test.datasource.primary-url",
+                "jdbc:postgresql://localhost:5432/auth_primary"));
+        replica = dataSource(System.getProperty("test.datasource.replica-url",
+                "jdbc:postgresql://localhost:5432/auth_replica"));
+        assumeTrue(isReachable(primary) && isReachable(replica), "local primary and replica databases not available");
+        primaryName = new JdbcTemplate(primary).queryForObject("SELECT current_database()", String.class);
+        replicaName = new JdbcTemplate(replica).queryForObject("SELECT current_database()", String.class);
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        Routed routed = routed(replica, Duration.ZERO);
+        routed.router.checkReplicas();
+
+        assertEquals(replicaName, routed.database(true));
+        assertEquals(primaryName, routed.database(false));
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimaryUntilItCatchesUp() {
+        Routed routed = routed(replica, Duration.ZERO);
+
+        routed.router.recordLag(REPLICA, Duration.ofSeconds(10));
+        assertEquals(primaryName, routed.database(true));
+
+        routed.router.recordLag(REPLICA, Duration.ofMillis(100));
+        assertEquals(replicaName, routed.database(true));
+
+        routed.router.recordLag(REPLICA, null);
+        assertEquals(primaryName, routed.database(true), "unknown lag counts as too far behind");
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToPrimary() {
+        Routed routed = routed(dataSource("jdbc:postgresql://localhost:1/unreachable"), Duration.ZERO);
+
+        routed.router.checkReplicas();
+        assertEquals(primaryName, routed.database(true));
+
+        // Marked healthy, but the connection attempt itself fails
+        routed.router.recordLag(REPLICA, Duration.ZERO);
+        assertEquals(primaryName, routed.database(true));
+    }
+
+    @Test
+    void pinnedReadsGoToPrimary() {
+        Routed routed = routed(replica, Duration.ZERO);
+        routed.router.checkReplicas();
+
+        assertEquals(primaryName, DataSourceRouting.onPrimary(() -> routed.database(true)));
+        assertEquals(replicaName, routed.database(true));
+    }
+
+    @Test
+    void readsRightAfterAWriteGoToPrimary() {
+        Routed routed = routed(replica, Duration.ofSeconds(30));
+        routed.router.checkReplicas();
+
+        routed.database(false);
+        assertEquals(primaryName, routed.database(true));
+
+        Routed withoutWindow = routed(replica, Duration.ZERO);
+        withoutWindow.router.checkReplicas();
+        assertEquals(replicaName, withoutWindow.database(true));
+    }
+
+    @Test
+    void signInLatencyHoldsWhileTheAdminPoolIsSaturated() throws Exception {
+        HikariDataSource auth = pool("auth", 2);
+        HikariDataSource admin = pool("admin", 2);
+        HikariDataSource background = pool("background", 1);
+        WorkloadRoutingDataSource router = new WorkloadRoutingDataSource(
+                Map.of(Workload.AUTH, auth, Workload.ADMIN, admin, Workload.BACKGROUND, background),
+                Map.of(), Duration.ofSeconds(2), Duration.ZERO, null);
+        router.afterPropertiesSet();
+        Routed routed = new Routed(router, new LazyConnectionDataSourceProxy(router));
+
+        AtomicBoolean exporting = new AtomicBoolean(true);
+        ExecutorService exports = Executors.newFixedThreadPool(8);
+        try {
+            slowestSignIn(routed); // Opens the auth pool's connections
+            Duration idle = slowestSignIn(routed);
+
+            // Eight slow listings on a two-connection admin pool: two run, six queue
+            for (int i = 0; i < 8; i++) {
+                exports.submit(() -> {
+                    while (exporting.get()) {
+                        DataSourceRouting.withWorkload(Workload.ADMIN, () -> routed.query("SELECT pg_sleep(0.5)"));
+                    }
+                    return null;
+                });
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (admin.getHikariPoolMXBean() == null
+                    || admin.getHikariPoolMXBean().getThreadsAwaitingConnection() == 0) {
+                assertTrue(System.nanoTime() < deadline, "admin pool never saturated");
+                Thread.sleep(10);
+            }
+
+            Duration saturated = slowestSignIn(routed);
+            assertTrue(admin.getHikariPoolMXBean().getThreadsAwaitingConnection() > 0, "admin pool still saturated");
+            // An admin request now waits for one of the 0.5 s listings; a sign-in does not
+            assertTrue(saturated.compareTo(idle.plusMillis(100)) < 0,
+                    "slowest sign-in query took " + saturated.toMillis() + " ms, " + idle.toMillis() + " ms when idle");
+        } finally {
+            exporting.set(false);
+            exports.shutdown();
+            exports.awaitTermination(10, TimeUnit.SECONDS);
+            router.close();
+        }
+    }
+
+    /**
+     * Slowest of 50 sign-in sized transactions (one short query) on the auth pool.
+     */
+    private static Duration slowestSignIn(Routed routed) {
+        long slowest = 0;
+        for (int i = 0; i < 50; i++) {
+            long start = System.nanoTime();
+            DataSourceRouting.withWorkload(Workload.AUTH, () -> routed.query("SELECT 1"));
+            slowest = Math.max(slowest, System.nanoTime() - start);
+        }
+        return Duration.ofNanos(slowest);
+    }
+
+    private static Routed routed(DataSource replicaDataSource, Duration readYourWritesWindow) {
+        WorkloadRoutingDataSource router = new WorkloadRoutingDataSource(
+                Map.of(Workload.AUTH, primary, Workload.ADMIN, primary, Workload.BACKGROUND, primary),
+                Map.of(REPLICA, replicaDataSource), Duration.ofSeconds(2), readYourWritesWindow, null);
+        router.afterPropertiesSet();
+        return new Routed(router, new LazyConnectionDataSourceProxy(router));
+    }
+
+    private static HikariDataSource pool(String name, int size) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl(System.getProperty("test.datasource.primary-url",
+                "jdbc:postgresql://localhost:5432/auth_primary"));
+        pool.setUsername(System.getProperty("test.datasource.username", "postgres"));
+        pool.setPassword(System.getProperty("test.datasource.password", "postgres"));
+        pool.setPoolName(name);
+        pool.setMaximumPoolSize(size);
+        pool.setConnectionTimeout(10_000);
+        return pool;
+    }
+
+    private static DriverManagerDataSource dataSource(String url) {
+        return new DriverManagerDataSource(url,
+                System.getProperty("test.datasource.username", "postgres"),
+                System.getProperty("test.datasource.password", "postgres"));
+    }
+
+    private static boolean isReachable(DataSource dataSource) {
+        try (Connection ignored = dataSource.getConnection()) {
+            return true;
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+
+    private record Routed(WorkloadRoutingDataSource router, DataSource dataSource) {
+
+        String database(boolean readOnly) {
+            TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+            transaction.setReadOnly(readOnly);
+            return transaction.execute(status ->
+                    new JdbcTemplate(dataSource).queryForObject("SELECT current_database()", String.class));
+        }
+
+        Object query(String sql) {
+            return new TransactionTemplate(new DataSourceTransactionManager(dataSource)).execute(status ->
+                    new JdbcTemplate(dataSource).queryForObject(sql, Object.class));
+        }
+    }
+}
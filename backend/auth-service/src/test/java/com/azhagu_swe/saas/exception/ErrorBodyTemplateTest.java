@@ -0,0 +1,74 @@
+package com.azhagu_swe.saas.exception;
+
+import com.azhagu_swe.saas.dto.response.ErrorResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ErrorBodyTemplateTest {
+
+    // Configured like Boot's mapper, which writes ErrorResponse on the regular path
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void rendersTheSameFieldsAsErrorResponse() throws Exception {
+        String message = "Refresh token has expired. \"Please\" sign in again.";
+        String path = "/v1/api/auth/refresh-token?q=\"x\"\\y";
+
+        JsonNode rendered = objectMapper.readTree(
+                ErrorBodyTemplate.of(HttpStatus.UNAUTHORIZED, message).render(path));
+        JsonNode expected = objectMapper.readTree(objectMapper.writeValueAsBytes(
+                new ErrorResponse(401, "Unauthorized", message, path)));
+
+        assertEquals(fieldNames(expected), fieldNames(rendered));
+        for (String field : List.of("status", "error", "message", "path")) {
+            assertEquals(expected.get(field), rendered.get(field), field);
+        }
+        assertTrue(rendered.get("timestamp").isTextual());
+        Instant.parse(rendered.get("timestamp").asText());
+    }
+
+    @Test
+    void epochMillisVariantWritesANumericTimestamp() throws Exception {
+        long before = System.currentTimeMillis();
+        JsonNode rendered = objectMapper.readTree(ErrorBodyTemplate
+                .withEpochMillis(HttpStatus.TOO_MANY_REQUESTS, "Rate limit exceeded. Try again in 5 seconds")
+                .render("/v1/api/auth/signin"));
+
+        assertTrue(rendered.get("timestamp").isNumber());
+        assertTrue(rendered.get("timestamp").asLong() >= before);
+        assertEquals(429, rendered.get("status").asInt());
+        assertEquals("Too Many Requests", rendered.get("error").asText());
+    }
+
+    @Test
+    void expectedExceptionsCarryNoStackTraceAndStayImmutable() {
+        InvalidTokenException exception = InvalidTokenException.expected("Refresh token has already been used.");
+
+        exception.addSuppressed(new IllegalStateException("ignored"));
+
+        assertTrue(exception.isExpected());
+        assertEquals(0, exception.getStackTrace().length);
+        assertEquals(0, exception.getSuppressed().length);
+        assertFalse(new InvalidTokenException("regular").isExpected());
+    }
+
+    private static List<String> fieldNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+}
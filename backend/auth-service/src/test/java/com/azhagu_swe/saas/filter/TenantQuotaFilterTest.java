@@ -0,0 +1,96 @@
+package com.azhagu_swe.saas.filter;
+
+import com.azhagu_swe.saas.metrics.AuthMetrics;
+import com.azhagu_swe.saas.model.entity.User;
+import com.azhagu_swe.saas.security.service.impl.UserDetailsImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TenantQuotaFilterTest {
+
+    private final AtomicInteger passed = new AtomicInteger();
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void quotaIsSharedByAllUsersOfATenant() throws Exception {
+        TenantQuotaFilter filter = filter(3, List.of());
+
+        assertEquals(200, request(filter, "acme"));
+        assertEquals(200, request(filter, "acme"));
+        assertEquals(200, request(filter, "acme"));
+        MockHttpServletResponse rejected = send(filter, "acme");
+
+        assertEquals(429, rejected.getStatus());
+        assertNotNull(rejected.getHeader("Retry-After"));
+        assertEquals(200, request(filter, "globex"), "other tenants have their own bucket");
+        assertEquals(4, passed.get());
+    }
+
+    @Test
+    void overridesRaiseLowerOrLiftTheLimit() throws Exception {
+        TenantQuotaFilter filter = filter(2, List.of("acme=1", " big-co = 0 ", ""));
+
+        assertEquals(200, request(filter, "acme"));
+        assertEquals(429, request(filter, "acme"));
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, request(filter, "big-co"));
+        }
+    }
+
+    @Test
+    void unauthenticatedRequestsAreLeftToTheClientLimits() throws Exception {
+        TenantQuotaFilter filter = filter(1, List.of());
+
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("POST", "/v1/api/auth/signin"), response,
+                    (req, res) -> passed.incrementAndGet());
+            assertEquals(200, response.getStatus());
+        }
+        assertEquals(3, passed.get());
+    }
+
+    @Test
+    void malformedOverrideFailsAtStartup() {
+        assertThrows(IllegalArgumentException.class, () -> filter(10, List.of("acme")));
+    }
+
+    private int request(TenantQuotaFilter filter, String tenantId) throws Exception {
+        return send(filter, tenantId).getStatus();
+    }
+
+    private MockHttpServletResponse send(TenantQuotaFilter filter, String tenantId) throws Exception {
+        User user = new User("Alice", "Example", "alice", "alice@example.com", "hash");
+        user.setId(UUID.randomUUID());
+        user.setTenantId(tenantId);
+        UserDetailsImpl principal = UserDetailsImpl.build(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/v1/api/users"), response,
+                (req, res) -> passed.incrementAndGet());
+        return response;
+    }
+
+    private static TenantQuotaFilter filter(int requestsPerMinute, List<String> overrides) {
+        return new TenantQuotaFilter(requestsPerMinute, overrides, new AuthMetrics(new SimpleMeterRegistry()));
+    }
+}
@@ -0,0 +1,143 @@
+package com.azhagu_swe.saas.model.repository;
+
+import com.azhagu_swe.saas.audit.AuditAction;
+import com.azhagu_swe.saas.audit.AuditEntityType;
+import com.azhagu_swe.saas.audit.AuditEvent;
+import com.azhagu_swe.saas.model.repository.AuditEventRepository.AuditRecord;
+import com.azhagu_swe.saas.model.repository.AuditEventRepository.Cursor;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs {@link AuditEventRepository} against a local Postgres database, in a
+ * throwaway schema holding the {@code audit_events} table of V6. Skipped when the
+ * database cannot be reached. Override the defaults with
+ * {@code -Dtest.datasource.primary-url=...}, {@code -Dtest.datasource.username=...}
+ * and {@code -Dtest.datasource.password=...}.
+ */
+class AuditEventRepositoryTest {
+
+    private static final String SCHEMA = "audit_events_test";
+    // Far enough back that no other test data lands in these months
+    private static final YearMonth MONTH = YearMonth.of(2001, 1);
+
+    private static DriverManagerDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+    private static AuditEventRepository repository;
+
+    @BeforeAll
+    static void migrate() {
+        dataSource = new DriverManagerDataSource(System.getProperty("test.datasource.primary-url",
+                "jdbc:postgresql://localhost:5432/auth_primary"),
+                System.getProperty("test.datasource.username", "postgres"),
+                System.getProperty("test.datasource.password", "postgres"));
+        Properties properties = new Properties();
+        properties.setProperty("currentSchema", SCHEMA);
+        dataSource.setConnectionProperties(properties);
+        assumeTrue(isReachable(), "local primary database not available");
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA " + SCHEMA);
+        // Any table makes Flyway baseline the schema at V5 instead of starting from V2
+        jdbcTemplate.execute("CREATE TABLE placeholder (id INT)");
+        Flyway.configure()
+                .dataSource(dataSource)
+                .schemas(SCHEMA)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("5")
+                .target("6")
+                .load()
+                .migrate();
+        repository = new AuditEventRepository(jdbcTemplate);
+    }
+
+    @AfterAll
+    static void dropSchema() {
+        if (jdbcTemplate != null) {
+            jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        }
+    }
+
+    @Test
+    void monthlyPartitionsAreCreatedOnceAndDroppedWithTheirRows() {
+        repository.createMonthlyPartition(MONTH);
+        repository.createMonthlyPartition(MONTH);
+        assertTrue(repository.findMonthlyPartitions().contains(MONTH));
+
+        repository.insertAll(List.of(event("partitioned", MONTH.atDay(15).atStartOfDay().toInstant(ZoneOffset.UTC))));
+        assertEquals("audit_events_y2001m01", jdbcTemplate.queryForObject(
+                "SELECT tableoid::regclass::text FROM audit_events WHERE entity_id = 'partitioned'", String.class));
+        assertThrows(DataAccessException.class,
+                () -> jdbcTemplate.update("DELETE FROM audit_events WHERE entity_id = 'partitioned'"),
+                "rows are append-only");
+
+        repository.dropMonthlyPartition(MONTH);
+        assertFalse(repository.findMonthlyPartitions().contains(MONTH));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM audit_events WHERE entity_id = 'partitioned'", Integer.class));
+    }
+
+    @Test
+    void cursorPagesThroughEventsWithEqualTimestamps() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        List<AuditEvent> events = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            // Pairs share a timestamp, so only the id tells them apart
+            events.add(event("paged", now.minusSeconds(i / 2)));
+        }
+        repository.insertAll(events);
+
+        List<Long> seen = new ArrayList<>();
+        Cursor cursor = null;
+        List<AuditRecord> page;
+        do {
+            page = repository.findHistory(AuditEntityType.USER, "paged", "acme", cursor, 2);
+            page.forEach(record -> seen.add(record.id()));
+            if (!page.isEmpty()) {
+                AuditRecord last = page.get(page.size() - 1);
+                cursor = new Cursor(last.occurredAt(), last.id());
+            }
+        } while (page.size() == 2);
+
+        assertEquals(5, seen.size());
+        assertEquals(5, seen.stream().distinct().count(), "no event repeated across pages");
+        assertTrue(repository.findHistory(AuditEntityType.USER, "paged", "globex", null, 10).isEmpty());
+        assertEquals(5, repository.findHistory(AuditEntityType.USER, "paged", null, null, 10).size());
+    }
+
+    private static AuditEvent event(String entityId, Instant occurredAt) {
+        return new AuditEvent(occurredAt, "acme", AuditEntityType.USER, entityId, AuditAction.UPDATE,
+                "admin@example.com", "changed: email");
+    }
+
+    private static boolean isReachable() {
+        try (Connection ignored = dataSource.getConnection()) {
+            return true;
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+}
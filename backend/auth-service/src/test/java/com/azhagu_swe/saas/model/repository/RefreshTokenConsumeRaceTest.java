@@ -0,0 +1,188 @@
+package com.azhagu_swe.saas.model.repository;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs {@link RefreshTokenRepository#CONSUME_TOKEN_SQL} from several connections
+ * against a local Postgres database, in a throwaway schema holding a
+ * tenant-partitioned {@code refresh_tokens} table. Skipped when the database
+ * cannot be reached. Override the defaults with
+ * {@code -Dtest.datasource.primary-url=...}, {@code -Dtest.datasource.username=...}
+ * and {@code -Dtest.datasource.password=...}.
+ */
+class RefreshTokenConsumeRaceTest {
+
+    private static final String SCHEMA = "refresh_token_race_test";
+    private static final String TENANT = "acme";
+    private static final String TOKEN = TENANT + ".presented-refresh-token";
+
+    private static DriverManagerDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+    private static NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID familyId = UUID.randomUUID();
+
+    @BeforeAll
+    static void createTable() {
+        dataSource = new DriverManagerDataSource(System.getProperty("test.datasource.primary-url",
+                "jdbc:postgresql://localhost:5432/auth_primary"),
+                System.getProperty("test.datasource.username", "postgres"),
+                System.getProperty("test.datasource.password", "postgres"));
+        Properties properties = new Properties();
+        properties.setProperty("currentSchema", SCHEMA);
+        dataSource.setConnectionProperties(properties);
+        assumeTrue(isReachable(), "local primary database not available");
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA " + SCHEMA);
+        // Same shape as the table after V5: hash-partitioned on tenant_id
+        jdbcTemplate.execute("CREATE TABLE " + SCHEMA + ".refresh_tokens ("
+                + "id BIGSERIAL, tenant_id VARCHAR(63) NOT NULL, token VARCHAR(255) NOT NULL, "
+                + "user_id UUID NOT NULL, family_id UUID, expiry_date TIMESTAMP(6) WITH TIME ZONE NOT NULL, "
+                + "used_at TIMESTAMP(6) WITH TIME ZONE, PRIMARY KEY (tenant_id, id)) PARTITION BY HASH (tenant_id)");
+        for (int i = 0; i < 2; i++) {
+            jdbcTemplate.execute("CREATE TABLE " + SCHEMA + ".refresh_tokens_p" + i + " PARTITION OF " + SCHEMA
+                    + ".refresh_tokens FOR VALUES WITH (MODULUS 2, REMAINDER " + i + ")");
+        }
+        jdbcTemplate.execute("CREATE UNIQUE INDEX ON " + SCHEMA + ".refresh_tokens (tenant_id, token)");
+    }
+
+    @AfterAll
+    static void dropTable() {
+        if (jdbcTemplate != null) {
+            jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        }
+    }
+
+    @BeforeEach
+    void insertToken() {
+        jdbcTemplate.update("TRUNCATE refresh_tokens");
+        jdbcTemplate.update("INSERT INTO refresh_tokens (tenant_id, token, user_id, family_id, expiry_date) "
+                + "VALUES (?, ?, ?, ?, ?)", TENANT, TOKEN, userId, familyId,
+                Timestamp.from(Instant.now().plusSeconds(3600)));
+    }
+
+    @Test
+    void parallelConsumesOfTheSameTokenReturnTheRowExactlyOnce() throws Exception {
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<Map<String, Object>>>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return consume(TENANT, TOKEN);
+                }));
+            }
+            start.countDown();
+
+            int consumed = 0;
+            for (Future<List<Map<String, Object>>> result : results) {
+                List<Map<String, Object>> rows = result.get(10, TimeUnit.SECONDS);
+                if (!rows.isEmpty()) {
+                    assertEquals(userId, rows.get(0).get("userId"));
+                    assertEquals(familyId, rows.get(0).get("familyId"));
+                    consumed++;
+                }
+            }
+            assertEquals(1, consumed);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertNotNull(jdbcTemplate.queryForObject("SELECT used_at FROM refresh_tokens WHERE token = ?",
+                Timestamp.class, TOKEN));
+    }
+
+    @Test
+    void consumeWaitingOnAnUncommittedConsumeGetsNothingOnceItCommits() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            List<Map<String, Object>> loser = transaction.execute(status -> {
+                assertEquals(1, consume(TENANT, TOKEN).size());
+                // Second request arrives while the first still holds the row lock
+                Future<List<Map<String, Object>>> waiting = executor.submit(() -> consume(TENANT, TOKEN));
+                awaitLockWaiter();
+                assertFalse(waiting.isDone(), "second consume should wait for the row lock");
+                return waiting;
+            }).get(10, TimeUnit.SECONDS);
+
+            // Postgres re-checks used_at IS NULL after the lock is released
+            assertTrue(loser.isEmpty());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void tokenIsOnlyConsumedInItsOwnTenant() {
+        assertTrue(consume("other-tenant", TOKEN).isEmpty());
+        assertEquals(1, consume(TENANT, TOKEN).size());
+    }
+
+    @Test
+    void expiredTokenIsNotConsumed() {
+        jdbcTemplate.update("UPDATE refresh_tokens SET expiry_date = ?", Timestamp.from(Instant.now().minusSeconds(1)));
+
+        assertTrue(consume(TENANT, TOKEN).isEmpty());
+    }
+
+    private static List<Map<String, Object>> consume(String tenantId, String token) {
+        return namedJdbcTemplate.queryForList(RefreshTokenRepository.CONSUME_TOKEN_SQL, new MapSqlParameterSource()
+                .addValue("tenantId", tenantId)
+                .addValue("token", token)
+                .addValue("now", Timestamp.from(Instant.now())));
+    }
+
+    private static void awaitLockWaiter() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (jdbcTemplate.queryForObject("SELECT count(*) FROM pg_stat_activity "
+                + "WHERE datname = current_database() AND wait_event_type = 'Lock'", Integer.class) == 0) {
+            assertTrue(System.nanoTime() < deadline, "second consume never blocked on the row lock");
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+
+    private static boolean isReachable() {
+        try (Connection ignored = dataSource.getConnection()) {
+            return true;
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+}
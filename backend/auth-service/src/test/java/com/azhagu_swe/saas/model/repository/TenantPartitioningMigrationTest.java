@@ -0,0 +1,176 @@
+package com.azhagu_swe.saas.model.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs the Flyway migrations against a local Postgres database, in a throwaway
+ * schema that starts with a minimal version of the tables V1 creates. Skipped when
+ * the database cannot be reached. Override the defaults with
+ * {@code -Dtest.datasource.primary-url=...}, {@code -Dtest.datasource.username=...}
+ * and {@code -Dtest.datasource.password=...}.
+ */
+class TenantPartitioningMigrationTest {
+
+    private static final String SCHEMA = "tenant_partitioning_test";
+    private static final long ROLE_USER = 1;
+    private static final long ROLE_ADMIN = 2;
+
+    private static final UUID LEGACY_USER = UUID.randomUUID();
+    private static final UUID DELETED_USER = UUID.randomUUID();
+
+    private static DriverManagerDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void migrate() {
+        dataSource = new DriverManagerDataSource(System.getProperty("test.datasource.primary-url",
+                "jdbc:postgresql://localhost:5432/auth_primary"),
+                System.getProperty("test.datasource.username", "postgres"),
+                System.getProperty("test.datasource.password", "postgres"));
+        Properties properties = new Properties();
+        properties.setProperty("currentSchema", SCHEMA);
+        dataSource.setConnectionProperties(properties);
+        assumeTrue(isReachable(), "local primary database not available");
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA " + SCHEMA);
+        // The columns the migrations touch, with V1's keys
+        jdbcTemplate.execute("CREATE TABLE users (id UUID PRIMARY KEY, email VARCHAR(100) NOT NULL UNIQUE, "
+                + "username VARCHAR(50) NOT NULL UNIQUE)");
+        jdbcTemplate.execute("CREATE TABLE roles (id BIGINT PRIMARY KEY, name VARCHAR(50) NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE user_roles (user_id UUID NOT NULL REFERENCES users (id), "
+                + "role_id BIGINT NOT NULL REFERENCES roles (id), PRIMARY KEY (user_id, role_id))");
+        for (String table : List.of("refresh_tokens", "password_reset_tokens")) {
+            jdbcTemplate.execute("CREATE TABLE " + table + " (id BIGSERIAL PRIMARY KEY, "
+                    + "token VARCHAR(255) NOT NULL UNIQUE, user_id UUID NOT NULL REFERENCES users (id), "
+                    + "expiry_date TIMESTAMP(6) WITH TIME ZONE NOT NULL)");
+        }
+        jdbcTemplate.update("INSERT INTO roles (id, name) VALUES (?, 'ROLE_USER'), (?, 'ROLE_ADMIN')",
+                ROLE_USER, ROLE_ADMIN);
+        insertUser(LEGACY_USER, null, "legacy@example.com");
+        jdbcTemplate.update("INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)", LEGACY_USER, ROLE_USER);
+        jdbcTemplate.update("INSERT INTO refresh_tokens (token, user_id, expiry_date) VALUES ('legacy', ?, now())",
+                LEGACY_USER);
+
+        flyway("6").migrate();
+        // Possible between V5 and V7, when user_roles had no foreign key
+        insertUser(DELETED_USER, "acme", "deleted@example.com");
+        jdbcTemplate.update("INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)", DELETED_USER, ROLE_USER);
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", DELETED_USER);
+
+        flyway(null).migrate();
+    }
+
+    @AfterAll
+    static void dropSchema() {
+        if (jdbcTemplate != null) {
+            jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        }
+    }
+
+    @Test
+    void existingRowsMoveToTheDefaultTenant() {
+        assertEquals("default", jdbcTemplate.queryForObject(
+                "SELECT tenant_id FROM users WHERE id = ?", String.class, LEGACY_USER));
+        assertEquals("default", jdbcTemplate.queryForObject(
+                "SELECT tenant_id FROM refresh_tokens WHERE token = 'legacy'", String.class));
+        assertEquals("default", jdbcTemplate.queryForObject(
+                "SELECT tenant_id FROM user_roles WHERE user_id = ?", String.class, LEGACY_USER));
+        assertEquals(0, count("SELECT count(*) FROM user_roles WHERE user_id = ?", DELETED_USER),
+                "assignments of users deleted before V7 are removed");
+    }
+
+    @Test
+    void emailIsUniquePerTenantAndRowsLandInTheSharedPartitions() {
+        UUID acme = UUID.randomUUID();
+        insertUser(acme, "acme", "shared@example.com");
+        insertUser(UUID.randomUUID(), "globex", "shared@example.com");
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> insertUser(UUID.randomUUID(), "acme", "shared@example.com"));
+        assertTrue(jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM users WHERE id = ?",
+                String.class, acme).startsWith("users_shared_"));
+    }
+
+    @Test
+    void roleAssignmentsTakeTheTenantOfTheirUser() {
+        UUID viaHibernate = UUID.randomUUID();
+        UUID viaBulkGrant = UUID.randomUUID();
+        insertUser(viaHibernate, "acme", "hibernate@example.com");
+        insertUser(viaBulkGrant, "acme", "bulk@example.com");
+
+        // Hibernate writes only the join columns
+        jdbcTemplate.update("INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)", viaHibernate, ROLE_USER);
+        new UserRoleAssignmentRepository(jdbcTemplate).grant(List.of(viaBulkGrant), List.of(ROLE_ADMIN));
+
+        assertEquals(2, count("SELECT count(*) FROM user_roles WHERE tenant_id = 'acme' AND user_id IN (?, ?)",
+                viaHibernate, viaBulkGrant));
+    }
+
+    @Test
+    void roleAssignmentsNeedTheirUserAndAreDeletedWithIt() {
+        UUID userId = UUID.randomUUID();
+        insertUser(userId, "acme", "cascade@example.com");
+        jdbcTemplate.update("INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)", userId, ROLE_USER);
+
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)", UUID.randomUUID(), ROLE_USER));
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "INSERT INTO user_roles (tenant_id, user_id, role_id) VALUES ('globex', ?, ?)", userId, ROLE_ADMIN),
+                "the tenant must match the user's");
+
+        jdbcTemplate.update("DELETE FROM users WHERE tenant_id = 'acme' AND id = ?", userId);
+        assertEquals(0, count("SELECT count(*) FROM user_roles WHERE user_id = ?", userId));
+    }
+
+    private static void insertUser(UUID id, String tenantId, String email) {
+        if (tenantId == null) {
+            jdbcTemplate.update("INSERT INTO users (id, email, username) VALUES (?, ?, ?)", id, email, id.toString());
+        } else {
+            jdbcTemplate.update("INSERT INTO users (id, tenant_id, email, username) VALUES (?, ?, ?, ?)",
+                    id, tenantId, email, id.toString());
+        }
+    }
+
+    private static int count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, args);
+    }
+
+    private static Flyway flyway(String target) {
+        var configuration = Flyway.configure()
+                .dataSource(dataSource)
+                .schemas(SCHEMA)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true);
+        if (target != null) {
+            configuration.target(target);
+        }
+        return configuration.load();
+    }
+
+    private static boolean isReachable() {
+        try (Connection ignored = dataSource.getConnection()) {
+            return true;
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+}
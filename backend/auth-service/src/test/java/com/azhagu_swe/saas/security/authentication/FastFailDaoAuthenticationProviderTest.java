@@ -0,0 +1,103 @@
+package com.azhagu_swe.saas.security.authentication;
+
+import com.azhagu_swe.saas.model.entity.User;
+import com.azhagu_swe.saas.model.repository.UserRepository;
+import com.azhagu_swe.saas.security.service.impl.UserDetailsServiceImpl;
+import com.azhagu_swe.saas.security.tenant.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FastFailDaoAuthenticationProviderTest {
+
+    private static final String EMAIL = "alice@example.com";
+    private static final String PASSWORD = "correct horse battery staple";
+
+    private final AtomicInteger hashChecks = new AtomicInteger();
+    private FastFailDaoAuthenticationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        PasswordEncoder bcrypt = new BCryptPasswordEncoder(4);
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setEmail(EMAIL);
+        user.setPassword(bcrypt.encode(PASSWORD));
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByTenantIdAndEmail(anyString(), anyString())).thenReturn(Optional.empty());
+        when(userRepository.findByTenantIdAndEmail("acme", EMAIL)).thenReturn(Optional.of(user));
+
+        provider = new FastFailDaoAuthenticationProvider();
+        provider.setUserDetailsService(new UserDetailsServiceImpl(userRepository));
+        provider.setPasswordEncoder(new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return bcrypt.encode(rawPassword);
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                hashChecks.incrementAndGet();
+                return bcrypt.matches(rawPassword, encodedPassword);
+            }
+        });
+        TenantContext.setTenantId("acme");
+    }
+
+    @AfterEach
+    void clearTenant() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void correctPasswordAuthenticates() {
+        Authentication result = provider.authenticate(token(EMAIL, PASSWORD));
+
+        assertTrue(result.isAuthenticated());
+        assertEquals(EMAIL, result.getName());
+    }
+
+    @Test
+    void unknownEmailAndWrongPasswordFailAlikeWithoutStackTraces() {
+        BadCredentialsException unknown = assertThrows(BadCredentialsException.class,
+                () -> provider.authenticate(token("mallory@example.com", PASSWORD)));
+        BadCredentialsException wrong = assertThrows(BadCredentialsException.class,
+                () -> provider.authenticate(token(EMAIL, "wrong")));
+
+        assertEquals(wrong.getClass(), unknown.getClass());
+        assertEquals(wrong.getMessage(), unknown.getMessage());
+        assertEquals(0, unknown.getStackTrace().length);
+        assertEquals(0, wrong.getStackTrace().length);
+        // The unknown email still paid for a hash comparison (timing-attack mitigation)
+        assertEquals(2, hashChecks.get());
+    }
+
+    @Test
+    void unknownEmailSurfacesWhenNotHidden() {
+        provider.setHideUserNotFoundExceptions(false);
+
+        assertThrows(UsernameNotFoundException.class,
+                () -> provider.authenticate(token("mallory@example.com", PASSWORD)));
+    }
+
+    private static UsernamePasswordAuthenticationToken token(String email, String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated(email, password);
+    }
+}
@@ -0,0 +1,105 @@
+package com.azhagu_swe.saas.security.authentication;
+
+import com.azhagu_swe.saas.model.entity.User;
+import com.azhagu_swe.saas.security.service.impl.UserDetailsImpl;
+import com.azhagu_swe.saas.security.tenant.TenantContext;
+import com.azhagu_swe.saas.service.LoginAttemptService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LockoutAwareUserDetailsServiceTest {
+
+    private static final String EMAIL = "alice@example.com";
+
+    private final Set<String> lockedKeys = new HashSet<>();
+    private final AtomicInteger hashChecks = new AtomicInteger();
+    private FastFailDaoAuthenticationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setEmail(EMAIL);
+        user.setTenantId("acme");
+        user.setPassword("secret");
+
+        provider = new FastFailDaoAuthenticationProvider();
+        provider.setUserDetailsService(new LockoutAwareUserDetailsService(
+                email -> UserDetailsImpl.build(user), new LoginAttemptService() {
+                    @Override
+                    public Duration lockedFor(String tenantId, String email) {
+                        return lockedKeys.contains(tenantId + ":" + email) ? Duration.ofMinutes(1) : Duration.ZERO;
+                    }
+
+                    @Override
+                    public void recordFailure(String tenantId, String email) {
+                    }
+
+                    @Override
+                    public void recordSuccess(String tenantId, String email) {
+                    }
+                }));
+        provider.setPasswordEncoder(new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                hashChecks.incrementAndGet();
+                return rawPassword.toString().equals(encodedPassword);
+            }
+        });
+        TenantContext.setTenantId("acme");
+    }
+
+    @AfterEach
+    void clearTenant() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void lockedAccountFailsThePreAuthenticationCheckBeforeThePasswordIsCompared() {
+        lockedKeys.add("acme:" + EMAIL);
+
+        assertThrows(LockedException.class, () -> provider.authenticate(token()));
+        assertEquals(0, hashChecks.get());
+    }
+
+    @Test
+    void lockoutOfAnotherTenantDoesNotApply() {
+        lockedKeys.add("other:" + EMAIL);
+
+        assertTrue(provider.authenticate(token()).isAuthenticated());
+    }
+
+    @Test
+    void lockedCopyLeavesTheOriginalUnlocked() {
+        User user = new User();
+        user.setEmail(EMAIL);
+        UserDetailsImpl details = UserDetailsImpl.build(user);
+
+        assertFalse(details.lockedOut().isAccountNonLocked());
+        assertTrue(details.isAccountNonLocked());
+    }
+
+    private static UsernamePasswordAuthenticationToken token() {
+        return UsernamePasswordAuthenticationToken.unauthenticated(EMAIL, "secret");
+    }
+}
@@ -0,0 +1,68 @@
+package com.azhagu_swe.saas.security.jwt;
+
+import com.azhagu_swe.saas.security.tenant.TenantContext;
+import com.azhagu_swe.saas.service.impl.InMemoryTokenRevocationService;
+import com.azhagu_swe.saas.util.InternalIdentityHeaders;
+import com.azhagu_swe.saas.util.InternalIdentityVerifier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class GatewayIdentityAuthenticationFilterTest {
+
+    private final InMemoryTokenRevocationService revocations =
+            new InMemoryTokenRevocationService(Duration.ofMinutes(15).toMillis());
+    private final GatewayIdentityAuthenticationFilter filter = new GatewayIdentityAuthenticationFilter(
+            InternalIdentityHeaders.verifier(InternalIdentityHeaders.SECRET), revocations);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+        TenantContext.clear();
+    }
+
+    @Test
+    void validHeaderAuthenticatesTheRequest() throws Exception {
+        long now = System.currentTimeMillis() / 1000;
+
+        Authentication authentication = send(InternalIdentityHeaders.sign(3, now + 30, "acme", now - 5));
+
+        assertNotNull(authentication);
+        assertEquals("alice@example.com", authentication.getName());
+    }
+
+    @Test
+    void headerOfARevokedTokenIsNotTrusted() throws Exception {
+        long now = System.currentTimeMillis() / 1000;
+        String beforeRevocation = InternalIdentityHeaders.sign(3, now + 30, "acme", now - 5);
+        String afterRevocation = InternalIdentityHeaders.sign(3, now + 30, "acme", now + 2);
+        String withoutIssueTime = InternalIdentityHeaders.sign(2, now + 30, "acme", 0);
+
+        revocations.revokeAll(InternalIdentityHeaders.USER_ID);
+
+        assertNull(send(beforeRevocation), "left to JwtAuthenticationFilter, which rejects the JWT");
+        assertNull(send(withoutIssueTime));
+        assertNotNull(send(afterRevocation), "tokens issued after the revocation still work");
+    }
+
+    private Authentication send(String header) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/api/users/me");
+        request.addHeader(InternalIdentityVerifier.HEADER_NAME, header);
+        AtomicReference<Authentication> seen = new AtomicReference<>();
+
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> seen.set(SecurityContextHolder.getContext().getAuthentication()));
+        return seen.get();
+    }
+}
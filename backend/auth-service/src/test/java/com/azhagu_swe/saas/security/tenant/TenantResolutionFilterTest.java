@@ -0,0 +1,60 @@
+package com.azhagu_swe.saas.security.tenant;
+
+import com.azhagu_swe.saas.constants.AppConstants;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TenantResolutionFilterTest {
+
+    private final TenantResolutionFilter filter = new TenantResolutionFilter();
+
+    @AfterEach
+    void clearContext() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void headerSetsTheTenantForTheRequestOnly() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/v1/api/auth/signin");
+        request.addHeader(TenantContext.HEADER_NAME, "acme");
+        AtomicReference<String> seen = new AtomicReference<>();
+
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> seen.set(TenantContext.getTenantId()));
+
+        assertEquals("acme", seen.get());
+        assertEquals(AppConstants.DEFAULT_TENANT, TenantContext.getTenantId(), "cleared after the request");
+    }
+
+    @Test
+    void missingHeaderActsForTheDefaultTenant() throws Exception {
+        AtomicReference<String> seen = new AtomicReference<>();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/v1/api/auth/signin"), new MockHttpServletResponse(),
+                (req, res) -> seen.set(TenantContext.getTenantId()));
+
+        assertEquals(AppConstants.DEFAULT_TENANT, seen.get());
+    }
+
+    @Test
+    void invalidHeaderIsRejectedBeforeTheChain() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/v1/api/auth/signin");
+        request.addHeader(TenantContext.HEADER_NAME, "Acme Corp");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<String> seen = new AtomicReference<>();
+
+        filter.doFilter(request, response, (req, res) -> seen.set(TenantContext.getTenantId()));
+
+        assertEquals(400, response.getStatus());
+        assertTrue(response.getContentAsString().contains(TenantContext.HEADER_NAME));
+        assertNull(seen.get(), "the chain is not invoked");
+    }
+}
@@ -0,0 +1,27 @@
+package com.azhagu_swe.saas.security.tenant;
+
+import com.azhagu_swe.saas.constants.AppConstants;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TenantTokensTest {
+
+    @Test
+    void issuedTokenNamesItsTenant() {
+        String token = TenantTokens.issue("acme", "c2VjcmV0");
+
+        assertEquals("acme.c2VjcmV0", token);
+        assertEquals("acme", TenantTokens.tenantOf(token));
+    }
+
+    @Test
+    void unprefixedOrInvalidTokensBelongToTheDefaultTenant() {
+        assertEquals(AppConstants.DEFAULT_TENANT, TenantTokens.tenantOf("legacy-token-without-prefix"));
+        assertEquals(AppConstants.DEFAULT_TENANT, TenantTokens.tenantOf(".starts-with-separator"));
+        assertEquals(AppConstants.DEFAULT_TENANT, TenantTokens.tenantOf("ACME.upper-case-is-not-a-tenant"));
+        assertEquals(AppConstants.DEFAULT_TENANT, TenantTokens.tenantOf("../path.traversal"));
+        assertEquals(AppConstants.DEFAULT_TENANT, TenantTokens.tenantOf(""));
+        assertEquals(AppConstants.DEFAULT_TENANT, TenantTokens.tenantOf(null));
+    }
+}
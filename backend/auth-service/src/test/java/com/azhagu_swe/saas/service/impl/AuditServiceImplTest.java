@@ -0,0 +1,106 @@
+package com.azhagu_swe.saas.service.impl;
+
+import com.azhagu_swe.saas.audit.AuditEntityType;
+import com.azhagu_swe.saas.dto.response.AuditHistoryResponse;
+import com.azhagu_swe.saas.exception.BadRequestException;
+import com.azhagu_swe.saas.model.repository.AuditEventRepository;
+import com.azhagu_swe.saas.model.repository.AuditEventRepository.AuditRecord;
+import com.azhagu_swe.saas.model.repository.AuditEventRepository.Cursor;
+import com.azhagu_swe.saas.security.tenant.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuditServiceImplTest {
+
+    private static final UUID USER_ID = UUID.fromString("3f2504e0-4f89-41d3-9a0c-0305e82c3301");
+
+    private AuditEventRepository repository;
+    private AuditServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(AuditEventRepository.class);
+        service = new AuditServiceImpl(repository);
+        TenantContext.setTenantId("acme");
+    }
+
+    @AfterEach
+    void clearContext() {
+        TenantContext.clear();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void nextCursorContinuesAfterTheLastEventOfThePage() {
+        // Sub-millisecond precision, as stored in the timestamptz column
+        Instant newest = Instant.parse("2025-03-01T10:00:00.123456Z");
+        Instant oldest = Instant.parse("2025-03-01T09:00:00.000001Z");
+        when(repository.findHistory(eq(AuditEntityType.USER), eq(USER_ID.toString()), eq("acme"), isNull(), eq(3)))
+                .thenReturn(List.of(record(12, newest), record(11, oldest), record(10, oldest.minusSeconds(1))));
+
+        AuditHistoryResponse page = service.getUserHistory(USER_ID, null, 2);
+
+        assertEquals(2, page.getEvents().size());
+        service.getUserHistory(USER_ID, page.getNextCursor(), 2);
+        verify(repository).findHistory(AuditEntityType.USER, USER_ID.toString(), "acme", new Cursor(oldest, 11), 3);
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        when(repository.findHistory(any(), any(), any(), any(), anyInt()))
+                .thenReturn(new ArrayList<>(List.of(record(1, Instant.parse("2025-03-01T10:00:00Z")))));
+
+        assertNull(service.getUserHistory(USER_ID, null, 50).getNextCursor());
+    }
+
+    @Test
+    void limitIsClampedAndMalformedCursorsAreRejected() {
+        service.getUserHistory(USER_ID, null, 10_000);
+        verify(repository).findHistory(AuditEntityType.USER, USER_ID.toString(), "acme", null,
+                AuditServiceImpl.MAX_LIMIT + 1);
+
+        assertThrows(BadRequestException.class, () -> service.getUserHistory(USER_ID, "not-a-cursor", 50));
+        assertThrows(BadRequestException.class, () -> service.getUserHistory(USER_ID, "12345", 50));
+    }
+
+    @Test
+    void roleHistoryIsScopedToTheCallersTenantUnlessSuperAdmin() {
+        authenticate("ROLE_ADMIN", "PERMISSION_SYSTEM_AUDIT_READ");
+        service.getRoleHistory(7L, null, 50);
+        verify(repository).findHistory(AuditEntityType.ROLE, "7", "acme", null, 51);
+
+        authenticate("ROLE_SUPERADMIN");
+        service.getRoleHistory(8L, null, 50);
+        verify(repository).findHistory(AuditEntityType.ROLE, "8", null, null, 51);
+    }
+
+    private static void authenticate(String... authorities) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "admin@example.com", null, AuthorityUtils.createAuthorityList(authorities)));
+    }
+
+    private static AuditRecord record(long id, Instant occurredAt) {
+        return new AuditRecord(id, occurredAt, "acme", "USER", USER_ID.toString(), "UPDATE", "admin@example.com",
+                "changed: email");
+    }
+}
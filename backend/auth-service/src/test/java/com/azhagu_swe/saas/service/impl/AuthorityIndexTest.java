@@ -0,0 +1,69 @@
+package com.azhagu_swe.saas.service.impl;
+
+import com.azhagu_swe.saas.model.repository.RoleRepository.RoleGrant;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuthorityIndexTest {
+
+    @Test
+    void userHoldsRoleNamesAndPermissionsOfTheirRolesOnly() {
+        AuthorityIndex index = AuthorityIndex.build(7, List.of(
+                grant(1L, "AccountAdmin", "PERMISSION_USER_READ"),
+                grant(1L, "AccountAdmin", "PERMISSION_USER_WRITE"),
+                grant(2L, "StandardUser", "PERMISSION_USER_READ"),
+                grant(3L, "Empty", null)));
+
+        long[] standard = index.authoritiesOf(List.of(2L));
+        assertTrue(index.allows(standard, "ROLE_STANDARDUSER"));
+        assertTrue(index.allows(standard, "PERMISSION_USER_READ"));
+        assertFalse(index.allows(standard, "PERMISSION_USER_WRITE"));
+        assertFalse(index.allows(standard, "ROLE_ACCOUNTADMIN"));
+        assertFalse(index.allows(standard, "PERMISSION_UNKNOWN"));
+
+        long[] both = index.authoritiesOf(List.of(2L, 3L, 1L, 99L));
+        assertTrue(index.allows(both, "PERMISSION_USER_WRITE"));
+        assertTrue(index.allows(both, "ROLE_EMPTY"));
+        assertEquals(7, index.version());
+    }
+
+    @Test
+    void authoritiesBeyondTheFirstWordAreTracked() {
+        List<RoleGrant> grants = new ArrayList<>();
+        for (int i = 0; i < 130; i++) {
+            grants.add(grant(i % 2 == 0 ? 1L : 2L, i % 2 == 0 ? "Even" : "Odd", "PERMISSION_" + i));
+        }
+        AuthorityIndex index = AuthorityIndex.build(1, grants);
+
+        long[] even = index.authoritiesOf(Set.of(1L));
+        for (int i = 0; i < 130; i++) {
+            assertEquals(i % 2 == 0, index.allows(even, "PERMISSION_" + i), "PERMISSION_" + i);
+        }
+    }
+
+    private static RoleGrant grant(Long roleId, String roleName, String permissionName) {
+        return new RoleGrant() {
+            @Override
+            public Long getRoleId() {
+                return roleId;
+            }
+
+            @Override
+            public String getRoleName() {
+                return roleName;
+            }
+
+            @Override
+            public String getPermissionName() {
+                return permissionName;
+            }
+        };
+    }
+}
@@ -0,0 +1,85 @@
+package com.azhagu_swe.saas.service.impl;
+
+import com.azhagu_swe.saas.config.SerializationConfig;
+import com.azhagu_swe.saas.model.repository.CatalogueVersionRepository;
+import com.azhagu_swe.saas.service.CatalogueSnapshotService.CatalogueSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyShort;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogueSnapshotServiceImplTest {
+
+    private static final Map<String, String> BODY = Map.of("name", "ROLE_USER");
+
+    private final AtomicInteger renders = new AtomicInteger();
+    private CatalogueSnapshotServiceImpl service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        CatalogueVersionRepository repository = mock(CatalogueVersionRepository.class);
+        when(repository.findVersionById(anyShort())).thenReturn(Optional.of(7L));
+        ObjectProvider<Jackson2ObjectMapperBuilder> builders = mock(ObjectProvider.class);
+        when(builders.getObject()).thenAnswer(invocation -> new Jackson2ObjectMapperBuilder());
+
+        service = new CatalogueSnapshotServiceImpl(repository, new ObjectMapper(), builders, 16);
+    }
+
+    @Test
+    void wildcardsAndMissingAcceptGetJson() {
+        assertEquals(MediaType.APPLICATION_JSON, snapshot(null).contentType());
+        assertEquals(MediaType.APPLICATION_JSON, snapshot("*/*").contentType());
+        assertEquals(MediaType.APPLICATION_JSON,
+                snapshot("text/html,application/xml;q=0.9,*/*;q=0.8").contentType());
+        assertEquals(1, renders.get(), "all three share the JSON snapshot");
+    }
+
+    @Test
+    void binaryTypesAreSerializedWithTheMatchingMapper() throws Exception {
+        CatalogueSnapshot cbor = snapshot("application/cbor");
+        CatalogueSnapshot smile = snapshot("application/json;q=0.5, application/x-jackson-smile");
+        CatalogueSnapshot json = snapshot("application/json");
+
+        assertEquals(MediaType.APPLICATION_CBOR, cbor.contentType());
+        assertEquals(SerializationConfig.APPLICATION_SMILE, smile.contentType());
+        assertEquals(BODY, new ObjectMapper(new CBORFactory()).readValue(cbor.body(), Map.class));
+        assertNotEquals(json.etag(), cbor.etag(), "each representation has its own ETag");
+        assertEquals(3, renders.get());
+
+        assertSame(cbor, snapshot("application/cbor"));
+        ResponseEntity<byte[]> response = cbor.toResponseEntity(null);
+        assertEquals(MediaType.APPLICATION_CBOR, response.getHeaders().getContentType());
+        assertEquals(304, cbor.toResponseEntity(cbor.etag()).getStatusCode().value());
+    }
+
+    @Test
+    void unsupportedAcceptIsNotAcceptable() {
+        assertSame(CatalogueSnapshot.NOT_ACCEPTABLE, snapshot("application/xml"));
+        assertSame(CatalogueSnapshot.NOT_ACCEPTABLE, snapshot("application/json;q=0"));
+        assertEquals(406, snapshot("text/csv").toResponseEntity(null).getStatusCode().value());
+        assertEquals(0, renders.get());
+    }
+
+    private CatalogueSnapshot snapshot(String accept) {
+        return service.snapshot("roles:all", accept, () -> {
+            renders.incrementAndGet();
+            return BODY;
+        });
+    }
+}
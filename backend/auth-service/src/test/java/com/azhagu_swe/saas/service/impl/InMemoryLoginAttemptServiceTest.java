@@ -0,0 +1,117 @@
+package com.azhagu_swe.saas.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryLoginAttemptServiceTest {
+
+    private static final String TENANT = "acme";
+    private static final String EMAIL = "alice@example.com";
+
+    private final MutableClock clock = new MutableClock();
+    private InMemoryLoginAttemptService service;
+
+    @BeforeEach
+    void setUp() {
+        LoginLockoutPolicy policy = new LoginLockoutPolicy(true, 3, Duration.ofSeconds(5),
+                Duration.ofSeconds(60), Duration.ofHours(1));
+        service = new InMemoryLoginAttemptService(policy, 100, clock);
+    }
+
+    @Test
+    void locksAfterFreeAttemptsAndDoublesEachFailure() {
+        fail(3);
+        assertFalse(service.isLocked(TENANT, EMAIL));
+
+        fail(1);
+        assertEquals(Duration.ofSeconds(5), service.lockedFor(TENANT, EMAIL));
+        fail(1);
+        assertEquals(Duration.ofSeconds(10), service.lockedFor(TENANT, EMAIL));
+        fail(3);
+        assertEquals(Duration.ofSeconds(60), service.lockedFor(TENANT, EMAIL), "capped at max-lockout");
+
+        clock.advance(Duration.ofSeconds(60));
+        assertFalse(service.isLocked(TENANT, EMAIL));
+        fail(1);
+        assertEquals(Duration.ofSeconds(60), service.lockedFor(TENANT, EMAIL), "count survives an expired lock");
+    }
+
+    @Test
+    void emailIsMatchedCaseInsensitively() {
+        fail(4);
+
+        assertTrue(service.isLocked(TENANT, "  ALICE@example.com "));
+    }
+
+    @Test
+    void tenantsAreCountedSeparately() {
+        fail(4);
+
+        assertFalse(service.isLocked("globex", EMAIL));
+        service.recordSuccess("globex", EMAIL);
+        assertTrue(service.isLocked(TENANT, EMAIL));
+    }
+
+    @Test
+    void successAndIdleTimeResetTheCount() {
+        fail(4);
+        service.recordSuccess(TENANT, EMAIL);
+        assertFalse(service.isLocked(TENANT, EMAIL));
+
+        fail(3);
+        clock.advance(Duration.ofHours(1));
+        fail(1);
+        assertFalse(service.isLocked(TENANT, EMAIL), "failures before the reset window are forgotten");
+    }
+
+    @Test
+    void overCapacityEvictsOnlyUnlockedAccounts() {
+        fail(4);
+        for (int i = 0; i < 150; i++) {
+            service.recordFailure(TENANT, "spray" + i + "@example.com");
+        }
+
+        assertTrue(service.isLocked(TENANT, EMAIL));
+        assertTrue(service.trackedAccounts() <= 100);
+    }
+
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            service.recordFailure(TENANT, EMAIL);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
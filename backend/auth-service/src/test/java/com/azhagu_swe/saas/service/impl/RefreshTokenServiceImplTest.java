@@ -0,0 +1,125 @@
+package com.azhagu_swe.saas.service.impl;
+
+import com.azhagu_swe.saas.constants.AppConstants;
+import com.azhagu_swe.saas.exception.InvalidTokenException;
+import com.azhagu_swe.saas.model.entity.RefreshToken;
+import com.azhagu_swe.saas.model.entity.User;
+import com.azhagu_swe.saas.model.repository.RefreshTokenRepository;
+import com.azhagu_swe.saas.model.repository.RefreshTokenRepository.ConsumedRefreshToken;
+import com.azhagu_swe.saas.model.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenServiceImplTest {
+
+    private static final String PRESENTED_TOKEN = "presented-refresh-token";
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID familyId = UUID.randomUUID();
+
+    private RefreshTokenRepository refreshTokenRepository;
+    private RefreshTokenServiceImpl refreshTokenService;
+
+    // Stands in for the refresh_tokens row: the conditional UPDATE only succeeds
+    // while used_at is still null.
+    private final AtomicReference<Instant> usedAt = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository = mock(RefreshTokenRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+
+        User user = new User();
+        user.setId(userId);
+        when(userRepository.getReferenceById(userId)).thenReturn(user);
+
+        when(refreshTokenRepository.consumeToken(eq(AppConstants.DEFAULT_TENANT), eq(PRESENTED_TOKEN),
+                any(Instant.class)))
+                .thenAnswer(invocation -> usedAt.compareAndSet(null, invocation.getArgument(2))
+                        ? Optional.of(consumed())
+                        : Optional.empty());
+        when(refreshTokenRepository.findByTenantIdAndToken(AppConstants.DEFAULT_TENANT, PRESENTED_TOKEN)).thenAnswer(invocation -> {
+            RefreshToken row = new RefreshToken(user, PRESENTED_TOKEN, Instant.now().plusSeconds(3600));
+            row.setFamilyId(familyId);
+            row.setUsedAt(usedAt.get());
+            return Optional.of(row);
+        });
+        when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        refreshTokenService = new RefreshTokenServiceImpl(refreshTokenRepository, userRepository);
+        ReflectionTestUtils.setField(refreshTokenService, "refreshTokenDurationMs", 60_000L);
+        ReflectionTestUtils.setField(refreshTokenService, "refreshReuseGraceMs", 10_000L);
+    }
+
+    @Test
+    void secondRotationInsideGraceWindowIsRejectedWithoutRevokingFamily() {
+        RefreshToken rotated = refreshTokenService.rotateRefreshToken(PRESENTED_TOKEN);
+        assertEquals(familyId, rotated.getFamilyId());
+
+        // The loser of a concurrent refresh sees the row already consumed; the
+        // race itself is covered against Postgres in RefreshTokenConsumeRaceTest.
+        assertThrows(InvalidTokenException.class, () -> refreshTokenService.rotateRefreshToken(PRESENTED_TOKEN));
+
+        verify(refreshTokenRepository, times(1)).save(any(RefreshToken.class));
+        verify(refreshTokenRepository, never()).deleteByTenantIdAndFamilyId(anyString(), any(UUID.class));
+    }
+
+    @Test
+    void rotationDeletesEarlierConsumedTokensOfTheFamily() {
+        refreshTokenService.rotateRefreshToken(PRESENTED_TOKEN);
+
+        // The presented token itself stays, so replaying it is still detected
+        verify(refreshTokenRepository).deleteConsumedByTenantIdAndFamilyIdExcept(AppConstants.DEFAULT_TENANT,
+                familyId, PRESENTED_TOKEN);
+    }
+
+    @Test
+    void replayOutsideGraceWindowRevokesFamily() {
+        usedAt.set(Instant.now().minusSeconds(60));
+
+        assertThrows(InvalidTokenException.class, () -> refreshTokenService.rotateRefreshToken(PRESENTED_TOKEN));
+
+        verify(refreshTokenRepository).deleteByTenantIdAndFamilyId(AppConstants.DEFAULT_TENANT, familyId);
+        verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+    }
+
+    @Test
+    void unknownTokenIsRejected() {
+        when(refreshTokenRepository.consumeToken(anyString(), eq("unknown"), any(Instant.class)))
+                .thenReturn(Optional.empty());
+        when(refreshTokenRepository.findByTenantIdAndToken(anyString(), anyString())).thenReturn(Optional.empty());
+
+        assertThrows(InvalidTokenException.class, () -> refreshTokenService.rotateRefreshToken("unknown"));
+    }
+
+    private ConsumedRefreshToken consumed() {
+        return new ConsumedRefreshToken() {
+            @Override
+            public UUID getUserId() {
+                return userId;
+            }
+
+            @Override
+            public UUID getFamilyId() {
+                return familyId;
+            }
+        };
+    }
+}
@@ -0,0 +1,119 @@
+package com.azhagu_swe.saas.service.impl;
+
+import com.azhagu_swe.saas.dto.response.TokenIntrospectionResponse;
+import com.azhagu_swe.saas.metrics.AuthMetrics;
+import com.azhagu_swe.saas.util.JwtUtils;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenIntrospectionServiceImplTest {
+
+    private final SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS512);
+    private final UUID userId = UUID.randomUUID();
+    private InMemoryTokenRevocationService revocations;
+    private TokenIntrospectionServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        AuthMetrics metrics = new AuthMetrics(new SimpleMeterRegistry());
+        revocations = new InMemoryTokenRevocationService(Duration.ofMinutes(15).toMillis());
+        service = new TokenIntrospectionServiceImpl(new JwtUtils(key, metrics), revocations, metrics, 100);
+    }
+
+    @Test
+    void reportsEachTokenInRequestOrder() {
+        String valid = token(userId, Instant.now().minusSeconds(5), Instant.now().plusSeconds(600));
+        String expired = token(userId, Instant.now().minusSeconds(900), Instant.now().minusSeconds(1));
+        String forged = token(userId, Instant.now(), Instant.now().plusSeconds(600),
+                Keys.secretKeyFor(SignatureAlgorithm.HS512));
+
+        List<TokenIntrospectionResponse> results = service.introspect(
+                List.of(valid, "not-a-jwt", expired, forged, valid));
+
+        assertEquals(5, results.size());
+        assertTrue(results.get(0).isActive());
+        assertEquals("alice@example.com", results.get(0).getSubject());
+        assertEquals(userId.toString(), results.get(0).getUserId());
+        assertEquals("default", results.get(0).getTenantId());
+        assertEquals(List.of("ROLE_USER", "PERMISSION_USER_READ"), results.get(0).getAuthorities());
+        assertFalse(results.get(1).isActive());
+        assertFalse(results.get(2).isActive());
+        assertFalse(results.get(3).isActive());
+        assertNull(results.get(3).getSubject(), "inactive tokens reveal nothing");
+        assertTrue(results.get(4).isActive(), "cached result matches the verified one");
+    }
+
+    @Test
+    void revocationAppliesToCachedTokensIssuedBeforeTheCutoff() {
+        String before = token(userId, Instant.now().minusSeconds(5), Instant.now().plusSeconds(600));
+        String after = token(userId, Instant.now().plusSeconds(2), Instant.now().plusSeconds(600));
+        String otherUser = token(UUID.randomUUID(), Instant.now().minusSeconds(5), Instant.now().plusSeconds(600));
+        assertTrue(service.introspect(List.of(before)).get(0).isActive());
+
+        revocations.revokeAll(userId);
+
+        List<TokenIntrospectionResponse> results = service.introspect(List.of(before, after, otherUser));
+        assertFalse(results.get(0).isActive());
+        assertTrue(results.get(1).isActive());
+        assertTrue(results.get(2).isActive());
+    }
+
+    @Test
+    void tokenIssuedInTheSecondOfTheRevocationIsRevoked() {
+        Instant second = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        String sameSecond = token(userId, second, second.plusSeconds(600));
+        String nextSecond = token(userId, second.plusSeconds(1), second.plusSeconds(600));
+
+        // Issue times are whole seconds, so the token may have been issued just before the revocation
+        withRevocationClock(Clock.fixed(second.plusMillis(400), ZoneOffset.UTC)).revokeAll(userId);
+        List<TokenIntrospectionResponse> results = service.introspect(List.of(sameSecond, nextSecond));
+        assertFalse(results.get(0).isActive());
+        assertTrue(results.get(1).isActive());
+
+        // A revocation exactly on a second boundary comes before every token issued in that second
+        withRevocationClock(Clock.fixed(second, ZoneOffset.UTC)).revokeAll(userId);
+        assertTrue(service.introspect(List.of(sameSecond)).get(0).isActive());
+    }
+
+    private InMemoryTokenRevocationService withRevocationClock(Clock clock) {
+        AuthMetrics metrics = new AuthMetrics(new SimpleMeterRegistry());
+        revocations = new InMemoryTokenRevocationService(Duration.ofMinutes(15).toMillis(), clock);
+        service = new TokenIntrospectionServiceImpl(new JwtUtils(key, metrics), revocations, metrics, 100);
+        return revocations;
+    }
+
+    private String token(UUID user, Instant issuedAt, Instant expiresAt) {
+        return token(user, issuedAt, expiresAt, key);
+    }
+
+    private static String token(UUID user, Instant issuedAt, Instant expiresAt, SecretKey signingKey) {
+        return Jwts.builder()
+                .setSubject("alice@example.com")
+                .claim("userId", user.toString())
+                .claim(JwtUtils.TENANT_ID_CLAIM, "default")
+                .claim("roles", List.of("ROLE_USER", "PERMISSION_USER_READ"))
+                .setIssuedAt(Date.from(issuedAt))
+                .setExpiration(Date.from(expiresAt))
+                .signWith(signingKey, SignatureAlgorithm.HS512)
+                .compact();
+    }
+}
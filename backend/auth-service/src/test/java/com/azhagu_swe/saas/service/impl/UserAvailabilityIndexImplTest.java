@@ -0,0 +1,141 @@
+package com.azhagu_swe.saas.service.impl;
+
+import com.azhagu_swe.saas.model.repository.UserRepository;
+import com.azhagu_swe.saas.model.repository.UserRepository.UserIdentifiers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserAvailabilityIndexImplTest {
+
+    private static final String TENANT = "acme";
+
+    private UserRepository userRepository;
+    private UserAvailabilityIndexImpl index;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(userRepository.streamAllIdentifiers()).thenAnswer(invocation -> Stream.of(
+                identifiers(TENANT, "alice", "alice@example.com"),
+                identifiers("other", "bob", "bob@example.com")));
+
+        // A very low target keeps the "definitely free" assertions below deterministic
+        index = new UserAvailabilityIndexImpl(userRepository, transactionManager, 10_000, 1e-6);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void answersMaybeUntilWarmedUp() {
+        assertFalse(index.isReady());
+        assertTrue(index.mightContainUsername(TENANT, "anyone"));
+        assertTrue(index.mightContainEmail(TENANT, "anyone@example.com"));
+    }
+
+    @Test
+    void scannedUsersAreFoundPerTenant() {
+        index.rebuild();
+
+        assertTrue(index.isReady());
+        assertTrue(index.mightContainUsername(TENANT, "alice"));
+        assertTrue(index.mightContainEmail(TENANT, " Alice@Example.com "), "values are normalised");
+        assertFalse(index.mightContainUsername("other", "alice"), "taken in one tenant, free in another");
+        assertFalse(index.mightContainUsername(TENANT, "carol"));
+    }
+
+    @Test
+    void recordedUsersAreNeverReportedFree() {
+        index.rebuild();
+        for (int i = 0; i < 5_000; i++) {
+            index.recordUser(TENANT, "user-" + i, "user-" + i + "@example.com");
+        }
+
+        for (int i = 0; i < 5_000; i++) {
+            assertTrue(index.mightContainUsername(TENANT, "user-" + i));
+            assertTrue(index.mightContainEmail(TENANT, "user-" + i + "@example.com"));
+        }
+    }
+
+    @Test
+    void recordInsideTransactionAppliesAfterCommit() {
+        index.rebuild();
+        TransactionSynchronizationManager.initSynchronization();
+
+        index.recordUser(TENANT, "carol", "carol@example.com");
+        assertFalse(index.mightContainUsername(TENANT, "carol"), "not visible before commit");
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertTrue(index.mightContainUsername(TENANT, "carol"));
+        assertTrue(index.mightContainEmail(TENANT, "carol@example.com"));
+    }
+
+    @Test
+    void recordDuringRebuildLandsInTheNewFilter() {
+        index.rebuild();
+        // Carol commits after the scan started but before it reached her row's position,
+        // so only the pending filter can carry her into the next generation.
+        when(userRepository.streamAllIdentifiers()).thenAnswer(invocation -> {
+            index.recordUser(TENANT, "carol", "carol@example.com");
+            return Stream.of(identifiers(TENANT, "alice", "alice@example.com"));
+        });
+
+        index.rebuild();
+
+        assertTrue(index.mightContainUsername(TENANT, "carol"));
+        assertTrue(index.mightContainEmail(TENANT, "carol@example.com"));
+        assertFalse(index.mightContainUsername("other", "bob"), "rebuild sheds users no longer scanned");
+    }
+
+    @Test
+    void failedRebuildKeepsServingThePreviousFilter() {
+        index.rebuild();
+        when(userRepository.streamAllIdentifiers()).thenThrow(new IllegalStateException("database down"));
+
+        index.rebuild();
+
+        assertTrue(index.isReady());
+        assertTrue(index.mightContainUsername(TENANT, "alice"));
+    }
+
+    private static UserIdentifiers identifiers(String tenantId, String username, String email) {
+        return new UserIdentifiers() {
+            @Override
+            public String getTenantId() {
+                return tenantId;
+            }
+
+            @Override
+            public String getUsername() {
+                return username;
+            }
+
+            @Override
+            public String getEmail() {
+                return email;
+            }
+        };
+    }
+}
@@ -0,0 +1,82 @@
+package com.azhagu_swe.saas.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    private static final int EXPECTED_INSERTIONS = 100_000;
+
+    @Test
+    void everyValuePutIsReportedAsPresent() {
+        BloomFilter filter = new BloomFilter(EXPECTED_INSERTIONS, 0.01);
+        for (int i = 0; i < EXPECTED_INSERTIONS; i++) {
+            filter.put("default:user-" + i + "@example.com");
+        }
+
+        int missing = 0;
+        for (int i = 0; i < EXPECTED_INSERTIONS; i++) {
+            if (!filter.mightContain("default:user-" + i + "@example.com")) {
+                missing++;
+            }
+        }
+        assertEquals(0, missing);
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTargetAtConfiguredSize() {
+        for (double target : new double[] { 0.01, 0.001 }) {
+            BloomFilter filter = new BloomFilter(EXPECTED_INSERTIONS, target);
+            for (int i = 0; i < EXPECTED_INSERTIONS; i++) {
+                filter.put("default:taken-" + i);
+            }
+
+            int probes = 200_000;
+            int falsePositives = 0;
+            for (int i = 0; i < probes; i++) {
+                if (filter.mightContain("default:free-" + i)) {
+                    falsePositives++;
+                }
+            }
+            double measured = (double) falsePositives / probes;
+            // Loose bound: the point is catching a broken hash, not the third decimal
+            assertTrue(measured < target * 1.5, "measured " + measured + " for target " + target);
+        }
+    }
+
+    @Test
+    void concurrentPutsAreNotLost() throws Exception {
+        BloomFilter filter = new BloomFilter(EXPECTED_INSERTIONS, 0.01);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                writers.add(executor.submit(() -> {
+                    for (int i = offset; i < EXPECTED_INSERTIONS; i += threads) {
+                        filter.put("default:user-" + i);
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int i = 0; i < EXPECTED_INSERTIONS; i++) {
+            assertTrue(filter.mightContain("default:user-" + i), "lost default:user-" + i);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.azhagu_swe.saas.util;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Builds identity headers the way the gateway's {@code InternalIdentitySigner}
+ * does, for tests that need headers other than the pinned gateway vectors.
+ */
+public final class InternalIdentityHeaders {
+
+    public static final String SECRET = "test-identity-secret";
+    public static final List<String> CATALOGUE = List.of("ROLE_USER", "ROLE_ADMIN", "PERMISSION_USER_READ");
+    public static final UUID USER_ID = UUID.fromString("3f2504e0-4f89-41d3-9a0c-0305e82c3301");
+
+    private InternalIdentityHeaders() {
+    }
+
+    /**
+     * Signs a header for {@link #USER_ID} with ROLE_ADMIN as the only authority.
+     * A null tenant omits the tenant fields (version 1) and only version 3 and
+     * later carry {@code issuedAt}.
+     */
+    public static String sign(int version, long expiresAt, String tenantId, long issuedAt) {
+        byte[] subject = "alice@example.com".getBytes(StandardCharsets.UTF_8);
+        byte[] tenant = tenantId == null ? new byte[0] : tenantId.getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer payload = ByteBuffer.allocate(1 + 16 + 8 + 2 + 8 + 2 + subject.length
+                + (tenantId == null ? 0 : 1 + tenant.length) + (version >= 3 ? 8 : 0));
+        payload.put((byte) version)
+                .putLong(USER_ID.getMostSignificantBits())
+                .putLong(USER_ID.getLeastSignificantBits())
+                .putLong(expiresAt)
+                .putShort((short) 1)
+                .putLong(1L << 1)
+                .putShort((short) subject.length).put(subject);
+        if (tenantId != null) {
+            payload.put((byte) tenant.length).put(tenant);
+        }
+        if (version >= 3) {
+            payload.putLong(issuedAt);
+        }
+        byte[] bytes = payload.array();
+        return encode(bytes) + "." + encode(hmac(bytes));
+    }
+
+    public static String encode(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    public static InternalIdentityVerifier verifier(String secret) {
+        try {
+            return new InternalIdentityVerifier(secret, CATALOGUE);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] hmac(byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return mac.doFinal(payload);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
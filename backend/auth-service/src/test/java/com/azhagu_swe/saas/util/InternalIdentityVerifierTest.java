@@ -0,0 +1,93 @@
+package com.azhagu_swe.saas.util;
+
+import com.azhagu_swe.saas.constants.AppConstants;
+import com.azhagu_swe.saas.util.InternalIdentityVerifier.InternalIdentity;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Base64;
+import java.util.List;
+
+import static com.azhagu_swe.saas.util.InternalIdentityHeaders.SECRET;
+import static com.azhagu_swe.saas.util.InternalIdentityHeaders.USER_ID;
+import static com.azhagu_swe.saas.util.InternalIdentityHeaders.encode;
+import static com.azhagu_swe.saas.util.InternalIdentityHeaders.sign;
+import static com.azhagu_swe.saas.util.InternalIdentityHeaders.verifier;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InternalIdentityVerifierTest {
+
+    // Produced by the gateway's InternalIdentitySigner; pinned by InternalIdentitySignerTests there
+    private static final String GATEWAY_VECTOR = "Az8lBOBPiUHTmgwDBegsMwEAAAAA9IZXAAABAAAAAAAAAAUAEWFsaWNlQGV4YW1wbGUuY29tBGFjbWUAAAAAZ3SFgA"
+            + ".A3HNgamQYp7hTE3FgGIz037dn3vvfs9mcgYVo_XmyVE";
+    // The same identity as signed by gateways from before issuedAt was added
+    private static final String GATEWAY_V2_VECTOR = "Aj8lBOBPiUHTmgwDBegsMwEAAAAA9IZXAAABAAAAAAAAAAUAEWFsaWNlQGV4YW1wbGUuY29tBGFjbWU"
+            + ".HaycSDV5AUqoiQP-72VJioSdf2NHB-ngpv0GcZglQac";
+
+    private final InternalIdentityVerifier verifier = verifier(SECRET);
+
+    @Test
+    void decodesHeaderSignedByTheGateway() {
+        InternalIdentity identity = verifier.verify(GATEWAY_VECTOR).orElseThrow();
+
+        assertEquals(USER_ID, identity.userId());
+        assertEquals("alice@example.com", identity.subject());
+        assertEquals("acme", identity.tenantId());
+        assertEquals(List.of("ROLE_USER", "PERMISSION_USER_READ"),
+                identity.authorities().stream().map(GrantedAuthority::getAuthority).toList());
+        assertEquals(1735689600L, identity.issuedAt());
+    }
+
+    @Test
+    void versionTwoHeaderHasNoIssueTime() {
+        InternalIdentity identity = verifier.verify(GATEWAY_V2_VECTOR).orElseThrow();
+
+        assertEquals(USER_ID, identity.userId());
+        assertEquals("acme", identity.tenantId());
+        assertEquals(0, identity.issuedAt());
+        assertEquals(0, verifier.verify(sign(2, System.currentTimeMillis() / 1000 + 30, "acme", 0))
+                .orElseThrow().issuedAt());
+    }
+
+    @Test
+    void rejectsTamperedPayloadOrSignature() {
+        int separator = GATEWAY_VECTOR.indexOf('.');
+        byte[] payload = Base64.getUrlDecoder().decode(GATEWAY_VECTOR.substring(0, separator));
+        payload[payload.length - 1] ^= 1; // Lowest byte of issuedAt
+        String tamperedPayload = encode(payload) + GATEWAY_VECTOR.substring(separator);
+        byte[] signature = Base64.getUrlDecoder().decode(GATEWAY_VECTOR.substring(separator + 1));
+        signature[0] ^= 1;
+        String tamperedSignature = GATEWAY_VECTOR.substring(0, separator + 1) + encode(signature);
+
+        assertTrue(verifier.verify(tamperedPayload).isEmpty());
+        assertTrue(verifier.verify(tamperedSignature).isEmpty());
+        assertTrue(verifier(SECRET + "-other").verify(GATEWAY_VECTOR).isEmpty(), "different secret");
+    }
+
+    @Test
+    void rejectsExpiredHeader() {
+        long now = System.currentTimeMillis() / 1000;
+
+        assertTrue(verifier.verify(sign(3, now + 30, "acme", now)).isPresent());
+        assertTrue(verifier.verify(sign(3, now - 1, "acme", now)).isEmpty());
+    }
+
+    @Test
+    void versionOneHeaderBelongsToTheDefaultTenant() {
+        InternalIdentity identity = verifier.verify(sign(1, System.currentTimeMillis() / 1000 + 30, null, 0))
+                .orElseThrow();
+
+        assertEquals(USER_ID, identity.userId());
+        assertEquals(AppConstants.DEFAULT_TENANT, identity.tenantId());
+        assertEquals(0, identity.issuedAt());
+    }
+
+    @Test
+    void rejectsMalformedOrUnsupportedHeaders() {
+        assertTrue(verifier.verify(null).isEmpty());
+        assertTrue(verifier.verify("no-separator").isEmpty());
+        assertTrue(verifier.verify(sign(9, System.currentTimeMillis() / 1000 + 30, "acme", 0)).isEmpty());
+        assertTrue(verifier(" ").verify(GATEWAY_VECTOR).isEmpty(), "disabled without a secret");
+    }
+}
@@ -0,0 +1,40 @@
+package com.azhagu_swe.saas.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MembershipDiffTest {
+
+    private record Member(long id, String label) {
+    }
+
+    @Test
+    void touchesOnlyTheMembersThatDiffer() {
+        Member kept = new Member(1, "kept");
+        List<Member> current = new ArrayList<>(List.of(kept, new Member(2, "dropped")));
+
+        MembershipDiff.Result result = MembershipDiff.apply(current,
+                Set.of(new Member(1, "kept, other instance"), new Member(3, "added")), Member::id);
+
+        assertEquals(new MembershipDiff.Result(1, 1), result);
+        assertEquals(Set.of(1L, 3L), Set.copyOf(current.stream().map(Member::id).toList()));
+        assertSame(kept, current.get(0), "an unchanged member keeps its managed instance");
+    }
+
+    @Test
+    void sameMembersIsANoOp() {
+        List<Member> current = new ArrayList<>(List.of(new Member(1, "a"), new Member(2, "b")));
+
+        MembershipDiff.Result result = MembershipDiff.apply(current, List.copyOf(current), Member::id);
+
+        assertTrue(result.isEmpty());
+        assertEquals(2, current.size());
+    }
+}
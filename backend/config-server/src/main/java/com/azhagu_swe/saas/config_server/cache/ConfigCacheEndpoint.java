@@ -0,0 +1,37 @@
+package com.azhagu_swe.saas.config_server.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code /actuator/configcache}: GET shows the cache size, DELETE purges it (e.g.
+ * from a repository webhook when the poll interval is too slow).
+ */
+@Component
+@Endpoint(id = "configcache")
+public class ConfigCacheEndpoint {
+
+	private final ConfigResponseCache cache;
+
+	public ConfigCacheEndpoint(ConfigResponseCache cache) {
+		this.cache = cache;
+	}
+
+	@ReadOperation
+	public Map<String, Object> status() {
+		return Map.of(
+				"enabled", cache.isEnabled(),
+				"entries", cache.size(),
+				"generation", cache.generation());
+	}
+
+	@DeleteOperation
+	public Map<String, Object> purge() {
+		cache.invalidateAll("purged via actuator");
+		return status();
+	}
+}
@@ -0,0 +1,107 @@
+package com.azhagu_swe.saas.config_server.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serialized config responses, one per request key (application, profile, label,
+ * plus the Accept header and query string that select the representation).
+ * <p>
+ * Entries are dropped together whenever the backing repository changes
+ * ({@link #invalidateAll}), and individually after {@code app.config-cache.max-age-seconds}
+ * as a backstop. A generation counter stops a response that was rendered from the
+ * old commit from being stored after an invalidation it raced with.
+ */
+@Component
+public class ConfigResponseCache {
+
+	private static final Logger log = LoggerFactory.getLogger(ConfigResponseCache.class);
+
+	public record CachedResponse(byte[] body, String contentType, String etag, long storedAtNanos) {
+	}
+
+	private final ConcurrentMap<String, CachedResponse> entries = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, ReentrantLock> locks = new ConcurrentHashMap<>();
+	private final AtomicLong generation = new AtomicLong();
+	private final boolean enabled;
+	private final long maxAgeNanos;
+
+	public ConfigResponseCache(
+			@Value("${app.config-cache.enabled:true}") boolean enabled,
+			@Value("${app.config-cache.max-age-seconds:600}") long maxAgeSeconds) {
+		this.enabled = enabled;
+		this.maxAgeNanos = maxAgeSeconds > 0 ? TimeUnit.SECONDS.toNanos(maxAgeSeconds) : Long.MAX_VALUE;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public CachedResponse get(String key) {
+		CachedResponse cached = entries.get(key);
+		if (cached != null && System.nanoTime() - cached.storedAtNanos() > maxAgeNanos) {
+			entries.remove(key, cached);
+			return null;
+		}
+		return cached;
+	}
+
+	/**
+	 * Per-key lock, so concurrent misses for the same key render it once while the
+	 * others wait for the result.
+	 */
+	public ReentrantLock lockFor(String key) {
+		return locks.computeIfAbsent(key, k -> new ReentrantLock());
+	}
+
+	public long generation() {
+		return generation.get();
+	}
+
+	/**
+	 * Stores a rendered response unless the cache was invalidated after
+	 * {@code renderedAtGeneration}. Returns the entry either way so it can be served.
+	 */
+	public CachedResponse put(String key, byte[] body, String contentType, long renderedAtGeneration) {
+		CachedResponse response = new CachedResponse(body, contentType, etag(body), System.nanoTime());
+		if (generation.get() == renderedAtGeneration) {
+			entries.put(key, response);
+			// Re-check: an invalidation between the test and the put must still win
+			if (generation.get() != renderedAtGeneration) {
+				entries.remove(key, response);
+			}
+		}
+		return response;
+	}
+
+	public void invalidateAll(String reason) {
+		generation.incrementAndGet();
+		int dropped = entries.size();
+		entries.clear();
+		log.info("Config response cache invalidated ({}), {} entries dropped", reason, dropped);
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	private static String etag(byte[] body) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+			return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+}
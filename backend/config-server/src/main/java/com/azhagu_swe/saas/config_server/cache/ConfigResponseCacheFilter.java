@@ -0,0 +1,114 @@
+package com.azhagu_swe.saas.config_server.cache;
+
+import com.azhagu_swe.saas.config_server.cache.ConfigResponseCache.CachedResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serves config fetches ({@code /{application}/{profile}[/{label}]} and the file
+ * variants) from {@link ConfigResponseCache}, so a replica boot or a client
+ * {@code /actuator/refresh} does not reach the Git backend unless the repository
+ * changed. Responses carry a strong ETag and {@code If-None-Match} is answered
+ * with 304.
+ */
+@Component
+public class ConfigResponseCacheFilter extends OncePerRequestFilter {
+
+	private static final List<String> UNCACHED_PREFIXES = List.of(
+			"/actuator", "/encrypt", "/decrypt", "/key", "/monitor", "/error");
+
+	private final ConfigResponseCache cache;
+
+	public ConfigResponseCacheFilter(ConfigResponseCache cache) {
+		this.cache = cache;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		if (!cache.isEnabled() || !HttpMethod.GET.matches(request.getMethod())) {
+			return true;
+		}
+		String path = request.getRequestURI().substring(request.getContextPath().length());
+		return UNCACHED_PREFIXES.stream().anyMatch(path::startsWith);
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		String key = cacheKey(request);
+		CachedResponse cached = cache.get(key);
+		if (cached == null) {
+			ReentrantLock lock = cache.lockFor(key);
+			lock.lock();
+			try {
+				cached = cache.get(key);
+				if (cached == null) {
+					long generation = cache.generation();
+					ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+					chain.doFilter(request, wrapper);
+					if (wrapper.getStatus() != HttpServletResponse.SC_OK) {
+						// Errors and not-found labels are never cached
+						wrapper.copyBodyToResponse();
+						return;
+					}
+					cached = cache.put(key, wrapper.getContentAsByteArray(), wrapper.getContentType(), generation);
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+		write(cached, request, response);
+	}
+
+	private static void write(CachedResponse cached, HttpServletRequest request, HttpServletResponse response)
+			throws IOException {
+		response.setHeader(HttpHeaders.ETAG, cached.etag());
+		// Clients may keep a copy but must revalidate; a 304 costs no repository access
+		response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+		if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), cached.etag())) {
+			response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			return;
+		}
+		response.setStatus(HttpServletResponse.SC_OK);
+		if (cached.contentType() != null) {
+			response.setContentType(cached.contentType());
+		}
+		response.setContentLength(cached.body().length);
+		response.getOutputStream().write(cached.body());
+	}
+
+	private static boolean matches(String ifNoneMatch, String etag) {
+		if (ifNoneMatch == null) {
+			return false;
+		}
+		for (String candidate : ifNoneMatch.split(",")) {
+			String tag = candidate.trim();
+			if (tag.startsWith("W/")) {
+				tag = tag.substring(2);
+			}
+			if (tag.equals("*") || tag.equals(etag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String cacheKey(HttpServletRequest request) {
+		String query = request.getQueryString();
+		String accept = request.getHeader(HttpHeaders.ACCEPT);
+		return request.getRequestURI()
+				+ (query != null ? "?" + query : "")
+				+ "|" + (accept != null ? accept : "");
+	}
+}
@@ -0,0 +1,80 @@
+package com.azhagu_swe.saas.config_server.cache;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.transport.UsernamePasswordCredentialsProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.stream.Collectors;
+
+/**
+ * Polls the remote config repository's branch and tag SHAs with {@code git ls-remote}
+ * (a single round trip, no fetch) and invalidates {@link ConfigResponseCache} when
+ * any of them moves. The Git backend then pulls once on the next cache miss, instead
+ * of on every client request.
+ */
+@Component
+@Profile("!native")
+@ConditionalOnProperty(name = "spring.cloud.config.server.git.uri")
+public class GitHeadWatcher {
+
+	private static final Logger log = LoggerFactory.getLogger(GitHeadWatcher.class);
+
+	private final ConfigResponseCache cache;
+	private final String uri;
+	private final String username;
+	private final String password;
+	private volatile String lastFingerprint;
+
+	public GitHeadWatcher(ConfigResponseCache cache,
+			@Value("${spring.cloud.config.server.git.uri}") String uri,
+			@Value("${spring.cloud.config.server.git.username:}") String username,
+			@Value("${spring.cloud.config.server.git.password:}") String password) {
+		this.cache = cache;
+		this.uri = uri;
+		this.username = username;
+		this.password = password;
+	}
+
+	@Scheduled(initialDelayString = "${app.config-cache.poll-interval-ms:15000}",
+			fixedDelayString = "${app.config-cache.poll-interval-ms:15000}")
+	public void poll() {
+		String fingerprint;
+		try {
+			fingerprint = remoteFingerprint();
+		} catch (GitAPIException | RuntimeException e) {
+			// Keep serving the cache; max-age bounds how stale it can get
+			log.warn("Could not list remote refs of {}: {}", uri, e.getMessage());
+			return;
+		}
+		String previous = lastFingerprint;
+		lastFingerprint = fingerprint;
+		if (previous != null && !previous.equals(fingerprint)) {
+			cache.invalidateAll("remote refs changed");
+		}
+	}
+
+	private String remoteFingerprint() throws GitAPIException {
+		var lsRemote = Git.lsRemoteRepository()
+				.setRemote(uri)
+				.setHeads(true)
+				.setTags(true);
+		if (!username.isBlank()) {
+			lsRemote.setCredentialsProvider(new UsernamePasswordCredentialsProvider(username, password));
+		}
+		Collection<Ref> refs = lsRemote.call();
+		return refs.stream()
+				.sorted(Comparator.comparing(Ref::getName))
+				.map(ref -> ref.getName() + "=" + ref.getObjectId().name())
+				.collect(Collectors.joining(","));
+	}
+}
@@ -2,8 +2,10 @@ package com.azhagu_swe.saas.config_server;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
 @SpringBootTest
+@ActiveProfiles("native")
 class ConfigServerApplicationTests {
 
 	@Test
@@ -0,0 +1,78 @@
+package com.azhagu_swe.saas.config_server.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("native")
+class ConfigResponseCacheFilterTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ConfigResponseCache cache;
+
+	@BeforeEach
+	void clearCache() {
+		cache.invalidateAll("test setup");
+	}
+
+	@Test
+	void cachesPerTupleAndAnswersConditionalRequestsWith304() throws Exception {
+		MvcResult first = mockMvc.perform(get("/auth-service/default"))
+				.andExpect(status().isOk())
+				.andExpect(header().exists(HttpHeaders.ETAG))
+				.andReturn();
+		String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(first.getResponse().getContentAsString()).contains("jwtExpirationMs");
+		assertThat(cache.size()).isEqualTo(1);
+
+		mockMvc.perform(get("/auth-service/default"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, etag))
+				.andExpect(content().bytes(first.getResponse().getContentAsByteArray()));
+
+		mockMvc.perform(get("/auth-service/default").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andExpect(content().bytes(new byte[0]));
+
+		// A different profile is a different tuple
+		mockMvc.perform(get("/auth-service/dev")).andExpect(status().isOk());
+		assertThat(cache.size()).isEqualTo(2);
+	}
+
+	@Test
+	void invalidationForcesAFreshRender() throws Exception {
+		mockMvc.perform(get("/auth-service/default")).andExpect(status().isOk());
+		long before = cache.generation();
+
+		cache.invalidateAll("repository changed");
+
+		assertThat(cache.size()).isZero();
+		assertThat(cache.generation()).isGreaterThan(before);
+		mockMvc.perform(get("/auth-service/default").header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+				.andExpect(status().isOk());
+		assertThat(cache.size()).isEqualTo(1);
+	}
+
+	@Test
+	void actuatorAndEncryptionEndpointsAreNotCached() throws Exception {
+		mockMvc.perform(get("/actuator/health"));
+		assertThat(cache.size()).isZero();
+	}
+}
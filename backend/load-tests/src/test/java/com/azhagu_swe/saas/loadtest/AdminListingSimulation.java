@@ -0,0 +1,56 @@
+package com.azhagu_swe.saas.loadtest;
+
+import io.gatling.javaapi.core.ScenarioBuilder;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static io.gatling.javaapi.core.CoreDsl.atOnceUsers;
+import static io.gatling.javaapi.core.CoreDsl.during;
+import static io.gatling.javaapi.core.CoreDsl.exec;
+import static io.gatling.javaapi.core.CoreDsl.global;
+import static io.gatling.javaapi.core.CoreDsl.scenario;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+/**
+ * Admin listing of a very large user table: a handful of admins page through
+ * {@code /v1/api/users/all}, mostly near the start but with deep pages mixed in,
+ * which is where offset pagination gets expensive.
+ * <p>
+ * Knobs: {@code loadtest.admin.concurrency} (default 5), {@code loadtest.admin.pageSize} (50),
+ * {@code loadtest.admin.durationSeconds} (60).
+ */
+public class AdminListingSimulation extends BackendSimulation {
+
+    private final int concurrency = LoadTestSettings.intProperty("loadtest.admin.concurrency", 5);
+    private final int pageSize = LoadTestSettings.intProperty("loadtest.admin.pageSize", 50);
+    private final Duration duration = LoadTestSettings.secondsProperty("loadtest.admin.durationSeconds", 60);
+    private final int lastPage = Math.max(0, LoadTestSettings.intProperty("loadtest.seedUsers", 100_000) / pageSize - 1);
+
+    private final ScenarioBuilder adminListing = scenario("Admin listing")
+            .exec(session -> session.set("email", Seeder.ADMIN_EMAIL).set("password", Seeder.PASSWORD))
+            .exec(signIn("admin sign in"))
+            .exec(during(duration).on(
+                    exec(session -> session.set("page", nextPage()))
+                            .exec(http("list users")
+                                    .get("/v1/api/users/all")
+                                    .queryParam("page", "#{page}")
+                                    .queryParam("size", pageSize)
+                                    .queryParam("sort", "createdAt,desc")
+                                    .header("Authorization", "Bearer #{accessToken}")
+                                    .check(status().is(200)))
+                            .pause(Duration.ofMillis(200), Duration.ofMillis(1000))));
+
+    {
+        setUp(adminListing.injectOpen(atOnceUsers(concurrency)))
+                .protocols(httpProtocol)
+                .assertions(global().failedRequests().percent().lt(1.0));
+    }
+
+    private int nextPage() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // 80% in the first 20 pages, 20% anywhere in the table
+        return random.nextInt(10) < 8 ? random.nextInt(Math.min(20, lastPage + 1)) : random.nextInt(lastPage + 1);
+    }
+}
@@ -0,0 +1,78 @@
+package com.azhagu_swe.saas.loadtest;
+
+import io.gatling.javaapi.core.ScenarioBuilder;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+import static io.gatling.javaapi.core.CoreDsl.constantUsersPerSec;
+import static io.gatling.javaapi.core.CoreDsl.exec;
+import static io.gatling.javaapi.core.CoreDsl.feed;
+import static io.gatling.javaapi.core.CoreDsl.global;
+import static io.gatling.javaapi.core.CoreDsl.rampUsersPerSec;
+import static io.gatling.javaapi.core.CoreDsl.repeat;
+import static io.gatling.javaapi.core.CoreDsl.scenario;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+/**
+ * Availability-check typing bursts: sign-up forms check the username on every
+ * keystroke after the third, roughly 80-200 ms apart, then check the email once.
+ * About a third of the names start like a seeded user so both the "maybe taken"
+ * and the "definitely free" paths are exercised.
+ * <p>
+ * Knobs: {@code loadtest.typing.formsPerSec} (default 20), {@code loadtest.typing.rampSeconds}
+ * (10), {@code loadtest.typing.durationSeconds} (60).
+ */
+public class AvailabilityTypingSimulation extends BackendSimulation {
+
+    private static final int MIN_PREFIX = 3;
+
+    private final int formsPerSec = LoadTestSettings.intProperty("loadtest.typing.formsPerSec", 20);
+    private final Duration ramp = LoadTestSettings.secondsProperty("loadtest.typing.rampSeconds", 10);
+    private final Duration duration = LoadTestSettings.secondsProperty("loadtest.typing.durationSeconds", 60);
+
+    private final ScenarioBuilder typingBursts = scenario("Availability typing")
+            .exec(feed(typedNames()))
+            .exec(repeat(session -> session.getString("username").length() - MIN_PREFIX + 1, "i").on(
+                    exec(session -> session.set("prefix",
+                            session.getString("username").substring(0, MIN_PREFIX + session.getInt("i"))))
+                            .exec(http("check username")
+                                    .get("/v1/api/auth/check-username")
+                                    .queryParam("username", "#{prefix}")
+                                    .check(status().is(200)))
+                            .pause(Duration.ofMillis(80), Duration.ofMillis(200))))
+            .exec(http("check email")
+                    .get("/v1/api/auth/check-email")
+                    .queryParam("email", "#{username}@example.com")
+                    .check(status().is(200)));
+
+    {
+        setUp(typingBursts.injectOpen(
+                rampUsersPerSec(1).to(formsPerSec).during(ramp),
+                constantUsersPerSec(formsPerSec).during(duration)))
+                .protocols(httpProtocol)
+                .assertions(global().failedRequests().percent().lt(1.0));
+    }
+
+    private static Iterator<Map<String, Object>> typedNames() {
+        return Stream.generate(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            String name = random.nextInt(3) == 0
+                    ? "loaduser" + random.nextInt(1, 100_000)
+                    : randomLetters(random, random.nextInt(6, 13));
+            return Map.<String, Object>of("username", name);
+        }).iterator();
+    }
+
+    private static String randomLetters(ThreadLocalRandom random, int length) {
+        StringBuilder name = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            name.append((char) ('a' + random.nextInt(26)));
+        }
+        return name.toString();
+    }
+}
@@ -0,0 +1,61 @@
+package com.azhagu_swe.saas.loadtest;
+
+import io.gatling.javaapi.core.ChainBuilder;
+import io.gatling.javaapi.core.Simulation;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+import static io.gatling.javaapi.core.CoreDsl.StringBody;
+import static io.gatling.javaapi.core.CoreDsl.exec;
+import static io.gatling.javaapi.core.CoreDsl.jmesPath;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+/**
+ * Base class for the scenarios: owns the backend lifecycle and the HTTP protocol,
+ * and provides the shared sign-in step and credential feeder.
+ */
+public abstract class BackendSimulation extends Simulation {
+
+    protected final LocalBackend backend = LocalBackend.acquire();
+
+    protected final HttpProtocolBuilder httpProtocol = http
+            .baseUrl(backend.baseUrl())
+            .acceptHeader("application/json")
+            .contentTypeHeader("application/json")
+            .shareConnections();
+
+    /**
+     * Random seeded users, optionally limited to the first {@code loadtest.credentialPool}
+     * so a storm can be made to hit the same accounts repeatedly.
+     */
+    protected static Iterator<Map<String, Object>> seededUsers() {
+        int pool = Math.min(LoadTestSettings.intProperty("loadtest.credentialPool", 10_000),
+                LoadTestSettings.intProperty("loadtest.seedUsers", 100_000));
+        return Stream.generate(() -> Map.<String, Object>of(
+                        "email", Seeder.userEmail(ThreadLocalRandom.current().nextInt(1, pool + 1)),
+                        "password", Seeder.PASSWORD))
+                .iterator();
+    }
+
+    /**
+     * Signs in with {@code #{email}} / {@code #{password}} and stores the tokens in the session.
+     */
+    protected static ChainBuilder signIn(String requestName) {
+        return exec(http(requestName)
+                .post("/v1/api/auth/signin")
+                .body(StringBody("{\"email\":\"#{email}\",\"password\":\"#{password}\"}"))
+                .check(status().is(200))
+                .check(jmesPath("data.accessToken").saveAs("accessToken"))
+                .check(jmesPath("data.refreshToken").saveAs("refreshToken")));
+    }
+
+    @Override
+    public void after() {
+        backend.release();
+    }
+}
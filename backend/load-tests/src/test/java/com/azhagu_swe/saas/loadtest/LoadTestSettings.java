@@ -0,0 +1,21 @@
+package com.azhagu_swe.saas.loadtest;
+
+import java.time.Duration;
+
+/**
+ * Reads scenario knobs from system properties, e.g. {@code -Dloadtest.signin.peakRps=200}.
+ */
+public final class LoadTestSettings {
+
+    private LoadTestSettings() {
+    }
+
+    public static int intProperty(String name, int defaultValue) {
+        String value = System.getProperty(name);
+        return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    public static Duration secondsProperty(String name, int defaultSeconds) {
+        return Duration.ofSeconds(intProperty(name, defaultSeconds));
+    }
+}
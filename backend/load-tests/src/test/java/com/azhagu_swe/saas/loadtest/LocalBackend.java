@@ -0,0 +1,263 @@
+package com.azhagu_swe.saas.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boots the backend under test: an embedded Postgres, auth-service and the
+ * api-gateway, each service as its own JVM running the packaged jar.
+ * <p>
+ * Set {@code -Dloadtest.baseUrl=http://host:port} to point the simulations at an
+ * already running gateway instead; nothing is started or seeded in that case.
+ * <p>
+ * The services run with Eureka and the config server disabled, a static gateway
+ * route to auth-service, and rate limits raised far above the offered load, so the
+ * numbers measure the request path and not the limiter.
+ */
+public final class LocalBackend {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+    private static final String JWT_SECRET =
+            "load-test-secret-load-test-secret-load-test-secret-load-test-secret-0123456789";
+    private static final Path LOG_DIR = Path.of("target", "loadtest-logs");
+    // Overridable for an external gateway whose actuator password differs
+    private static final String ACTUATOR_PASSWORD = System.getProperty("loadtest.actuatorPassword", "load-test");
+
+    private static LocalBackend instance;
+
+    private final String baseUrl;
+    private EmbeddedPostgres postgres;
+    private Process authService;
+    private Process gateway;
+    private int authServicePort;
+    private int references;
+
+    private LocalBackend(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * Starts the backend on first use and returns the shared instance. Each caller
+     * must pair this with {@link #release()}.
+     */
+    public static synchronized LocalBackend acquire() {
+        if (instance == null) {
+            String external = System.getProperty("loadtest.baseUrl");
+            instance = external != null ? new LocalBackend(external) : startLocal();
+        }
+        instance.references++;
+        return instance;
+    }
+
+    public String baseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Authorization header for the gateway's protected actuator endpoints.
+     */
+    public String actuatorAuthorization() {
+        return "Basic " + Base64.getEncoder()
+                .encodeToString(("actuator:" + ACTUATOR_PASSWORD).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Stops the local processes once the last simulation using them has finished.
+     */
+    public synchronized void release() {
+        if (--references > 0) {
+            return;
+        }
+        stopProcess(gateway);
+        stopProcess(authService);
+        if (postgres != null) {
+            try {
+                postgres.close();
+            } catch (IOException e) {
+                System.err.println("Failed to stop embedded Postgres: " + e.getMessage());
+            }
+        }
+        synchronized (LocalBackend.class) {
+            instance = null;
+        }
+    }
+
+    private static LocalBackend startLocal() {
+        try {
+            Files.createDirectories(LOG_DIR);
+            EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+            String jdbcUrl = postgres.getJdbcUrl("postgres", "postgres");
+
+            int authPort = freePort();
+            int gatewayPort = freePort();
+            LocalBackend backend = new LocalBackend("http://localhost:" + gatewayPort);
+            backend.postgres = postgres;
+            backend.authServicePort = authPort;
+
+            // First boot creates the schema; the seed then goes in and auth-service is
+            // restarted so its in-memory indexes warm from the seeded data.
+            backend.authService = backend.startAuthService(jdbcUrl);
+            new Seeder(postgres.getPostgresDatabase()).seed(
+                    LoadTestSettings.intProperty("loadtest.seedUsers", 100_000));
+            stopProcess(backend.authService);
+            backend.authService = backend.startAuthService(jdbcUrl);
+
+            backend.gateway = startService("api-gateway", jarPath("loadtest.gatewayJar", "api-gateway"),
+                    gatewayPort, List.of(
+                            "--spring.cloud.gateway.routes[0].id=auth-service-route",
+                            "--spring.cloud.gateway.routes[0].uri=http://localhost:" + authPort,
+                            "--spring.cloud.gateway.routes[0].predicates[0]=Path=/v1/api/auth/**,/v1/api/users/**",
+                            "--spring.cloud.gateway.routes[0].filters[0]=JwtAuthentication",
+                            // Gives the static route the same per-service pool an lb:// route would get
+                            "--spring.cloud.gateway.routes[0].metadata.downstream-service=auth-service",
+                            "--app.downstream.services.auth-service.protocol="
+                                    + System.getProperty("loadtest.transport", "HTTP11"),
+                            "--management.endpoints.web.exposure.include=health,metrics",
+                            "--app.actuator.password={noop}" + ACTUATOR_PASSWORD,
+                            "--app.cors.allowedOrigins=http://localhost:3000",
+                            "--app.cors.allowedMethods=GET,POST,PUT,DELETE",
+                            "--app.cors.allowedHeaders=*"));
+            return backend;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start the local backend", e);
+        }
+    }
+
+    private Process startAuthService(String jdbcUrl) {
+        List<String> args = new ArrayList<>(List.of(
+                        "--spring.datasource.url=" + jdbcUrl,
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=postgres",
+                        // The baseline migrations live outside this repository, so the
+                        // load-test schema is generated from the entities instead.
+                        "--spring.flyway.enabled=false",
+                        "--spring.jpa.hibernate.ddl-auto=update",
+                        "--saas.app.jwtExpirationMs=900000",
+                        "--saas.app.refreshExpirationMs=86400000",
+                        "--app.frontend.resetPasswordUrl=http://localhost:3000/reset-password?token=",
+                        "--spring.mail.host=localhost",
+                        // No SMTP server or Redis runs here (lockout and revocation use the
+                        // in-memory stores), so their health checks would keep the service DOWN
+                        "--management.health.mail.enabled=false",
+                        "--management.health.redis.enabled=false",
+                        "--app.rate-limit.auth=100000000",
+                        "--app.rate-limit.api=100000000"));
+        // Comma-separated, as the Gatling fork quotes values containing spaces, e.g.
+        // -Dloadtest.authServiceArgs=--app.threads.virtual.enabled=true,--server.tomcat.threads.max=20
+        String extra = System.getProperty("loadtest.authServiceArgs", "").trim();
+        if (!extra.isEmpty()) {
+            args.addAll(List.of(extra.split(",")));
+        }
+        return startService("auth-service", jarPath("loadtest.authServiceJar", "auth-service"), authServicePort, args);
+    }
+
+    private static Process startService(String name, Path jar, int port, List<String> extraArgs) {
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException(name + " jar not found at " + jar.toAbsolutePath()
+                    + ". Build it first: mvn -pl auth-service,api-gateway package -DskipTests");
+        }
+        List<String> command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Xmx" + System.getProperty("loadtest.serviceHeap", "1g"),
+                "-jar", jar.toString(),
+                "--server.port=" + port,
+                "--spring.cloud.config.enabled=false",
+                "--eureka.client.enabled=false",
+                "--management.tracing.enabled=false",
+                "--saas.app.jwtSecret=" + JWT_SECRET,
+                "--saas.identity.secret=" + JWT_SECRET,
+                "--saas.identity.authorities=ROLE_SUPERADMIN,ROLE_STANDARDUSER,"
+                        + Seeder.ADMIN_LIST_PERMISSION));
+        command.addAll(extraArgs);
+        try {
+            Process process = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(LOG_DIR.resolve(name + ".log").toFile())
+                    .start();
+            awaitHealthy(name, process, port);
+            return process;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not launch " + name, e);
+        }
+    }
+
+    private static void awaitHealthy(String name, Process process, int port) {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " exited during startup, see " + LOG_DIR.resolve(name + ".log"));
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for " + name, e);
+            }
+            sleep(Duration.ofMillis(500));
+        }
+        process.destroyForcibly();
+        throw new IllegalStateException(name + " did not become healthy within " + STARTUP_TIMEOUT);
+    }
+
+    private static void stopProcess(Process process) {
+        if (process == null) {
+            return;
+        }
+        process.destroy();
+        try {
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Path jarPath(String property, String module) {
+        String configured = System.getProperty(property);
+        if (configured != null) {
+            return Path.of(configured);
+        }
+        // Run from backend/ with -pl load-tests, or from load-tests itself
+        Path fromBackend = Path.of(module, "target", "app.jar");
+        return Files.isRegularFile(fromBackend) ? fromBackend : Path.of("..", module, "target", "app.jar");
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted", e);
+        }
+    }
+}
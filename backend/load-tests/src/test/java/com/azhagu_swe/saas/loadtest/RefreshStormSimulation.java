@@ -0,0 +1,60 @@
+package com.azhagu_swe.saas.loadtest;
+
+import io.gatling.javaapi.core.ScenarioBuilder;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static io.gatling.javaapi.core.CoreDsl.StringBody;
+import static io.gatling.javaapi.core.CoreDsl.details;
+import static io.gatling.javaapi.core.CoreDsl.exec;
+import static io.gatling.javaapi.core.CoreDsl.feed;
+import static io.gatling.javaapi.core.CoreDsl.global;
+import static io.gatling.javaapi.core.CoreDsl.jmesPath;
+import static io.gatling.javaapi.core.CoreDsl.rampUsers;
+import static io.gatling.javaapi.core.CoreDsl.repeat;
+import static io.gatling.javaapi.core.CoreDsl.scenario;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+/**
+ * Refresh-token storm at the top of the hour: clients sign in over a ramp, then all
+ * of their access tokens expire together and every client rotates its refresh token
+ * at the same instant, then keeps rotating on a short interval.
+ * <p>
+ * Knobs: {@code loadtest.refresh.clients} (default 1000), {@code loadtest.refresh.rampSeconds}
+ * (60), {@code loadtest.refresh.rotations} (3), {@code loadtest.refresh.intervalSeconds} (5).
+ */
+public class RefreshStormSimulation extends BackendSimulation {
+
+    private final int clients = LoadTestSettings.intProperty("loadtest.refresh.clients", 1_000);
+    private final Duration ramp = LoadTestSettings.secondsProperty("loadtest.refresh.rampSeconds", 60);
+    private final int rotations = LoadTestSettings.intProperty("loadtest.refresh.rotations", 3);
+    private final Duration interval = LoadTestSettings.secondsProperty("loadtest.refresh.intervalSeconds", 5);
+
+    // Everyone waits for the same wall-clock instant, a few seconds after the last sign-in
+    private final Instant stormAt = Instant.now().plus(ramp).plusSeconds(5);
+
+    private final ScenarioBuilder refreshStorm = scenario("Refresh storm")
+            .exec(feed(seededUsers()))
+            .group("setup").on(signIn("sign in"))
+            .pause(session -> {
+                Duration untilStorm = Duration.between(Instant.now(), stormAt);
+                return untilStorm.isNegative() ? Duration.ZERO : untilStorm;
+            })
+            .group("storm").on(repeat(rotations).on(
+                    exec(http("refresh token")
+                            .post("/v1/api/auth/refresh-token")
+                            .body(StringBody("{\"refreshToken\":\"#{refreshToken}\"}"))
+                            .check(status().is(200))
+                            .check(jmesPath("data.refreshToken").saveAs("refreshToken")))
+                            .pause(interval)));
+
+    {
+        setUp(refreshStorm.injectOpen(rampUsers(clients).during(ramp)))
+                .protocols(httpProtocol)
+                .assertions(
+                        global().failedRequests().percent().lt(1.0),
+                        details("storm").failedRequests().percent().lt(1.0));
+    }
+}
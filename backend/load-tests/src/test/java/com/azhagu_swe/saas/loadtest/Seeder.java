@@ -0,0 +1,91 @@
+package com.azhagu_swe.saas.loadtest;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Seeds the load-test database directly over JDBC: the roles and permission the
+ * scenarios need, one admin account, and a large table of verified standard users.
+ * <p>
+ * Every seeded user shares one password, hashed once up front, so seeding a large
+ * table does not cost one BCrypt round per row. All users belong to the
+ * {@code default} tenant, which requests without an {@code X-Tenant-ID} header act for.
+ */
+final class Seeder {
+
+    static final String PASSWORD = "LoadTest#2024";
+    static final String ADMIN_EMAIL = "loadadmin@loadtest.local";
+    static final String ADMIN_LIST_PERMISSION = "PERMISSION_SYSTEM_USER_READ_ANY_LIST";
+
+    private final DataSource dataSource;
+
+    Seeder(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Emails of seeded users, 1-based: {@code loaduser1@loadtest.local} ... {@code loaduser<n>@loadtest.local}.
+     */
+    static String userEmail(int index) {
+        return "loaduser" + index + "@loadtest.local";
+    }
+
+    void seed(int userCount) {
+        String passwordHash = new BCryptPasswordEncoder().encode(PASSWORD);
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("INSERT INTO permissions (name, description, created_at, updated_at) "
+                        + "VALUES ('" + ADMIN_LIST_PERMISSION + "', 'List all users', now(), now()) "
+                        + "ON CONFLICT (name) DO NOTHING");
+                statement.execute("INSERT INTO roles (name, created_at, updated_at) "
+                        + "VALUES ('StandardUser', now(), now()), ('SuperAdmin', now(), now()) "
+                        + "ON CONFLICT (name) DO NOTHING");
+                statement.execute("INSERT INTO role_permissions (role_id, permission_id) "
+                        + "SELECT r.id, p.id FROM roles r, permissions p "
+                        + "WHERE r.name = 'SuperAdmin' AND p.name = '" + ADMIN_LIST_PERMISSION + "' "
+                        + "ON CONFLICT DO NOTHING");
+            }
+
+            try (PreparedStatement users = connection.prepareStatement(
+                    "INSERT INTO users (id, tenant_id, first_name, last_name, username, email, password, "
+                            + "is_verified, created_at, updated_at) "
+                            + "SELECT gen_random_uuid(), 'default', 'Load', 'User' || g, 'loaduser' || g, "
+                            + "'loaduser' || g || '@loadtest.local', ?, true, now(), now() "
+                            + "FROM generate_series(1, ?) g ON CONFLICT DO NOTHING")) {
+                users.setString(1, passwordHash);
+                users.setInt(2, userCount);
+                users.executeUpdate();
+            }
+            try (PreparedStatement admin = connection.prepareStatement(
+                    "INSERT INTO users (id, tenant_id, first_name, last_name, username, email, password, "
+                            + "is_verified, created_at, updated_at) "
+                            + "VALUES (gen_random_uuid(), 'default', 'Load', 'Admin', 'loadadmin', ?, ?, true, now(), now()) "
+                            + "ON CONFLICT DO NOTHING")) {
+                admin.setString(1, ADMIN_EMAIL);
+                admin.setString(2, passwordHash);
+                admin.executeUpdate();
+            }
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("INSERT INTO user_roles (user_id, role_id) "
+                        + "SELECT u.id, r.id FROM users u, roles r "
+                        + "WHERE r.name = 'StandardUser' AND u.username LIKE 'loaduser%' "
+                        + "ON CONFLICT DO NOTHING");
+                statement.execute("INSERT INTO user_roles (user_id, role_id) "
+                        + "SELECT u.id, r.id FROM users u, roles r "
+                        + "WHERE r.name = 'SuperAdmin' AND u.username = 'loadadmin' "
+                        + "ON CONFLICT DO NOTHING");
+                statement.execute("ANALYZE users");
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to seed the load-test database", e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.azhagu_swe.saas.loadtest;
+
+import io.gatling.javaapi.core.ScenarioBuilder;
+
+import java.time.Duration;
+
+import static io.gatling.javaapi.core.CoreDsl.constantUsersPerSec;
+import static io.gatling.javaapi.core.CoreDsl.feed;
+import static io.gatling.javaapi.core.CoreDsl.global;
+import static io.gatling.javaapi.core.CoreDsl.nothingFor;
+import static io.gatling.javaapi.core.CoreDsl.rampUsersPerSec;
+import static io.gatling.javaapi.core.CoreDsl.scenario;
+
+/**
+ * Sign-in storm after a deploy: every client's session is gone at once, so sign-ins
+ * climb steeply to a peak and stay there. BCrypt dominates this path.
+ * <p>
+ * Knobs: {@code loadtest.signin.peakRps} (default 50), {@code loadtest.signin.rampSeconds}
+ * (10), {@code loadtest.signin.durationSeconds} (60).
+ */
+public class SignInStormSimulation extends BackendSimulation {
+
+    private final int peakRps = LoadTestSettings.intProperty("loadtest.signin.peakRps", 50);
+    private final Duration ramp = LoadTestSettings.secondsProperty("loadtest.signin.rampSeconds", 10);
+    private final Duration duration = LoadTestSettings.secondsProperty("loadtest.signin.durationSeconds", 60);
+
+    private final ScenarioBuilder signInStorm = scenario("Sign-in storm")
+            .exec(feed(seededUsers()))
+            .exec(signIn("sign in"));
+
+    {
+        setUp(signInStorm.injectOpen(
+                nothingFor(Duration.ofSeconds(1)),
+                rampUsersPerSec(1).to(peakRps).during(ramp),
+                constantUsersPerSec(peakRps).during(duration)))
+                .protocols(httpProtocol)
+                .assertions(global().failedRequests().percent().lt(1.0));
+    }
+}
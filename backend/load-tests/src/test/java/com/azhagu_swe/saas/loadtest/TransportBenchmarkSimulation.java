@@ -0,0 +1,95 @@
+package com.azhagu_swe.saas.loadtest;
+
+import io.gatling.javaapi.core.OpenInjectionStep;
+import io.gatling.javaapi.core.ScenarioBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static io.gatling.javaapi.core.CoreDsl.constantUsersPerSec;
+import static io.gatling.javaapi.core.CoreDsl.exec;
+import static io.gatling.javaapi.core.CoreDsl.global;
+import static io.gatling.javaapi.core.CoreDsl.scenario;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+/**
+ * Gateway-to-service transport comparison: alternating bursts and lulls of cheap
+ * proxied requests, so the pool has to grow for each burst and may shrink in
+ * between. Run once per mode and compare the tail latency and the number of
+ * connections the gateway opened towards auth-service:
+ * <pre>
+ * -Dloadtest.transport=HTTP11   (one connection per concurrent request)
+ * -Dloadtest.transport=H2C      (requests multiplexed over a few connections)
+ * </pre>
+ * The connection counts are read from the gateway's
+ * {@code gateway.downstream.connections} meter when the run ends.
+ * <p>
+ * Knobs: {@code loadtest.transport.burstRps} (default 400), {@code loadtest.transport.lullRps}
+ * (20), {@code loadtest.transport.phaseSeconds} (5), {@code loadtest.transport.cycles} (12).
+ */
+public class TransportBenchmarkSimulation extends BackendSimulation {
+
+    private static final Pattern MEASUREMENT_VALUE = Pattern.compile("\"value\"\\s*:\\s*([0-9.Ee+-]+)");
+
+    private final int burstRps = LoadTestSettings.intProperty("loadtest.transport.burstRps", 400);
+    private final int lullRps = LoadTestSettings.intProperty("loadtest.transport.lullRps", 20);
+    private final Duration phase = LoadTestSettings.secondsProperty("loadtest.transport.phaseSeconds", 5);
+    private final int cycles = LoadTestSettings.intProperty("loadtest.transport.cycles", 12);
+
+    private final ScenarioBuilder proxiedLookups = scenario("Transport " + System.getProperty("loadtest.transport", "HTTP11"))
+            .exec(session -> session.set("name", "probe" + ThreadLocalRandom.current().nextInt(1_000_000)))
+            .exec(http("check username")
+                    .get("/v1/api/auth/check-username")
+                    .queryParam("username", "#{name}")
+                    .check(status().is(200)));
+
+    {
+        List<OpenInjectionStep> steps = new ArrayList<>();
+        for (int i = 0; i < cycles; i++) {
+            steps.add(constantUsersPerSec(burstRps).during(phase));
+            steps.add(constantUsersPerSec(lullRps).during(phase));
+        }
+        setUp(proxiedLookups.injectOpen(steps))
+                .protocols(httpProtocol)
+                .assertions(global().failedRequests().percent().lt(1.0));
+    }
+
+    @Override
+    public void after() {
+        try {
+            System.out.printf("Gateway -> auth-service connections (%s): opened=%s closed=%s%n",
+                    System.getProperty("loadtest.transport", "HTTP11"),
+                    connectionCount("opened"), connectionCount("closed"));
+        } finally {
+            super.after();
+        }
+    }
+
+    private String connectionCount(String event) {
+        URI uri = URI.create(backend.baseUrl() + "/actuator/metrics/gateway.downstream.connections"
+                + "?tag=service:auth-service&tag=event:" + event);
+        try {
+            HttpResponse<String> response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(5))
+                            .header("Authorization", backend.actuatorAuthorization()).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            Matcher matcher = MEASUREMENT_VALUE.matcher(response.body());
+            return response.statusCode() == 200 && matcher.find() ? matcher.group(1) : "n/a";
+        } catch (IOException e) {
+            return "n/a";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "n/a";
+        }
+    }
+}
@@ -0,0 +1,35 @@
+#!/bin/sh
+# Starts a module built by startup/Dockerfile.
+#
+# STARTUP_MODE:
+#   cds              (default) AOT + the AppCDS archive from the image build
+#   aot              AOT only
+#   plain            neither; the baseline for comparisons
+#   crac-checkpoint  CRaC JDK only: start, checkpoint to $CRAC_DIR after refresh, exit
+#   crac-restore     CRaC JDK only: restore from $CRAC_DIR
+#
+# APP_AOT=false (set by the image for modules built without AOT) leaves AOT off in every mode.
+set -e
+cd /app/unpacked
+CP="$(cat /app/classpath.txt)"
+MAIN="$(cat /app/main-class.txt)"
+CRAC_DIR="${CRAC_DIR:-/app/crac}"
+AOT="${APP_AOT:-true}"
+
+case "${STARTUP_MODE:-cds}" in
+  cds)
+    exec java -XX:SharedArchiveFile=/app/app.jsa -Dspring.aot.enabled="$AOT" $JAVA_OPTS -cp "$CP" "$MAIN" "$@" ;;
+  aot)
+    exec java -Dspring.aot.enabled="$AOT" $JAVA_OPTS -cp "$CP" "$MAIN" "$@" ;;
+  plain)
+    exec java $JAVA_OPTS -cp "$CP" "$MAIN" "$@" ;;
+  crac-checkpoint)
+    # Needs CAP_CHECKPOINT_RESTORE (or --privileged) and Spring Framework 6.1+
+    exec java -XX:CRaCCheckpointTo="$CRAC_DIR" -Dspring.context.checkpoint=onRefresh \
+        -Dspring.aot.enabled="$AOT" $JAVA_OPTS -cp "$CP" "$MAIN" "$@" ;;
+  crac-restore)
+    exec java -XX:CRaCRestoreFrom="$CRAC_DIR" $JAVA_OPTS ;;
+  *)
+    echo "Unknown STARTUP_MODE: $STARTUP_MODE" >&2
+    exit 2 ;;
+esac
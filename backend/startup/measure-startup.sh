@@ -0,0 +1,134 @@
+#!/usr/bin/env bash
+# Measures cold-start time of every backend module in each startup mode and writes
+# startup/startup-report.md.
+#
+# Usage (from backend/, after `mvn -P fast-startup package -DskipTests` in each module):
+#   startup/measure-startup.sh [runs]
+#
+# Modes: plain (java -jar equivalent), aot (-Dspring.aot.enabled=true), cds (AOT plus an
+# AppCDS archive from a training run) and, for api-gateway, native when
+# api-gateway/target/api-gateway exists (mvn -P native native:compile). discovery-server
+# and auth-service are built without AOT, so they get plain and cds only.
+#
+# The services need their usual dependencies (Postgres, Eureka, config server). Pass
+# per-module arguments through <MODULE>_ARGS, e.g.
+#   AUTH_SERVICE_ARGS="--spring.datasource.url=jdbc:postgresql://localhost:5432/auth_db ..."
+#   API_GATEWAY_ARGS="--spring.cloud.config.enabled=false --eureka.client.enabled=false"
+#
+# The figure recorded is Spring Boot's "process running for" value at the
+# "Started ..." log line: JVM start to a ready context, including Flyway/Hibernate.
+set -euo pipefail
+
+RUNS="${1:-5}"
+TIMEOUT_SECONDS=180
+cd "$(dirname "$0")/.."
+WORK=startup/target
+REPORT=startup/startup-report.md
+MODULES=(discovery-server config-server auth-service api-gateway)
+# Eureka Server does not support Spring AOT; auth-service's Envers repositories break under it
+NO_AOT_MODULES=" discovery-server auth-service "
+mkdir -p "$WORK"
+
+module_args() {
+  local var
+  var="$(echo "$1" | tr 'a-z-' 'A-Z_')_ARGS"
+  echo "${!var:-}"
+}
+
+unpack() {
+  local module=$1 dir="$WORK/$1"
+  rm -rf "$dir" && mkdir -p "$dir/unpacked"
+  local jar
+  # Some modules also keep the plain jar next to the executable one; take the larger
+  jar="$(ls -S "$module"/target/*.jar | head -n 1)"
+  (cd "$dir/unpacked" && jar -xf "../../../../$jar")
+  # CDS refuses non-empty directories on the classpath, so the classes go into a jar too
+  (cd "$dir/unpacked" && jar -cf application.jar -C BOOT-INF/classes .)
+  (cd "$dir/unpacked" && (echo application.jar; ls BOOT-INF/lib/*.jar | sort) | paste -sd: -) > "$dir/classpath.txt"
+  sed -n 's/^Start-Class: *//p' "$dir/unpacked/META-INF/MANIFEST.MF" | tr -d '\r' > "$dir/main-class.txt"
+}
+
+# Runs one start and prints the seconds reported at "Started ...", or "fail".
+time_one() {
+  local log=$1; shift
+  "$@" > "$log" 2>&1 &
+  local pid=$! waited=0
+  while ! grep -q "Started .* in .* seconds" "$log"; do
+    if ! kill -0 "$pid" 2>/dev/null || [ "$waited" -ge $((TIMEOUT_SECONDS * 10)) ]; then
+      kill "$pid" 2>/dev/null || true
+      echo fail
+      return
+    fi
+    sleep 0.1
+    waited=$((waited + 1))
+  done
+  kill "$pid" 2>/dev/null || true
+  wait "$pid" 2>/dev/null || true
+  sed -n 's/.*Started .* (process running for \([0-9.]*\)).*/\1/p' "$log" | head -n 1
+}
+
+# Prints "median | min | max" over RUNS starts of the given command.
+measure() {
+  local label=$1; shift
+  local results=() i value
+  for ((i = 1; i <= RUNS; i++)); do
+    value="$(time_one "$WORK/$label-$i.log" "$@")"
+    if [ "$value" = fail ]; then
+      echo "failed (see $WORK/$label-$i.log)"
+      return
+    fi
+    results+=("$value")
+  done
+  printf '%s\n' "${results[@]}" | sort -n | awk '{ v[NR] = $1 } END {
+    m = (NR % 2) ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2
+    printf "%.2f s | %.2f s | %.2f s\n", m, v[1], v[NR] }'
+}
+
+{
+  echo "# Startup Report"
+  echo
+  echo "Generated by \`startup/measure-startup.sh\` on $(date -u +%Y-%m-%dT%H:%M:%SZ), $(uname -srm), $(java -version 2>&1 | head -n 1)."
+  echo "$RUNS cold starts per cell; time to Spring Boot's \"Started\" line (JVM uptime)."
+  echo
+  echo "| Module | Mode | Median | Min | Max |"
+  echo "|---|---|---|---|---|"
+} > "$REPORT"
+
+for module in "${MODULES[@]}"; do
+  unpack "$module"
+  dir="$WORK/$module"
+  # shellcheck disable=SC2206
+  args=($(module_args "$module"))
+  cp_="$(cat "$dir/classpath.txt")"
+  main="$(cat "$dir/main-class.txt")"
+  # Always called in a subshell (time_one starts it in the background), so the exec
+  # makes the recorded pid the JVM itself and the kill after each start reaches it
+  run() { cd "$dir/unpacked" && exec java "$@" -cp "$cp_" "$main" "${args[@]}"; }
+
+  aot=true cds_label="aot + cds"
+  if [[ "$NO_AOT_MODULES" == *" $module "* ]]; then
+    aot=false cds_label=cds
+  fi
+
+  echo "| $module | plain | $(measure "$module-plain" run) |" >> "$REPORT"
+  if [ "$aot" = true ]; then
+    echo "| $module | aot | $(measure "$module-aot" run -Dspring.aot.enabled=true) |" >> "$REPORT"
+  fi
+
+  # Training run for the CDS archive; auth-service (Framework 6.0) honours the
+  # property through TrainingRunExitListener.
+  rm -f "$dir/app.jsa"
+  (run -XX:ArchiveClassesAtExit="$PWD/$dir/app.jsa" -Dspring.aot.enabled="$aot" \
+      -Dspring.context.exit=onRefresh) > "$WORK/$module-training.log" 2>&1 || true
+  if [ -f "$dir/app.jsa" ]; then
+    echo "| $module | $cds_label | $(measure "$module-cds" run -XX:SharedArchiveFile="$PWD/$dir/app.jsa" -Dspring.aot.enabled="$aot") |" >> "$REPORT"
+  else
+    echo "| $module | $cds_label | training run failed (see $WORK/$module-training.log) | | |" >> "$REPORT"
+  fi
+
+  if [ "$module" = api-gateway ] && [ -x api-gateway/target/api-gateway ]; then
+    echo "| $module | native | $(measure "$module-native" api-gateway/target/api-gateway "${args[@]}") |" >> "$REPORT"
+  fi
+done
+
+echo "Wrote $REPORT"
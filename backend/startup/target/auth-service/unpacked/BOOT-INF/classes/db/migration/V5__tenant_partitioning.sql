@@ -0,0 +1,101 @@
+-- Tenant dimension for users and the token tables, each partitioned by tenant_id:
+--
+--   <table>                  PARTITION BY LIST (tenant_id)
+--     <table>_shared         DEFAULT partition, PARTITION BY HASH (tenant_id)
+--       <table>_shared_0..7
+--
+-- Every tenant starts in the shared hash partitions. A tenant big enough to crowd
+-- the others can be moved to a list partition of its own (HELP.MD, "Tenants").
+--
+-- Postgres only allows unique keys on partitioned tables that include the
+-- partition key, so email and username become unique per tenant, and foreign
+-- keys to users go through (tenant_id, user_id). user_roles has no tenant_id and
+-- loses its foreign key to users; Hibernate deletes a user's user_roles rows
+-- together with the user. All existing rows belong to the 'default' tenant.
+
+ALTER TABLE users ADD COLUMN tenant_id VARCHAR(63) NOT NULL DEFAULT 'default';
+ALTER TABLE refresh_tokens ADD COLUMN tenant_id VARCHAR(63) NOT NULL DEFAULT 'default';
+ALTER TABLE password_reset_tokens ADD COLUMN tenant_id VARCHAR(63) NOT NULL DEFAULT 'default';
+
+-- Foreign keys pointing at users would keep the old table alive; they are recreated below
+DO $$
+DECLARE
+    fk RECORD;
+BEGIN
+    FOR fk IN
+        SELECT conrelid::regclass AS table_name, conname
+        FROM pg_constraint
+        WHERE contype = 'f' AND confrelid = 'users'::regclass
+    LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', fk.table_name, fk.conname);
+    END LOOP;
+END
+$$;
+
+-- Moves a table's rows into a new partitioned table of the same name and columns.
+-- The old table is left as <table>_unpartitioned for the caller to drop.
+CREATE FUNCTION pg_temp.partition_by_tenant(table_name TEXT, shared_partitions INT) RETURNS VOID AS $$
+DECLARE
+    old_table TEXT := table_name || '_unpartitioned';
+    shared_table TEXT := table_name || '_shared';
+BEGIN
+    EXECUTE format('ALTER TABLE %I RENAME TO %I', table_name, old_table);
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS) PARTITION BY LIST (tenant_id)',
+                   table_name, old_table);
+    EXECUTE format('CREATE TABLE %I PARTITION OF %I DEFAULT PARTITION BY HASH (tenant_id)',
+                   shared_table, table_name);
+    FOR i IN 0 .. shared_partitions - 1 LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES WITH (MODULUS %s, REMAINDER %s)',
+                       shared_table || '_' || i, shared_table, shared_partitions, i);
+    END LOOP;
+    EXECUTE format('INSERT INTO %I SELECT * FROM %I', table_name, old_table);
+END
+$$ LANGUAGE plpgsql;
+
+-- Token IDs come from a sequence owned by the new table. The old serial or identity
+-- sequence is dropped with the old table.
+CREATE FUNCTION pg_temp.move_id_sequence(table_name TEXT) RETURNS VOID AS $$
+DECLARE
+    sequence_name TEXT := table_name || '_tenant_id_seq';
+BEGIN
+    EXECUTE format('CREATE SEQUENCE %I', sequence_name);
+    EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET DEFAULT nextval(%L)', table_name, sequence_name);
+    EXECUTE format('SELECT setval(%L, COALESCE((SELECT max(id) FROM %I), 0) + 1, false)',
+                   sequence_name, table_name);
+    EXECUTE format('ALTER SEQUENCE %I OWNED BY %I.id', sequence_name, table_name);
+END
+$$ LANGUAGE plpgsql;
+
+SELECT pg_temp.partition_by_tenant('users', 8);
+SELECT pg_temp.partition_by_tenant('refresh_tokens', 8);
+SELECT pg_temp.partition_by_tenant('password_reset_tokens', 8);
+
+SELECT pg_temp.move_id_sequence('refresh_tokens');
+SELECT pg_temp.move_id_sequence('password_reset_tokens');
+
+-- The application always sets the token's tenant from its user
+ALTER TABLE refresh_tokens ALTER COLUMN tenant_id DROP DEFAULT;
+ALTER TABLE password_reset_tokens ALTER COLUMN tenant_id DROP DEFAULT;
+
+DROP TABLE refresh_tokens_unpartitioned;
+DROP TABLE password_reset_tokens_unpartitioned;
+DROP TABLE users_unpartitioned;
+
+ALTER TABLE users ADD CONSTRAINT users_pkey PRIMARY KEY (tenant_id, id);
+ALTER TABLE users ADD CONSTRAINT uk_users_tenant_email UNIQUE (tenant_id, email);
+ALTER TABLE users ADD CONSTRAINT uk_users_tenant_username UNIQUE (tenant_id, username);
+-- Loads by ID alone (lazy associations, bulk role assignment) probe each partition's index
+CREATE INDEX idx_users_id ON users (id);
+
+ALTER TABLE refresh_tokens ADD CONSTRAINT refresh_tokens_pkey PRIMARY KEY (tenant_id, id);
+CREATE UNIQUE INDEX idx_refresh_token_token ON refresh_tokens (tenant_id, token);
+CREATE INDEX idx_refresh_token_user_id ON refresh_tokens (user_id);
+CREATE INDEX idx_refresh_token_family_id ON refresh_tokens (family_id);
+ALTER TABLE refresh_tokens ADD CONSTRAINT fk_refresh_tokens_user
+    FOREIGN KEY (tenant_id, user_id) REFERENCES users (tenant_id, id);
+
+ALTER TABLE password_reset_tokens ADD CONSTRAINT password_reset_tokens_pkey PRIMARY KEY (tenant_id, id);
+CREATE UNIQUE INDEX idx_pwd_reset_token_token ON password_reset_tokens (tenant_id, token);
+CREATE INDEX idx_pwd_reset_token_user_id ON password_reset_tokens (user_id);
+ALTER TABLE password_reset_tokens ADD CONSTRAINT fk_password_reset_tokens_user
+    FOREIGN KEY (tenant_id, user_id) REFERENCES users (tenant_id, id);
@@ -0,0 +1,39 @@
+-- Append-only audit trail, range-partitioned by month on occurred_at:
+--
+--   audit_events                 PARTITION BY RANGE (occurred_at)
+--     audit_events_yYYYYmMM      one per month, created ahead by AuditPartitionMaintainer
+--     audit_events_default       DEFAULT partition, only used if a month was not created in time
+--
+-- Old months are removed by dropping their partition (app.audit.retention-months);
+-- rows themselves can never be updated or deleted.
+
+CREATE TABLE audit_events (
+    id          BIGSERIAL    NOT NULL,
+    occurred_at TIMESTAMPTZ  NOT NULL,
+    tenant_id   VARCHAR(63),
+    entity_type VARCHAR(32)  NOT NULL,
+    entity_id   VARCHAR(64)  NOT NULL,
+    action      VARCHAR(16)  NOT NULL,
+    actor       VARCHAR(255) NOT NULL,
+    details     TEXT,
+    PRIMARY KEY (occurred_at, id)
+) PARTITION BY RANGE (occurred_at);
+
+CREATE TABLE audit_events_default PARTITION OF audit_events DEFAULT;
+
+-- One entity's history, newest first, continuing from a (occurred_at, id) cursor
+CREATE INDEX idx_audit_events_entity ON audit_events (entity_type, entity_id, occurred_at, id);
+
+CREATE FUNCTION audit_events_append_only() RETURNS TRIGGER AS $$
+BEGIN
+    RAISE EXCEPTION 'audit_events is append-only: % is not allowed', TG_OP;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER audit_events_no_update_or_delete
+    BEFORE UPDATE OR DELETE ON audit_events
+    FOR EACH ROW EXECUTE FUNCTION audit_events_append_only();
+
+CREATE TRIGGER audit_events_no_truncate
+    BEFORE TRUNCATE ON audit_events
+    FOR EACH STATEMENT EXECUTE FUNCTION audit_events_append_only();